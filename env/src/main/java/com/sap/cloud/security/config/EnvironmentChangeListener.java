@@ -0,0 +1,26 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.config;
+
+/**
+ * Gets notified, when the service bindings of a {@link ReloadableEnvironment}
+ * have changed, e.g. because the credentials of a mounted Kubernetes secret
+ * were rotated. Register it with
+ * {@link Environments#addChangeListener(EnvironmentChangeListener)}.
+ */
+@FunctionalInterface
+public interface EnvironmentChangeListener {
+
+	/**
+	 * Called on the thread that reloaded the environment, after the new service
+	 * configurations have been published. Use it to rebuild objects that depend
+	 * on the service configurations, e.g. token validators or token flows.
+	 *
+	 * @param environment
+	 *            the environment providing the new service configurations
+	 */
+	void onEnvironmentChange(Environment environment);
+}
@@ -10,8 +10,19 @@ import com.sap.cloud.security.config.k8s.K8sEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Scanner;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
 
 import static com.sap.cloud.security.config.k8s.K8sConstants.KUBERNETES_SERVICE_HOST;
@@ -19,12 +30,18 @@ import static com.sap.cloud.security.config.k8s.K8sConstants.KUBERNETES_SERVICE_
 /**
  * Central entry point to access the current SAP Cloud Platform
  * {@link Environment}.
+ * <p>
+ * The service bindings of the current environment are read once. Use
+ * {@link #watch(Duration)} to pick up rotated credentials at runtime and
+ * {@link #addChangeListener(EnvironmentChangeListener)} to get notified about
+ * them.
  */
 public class Environments {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(Environments.class);
-	private static Environment currentEnvironment;
+	static volatile Environment currentEnvironment;
 	private static UnaryOperator<String> environmentVariableReader = System::getenv;
+	private static final List<EnvironmentChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
 	private Environments() {
 		// use factoryMethods instead
@@ -62,13 +79,99 @@ public class Environments {
 	 * @return the environment
 	 */
 	public static Environment readFromInput(InputStream input) {
-		Scanner scanner = new Scanner(input);
-		StringBuilder vcapServices = new StringBuilder();
-		while (scanner.hasNext()) {
-			vcapServices.append(scanner.nextLine());
+		StringBuilder vcapServicesBuilder = new StringBuilder();
+		Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+		try {
+			char[] buffer = new char[8192];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				vcapServicesBuilder.append(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read VCAP_SERVICES from input", e);
+		}
+		String vcapServices = vcapServicesBuilder.toString();
+		return CFEnvironment.getInstance(str -> vcapServices);
+	}
+
+	/**
+	 * Periodically reloads the service bindings of the current environment, e.g.
+	 * the secrets mounted to a Kubernetes pod. When they have changed, the new
+	 * service configurations are published atomically and the registered
+	 * {@link EnvironmentChangeListener}s are notified. Polling is used instead of
+	 * a file system watch service, as rotated Kubernetes secrets are swapped via
+	 * symbolic links, which a watch service does not reliably report.
+	 *
+	 * @param interval
+	 *            the polling interval
+	 * @return handle to stop watching
+	 */
+	public static Closeable watch(Duration interval) {
+		if (interval == null || interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("interval must be positive");
+		}
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "service-binding-watcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(Environments::reloadSafely, interval.toMillis(), interval.toMillis(),
+				TimeUnit.MILLISECONDS);
+		return scheduler::shutdownNow;
+	}
+
+	/**
+	 * Registers a listener, that gets notified, when the service configurations of
+	 * the current environment have changed.
+	 *
+	 * @param listener
+	 *            the listener
+	 */
+	public static void addChangeListener(EnvironmentChangeListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("listener must not be null");
+		}
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener, that was registered with
+	 * {@link #addChangeListener(EnvironmentChangeListener)}.
+	 *
+	 * @param listener
+	 *            the listener
+	 */
+	public static void removeChangeListener(EnvironmentChangeListener listener) {
+		changeListeners.remove(listener);
+	}
+
+	/**
+	 * Reloads the service bindings of the current environment and notifies the
+	 * listeners, in case the service configurations have changed.
+	 *
+	 * @return true, if the service configurations have changed
+	 */
+	static boolean reload() {
+		Environment environment = getCurrent();
+		if (!(environment instanceof ReloadableEnvironment) || !((ReloadableEnvironment) environment).reload()) {
+			return false;
 		}
+		for (EnvironmentChangeListener listener : changeListeners) {
+			try {
+				listener.onEnvironmentChange(environment);
+			} catch (RuntimeException e) {
+				LOGGER.error("EnvironmentChangeListener {} failed", listener, e);
+			}
+		}
+		return true;
+	}
 
-		return CFEnvironment.getInstance(str -> vcapServices.toString());
+	private static void reloadSafely() {
+		try {
+			reload();
+		} catch (RuntimeException e) {
+			LOGGER.warn("Failed to reload service bindings, keeps the current service configurations", e);
+		}
 	}
 
 	private static boolean isK8sEnv() {
@@ -0,0 +1,25 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.config;
+
+/**
+ * {@link Environment} whose service configurations can be read again from the
+ * service bindings at runtime. The configurations are held as an immutable
+ * snapshot, that is replaced atomically: a reader either sees all previous or
+ * all new service configurations.
+ *
+ * @see Environments#watch(java.time.Duration)
+ */
+public interface ReloadableEnvironment extends Environment {
+
+	/**
+	 * Reads the service bindings again and publishes the new service
+	 * configurations, in case they have changed.
+	 *
+	 * @return true, if the service configurations have changed
+	 */
+	boolean reload();
+}
@@ -12,12 +12,13 @@ import com.sap.cloud.security.annotation.Beta;
 import com.sap.cloud.security.config.*;
 import com.sap.cloud.security.config.cf.CFConstants.Plan;
 import com.sap.cloud.security.json.DefaultJsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
 import static com.sap.cloud.security.config.Service.IAS;
 import static com.sap.cloud.security.config.Service.XSUAA;
@@ -28,15 +29,21 @@ import static com.sap.cloud.security.config.cf.CFConstants.VCAP_SERVICES;
  * Loads the OAuth configuration ({@link OAuth2ServiceConfiguration}) of a
  * supported identity {@link Service} in the SAP CP Cloud Foundry Environment by
  * parsing the {@code VCAP_SERVICES} system environment variable.
+ * <p>
+ * The service configurations are parsed once and indexed by service and
+ * service plan, so that the getters, which are called per request, don't need
+ * to search the bindings. They can be read again with {@link #reload()}, e.g.
+ * when {@code VCAP_SERVICES} is provided by a reader, whose source can change
+ * at runtime.
  */
-public class CFEnvironment implements Environment {
+public class CFEnvironment implements ReloadableEnvironment {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(CFEnvironment.class);
 	private ServiceBindingAccessor serviceBindingAccessor;
 	private UnaryOperator<String> environmentVariableReader = System::getenv;
-	private final Map<Service, List<OAuth2ServiceConfiguration>> serviceConfigurations;
+	private volatile ServiceConfigurations serviceConfigurations = ServiceConfigurations.EMPTY;
 
 	private CFEnvironment() {
-		serviceConfigurations = new EnumMap<>(Service.class);
 	}
 
 	/**
@@ -62,7 +69,9 @@ public class CFEnvironment implements Environment {
 	public static CFEnvironment getInstance(UnaryOperator<String> vcapProvider) {
 		CFEnvironment instance = new CFEnvironment();
 		instance.environmentVariableReader = vcapProvider;
-		instance.serviceBindingAccessor = new SapVcapServicesServiceBindingAccessor(vcapProvider);
+		instance.serviceBindingAccessor = new SapVcapServicesServiceBindingAccessor(
+				name -> VCAP_SERVICES.equals(name) ? IdentityServicesFilter.filter(vcapProvider.apply(name))
+						: vcapProvider.apply(name));
 		instance.readServiceConfigurations();
 		return instance;
 	}
@@ -109,24 +118,44 @@ public class CFEnvironment implements Environment {
 	}
 
 	private void readServiceConfigurations() {
-		List<ServiceBinding> serviceBindings = serviceBindingAccessor.getServiceBindings();
-
-		List<OAuth2ServiceConfiguration> xsuaaPlans = serviceBindings.stream()
-				.filter(b -> Service.XSUAA.equals(Service.from(b.getServiceName().orElse(""))))
-				.map(ServiceBindingMapper::mapToOAuth2ServiceConfigurationBuilder)
-				.filter(Objects::nonNull)
-				.map(builder -> builder.runInLegacyMode(runInLegacyMode()))
-				.map(OAuth2ServiceConfigurationBuilder::build)
-				.collect(Collectors.toList());
-		List<OAuth2ServiceConfiguration> iasPlans = serviceBindings.stream()
-				.filter(b -> Service.IAS.equals(Service.from(b.getServiceName().orElse(""))))
-				.map(ServiceBindingMapper::mapToOAuth2ServiceConfigurationBuilder)
-				.filter(Objects::nonNull)
-				.map(OAuth2ServiceConfigurationBuilder::build)
-				.collect(Collectors.toList());
-
-		serviceConfigurations.put(XSUAA, xsuaaPlans);
-		serviceConfigurations.put(IAS, iasPlans);
+		serviceConfigurations = loadAll();
+	}
+
+	@Override
+	public synchronized boolean reload() {
+		ServiceConfigurations reloaded = loadAll();
+		if (reloaded.byService.equals(serviceConfigurations.byService)) {
+			return false;
+		}
+		serviceConfigurations = reloaded;
+		LOGGER.info("Reloaded service configurations from changed service bindings");
+		return true;
+	}
+
+	private ServiceConfigurations loadAll() {
+		List<OAuth2ServiceConfiguration> xsuaaPlans = new ArrayList<>();
+		List<OAuth2ServiceConfiguration> iasPlans = new ArrayList<>();
+		Boolean legacyMode = null;
+		for (ServiceBinding serviceBinding : serviceBindingAccessor.getServiceBindings()) {
+			Service service = Service.from(serviceBinding.getServiceName().orElse(""));
+			if (service == null) {
+				continue;
+			}
+			OAuth2ServiceConfigurationBuilder builder = ServiceBindingMapper
+					.mapToOAuth2ServiceConfigurationBuilder(serviceBinding);
+			if (builder == null) {
+				continue;
+			}
+			if (service == XSUAA) {
+				if (legacyMode == null) {
+					legacyMode = runInLegacyMode();
+				}
+				xsuaaPlans.add(builder.runInLegacyMode(legacyMode).build());
+			} else if (service == IAS) {
+				iasPlans.add(builder.build());
+			}
+		}
+		return new ServiceConfigurations(xsuaaPlans, iasPlans);
 	}
 
 	@Override
@@ -137,25 +166,13 @@ public class CFEnvironment implements Environment {
 
 	@Override
 	public OAuth2ServiceConfiguration getXsuaaConfiguration() {
-		Optional<OAuth2ServiceConfiguration> applicationService = Optional
-				.ofNullable(loadForServicePlan(XSUAA, Plan.APPLICATION));
-		Optional<OAuth2ServiceConfiguration> brokerService = Optional
-				.ofNullable(loadForServicePlan(XSUAA, Plan.BROKER));
-		Optional<OAuth2ServiceConfiguration> legacyService = Optional
-				.ofNullable(loadForServicePlan(XSUAA, Plan.SPACE));
-		Optional<OAuth2ServiceConfiguration> legacyServiceSimple = Optional
-				.ofNullable(loadForServicePlan(XSUAA, Plan.DEFAULT));
-
-		return applicationService.orElse(
-				brokerService.orElse(
-						legacyService.orElse(
-								legacyServiceSimple.orElse(null))));
+		return serviceConfigurations.xsuaaConfiguration;
 	}
 
 	@Nullable
 	@Override
 	public OAuth2ServiceConfiguration getIasConfiguration() {
-		return loadAllForService(IAS).stream().filter(Objects::nonNull).findFirst().orElse(null);
+		return serviceConfigurations.iasConfiguration;
 	}
 
 	@Override
@@ -165,10 +182,7 @@ public class CFEnvironment implements Environment {
 
 	@Override
 	public OAuth2ServiceConfiguration getXsuaaConfigurationForTokenExchange() {
-		if (getNumberOfXsuaaConfigurations() > 1) {
-			return loadForServicePlan(XSUAA, Plan.BROKER);
-		}
-		return getXsuaaConfiguration();
+		return serviceConfigurations.xsuaaConfigurationForTokenExchange;
 	}
 
 	/**
@@ -183,10 +197,7 @@ public class CFEnvironment implements Environment {
 	 */
 	@Nullable
 	public OAuth2ServiceConfiguration loadForServicePlan(Service service, Plan plan) {
-		return loadAllForService(service).stream()
-				.filter(configuration -> Plan.from(configuration.getProperty(CFConstants.SERVICE_PLAN)).equals(plan))
-				.findFirst()
-				.orElse(null);
+		return serviceConfigurations.byServicePlan.getOrDefault(service, Collections.emptyMap()).get(plan);
 	}
 
 	/**
@@ -198,14 +209,80 @@ public class CFEnvironment implements Environment {
 	 *         no service bindings.
 	 */
 	List<OAuth2ServiceConfiguration> loadAllForService(Service service) {
-		return serviceConfigurations.getOrDefault(service, Collections.emptyList());
+		return serviceConfigurations.byService.getOrDefault(service, Collections.emptyList());
 	}
 
 	private boolean runInLegacyMode() {
 		String vcapApplicationJson = environmentVariableReader.apply(VCAP_APPLICATION);
-		if (vcapApplicationJson != null) {
+		// parse VCAP_APPLICATION only, when it may contain the key
+		if (vcapApplicationJson != null && vcapApplicationJson.contains("xs_api")) {
 			return new DefaultJsonObject(vcapApplicationJson).contains("xs_api");
 		}
 		return false;
 	}
+
+	/**
+	 * Immutable snapshot of the parsed service configurations, indexed by service
+	 * and service plan. The configurations returned per request are resolved on
+	 * creation.
+	 */
+	private static final class ServiceConfigurations {
+		static final ServiceConfigurations EMPTY = new ServiceConfigurations(Collections.emptyList(),
+				Collections.emptyList());
+
+		final Map<Service, List<OAuth2ServiceConfiguration>> byService;
+		final Map<Service, Map<Plan, OAuth2ServiceConfiguration>> byServicePlan;
+		final OAuth2ServiceConfiguration xsuaaConfiguration;
+		final OAuth2ServiceConfiguration xsuaaConfigurationForTokenExchange;
+		final OAuth2ServiceConfiguration iasConfiguration;
+
+		ServiceConfigurations(List<OAuth2ServiceConfiguration> xsuaaPlans,
+				List<OAuth2ServiceConfiguration> iasPlans) {
+			Map<Service, List<OAuth2ServiceConfiguration>> services = new EnumMap<>(Service.class);
+			services.put(XSUAA, Collections.unmodifiableList(xsuaaPlans));
+			services.put(IAS, Collections.unmodifiableList(iasPlans));
+			byService = Collections.unmodifiableMap(services);
+
+			Map<Service, Map<Plan, OAuth2ServiceConfiguration>> servicePlans = new EnumMap<>(Service.class);
+			servicePlans.put(XSUAA, indexByPlan(xsuaaPlans));
+			servicePlans.put(IAS, indexByPlan(iasPlans));
+			byServicePlan = Collections.unmodifiableMap(servicePlans);
+
+			Map<Plan, OAuth2ServiceConfiguration> xsuaaByPlan = byServicePlan.get(XSUAA);
+			xsuaaConfiguration = getXsuaaConfiguration(xsuaaByPlan);
+			xsuaaConfigurationForTokenExchange = xsuaaPlans.size() > 1 ? xsuaaByPlan.get(Plan.BROKER)
+					: xsuaaConfiguration;
+			iasConfiguration = iasPlans.stream().filter(Objects::nonNull).findFirst().orElse(null);
+		}
+
+		/**
+		 * Keeps the first configuration per plan. Configurations with a plan
+		 * unknown to {@link Plan} can't be looked up by plan and are skipped.
+		 */
+		private static Map<Plan, OAuth2ServiceConfiguration> indexByPlan(
+				List<OAuth2ServiceConfiguration> configurations) {
+			Map<Plan, OAuth2ServiceConfiguration> plans = new EnumMap<>(Plan.class);
+			for (OAuth2ServiceConfiguration configuration : configurations) {
+				try {
+					plans.putIfAbsent(Plan.from(configuration.getProperty(CFConstants.SERVICE_PLAN)), configuration);
+				} catch (IllegalArgumentException e) {
+					LOGGER.debug("Service plan of {} configuration is unknown: {}", configuration.getService(),
+							e.getMessage());
+				}
+			}
+			return Collections.unmodifiableMap(plans);
+		}
+
+		@Nullable
+		private static OAuth2ServiceConfiguration getXsuaaConfiguration(
+				Map<Plan, OAuth2ServiceConfiguration> xsuaaPlans) {
+			for (Plan plan : new Plan[] { Plan.APPLICATION, Plan.BROKER, Plan.SPACE, Plan.DEFAULT }) {
+				OAuth2ServiceConfiguration configuration = xsuaaPlans.get(plan);
+				if (configuration != null) {
+					return configuration;
+				}
+			}
+			return null;
+		}
+	}
 }
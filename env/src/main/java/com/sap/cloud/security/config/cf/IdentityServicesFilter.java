@@ -0,0 +1,184 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.config.cf;
+
+import com.sap.cloud.security.config.Service;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reduces the {@code VCAP_SERVICES} JSON to the bindings of the supported
+ * identity {@link Service}s. The JSON is scanned once, character by character:
+ * the members of identity services are copied as they are and all other
+ * members are skipped without building JSON objects for them. Like this, only
+ * the identity service bindings get parsed afterwards, even if the application
+ * is bound to many other services.
+ */
+final class IdentityServicesFilter {
+
+	private IdentityServicesFilter() {
+	}
+
+	/**
+	 * Filters the top level members of the {@code VCAP_SERVICES} JSON object by
+	 * their service name.
+	 *
+	 * @param vcapServicesJson
+	 *            the {@code VCAP_SERVICES} JSON
+	 * @return the JSON object with the identity service members only, or the given
+	 *         JSON if it is not a well-formed JSON object, so that the parser
+	 *         reports the error.
+	 */
+	@Nullable
+	static String filter(@Nullable String vcapServicesJson) {
+		if (vcapServicesJson == null) {
+			return null;
+		}
+		Cursor cursor = new Cursor(vcapServicesJson);
+		try {
+			return cursor.filterObject();
+		} catch (IllegalArgumentException e) {
+			return vcapServicesJson;
+		}
+	}
+
+	private static final class Cursor {
+		private final String json;
+		private int position;
+
+		Cursor(String json) {
+			this.json = json;
+		}
+
+		String filterObject() {
+			StringBuilder filtered = new StringBuilder(json.length() < 4096 ? json.length() : 4096);
+			filtered.append('{');
+			expect('{');
+			if (skipWhitespace() == '}') {
+				position++;
+				return expectEnd(filtered.append('}'));
+			}
+			while (true) {
+				skipWhitespace();
+				int memberStart = position;
+				String name = readString();
+				expect(':');
+				if (skipWhitespace() == 0) {
+					throw new IllegalArgumentException("Missing value of " + name);
+				}
+				skipValue();
+				if (isIdentityService(name)) {
+					if (filtered.length() > 1) {
+						filtered.append(',');
+					}
+					filtered.append(json, memberStart, position);
+				}
+				char next = skipWhitespace();
+				position++;
+				if (next == '}') {
+					return expectEnd(filtered.append('}'));
+				}
+				if (next != ',') {
+					throw new IllegalArgumentException("Expected ',' or '}' at " + (position - 1));
+				}
+			}
+		}
+
+		/**
+		 * Names with escape sequences are kept, they are unescaped by the parser.
+		 */
+		private static boolean isIdentityService(String name) {
+			return name.indexOf('\\') >= 0 || Service.from(name) != null;
+		}
+
+		private String expectEnd(StringBuilder filtered) {
+			if (skipWhitespace() != 0) {
+				throw new IllegalArgumentException("Unexpected content at " + position);
+			}
+			return filtered.toString();
+		}
+
+		private void expect(char expected) {
+			if (skipWhitespace() != expected) {
+				throw new IllegalArgumentException("Expected '" + expected + "' at " + position);
+			}
+			position++;
+		}
+
+		/**
+		 * @return the next non whitespace character without consuming it, or 0 at
+		 *         the end of the input
+		 */
+		private char skipWhitespace() {
+			while (position < json.length()) {
+				char c = json.charAt(position);
+				if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+					return c;
+				}
+				position++;
+			}
+			return 0;
+		}
+
+		private String readString() {
+			int start = position + 1;
+			skipString();
+			return json.substring(start, position - 1);
+		}
+
+		private void skipString() {
+			if (position >= json.length() || json.charAt(position) != '"') {
+				throw new IllegalArgumentException("Expected string at " + position);
+			}
+			position++;
+			while (position < json.length()) {
+				char c = json.charAt(position++);
+				if (c == '\\') {
+					position++;
+				} else if (c == '"') {
+					return;
+				}
+			}
+			throw new IllegalArgumentException("Unterminated string");
+		}
+
+		/**
+		 * Skips a JSON value. Nested arrays and objects are skipped by counting the
+		 * brackets outside of strings, their content is not validated.
+		 */
+		private void skipValue() {
+			char c = json.charAt(position);
+			if (c == '"') {
+				skipString();
+				return;
+			}
+			if (c != '{' && c != '[') {
+				while (position < json.length() && ",}] \n\r\t".indexOf(json.charAt(position)) < 0) {
+					position++;
+				}
+				return;
+			}
+			int depth = 0;
+			while (position < json.length()) {
+				c = json.charAt(position);
+				if (c == '"') {
+					skipString();
+					continue;
+				}
+				position++;
+				if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					depth--;
+					if (depth == 0) {
+						return;
+					}
+				}
+			}
+			throw new IllegalArgumentException("Unterminated value");
+		}
+	}
+}
@@ -7,6 +7,9 @@ package com.sap.cloud.security.config.k8s;
 
 import com.sap.cloud.environment.servicebinding.api.DefaultServiceBindingAccessor;
 import com.sap.cloud.environment.servicebinding.api.ServiceBinding;
+import com.sap.cloud.environment.servicebinding.api.ServiceBindingAccessor;
+import com.sap.cloud.environment.servicebinding.api.ServiceBindingMerger;
+import com.sap.cloud.environment.servicebinding.api.SimpleServiceBindingCache;
 import com.sap.cloud.security.config.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,16 +28,21 @@ import static com.sap.cloud.security.config.k8s.K8sConstants.Plan;
  * supported identity {@link Service} in the Kubernetes Environment by accessing
  * defaults service secrets paths "/etc/secrets/sapbtp/xsuaa" for Xsuaa service
  * or "/etc/secrets/sapbtp/identity" for IAS service.
+ * <p>
+ * The service configurations are parsed once and the ones requested per request
+ * are resolved upfront. They can be read again with {@link #reload()}, e.g.
+ * after the secrets were rotated.
  */
-public class K8sEnvironment implements Environment {
+public class K8sEnvironment implements ReloadableEnvironment {
 	private static final Logger LOGGER = LoggerFactory.getLogger(K8sEnvironment.class);
 
 	static K8sEnvironment instance;
-	private final Map<Service, Map<String, OAuth2ServiceConfiguration>> serviceConfigurations;
+	private final ServiceBindingAccessor serviceBindingAccessor;
+	private volatile ServiceConfigurations serviceConfigurations;
 
 	private K8sEnvironment() {
-		serviceConfigurations = new EnumMap<>(Service.class);
-		loadAll();
+		serviceBindingAccessor = withoutCache(DefaultServiceBindingAccessor.getInstance());
+		serviceConfigurations = loadAll();
 	}
 
 	public static K8sEnvironment getInstance() {
@@ -50,8 +58,33 @@ public class K8sEnvironment implements Environment {
 		return Type.KUBERNETES;
 	}
 
-	private void loadAll() {
-		List<ServiceBinding> serviceBindings = DefaultServiceBindingAccessor.getInstance().getServiceBindings();
+	@Override
+	public synchronized boolean reload() {
+		ServiceConfigurations reloaded = loadAll();
+		if (reloaded.byService.equals(serviceConfigurations.byService)) {
+			return false;
+		}
+		serviceConfigurations = reloaded;
+		LOGGER.info("Reloaded service configurations from changed service bindings");
+		return true;
+	}
+
+	/**
+	 * The default {@link ServiceBindingAccessor} caches the service bindings for
+	 * some minutes. As {@link #reload()} shall see rotated secrets immediately,
+	 * the service bindings are read with the same accessors, but without cache.
+	 * The file based accessors only parse files that were modified.
+	 */
+	private static ServiceBindingAccessor withoutCache(ServiceBindingAccessor accessor) {
+		if (accessor instanceof SimpleServiceBindingCache) {
+			return new ServiceBindingMerger(ServiceBindingAccessor.getInstancesViaServiceLoader(),
+					ServiceBindingMerger.KEEP_EVERYTHING);
+		}
+		return accessor;
+	}
+
+	private ServiceConfigurations loadAll() {
+		List<ServiceBinding> serviceBindings = serviceBindingAccessor.getServiceBindings();
 
 		Map<String, OAuth2ServiceConfiguration> xsuaaPlans = serviceBindings.stream()
 				.filter(b -> Service.XSUAA.equals(Service.from(b.getServiceName().orElse(null))))
@@ -67,8 +100,7 @@ public class K8sEnvironment implements Environment {
 				.map(OAuth2ServiceConfigurationBuilder::build)
 				.collect(Collectors.toMap(config -> config.getProperty(SERVICE_PLAN),
 						Function.identity()));
-		serviceConfigurations.put(Service.XSUAA, xsuaaPlans);
-		serviceConfigurations.put(Service.IAS, identityPlans);
+		return new ServiceConfigurations(xsuaaPlans, identityPlans);
 	}
 
 	/**
@@ -80,39 +112,25 @@ public class K8sEnvironment implements Environment {
 	 *         no service bindings.
 	 */
 	Map<String, OAuth2ServiceConfiguration> getServiceConfigurationsOf(Service service) {
-		return serviceConfigurations.getOrDefault(service, Collections.emptyMap());
+		return serviceConfigurations.byService.getOrDefault(service, Collections.emptyMap());
 	}
 
 	@Nullable
 	@Override
 	public OAuth2ServiceConfiguration getXsuaaConfiguration() {
-		return Optional.ofNullable(getServiceConfigurationsOf(Service.XSUAA).get(Plan.APPLICATION.name()))
-				.orElse(Optional.ofNullable(getServiceConfigurationsOf(Service.XSUAA).get(Plan.BROKER.name()))
-						.orElse(Optional.ofNullable(getServiceConfigurationsOf(Service.XSUAA).get(Plan.SPACE.name()))
-								.orElse(Optional
-										.ofNullable(getServiceConfigurationsOf(Service.XSUAA).get(Plan.DEFAULT.name()))
-										.orElse(null))));
-
+		return serviceConfigurations.xsuaaConfiguration;
 	}
 
 	@Nullable
 	@Override
 	public OAuth2ServiceConfiguration getXsuaaConfigurationForTokenExchange() {
-		if (getNumberOfXsuaaConfigurations() > 1) {
-			return getServiceConfigurationsOf(Service.XSUAA).get(Plan.BROKER.name());
-		}
-		return getXsuaaConfiguration();
+		return serviceConfigurations.xsuaaConfigurationForTokenExchange;
 	}
 
 	@Nullable
 	@Override
 	public OAuth2ServiceConfiguration getIasConfiguration() {
-		if (getServiceConfigurationsOf(Service.IAS).size() > 1) {
-			LOGGER.warn("{} IAS bindings found. Using the first one from the list",
-					getServiceConfigurationsOf(Service.IAS).size());
-		}
-		return getServiceConfigurationsOf(Service.IAS).entrySet().stream().findFirst().map(Map.Entry::getValue)
-				.orElse(null);
+		return serviceConfigurations.iasConfiguration;
 	}
 
 	@Override
@@ -120,4 +138,41 @@ public class K8sEnvironment implements Environment {
 		return getServiceConfigurationsOf(Service.XSUAA).size();
 	}
 
+	/**
+	 * Immutable snapshot of the parsed service configurations by service and
+	 * service plan. The configurations returned per request are resolved on
+	 * creation.
+	 */
+	private static final class ServiceConfigurations {
+		final Map<Service, Map<String, OAuth2ServiceConfiguration>> byService;
+		final OAuth2ServiceConfiguration xsuaaConfiguration;
+		final OAuth2ServiceConfiguration xsuaaConfigurationForTokenExchange;
+		final OAuth2ServiceConfiguration iasConfiguration;
+
+		ServiceConfigurations(Map<String, OAuth2ServiceConfiguration> xsuaaPlans,
+				Map<String, OAuth2ServiceConfiguration> iasPlans) {
+			Map<Service, Map<String, OAuth2ServiceConfiguration>> services = new EnumMap<>(Service.class);
+			services.put(Service.XSUAA, Collections.unmodifiableMap(xsuaaPlans));
+			services.put(Service.IAS, Collections.unmodifiableMap(iasPlans));
+			byService = Collections.unmodifiableMap(services);
+
+			xsuaaConfiguration = getXsuaaConfiguration(xsuaaPlans);
+			xsuaaConfigurationForTokenExchange = xsuaaPlans.size() > 1 ? xsuaaPlans.get(Plan.BROKER.name())
+					: xsuaaConfiguration;
+			if (iasPlans.size() > 1) {
+				LOGGER.warn("{} IAS bindings found. Using the first one from the list", iasPlans.size());
+			}
+			iasConfiguration = iasPlans.values().stream().findFirst().orElse(null);
+		}
+
+		@Nullable
+		private static OAuth2ServiceConfiguration getXsuaaConfiguration(
+				Map<String, OAuth2ServiceConfiguration> xsuaaPlans) {
+			return Optional.ofNullable(xsuaaPlans.get(Plan.APPLICATION.name()))
+					.orElse(Optional.ofNullable(xsuaaPlans.get(Plan.BROKER.name()))
+							.orElse(Optional.ofNullable(xsuaaPlans.get(Plan.SPACE.name()))
+									.orElse(Optional.ofNullable(xsuaaPlans.get(Plan.DEFAULT.name()))
+											.orElse(null))));
+		}
+	}
 }
@@ -8,6 +8,7 @@ package com.sap.cloud.security.config;
 import com.sap.cloud.security.config.cf.CFConstants;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -63,4 +64,28 @@ class EnvironmentsCFTest {
 
 		assertThat(cut).isNotSameAs(Environments.getCurrent());
 	}
+
+	@Test
+	void reload_notifiesChangeListeners() {
+		ReloadableEnvironment environment = Mockito.mock(ReloadableEnvironment.class);
+		EnvironmentChangeListener failingListener = Mockito.mock(EnvironmentChangeListener.class);
+		EnvironmentChangeListener listener = Mockito.mock(EnvironmentChangeListener.class);
+		Mockito.doThrow(new IllegalStateException("test")).when(failingListener).onEnvironmentChange(environment);
+		Environments.currentEnvironment = environment;
+		Environments.addChangeListener(failingListener);
+		Environments.addChangeListener(listener);
+		try {
+			Mockito.when(environment.reload()).thenReturn(false);
+			assertThat(Environments.reload()).isFalse();
+			Mockito.verifyNoInteractions(listener);
+
+			Mockito.when(environment.reload()).thenReturn(true);
+			assertThat(Environments.reload()).isTrue();
+			Mockito.verify(listener).onEnvironmentChange(environment);
+		} finally {
+			Environments.removeChangeListener(failingListener);
+			Environments.removeChangeListener(listener);
+			Environments.currentEnvironment = null;
+		}
+	}
 }
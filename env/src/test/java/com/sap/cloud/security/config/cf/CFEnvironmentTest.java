@@ -18,6 +18,7 @@ import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.UnaryOperator;
 
 import static com.sap.cloud.security.config.cf.CFConstants.*;
@@ -50,6 +51,43 @@ public class CFEnvironmentTest {
 		assertThat(cut.getType()).isEqualTo(Environment.Type.CF);
 	}
 
+	@Test
+	public void reload() {
+		AtomicReference<String> vcapServices = new AtomicReference<>(vcapXsuaa);
+		cut = CFEnvironment.getInstance(str -> VCAP_SERVICES.equals(str) ? vcapServices.get() : null);
+		OAuth2ServiceConfiguration xsuaaConfiguration = cut.getXsuaaConfiguration();
+
+		assertThat(cut.reload()).isFalse();
+		assertThat(cut.getXsuaaConfiguration()).isSameAs(xsuaaConfiguration);
+
+		vcapServices.set(vcapMultipleXsuaa);
+		assertThat(cut.reload()).isTrue();
+		assertThat(cut.getNumberOfXsuaaConfigurations()).isEqualTo(2);
+		assertThat(cut.getXsuaaConfiguration()).isNotEqualTo(xsuaaConfiguration);
+	}
+
+	@Test
+	public void getConfigurations_ignoresOtherServices() {
+		String vcapServices = "{\"hana\": [{\"credentials\": {\"url\": \"jdbc:sap://\"}}],"
+				+ vcapMultipleXsuaa.trim().substring(1);
+		cut = CFEnvironment.getInstance(str -> VCAP_SERVICES.equals(str) ? vcapServices : null);
+
+		assertThat(cut.getNumberOfXsuaaConfigurations()).isEqualTo(2);
+		assertThat(cut.getXsuaaConfiguration().getClientId()).isEqualTo("sb-na-d6a3278d-5e07-40e9-92ae-546bbfd9cdde!t8066");
+	}
+
+	@Test
+	public void getConfigurations_resolvedFromIndex() {
+		cut = CFEnvironment.getInstance(str -> VCAP_SERVICES.equals(str) ? vcapMultipleXsuaa : null);
+
+		OAuth2ServiceConfiguration brokerConfiguration = cut.loadForServicePlan(Service.XSUAA, Plan.BROKER);
+		assertThat(brokerConfiguration).isNotNull();
+		assertThat(cut.getXsuaaConfigurationForTokenExchange()).isSameAs(brokerConfiguration);
+		assertThat(cut.getXsuaaConfiguration()).isSameAs(cut.loadForServicePlan(Service.XSUAA, Plan.APPLICATION))
+				.isSameAs(cut.getXsuaaConfiguration());
+		assertThat(cut.loadForServicePlan(Service.XSUAA, Plan.SPACE)).isNull();
+	}
+
 	@Test
 	public void getCFServiceConfigurationAndCredentialsAsMap() {
 		JsonObject serviceJsonObject = new DefaultJsonObject(vcapXsuaa).getJsonObjects(Service.XSUAA.getCFName())
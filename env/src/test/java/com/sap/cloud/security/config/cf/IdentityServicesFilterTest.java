@@ -0,0 +1,47 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.config.cf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityServicesFilterTest {
+
+	@Test
+	void keepsIdentityServicesOnly() {
+		String vcapServices = "{\"hana\": [{\"credentials\": {\"password\": \"}]\\\"{[\"}}], "
+				+ "\"xsuaa\": [{\"plan\": \"application\"}],\n"
+				+ "\"count\": 3, \"enabled\": true, \"empty\": null, "
+				+ "\"identity\" : [ {\"plan\": \"default\"} ] }";
+
+		assertThat(IdentityServicesFilter.filter(vcapServices))
+				.isEqualTo("{\"xsuaa\": [{\"plan\": \"application\"}],\"identity\" : [ {\"plan\": \"default\"} ]}");
+	}
+
+	@Test
+	void keepsEscapedServiceNames() {
+		String vcapServices = "{\"xsu\\u0061a\": [], \"other\": []}";
+
+		assertThat(IdentityServicesFilter.filter(vcapServices)).isEqualTo("{\"xsu\\u0061a\": []}");
+	}
+
+	@Test
+	void withoutIdentityServices() {
+		assertThat(IdentityServicesFilter.filter(" { } ")).isEqualTo("{}");
+		assertThat(IdentityServicesFilter.filter("{\"hana\": [{}]}")).isEqualTo("{}");
+		assertThat(IdentityServicesFilter.filter(null)).isNull();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "[]", "{\"xsuaa\": [}", "{\"xsuaa\": []", "{\"xsuaa\" []}", "{\"xsuaa\": []} x",
+			"{\"xsuaa\": \"unterminated}", "{\"xsuaa\":" })
+	void keepsMalformedJson(String vcapServices) {
+		assertThat(IdentityServicesFilter.filter(vcapServices)).isSameAs(vcapServices);
+	}
+}
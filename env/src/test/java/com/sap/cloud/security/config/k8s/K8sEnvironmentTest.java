@@ -13,14 +13,20 @@ import com.sap.cloud.security.config.Environment;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.cf.CFConstants;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static com.sap.cloud.environment.servicebinding.SapServiceOperatorLayeredServiceBindingAccessor.DEFAULT_PARSING_STRATEGIES;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class K8sEnvironmentTest {
 
@@ -74,6 +80,14 @@ class K8sEnvironmentTest {
 		assertEquals("xsuaa-broker", config.getProperty(CFConstants.XSUAA.APP_ID));
 	}
 
+	@Test
+	void getConfigurations_resolvedOnce() {
+		cut = K8sEnvironment.getInstance();
+		assertSame(cut.getXsuaaConfiguration(), cut.getXsuaaConfiguration());
+		assertSame(cut.getXsuaaConfigurationForTokenExchange(), cut.getXsuaaConfigurationForTokenExchange());
+		assertSame(cut.getIasConfiguration(), cut.getIasConfiguration());
+	}
+
 	@Test
 	void getNoConfigIfNoServiceNameIsGiven() {
 		ServiceBindingAccessor accessor = Mockito.mock(ServiceBindingAccessor.class);
@@ -114,4 +128,40 @@ class K8sEnvironmentTest {
 		assertNull(cut.getXsuaaConfiguration());
 	}
 
-}
\ No newline at end of file
+	@Test
+	void reload_unchangedBindings() {
+		K8sEnvironment k8sEnvironment = K8sEnvironment.getInstance();
+		OAuth2ServiceConfiguration config = k8sEnvironment.getXsuaaConfiguration();
+
+		assertFalse(k8sEnvironment.reload());
+		assertSame(config, k8sEnvironment.getXsuaaConfiguration());
+	}
+
+	@Test
+	void reload_rotatedSecret(@TempDir Path secrets) throws IOException {
+		Path root = Paths.get(K8sEnvironmentTest.class.getResource("/k8s").getPath());
+		try (Stream<Path> files = Files.walk(root)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Path target = secrets.resolve(root.relativize(file).toString());
+				if (Files.isDirectory(file)) {
+					Files.createDirectories(target);
+				} else {
+					Files.copy(file, target);
+				}
+			}
+		}
+		DefaultServiceBindingAccessor.setInstance(
+				new SapServiceOperatorLayeredServiceBindingAccessor(secrets, DEFAULT_PARSING_STRATEGIES));
+		K8sEnvironment k8sEnvironment = K8sEnvironment.getInstance();
+		assertEquals("xsuaaSecret", k8sEnvironment.getXsuaaConfiguration().getClientSecret());
+
+		Path clientSecret = secrets.resolve("xsuaa/xsuaa-application/clientsecret");
+		Files.write(clientSecret, "rotatedSecret".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(clientSecret, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+		assertTrue(k8sEnvironment.reload());
+		assertEquals("rotatedSecret", k8sEnvironment.getXsuaaConfiguration().getClientSecret());
+		assertEquals("xsuaaBrokerClientId", k8sEnvironment.getXsuaaConfigurationForTokenExchange().getClientId());
+	}
+
+}
@@ -0,0 +1,202 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Maps the scopes of a token to authorities, e.g. to Spring
+ * {@code GrantedAuthority}s. An authority is created once per scope and is
+ * shared by all tokens with that scope, the mapping of scopes, that were
+ * already seen, is a map lookup. Optionally, the complete authority collection
+ * is cached per distinct collection of scopes, see
+ * {@link #withAuthoritySetCache(int)}.
+ * <p>
+ * The caches are bounded: when they are full, the entries, that were cached
+ * first, are evicted. Create a mapper per component, so that the scopes of
+ * one component don't evict the ones of another.
+ *
+ * <pre>
+ * {@code
+ * AuthorityMapper<GrantedAuthority> mapper = AuthorityMapper.localScopes("myapp!t123", SimpleGrantedAuthority::new);
+ * Collection<GrantedAuthority> authorities = mapper.map(token.getScopes()); // "myapp!t123.Read" -> "Read"
+ * }
+ * </pre>
+ *
+ * @param <A>
+ *            the type of the authorities, which must be immutable
+ */
+public final class AuthorityMapper<A> {
+	/**
+	 * Maximum number of cached scopes (default).
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1000;
+	private static final Object NO_AUTHORITY = new Object();
+
+	private final Function<String, A> authorityFactory;
+	@Nullable
+	private final String scopePrefix;
+	private final int cacheSize;
+	private final BoundedCache<String, Object> authorities;
+	@Nullable
+	private final BoundedCache<List<String>, Collection<A>> authoritySets;
+
+	private AuthorityMapper(Function<String, A> authorityFactory, @Nullable String scopePrefix, int cacheSize,
+			int authoritySetCacheSize) {
+		this.authorityFactory = Objects.requireNonNull(authorityFactory, "authorityFactory must not be null");
+		this.scopePrefix = scopePrefix;
+		this.cacheSize = cacheSize;
+		this.authorities = new BoundedCache<>(cacheSize);
+		this.authoritySets = authoritySetCacheSize > 0 ? new BoundedCache<>(authoritySetCacheSize) : null;
+	}
+
+	/**
+	 * Maps each scope to an authority with the same name.
+	 *
+	 * @param authorityFactory
+	 *            creates the authority for a scope, e.g.
+	 *            {@code SimpleGrantedAuthority::new}
+	 * @param <A>
+	 *            the type of the authorities
+	 * @return the mapper
+	 */
+	public static <A> AuthorityMapper<A> scopes(Function<String, A> authorityFactory) {
+		return new AuthorityMapper<>(authorityFactory, null, DEFAULT_CACHE_SIZE, 0);
+	}
+
+	/**
+	 * Maps the local scopes of an XSUAA application, i.e. the scopes prefixed
+	 * with {@code <appId>.}, to authorities without that prefix. All other scopes
+	 * are ignored.
+	 *
+	 * @param appId
+	 *            the xsuaa application identifier e.g. myXsAppname!t123
+	 * @param authorityFactory
+	 *            creates the authority for a local scope, e.g.
+	 *            {@code SimpleGrantedAuthority::new}
+	 * @param <A>
+	 *            the type of the authorities
+	 * @return the mapper
+	 */
+	public static <A> AuthorityMapper<A> localScopes(String appId, Function<String, A> authorityFactory) {
+		return new AuthorityMapper<>(authorityFactory, appId + ".", DEFAULT_CACHE_SIZE, 0);
+	}
+
+	/**
+	 * Creates a mapper, that additionally caches the mapped authorities per
+	 * distinct collection of scopes. This pays off, when many tokens share the
+	 * same scopes, e.g. tokens with hundreds of scopes of few role collections.
+	 * The cached authority collections are unmodifiable.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached scope collections
+	 * @return a new mapper
+	 */
+	public AuthorityMapper<A> withAuthoritySetCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be greater than 0");
+		}
+		return new AuthorityMapper<>(authorityFactory, scopePrefix, cacheSize, maximumSize);
+	}
+
+	/**
+	 * Maps the scopes to authorities.
+	 *
+	 * @param scopes
+	 *            the scopes of the token
+	 * @return the authorities; a new modifiable list, unless
+	 *         {@link #withAuthoritySetCache(int)} is used
+	 */
+	public Collection<A> map(Collection<String> scopes) {
+		if (authoritySets == null) {
+			return mapScopes(scopes);
+		}
+		List<String> key = new ArrayList<>(scopes);
+		Collection<A> cached = authoritySets.get(key);
+		if (cached == null) {
+			cached = authoritySets.putIfAbsent(key, Collections.unmodifiableList(mapScopes(key)));
+		}
+		return cached;
+	}
+
+	/**
+	 * Maps a single scope to an authority.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return the authority or null, if the scope is not a local scope
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public A getAuthority(String scope) {
+		Object authority = authorities.get(scope);
+		if (authority == null) {
+			authority = authorities.putIfAbsent(scope, createAuthority(scope));
+		}
+		return authority == NO_AUTHORITY ? null : (A) authority;
+	}
+
+	private List<A> mapScopes(Collection<String> scopes) {
+		List<A> mappedAuthorities = new ArrayList<>(scopes.size());
+		for (String scope : scopes) {
+			A authority = getAuthority(scope);
+			if (authority != null) {
+				mappedAuthorities.add(authority);
+			}
+		}
+		return mappedAuthorities;
+	}
+
+	private Object createAuthority(String scope) {
+		if (scopePrefix == null) {
+			return authorityFactory.apply(scope);
+		}
+		if (scope.length() > scopePrefix.length() && scope.startsWith(scopePrefix)) {
+			return authorityFactory.apply(scope.substring(scopePrefix.length()));
+		}
+		return NO_AUTHORITY;
+	}
+
+	/**
+	 * A concurrent map, that evicts the entries in insertion order, when it
+	 * exceeds its maximum size. Lookups don't lock, as they are done for each
+	 * scope of each token.
+	 */
+	private static final class BoundedCache<K, V> {
+		private final int maximumSize;
+		private final Map<K, V> entries = new ConcurrentHashMap<>();
+		private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+		BoundedCache(int maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		@Nullable
+		V get(K key) {
+			return entries.get(key);
+		}
+
+		V putIfAbsent(K key, V value) {
+			V previous = entries.putIfAbsent(key, value);
+			if (previous != null) {
+				return previous;
+			}
+			insertionOrder.add(key);
+			while (entries.size() > maximumSize) {
+				K eldest = insertionOrder.poll();
+				if (eldest == null) {
+					break;
+				}
+				entries.remove(eldest);
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable, hash indexed scopes of a token with a global and an application
+ * local view. Both views are computed once, so that scope checks are lookups
+ * without allocations, even for tokens with hundreds of scopes.
+ *
+ * <pre>
+ * {@code
+ * IndexedScopes scopes = IndexedScopes.of(token.getScopes(), "myapp!t123");
+ * scopes.hasScope("myapp!t123.Read"); // true
+ * scopes.hasLocalScope("Read"); // true
+ * }
+ * </pre>
+ */
+public final class IndexedScopes {
+	/**
+	 * No scopes.
+	 */
+	public static final IndexedScopes EMPTY = new IndexedScopes(Collections.emptySet(), Collections.emptySet());
+
+	private final Set<String> scopes;
+	private final Set<String> localScopes;
+
+	private IndexedScopes(Set<String> scopes, Set<String> localScopes) {
+		this.scopes = scopes;
+		this.localScopes = localScopes;
+	}
+
+	/**
+	 * Indexes the scopes without local view: {@link #hasLocalScope(String)} is
+	 * always false.
+	 *
+	 * @param scopes
+	 *            the scopes, may be null
+	 * @return the indexed scopes
+	 */
+	public static IndexedScopes of(@Nullable Collection<String> scopes) {
+		if (scopes == null || scopes.isEmpty()) {
+			return EMPTY;
+		}
+		return new IndexedScopes(index(scopes), Collections.emptySet());
+	}
+
+	/**
+	 * Indexes the scopes. The local view contains the scopes prefixed with
+	 * {@code <appId>.} without that prefix.
+	 *
+	 * @param scopes
+	 *            the scopes, may be null
+	 * @param appId
+	 *            the xsuaa application identifier e.g. myXsAppname!t123
+	 * @return the indexed scopes
+	 */
+	public static IndexedScopes of(@Nullable Collection<String> scopes, String appId) {
+		if (scopes == null || scopes.isEmpty()) {
+			return EMPTY;
+		}
+		return new IndexedScopes(index(scopes), localScopes(scopes, appId + "."));
+	}
+
+	/**
+	 * Indexes the scopes. The local view contains the scopes returned by the
+	 * converter.
+	 *
+	 * @param scopes
+	 *            the scopes, may be null
+	 * @param localScopeConverter
+	 *            converts the scopes to local scopes
+	 * @return the indexed scopes
+	 */
+	public static IndexedScopes of(@Nullable Collection<String> scopes,
+			Function<Collection<String>, ? extends Collection<String>> localScopeConverter) {
+		if (scopes == null || scopes.isEmpty()) {
+			return EMPTY;
+		}
+		Set<String> indexedScopes = index(scopes);
+		return new IndexedScopes(indexedScopes, index(localScopeConverter.apply(indexedScopes)));
+	}
+
+	/**
+	 * @param scope
+	 *            the scope, e.g. myXsAppname!t123.Read
+	 * @return true, if the token has the scope
+	 */
+	public boolean hasScope(String scope) {
+		return scopes.contains(scope);
+	}
+
+	/**
+	 * @param scope
+	 *            the local scope, e.g. Read
+	 * @return true, if the token has the local scope
+	 */
+	public boolean hasLocalScope(String scope) {
+		return localScopes.contains(scope);
+	}
+
+	/**
+	 * @return the unmodifiable scopes in their original order
+	 */
+	public Set<String> getScopes() {
+		return scopes;
+	}
+
+	/**
+	 * @return the unmodifiable local scopes in their original order
+	 */
+	public Set<String> getLocalScopes() {
+		return localScopes;
+	}
+
+	private static Set<String> index(Collection<String> scopes) {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(scopes));
+	}
+
+	private static Set<String> localScopes(Collection<String> scopes, String scopePrefix) {
+		Set<String> localScopes = new LinkedHashSet<>();
+		for (String scope : scopes) {
+			if (scope.length() > scopePrefix.length() && scope.startsWith(scopePrefix)) {
+				localScopes.add(scope.substring(scopePrefix.length()));
+			}
+		}
+		return Collections.unmodifiableSet(localScopes);
+	}
+}
@@ -10,18 +10,44 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
 /**
  * Thread wide {@link Token} storage.
+ * <p>
+ * The storage is provided by a {@link SecurityContextStrategy}, by default per
+ * thread. The context can be passed to other threads with a
+ * {@link SecurityContextSnapshot}, e.g. with {@link #wrap(Runnable)} or
+ * {@link SecurityContextExecutors}.
  */
 public class SecurityContext {
 	private static final Logger LOGGER = LoggerFactory.getLogger(SecurityContext.class);
+	private static volatile SecurityContextStrategy strategy = SecurityContextStrategy.threadLocal();
 
 	private SecurityContext() {
 	}
 
-	private static final ThreadLocal<Token> tokenStorage = new ThreadLocal<>();
-	private static final ThreadLocal<Certificate> certificateStorage = new ThreadLocal<>();
+	/**
+	 * Replaces the storage of the security context. Should be called once on
+	 * application start, as the context stored with the previous strategy is not
+	 * transferred.
+	 *
+	 * @param securityContextStrategy
+	 *            the strategy
+	 */
+	public static void setStrategy(SecurityContextStrategy securityContextStrategy) {
+		strategy = Objects.requireNonNull(securityContextStrategy, "securityContextStrategy must not be null");
+		LOGGER.debug("Uses {} to store the SecurityContext.", securityContextStrategy);
+	}
+
+	/**
+	 * @return the storage of the security context
+	 */
+	public static SecurityContextStrategy getStrategy() {
+		return strategy;
+	}
 
 	/**
 	 * Returns the certificate that is saved in thread wide storage.
@@ -31,7 +57,7 @@ public class SecurityContext {
 	 */
 	@Nullable
 	public static Certificate getClientCertificate() {
-		return certificateStorage.get();
+		return strategy.getClientCertificate();
 	}
 
 	/**
@@ -41,43 +67,30 @@ public class SecurityContext {
 	 *            certificate to be saved.
 	 */
 	public static void setClientCertificate(Certificate certificate) {
-		LOGGER.info("Sets certificate to SecurityContext (thread-locally). {}",
-				certificate);
-		certificateStorage.set(certificate);
-	}
-
-	/**
-	 * Clears the current Certificate from thread wide storage.
-	 */
-	private static void clearCertificate() {
-		final Certificate certificate = certificateStorage.get();
-		if (certificate != null) {
-			LOGGER.debug("Certificate removed from SecurityContext (thread-locally).");
-			certificateStorage.remove();
-		}
+		LOGGER.trace("Sets certificate to SecurityContext.");
+		strategy.setClientCertificate(certificate);
 	}
 
 	/**
 	 * Saves the validated (!) token thread wide.
-	 * 
+	 *
 	 * @param token
 	 *            token to be saved.
 	 */
 	public static void setToken(Token token) {
-		LOGGER.info("Sets token of service {} to SecurityContext (thread-locally).",
-				token != null ? token.getService() : "null");
-		tokenStorage.set(token);
+		LOGGER.trace("Sets token to SecurityContext.");
+		strategy.setToken(token);
 	}
 
 	/**
 	 * Returns the token that is saved in thread wide storage.
-	 * 
-	 * 
+	 *
+	 *
 	 * @return the token or null if the storage is empty.
 	 */
 	@Nullable
 	public static Token getToken() {
-		return tokenStorage.get();
+		return strategy.getToken();
 	}
 
 	/**
@@ -89,26 +102,111 @@ public class SecurityContext {
 	 */
 	@Nullable
 	public static AccessToken getAccessToken() {
-		return tokenStorage.get() instanceof AccessToken ? (AccessToken) tokenStorage.get() : null;
+		Token token = strategy.getToken();
+		return token instanceof AccessToken ? (AccessToken) token : null;
 	}
 
 	/**
 	 * Clears the current Token from thread wide storage.
 	 */
 	public static void clearToken() {
-		final Token token = tokenStorage.get();
-		if (token != null) {
-			LOGGER.debug("Token of service {} removed from SecurityContext (thread-locally).", token.getService());
-			tokenStorage.remove();
-		}
+		LOGGER.trace("Token removed from SecurityContext.");
+		strategy.setToken(null);
 	}
 
 	/**
 	 * Clears the current token and certificate from thread wide storage.
 	 */
 	public static void clear() {
-		clearCertificate();
-		clearToken();
+		LOGGER.trace("Token and certificate removed from SecurityContext.");
+		strategy.clear();
+	}
+
+	/**
+	 * Captures the current token and certificate, e.g. to pass them to another
+	 * thread.
+	 *
+	 * @return the captured context
+	 */
+	public static SecurityContextSnapshot capture() {
+		return capture(strategy);
+	}
+
+	static SecurityContextSnapshot capture(SecurityContextStrategy securityContextStrategy) {
+		Token token = securityContextStrategy.getToken();
+		Certificate certificate = securityContextStrategy.getClientCertificate();
+		if (token == null && certificate == null) {
+			return SecurityContextSnapshot.EMPTY;
+		}
+		return new SecurityContextSnapshot(token, certificate);
 	}
 
+	/**
+	 * Runs the task with the given token and certificate, which are only visible
+	 * to the task. The previous context of the thread is restored afterwards.
+	 *
+	 * @param token
+	 *            the validated token
+	 * @param certificate
+	 *            the certificate
+	 * @param task
+	 *            the task
+	 */
+	public static void runWith(@Nullable Token token, @Nullable Certificate certificate, Runnable task) {
+		new SecurityContextSnapshot(token, certificate).run(task);
+	}
+
+	/**
+	 * Calls the task with the given token and certificate, which are only visible
+	 * to the task. The previous context of the thread is restored afterwards.
+	 *
+	 * @param token
+	 *            the validated token
+	 * @param certificate
+	 *            the certificate
+	 * @param task
+	 *            the task
+	 * @param <T>
+	 *            the result type
+	 * @return the result of the task
+	 * @throws Exception
+	 *             the exception thrown by the task
+	 */
+	public static <T> T callWith(@Nullable Token token, @Nullable Certificate certificate, Callable<T> task)
+			throws Exception {
+		return new SecurityContextSnapshot(token, certificate).call(task);
+	}
+
+	/**
+	 * @param task
+	 *            the task
+	 * @return a task, that runs with the current context, wherever it is executed
+	 */
+	public static Runnable wrap(Runnable task) {
+		return capture().wrap(task);
+	}
+
+	/**
+	 * @param task
+	 *            the task
+	 * @param <T>
+	 *            the result type
+	 * @return a task, that runs with the current context, wherever it is executed
+	 */
+	public static <T> Callable<T> wrap(Callable<T> task) {
+		return capture().wrap(task);
+	}
+
+	/**
+	 * @param supplier
+	 *            the supplier, e.g. for
+	 *            {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier)}
+	 * @param <T>
+	 *            the result type
+	 * @return a supplier, that runs with the current context, wherever it is
+	 *         executed
+	 */
+	public static <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+		return capture().wrapSupplier(supplier);
+	}
 }
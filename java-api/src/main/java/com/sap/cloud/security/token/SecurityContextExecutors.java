@@ -0,0 +1,186 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Wraps executors, so that the tasks run with the {@link SecurityContext} of
+ * the thread that submits them. The context is captured once per task with
+ * {@link SecurityContext#capture()}: the token, that was already validated, is
+ * passed as it is.
+ *
+ * <pre>
+ * {@code
+ * Executor executor = SecurityContextExecutors.wrap(Executors.newFixedThreadPool(10));
+ * CompletableFuture.supplyAsync(() -> callDownstream(), executor);
+ * }
+ * </pre>
+ */
+public final class SecurityContextExecutors {
+
+	private SecurityContextExecutors() {
+	}
+
+	/**
+	 * Wraps an executor, e.g. for the asynchronous methods of
+	 * {@link java.util.concurrent.CompletableFuture}.
+	 *
+	 * @param executor
+	 *            the executor
+	 * @return the wrapped executor
+	 */
+	public static Executor wrap(Executor executor) {
+		Objects.requireNonNull(executor, "executor must not be null");
+		return task -> executor.execute(SecurityContext.wrap(task));
+	}
+
+	/**
+	 * Wraps an executor service. Shutting down the returned executor service
+	 * shuts down the given one.
+	 *
+	 * @param executorService
+	 *            the executor service
+	 * @return the wrapped executor service
+	 */
+	public static ExecutorService wrap(ExecutorService executorService) {
+		Objects.requireNonNull(executorService, "executorService must not be null");
+		return new ContextExecutorService<>(executorService);
+	}
+
+	/**
+	 * Wraps a scheduled executor service. Periodic tasks run with the context,
+	 * that was captured when they were scheduled. Shutting down the returned
+	 * executor service shuts down the given one.
+	 *
+	 * @param executorService
+	 *            the scheduled executor service
+	 * @return the wrapped scheduled executor service
+	 */
+	public static ScheduledExecutorService wrap(ScheduledExecutorService executorService) {
+		Objects.requireNonNull(executorService, "executorService must not be null");
+		return new ContextScheduledExecutorService(executorService);
+	}
+
+	private static <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+		SecurityContextSnapshot snapshot = SecurityContext.capture();
+		List<Callable<T>> wrappedTasks = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks) {
+			wrappedTasks.add(snapshot.wrap(task));
+		}
+		return wrappedTasks;
+	}
+
+	private static class ContextExecutorService<E extends ExecutorService> extends AbstractExecutorService {
+		final E delegate;
+
+		ContextExecutorService(E delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			delegate.execute(SecurityContext.wrap(command));
+		}
+
+		@Override
+		public <T> Future<T> submit(Callable<T> task) {
+			return delegate.submit(SecurityContext.wrap(task));
+		}
+
+		@Override
+		public <T> Future<T> submit(Runnable task, T result) {
+			return delegate.submit(SecurityContext.wrap(task), result);
+		}
+
+		@Override
+		public Future<?> submit(Runnable task) {
+			return delegate.submit(SecurityContext.wrap(task));
+		}
+
+		@Override
+		public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+			return delegate.invokeAll(wrapAll(tasks));
+		}
+
+		@Override
+		public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+				throws InterruptedException {
+			return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+		}
+
+		@Override
+		public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+				throws InterruptedException, ExecutionException {
+			return delegate.invokeAny(wrapAll(tasks));
+		}
+
+		@Override
+		public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+		}
+
+		@Override
+		public void shutdown() {
+			delegate.shutdown();
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return delegate.shutdownNow();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return delegate.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return delegate.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			return delegate.awaitTermination(timeout, unit);
+		}
+	}
+
+	private static final class ContextScheduledExecutorService extends
+			ContextExecutorService<ScheduledExecutorService> implements ScheduledExecutorService {
+
+		ContextScheduledExecutorService(ScheduledExecutorService delegate) {
+			super(delegate);
+		}
+
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			return delegate.schedule(SecurityContext.wrap(command), delay, unit);
+		}
+
+		@Override
+		public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+			return delegate.schedule(SecurityContext.wrap(callable), delay, unit);
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+				TimeUnit unit) {
+			return delegate.scheduleAtFixedRate(SecurityContext.wrap(command), initialDelay, period, unit);
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+				TimeUnit unit) {
+			return delegate.scheduleWithFixedDelay(SecurityContext.wrap(command), initialDelay, delay, unit);
+		}
+	}
+}
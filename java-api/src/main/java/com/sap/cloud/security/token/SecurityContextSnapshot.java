@@ -0,0 +1,146 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import com.sap.cloud.security.x509.Certificate;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Immutable copy of the {@link SecurityContext}, as captured with
+ * {@link SecurityContext#capture()}. It binds the captured token and
+ * certificate for the execution of a task, similar to a scoped value: the
+ * context of the executing thread is restored when the task completes. Like
+ * this, the already validated token is passed to other threads, without
+ * parsing or validating it again.
+ *
+ * <pre>
+ * {@code
+ * SecurityContextSnapshot snapshot = SecurityContext.capture();
+ * CompletableFuture.supplyAsync(snapshot.wrapSupplier(() -> callDownstream()), executor);
+ * }
+ * </pre>
+ */
+public final class SecurityContextSnapshot {
+	static final SecurityContextSnapshot EMPTY = new SecurityContextSnapshot(null, null);
+
+	private final Token token;
+	private final Certificate certificate;
+
+	SecurityContextSnapshot(@Nullable Token token, @Nullable Certificate certificate) {
+		this.token = token;
+		this.certificate = certificate;
+	}
+
+	/**
+	 * @return the captured token or null
+	 */
+	@Nullable
+	public Token getToken() {
+		return token;
+	}
+
+	/**
+	 * @return the captured certificate or null
+	 */
+	@Nullable
+	public Certificate getClientCertificate() {
+		return certificate;
+	}
+
+	/**
+	 * Runs the task with the captured context.
+	 *
+	 * @param task
+	 *            the task
+	 */
+	public void run(Runnable task) {
+		SecurityContextSnapshot previous = bind();
+		try {
+			task.run();
+		} finally {
+			previous.bind();
+		}
+	}
+
+	/**
+	 * Calls the task with the captured context.
+	 *
+	 * @param task
+	 *            the task
+	 * @param <T>
+	 *            the result type
+	 * @return the result of the task
+	 * @throws Exception
+	 *             the exception thrown by the task
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SecurityContextSnapshot previous = bind();
+		try {
+			return task.call();
+		} finally {
+			previous.bind();
+		}
+	}
+
+	/**
+	 * @param task
+	 *            the task
+	 * @return a task, that runs the given task with the captured context
+	 */
+	public Runnable wrap(Runnable task) {
+		return () -> run(task);
+	}
+
+	/**
+	 * @param task
+	 *            the task
+	 * @param <T>
+	 *            the result type
+	 * @return a task, that calls the given task with the captured context
+	 */
+	public <T> Callable<T> wrap(Callable<T> task) {
+		return () -> call(task);
+	}
+
+	/**
+	 * @param supplier
+	 *            the supplier, e.g. for
+	 *            {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier)}
+	 * @param <T>
+	 *            the result type
+	 * @return a supplier, that calls the given supplier with the captured context
+	 */
+	public <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+		return () -> {
+			SecurityContextSnapshot previous = bind();
+			try {
+				return supplier.get();
+			} finally {
+				previous.bind();
+			}
+		};
+	}
+
+	/**
+	 * Sets the captured context.
+	 *
+	 * @return the context, that was replaced
+	 */
+	private SecurityContextSnapshot bind() {
+		SecurityContextStrategy strategy = SecurityContext.getStrategy();
+		SecurityContextSnapshot previous = SecurityContext.capture(strategy);
+		if (token == null && certificate == null) {
+			strategy.clear();
+		} else {
+			strategy.setToken(token);
+			strategy.setClientCertificate(certificate);
+		}
+		return previous;
+	}
+}
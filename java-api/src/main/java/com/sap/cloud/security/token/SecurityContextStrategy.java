@@ -0,0 +1,77 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import com.sap.cloud.security.x509.Certificate;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage of the {@link SecurityContext}. The default strategy keeps the token
+ * and the certificate per thread. It can be replaced with
+ * {@link SecurityContext#setStrategy(SecurityContextStrategy)}, e.g. with
+ * {@link #inheritableThreadLocal()} so that child threads see the context of
+ * their parent, or with an implementation based on the context propagation
+ * mechanism of the application.
+ */
+public interface SecurityContextStrategy {
+
+	/**
+	 * @return the token or null if the storage is empty.
+	 */
+	@Nullable
+	Token getToken();
+
+	/**
+	 * Saves the token.
+	 *
+	 * @param token
+	 *            the validated token, null clears the token
+	 */
+	void setToken(@Nullable Token token);
+
+	/**
+	 * @return the certificate or null if the storage is empty.
+	 */
+	@Nullable
+	Certificate getClientCertificate();
+
+	/**
+	 * Saves the certificate.
+	 *
+	 * @param certificate
+	 *            the certificate, null clears the certificate
+	 */
+	void setClientCertificate(@Nullable Certificate certificate);
+
+	/**
+	 * Clears the token and the certificate.
+	 */
+	void clear();
+
+	/**
+	 * Keeps the context per thread in a single {@link ThreadLocal}. This is the
+	 * default strategy.
+	 *
+	 * @return the strategy
+	 */
+	static SecurityContextStrategy threadLocal() {
+		return new ThreadLocalSecurityContextStrategy(false);
+	}
+
+	/**
+	 * Keeps the context per thread in a single {@link InheritableThreadLocal}:
+	 * threads, also virtual threads, start with a copy of the context of the
+	 * thread that created them. Note that pooled threads keep the context of the
+	 * thread that created them; use {@link SecurityContextExecutors} for thread pools
+	 * instead.
+	 *
+	 * @return the strategy
+	 */
+	static SecurityContextStrategy inheritableThreadLocal() {
+		return new ThreadLocalSecurityContextStrategy(true);
+	}
+}
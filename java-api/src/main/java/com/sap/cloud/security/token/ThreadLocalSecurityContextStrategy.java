@@ -0,0 +1,87 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import com.sap.cloud.security.x509.Certificate;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps token and certificate of a thread together in one thread local entry,
+ * which is removed as soon as both are cleared. Like this, a request needs a
+ * single entry in the thread local map, which matters for many short-lived
+ * (virtual) threads.
+ */
+final class ThreadLocalSecurityContextStrategy implements SecurityContextStrategy {
+
+	private final ThreadLocal<Context> storage;
+
+	ThreadLocalSecurityContextStrategy(boolean inheritable) {
+		storage = inheritable ? new InheritableThreadLocal<Context>() {
+			@Override
+			protected Context childValue(Context parentValue) {
+				return parentValue != null ? new Context(parentValue.token, parentValue.certificate) : null;
+			}
+		} : new ThreadLocal<>();
+	}
+
+	@Nullable
+	@Override
+	public Token getToken() {
+		Context context = storage.get();
+		return context != null ? context.token : null;
+	}
+
+	@Override
+	public void setToken(@Nullable Token token) {
+		Context context = storage.get();
+		if (context != null) {
+			context.token = token;
+			removeIfEmpty(context);
+		} else if (token != null) {
+			storage.set(new Context(token, null));
+		}
+	}
+
+	@Nullable
+	@Override
+	public Certificate getClientCertificate() {
+		Context context = storage.get();
+		return context != null ? context.certificate : null;
+	}
+
+	@Override
+	public void setClientCertificate(@Nullable Certificate certificate) {
+		Context context = storage.get();
+		if (context != null) {
+			context.certificate = certificate;
+			removeIfEmpty(context);
+		} else if (certificate != null) {
+			storage.set(new Context(null, certificate));
+		}
+	}
+
+	@Override
+	public void clear() {
+		storage.remove();
+	}
+
+	private void removeIfEmpty(Context context) {
+		if (context.token == null && context.certificate == null) {
+			storage.remove();
+		}
+	}
+
+	private static final class Context {
+		Token token;
+		Certificate certificate;
+
+		Context(Token token, Certificate certificate) {
+			this.token = token;
+			this.certificate = certificate;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthorityMapperTest {
+
+	private static final List<String> SCOPES = Arrays.asList("myapp!t1.Read", "otherapp!t2.Read", "myapp!t1.Write",
+			"openid", "myapp!t1.");
+
+	private final AtomicInteger createdAuthorities = new AtomicInteger();
+	private final Function<String, String> authorityFactory = scope -> {
+		createdAuthorities.incrementAndGet();
+		return new String(scope);
+	};
+
+	@Test
+	void scopes_mapsAllScopes() {
+		AuthorityMapper<String> cut = AuthorityMapper.scopes(authorityFactory);
+
+		assertThat(cut.map(SCOPES)).containsExactlyElementsOf(SCOPES);
+	}
+
+	@Test
+	void localScopes_mapsLocalScopesWithoutPrefix() {
+		AuthorityMapper<String> cut = AuthorityMapper.localScopes("myapp!t1", authorityFactory);
+
+		assertThat(cut.map(SCOPES)).containsExactly("Read", "Write");
+		assertThat(cut.getAuthority("otherapp!t2.Read")).isNull();
+	}
+
+	@Test
+	void map_createsAuthorityOncePerScope() {
+		AuthorityMapper<String> cut = AuthorityMapper.localScopes("myapp!t1", authorityFactory);
+
+		Collection<String> authorities = cut.map(SCOPES);
+		Collection<String> authoritiesOfNextToken = cut.map(SCOPES);
+
+		assertThat(createdAuthorities).hasValue(2);
+		assertThat(authoritiesOfNextToken).isNotSameAs(authorities);
+		assertThat(authoritiesOfNextToken.iterator().next()).isSameAs(authorities.iterator().next());
+	}
+
+	@Test
+	void withAuthoritySetCache_returnsCachedAuthorities() {
+		AuthorityMapper<String> cut = AuthorityMapper.localScopes("myapp!t1", authorityFactory)
+				.withAuthoritySetCache(10);
+
+		Collection<String> authorities = cut.map(SCOPES);
+
+		assertThat(cut.map(SCOPES)).isSameAs(authorities);
+		assertThat(cut.map(SCOPES.subList(0, 2))).containsExactly("Read");
+		assertThatThrownBy(() -> authorities.add("Admin")).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	void getAuthority_evictsFirstCachedScopesWhenFull() {
+		AuthorityMapper<String> cut = AuthorityMapper.scopes(authorityFactory);
+		for (int i = 0; i <= AuthorityMapper.DEFAULT_CACHE_SIZE; i++) {
+			cut.getAuthority("scope" + i);
+		}
+		createdAuthorities.set(0);
+
+		cut.getAuthority("scope" + AuthorityMapper.DEFAULT_CACHE_SIZE);
+		assertThat(createdAuthorities).hasValue(0);
+		cut.getAuthority("scope0");
+		assertThat(createdAuthorities).hasValue(1);
+	}
+
+	@Test
+	void withAuthoritySetCache_evictsFirstCachedScopesWhenFull() {
+		AuthorityMapper<String> cut = AuthorityMapper.localScopes("myapp!t1", authorityFactory)
+				.withAuthoritySetCache(1);
+
+		Collection<String> authorities = cut.map(SCOPES);
+		Collection<String> otherAuthorities = cut.map(SCOPES.subList(0, 2));
+
+		assertThat(cut.map(SCOPES.subList(0, 2))).isSameAs(otherAuthorities);
+		assertThat(cut.map(SCOPES)).isNotSameAs(authorities).containsExactly("Read", "Write");
+	}
+
+	@Test
+	void withAuthoritySetCache_invalidSize() {
+		AuthorityMapper<String> cut = AuthorityMapper.scopes(authorityFactory);
+
+		assertThatThrownBy(() -> cut.withAuthoritySetCache(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
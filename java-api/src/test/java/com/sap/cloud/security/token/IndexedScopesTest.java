@@ -0,0 +1,65 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedScopesTest {
+
+	private static final List<String> SCOPES = Arrays.asList("myapp!t1.Read", "otherapp!t2.Read", "myapp!t1.Write",
+			"openid", "myapp!t1.");
+
+	@Test
+	void of_withoutAppId_hasNoLocalScopes() {
+		IndexedScopes cut = IndexedScopes.of(SCOPES);
+
+		assertThat(cut.hasScope("myapp!t1.Read")).isTrue();
+		assertThat(cut.hasScope("Read")).isFalse();
+		assertThat(cut.hasLocalScope("Read")).isFalse();
+		assertThat(cut.getScopes()).containsExactlyElementsOf(SCOPES);
+	}
+
+	@Test
+	void of_withAppId_indexesLocalScopes() {
+		IndexedScopes cut = IndexedScopes.of(SCOPES, "myapp!t1");
+
+		assertThat(cut.hasScope("otherapp!t2.Read")).isTrue();
+		assertThat(cut.hasLocalScope("Read")).isTrue();
+		assertThat(cut.hasLocalScope("Write")).isTrue();
+		assertThat(cut.hasLocalScope("openid")).isFalse();
+		assertThat(cut.getLocalScopes()).containsExactly("Read", "Write");
+	}
+
+	@Test
+	void of_withConverter_indexesConvertedScopes() {
+		IndexedScopes cut = IndexedScopes.of(SCOPES, scopes -> Collections.singleton("Admin"));
+
+		assertThat(cut.hasLocalScope("Admin")).isTrue();
+		assertThat(cut.hasLocalScope("Read")).isFalse();
+	}
+
+	@Test
+	void of_nullOrEmpty_returnsEmpty() {
+		assertThat(IndexedScopes.of(null)).isSameAs(IndexedScopes.EMPTY);
+		assertThat(IndexedScopes.of(Collections.emptyList(), "myapp!t1")).isSameAs(IndexedScopes.EMPTY);
+		assertThat(IndexedScopes.EMPTY.hasScope("openid")).isFalse();
+	}
+
+	@Test
+	void getScopes_isUnmodifiable() {
+		IndexedScopes cut = IndexedScopes.of(SCOPES, "myapp!t1");
+
+		assertThatThrownBy(() -> cut.getScopes().add("Admin")).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> cut.getLocalScopes().add("Admin")).isInstanceOf(UnsupportedOperationException.class);
+	}
+}
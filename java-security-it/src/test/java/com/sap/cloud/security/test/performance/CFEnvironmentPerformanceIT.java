@@ -0,0 +1,103 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.test.performance;
+
+import com.sap.cloud.environment.servicebinding.SapVcapServicesServiceBindingAccessor;
+import com.sap.cloud.security.config.cf.CFEnvironment;
+import com.sap.cloud.security.test.performance.util.BenchmarkUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.sap.cloud.security.config.cf.CFConstants.VCAP_SERVICES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup performance test for reading the identity service configurations
+ * from a large synthetic {@code VCAP_SERVICES} payload.
+ */
+class CFEnvironmentPerformanceIT {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CFEnvironmentPerformanceIT.class);
+	private static final int OTHER_SERVICES = 60;
+	private static final int INSTANCES_PER_SERVICE = 2;
+	private static final int WARMUP_ITERATIONS = 100;
+	private static final int ITERATIONS = 1_000;
+	private static String vcapServices;
+
+	@BeforeAll
+	static void setUp() {
+		vcapServices = createVcapServices();
+		LOGGER.debug(BenchmarkUtil.getSystemInfo());
+		LOGGER.info("VCAP_SERVICES with {} bindings and {} characters", OTHER_SERVICES * INSTANCES_PER_SERVICE + 2,
+				vcapServices.length());
+	}
+
+	@Test
+	void readIdentityServiceConfigurations() {
+		CFEnvironment environment = CFEnvironment.getInstance(this::readEnvironmentVariable);
+		assertThat(environment.getNumberOfXsuaaConfigurations()).isEqualTo(1);
+		assertThat(environment.getIasConfiguration()).isNotNull();
+
+		BenchmarkUtil.Result result = BenchmarkUtil.execute(WARMUP_ITERATIONS, ITERATIONS,
+				() -> CFEnvironment.getInstance(this::readEnvironmentVariable).getXsuaaConfiguration());
+		LOGGER.info("Read identity service configurations result: {}", result);
+	}
+
+	@Test
+	void readAllServiceBindings() {
+		SapVcapServicesServiceBindingAccessor accessor = new SapVcapServicesServiceBindingAccessor(
+				this::readEnvironmentVariable);
+		assertThat(accessor.getServiceBindings()).hasSize(OTHER_SERVICES * INSTANCES_PER_SERVICE + 2);
+
+		BenchmarkUtil.Result result = BenchmarkUtil.execute(WARMUP_ITERATIONS, ITERATIONS,
+				accessor::getServiceBindings);
+		LOGGER.info("Read all service bindings (baseline) result: {}", result);
+	}
+
+	private String readEnvironmentVariable(String name) {
+		return VCAP_SERVICES.equals(name) ? vcapServices : null;
+	}
+
+	private static String createVcapServices() {
+		StringBuilder json = new StringBuilder("{");
+		for (int service = 0; service < OTHER_SERVICES; service++) {
+			json.append("\"service-").append(service).append("\": [");
+			for (int instance = 0; instance < INSTANCES_PER_SERVICE; instance++) {
+				if (instance > 0) {
+					json.append(',');
+				}
+				json.append(createBinding("service-" + service, "standard", createOtherCredentials(service)));
+			}
+			json.append("],");
+		}
+		json.append("\"xsuaa\": [").append(createBinding("xsuaa", "application",
+				"{\"clientid\": \"sb-clientId!t0815\", \"clientsecret\": \"secret\", \"url\": \"https://auth.com\","
+						+ " \"uaadomain\": \"auth.com\", \"xsappname\": \"appId!t0815\"}"))
+				.append("],");
+		json.append("\"identity\": [").append(createBinding("identity", "application",
+				"{\"clientid\": \"iasClientId\", \"clientsecret\": \"secret\", \"url\": \"https://ias.com\","
+						+ " \"domains\": [\"ias.com\"]}"))
+				.append("]}");
+		return json.toString();
+	}
+
+	private static String createBinding(String label, String plan, String credentials) {
+		return "{\"label\": \"" + label + "\", \"plan\": \"" + plan + "\", \"name\": \"" + label + "-instance\","
+				+ " \"tags\": [\"" + label + "\"], \"credentials\": " + credentials + "}";
+	}
+
+	private static String createOtherCredentials(int service) {
+		StringBuilder credentials = new StringBuilder("{\"url\": \"https://service-").append(service)
+				.append(".com\", \"certificate\": \"-----BEGIN CERTIFICATE-----\\n");
+		for (int line = 0; line < 30; line++) {
+			credentials.append("MIIFfjCCA2agAwIBAgIQDn4rEv6+0ZuD1oHvmaMKWTANBgkqhkiG9w0BAQsFADBV\\n");
+		}
+		return credentials.append("-----END CERTIFICATE-----\", \"endpoints\": {\"api\": \"https://api.com\",")
+				.append(" \"ports\": [443, 8443]}, \"enabled\": true}").toString();
+	}
+}
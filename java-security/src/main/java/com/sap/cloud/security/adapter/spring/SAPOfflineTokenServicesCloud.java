@@ -5,6 +5,9 @@
  */
 package com.sap.cloud.security.adapter.spring;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.sap.cloud.security.config.Environments;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.cf.CFConstants;
@@ -28,6 +31,7 @@ import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 import org.springframework.security.oauth2.provider.AuthorizationRequest;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
 import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
@@ -35,10 +39,16 @@ import org.springframework.web.client.RestTemplate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * This constructor requires a dependency to spring-security-oauth2, which is
@@ -89,11 +99,14 @@ import java.util.stream.Collectors;
 public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices, InitializingBean {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SAPOfflineTokenServicesCloud.class);
+	private static final AuthorityMapper<GrantedAuthority> AUTHORITY_MAPPER = AuthorityMapper
+			.scopes(SimpleGrantedAuthority::new);
 	private final OAuth2ServiceConfiguration serviceConfiguration;
 	private Validator<Token> tokenValidator;
 	private JwtValidatorBuilder jwtValidatorBuilder;
 	private boolean useLocalScopeAsAuthorities;
 	private ScopeConverter xsuaaScopeConverter;
+	private Cache<String, CachedAuthentication> authenticationCache;
 
 	/**
 	 * Constructs an instance which is preconfigured for XSUAA service configuration
@@ -168,9 +181,55 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 		return this;
 	}
 
+	/**
+	 * Caches the authentications of the validated tokens until the tokens expire.
+	 * Repeated requests with the same token skip parsing, validation and the
+	 * construction of the authorities. Each call of {@link #loadAuthentication}
+	 * still returns a new {@link OAuth2Authentication}, as Spring Security sets
+	 * the request specific details on it.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached authentications
+	 * @return the instance itself
+	 */
+	public SAPOfflineTokenServicesCloud withAuthenticationCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be greater than 0");
+		}
+		this.authenticationCache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new CachedAuthenticationExpiry())
+				.build();
+		return this;
+	}
+
 	@Override
 	public OAuth2Authentication loadAuthentication(@Nonnull String accessToken)
 			throws AuthenticationException, InvalidTokenException {
+		if (authenticationCache != null) {
+			return loadCachedAuthentication(accessToken);
+		}
+		Token token = validateToken(accessToken);
+		SecurityContext.setToken(token);
+		// remoteUser support: NGPBUG-125268
+		return createOAuth2Authentication(token.getClientId(), getScopes(token), token);
+	}
+
+	private OAuth2Authentication loadCachedAuthentication(String accessToken) {
+		String cacheKey = digest(accessToken);
+		CachedAuthentication cachedAuthentication = authenticationCache.getIfPresent(cacheKey);
+		if (cachedAuthentication == null) {
+			Token token = validateToken(accessToken);
+			cachedAuthentication = new CachedAuthentication(token, getScopes(token));
+			if (token.getExpiration() != null) {
+				authenticationCache.put(cacheKey, cachedAuthentication);
+			}
+		}
+		SecurityContext.setToken(cachedAuthentication.token);
+		return cachedAuthentication.createOAuth2Authentication();
+	}
+
+	private Token validateToken(String accessToken) {
 		Token token = checkAndCreateToken(accessToken);
 
 		ValidationResult validationResult = tokenValidator.validate(token);
@@ -178,25 +237,26 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 		if (validationResult.isErroneous()) {
 			throw new InvalidTokenException(validationResult.getErrorDescription());
 		}
-		SecurityContext.setToken(token);
-
 		String tokenClientId = token.getClientId();
 		if (LOGGER.isInfoEnabled() && tokenClientId != serviceConfiguration.getClientId()) {
 			LOGGER.info("Creates OAuth2Authentication with token clientId {} which differs from oauth client id {}.",
 					tokenClientId, serviceConfiguration.getClientId());
 		}
-		// remoteUser support: NGPBUG-125268
-		return createOAuth2Authentication(tokenClientId, getScopes(token), token);
+		return token;
 	}
 
 	static OAuth2Authentication createOAuth2Authentication(String clientId, Set<String> scopes, Token token) {
 		Authentication userAuthentication = getUserAuthentication(token, scopes);
+		OAuth2Authentication authn = new OAuth2Authentication(createOAuth2Request(clientId, scopes),
+				userAuthentication);
+		return authn;
+	}
+
+	private static OAuth2Request createOAuth2Request(String clientId, Set<String> scopes) {
 		final AuthorizationRequest authorizationRequest = new AuthorizationRequest(clientId, scopes);
 		authorizationRequest.setAuthorities(createAuthorities(scopes));
 		authorizationRequest.setApproved(true);
-		OAuth2Authentication authn = new OAuth2Authentication(authorizationRequest.createOAuth2Request(),
-				userAuthentication);
-		return authn;
+		return authorizationRequest.createOAuth2Request();
 	}
 
 	@Nullable
@@ -251,7 +311,11 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 	}
 
 	private static Set<GrantedAuthority> createAuthorities(Collection<String> scopes) {
-		return scopes.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toSet());
+		Set<GrantedAuthority> authorities = new HashSet<>(scopes.size() * 2);
+		for (String scope : scopes) {
+			authorities.add(AUTHORITY_MAPPER.getAuthority(scope));
+		}
+		return authorities;
 	}
 
 	private Token checkAndCreateToken(@Nonnull String accessToken) {
@@ -270,6 +334,54 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 		}
 	}
 
+	static String digest(String accessToken) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	/**
+	 * The validated token with its precomputed OAuth2 request and user
+	 * authentication, which are not modified by Spring Security.
+	 */
+	private static class CachedAuthentication {
+		private final Token token;
+		private final OAuth2Request oAuth2Request;
+		private final Authentication userAuthentication;
+
+		CachedAuthentication(Token token, Set<String> scopes) {
+			this.token = token;
+			this.oAuth2Request = createOAuth2Request(token.getClientId(), scopes);
+			this.userAuthentication = getUserAuthentication(token, scopes);
+		}
+
+		OAuth2Authentication createOAuth2Authentication() {
+			return new OAuth2Authentication(oAuth2Request, userAuthentication);
+		}
+	}
+
+	private static class CachedAuthenticationExpiry implements Expiry<String, CachedAuthentication> {
+		@Override
+		public long expireAfterCreate(String key, CachedAuthentication authentication, long currentTime) {
+			return Math.max(0, Duration.between(Instant.now(), authentication.token.getExpiration()).toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, CachedAuthentication authentication, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(key, authentication, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, CachedAuthentication authentication, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+	}
+
 	private static class UserAuthenticationToken extends AbstractAuthenticationToken {
 		private final String username;
 
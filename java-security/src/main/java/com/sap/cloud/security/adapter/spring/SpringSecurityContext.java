@@ -10,7 +10,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -20,6 +19,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * This is an alternative way of accessing jwt tokens of type {@link Token} or
@@ -146,6 +146,7 @@ public class SpringSecurityContext {
 	 */
 	private static class XsuaaTokenWithGrantedAuthorities extends XsuaaToken {
 		private final Collection<? extends GrantedAuthority> authorities;
+		private volatile IndexedScopes localScopes;
 
 		public XsuaaTokenWithGrantedAuthorities(String tokenValue,
 				@Nullable Collection<? extends GrantedAuthority> authorities) {
@@ -155,7 +156,13 @@ public class SpringSecurityContext {
 
 		@Override
 		public boolean hasLocalScope(@Nonnull String scope) {
-			return authorities.contains(new SimpleGrantedAuthority(scope));
+			IndexedScopes current = localScopes;
+			if (current == null) {
+				current = IndexedScopes.of(authorities == null ? null
+						: authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+				localScopes = current;
+			}
+			return current.hasScope(scope);
 		}
 	}
 }
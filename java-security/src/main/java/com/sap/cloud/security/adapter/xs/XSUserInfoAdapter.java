@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import static com.sap.cloud.security.token.TokenClaims.*;
@@ -39,6 +40,9 @@ import static com.sap.cloud.security.token.TokenClaims.XSUAA.*;
  * the the spring security context holder. This is not supported by this class!
  * It also does not support the SAPAuthorizationExtension.
  *
+ * The values, that are derived from the token, e.g. the user attributes, are
+ * memoized per instance. The token requests of all instances share one
+ * {@link OAuth2TokenService} and therefore its HTTP client and token cache.
  */
 public class XSUserInfoAdapter implements XSUserInfo {
 
@@ -59,6 +63,10 @@ public class XSUserInfoAdapter implements XSUserInfo {
 	 * Use {@link #getOrCreateOAuth2TokenService()} for access.
 	 */
 	private OAuth2TokenService oAuth2TokenService;
+	private final Map<String, String[]> userAttributes = new ConcurrentHashMap<>();
+	private final Map<String, String[]> systemAttributes = new ConcurrentHashMap<>();
+	private volatile GrantType grantType;
+	private volatile Boolean foreignMode;
 
 	public XSUserInfoAdapter(Object accessToken) {
 		this(accessToken, Environments.getCurrent().getXsuaaConfiguration());
@@ -214,7 +222,7 @@ public class XSUserInfoAdapter implements XSUserInfo {
 	@Override
 	public String[] getAttribute(String attributeName) {
 		checkNotGrantTypeClientCredentials("getAttribute");
-		return getMultiValueAttributeFromExtObject(XS_USER_ATTRIBUTES, attributeName);
+		return getMultiValueAttribute(userAttributes, XS_USER_ATTRIBUTES, attributeName);
 	}
 
 	@Override
@@ -232,7 +240,7 @@ public class XSUserInfoAdapter implements XSUserInfo {
 
 	@Override
 	public String[] getSystemAttribute(String attributeName) {
-		return getMultiValueAttributeFromExtObject(XS_SYSTEM_ATTRIBUTES, attributeName);
+		return getMultiValueAttribute(systemAttributes, XS_SYSTEM_ATTRIBUTES, attributeName);
 	}
 
 	@Override
@@ -263,7 +271,7 @@ public class XSUserInfoAdapter implements XSUserInfo {
 
 	@Override
 	public String getGrantType() {
-		return Optional.ofNullable(accessToken.getGrantType())
+		return Optional.ofNullable(getAccessTokenGrantType())
 				.map(GrantType::toString)
 				.orElseThrow(createXSUserInfoException(GRANT_TYPE));
 	}
@@ -279,6 +287,15 @@ public class XSUserInfoAdapter implements XSUserInfo {
 	 */
 	@Override
 	public boolean isInForeignMode() {
+		Boolean isForeignMode = foreignMode;
+		if (isForeignMode == null) {
+			isForeignMode = determineForeignMode();
+			foreignMode = isForeignMode;
+		}
+		return isForeignMode;
+	}
+
+	private boolean determineForeignMode() {
 		if (configuration == null) {
 			LOGGER.info("No configuration provided -> falling back to foreignMode = true!");
 			return true; // default provide OAuth2ServiceConfiguration via constructor argument
@@ -349,10 +366,7 @@ public class XSUserInfoAdapter implements XSUserInfo {
 	 */
 	private OAuth2TokenService getOrCreateOAuth2TokenService() {
 		if (oAuth2TokenService == null) {
-			oAuth2TokenService = tryToCreateDefaultOAuth2TokenService();
-			if (oAuth2TokenService == null) {
-				oAuth2TokenService = tryToCreateXsuaaOAuth2TokenService();
-			}
+			oAuth2TokenService = SharedOAuth2TokenService.INSTANCE;
 		}
 		if (oAuth2TokenService == null) {
 			throw new UnsupportedOperationException("Failed to create OAuth2TokenService. "
@@ -371,7 +385,7 @@ public class XSUserInfoAdapter implements XSUserInfo {
 	 * @return the {@link DefaultOAuth2TokenService} instance or null if it could
 	 *         not be created.
 	 */
-	private OAuth2TokenService tryToCreateDefaultOAuth2TokenService() {
+	private static OAuth2TokenService tryToCreateDefaultOAuth2TokenService() {
 		LOGGER.debug("Trying to create DefaultOAuth2TokenService.");
 		try {
 			return new DefaultOAuth2TokenService();
@@ -389,7 +403,7 @@ public class XSUserInfoAdapter implements XSUserInfo {
 	 * @return the {@link XsuaaOAuth2TokenService} or null if it could not be
 	 *         created.
 	 */
-	private OAuth2TokenService tryToCreateXsuaaOAuth2TokenService() {
+	private static OAuth2TokenService tryToCreateXsuaaOAuth2TokenService() {
 		LOGGER.debug("Trying to create XsuaaOAuth2TokenService.");
 		try {
 			return new XsuaaOAuth2TokenService();
@@ -404,6 +418,16 @@ public class XSUserInfoAdapter implements XSUserInfo {
 		this.oAuth2TokenService = oAuth2TokenService;
 	}
 
+	private String[] getMultiValueAttribute(Map<String, String[]> attributes, String claimName,
+			String attributeName) {
+		String[] values = attributes.get(attributeName);
+		if (values == null) {
+			values = getMultiValueAttributeFromExtObject(claimName, attributeName);
+			attributes.put(attributeName, values);
+		}
+		return values.clone();
+	}
+
 	private String[] getMultiValueAttributeFromExtObject(String claimName, String attributeName) {
 		List<String> values = null;
 
@@ -423,8 +447,18 @@ public class XSUserInfoAdapter implements XSUserInfo {
 		return values.toArray(new String[values.size()]);
 	}
 
+	@Nullable
+	private GrantType getAccessTokenGrantType() {
+		GrantType tokenGrantType = grantType;
+		if (tokenGrantType == null) {
+			tokenGrantType = accessToken.getGrantType();
+			grantType = tokenGrantType;
+		}
+		return tokenGrantType;
+	}
+
 	private void checkNotGrantTypeClientCredentials(String methodName) {
-		if (GrantType.CLIENT_CREDENTIALS == accessToken.getGrantType()) {
+		if (GrantType.CLIENT_CREDENTIALS == getAccessTokenGrantType()) {
 			String message = String.format("Method '%s' is not supported for grant type '%s'", methodName,
 					GrantType.CLIENT_CREDENTIALS);
 			throw new XSUserInfoException(message + GrantType.CLIENT_CREDENTIALS);
@@ -517,4 +551,21 @@ public class XSUserInfoAdapter implements XSUserInfo {
 		return ccfToken;
 	}
 
+	/**
+	 * Holds the {@link OAuth2TokenService}, that is shared by all instances. It
+	 * is created on first use.
+	 */
+	private static final class SharedOAuth2TokenService {
+		private static final OAuth2TokenService INSTANCE = create();
+
+		private SharedOAuth2TokenService() {
+		}
+
+		@Nullable
+		private static OAuth2TokenService create() {
+			OAuth2TokenService tokenService = tryToCreateDefaultOAuth2TokenService();
+			return tokenService != null ? tokenService : tryToCreateXsuaaOAuth2TokenService();
+		}
+	}
+
 }
@@ -5,7 +5,11 @@
  */
 package com.sap.cloud.security.servlet;
 
+import com.sap.cloud.security.client.HttpClientFactory;
 import com.sap.cloud.security.config.CacheConfiguration;
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.config.Environment;
+import com.sap.cloud.security.config.EnvironmentChangeListener;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.config.cf.CFConstants;
@@ -32,14 +36,16 @@ import java.util.Optional;
 
 import static com.sap.cloud.security.x509.X509Constants.FWD_CLIENT_CERT_HEADER;
 
-public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
+public abstract class AbstractTokenAuthenticator implements TokenAuthenticator, EnvironmentChangeListener {
 
 	private static final Logger logger = LoggerFactory.getLogger(AbstractTokenAuthenticator.class);
 	private final List<ValidationListener> validationListeners = new ArrayList<>();
-	private Validator<Token> tokenValidator;
+	private volatile Validator<Token> tokenValidator;
 	protected CloseableHttpClient httpClient;
 	protected OAuth2ServiceConfiguration serviceConfiguration;
 	private CacheConfiguration tokenKeyCacheConfiguration;
+	private boolean serviceConfigurationOverridden;
+	private boolean httpClientOverridden;
 
 	@Override
 	public TokenAuthenticationResult validateRequest(ServletRequest request, ServletResponse response) {
@@ -82,6 +88,7 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 	 */
 	public AbstractTokenAuthenticator withHttpClient(CloseableHttpClient httpClient) {
 		this.httpClient = httpClient;
+		this.httpClientOverridden = true;
 		return this;
 	}
 
@@ -94,6 +101,7 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 	 */
 	public AbstractTokenAuthenticator withServiceConfiguration(OAuth2ServiceConfiguration serviceConfiguration) {
 		this.serviceConfiguration = serviceConfiguration;
+		this.serviceConfigurationOverridden = true;
 		setupTokenFactory();
 		return this;
 	}
@@ -146,16 +154,98 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 
 	Validator<Token> getOrCreateTokenValidator() {
 		if (tokenValidator == null) {
-			JwtValidatorBuilder jwtValidatorBuilder = JwtValidatorBuilder.getInstance(getServiceConfiguration())
-					.withHttpClient(httpClient);
-			jwtValidatorBuilder.configureAnotherServiceInstance(getOtherServiceConfiguration());
-			Optional.ofNullable(tokenKeyCacheConfiguration).ifPresent(jwtValidatorBuilder::withCacheConfiguration);
-			validationListeners.forEach(jwtValidatorBuilder::withValidatorListener);
-			tokenValidator = jwtValidatorBuilder.build();
+			tokenValidator = createTokenValidator(getServiceConfiguration(), getOtherServiceConfiguration());
 		}
 		return tokenValidator;
 	}
 
+	/**
+	 * Creates a token validator for the given service configuration, that shares
+	 * the http client, the token key cache configuration and the validation
+	 * listeners of this authenticator.
+	 *
+	 * @param configuration
+	 *            the service configuration the tokens are validated against
+	 * @param otherConfiguration
+	 *            another service configuration or null
+	 * @return the token validator
+	 */
+	Validator<Token> createTokenValidator(OAuth2ServiceConfiguration configuration,
+			@Nullable OAuth2ServiceConfiguration otherConfiguration) {
+		JwtValidatorBuilder jwtValidatorBuilder = JwtValidatorBuilder.getInstance(configuration)
+				.withHttpClient(httpClient);
+		jwtValidatorBuilder.configureAnotherServiceInstance(otherConfiguration);
+		Optional.ofNullable(tokenKeyCacheConfiguration).ifPresent(jwtValidatorBuilder::withCacheConfiguration);
+		validationListeners.forEach(jwtValidatorBuilder::withValidatorListener);
+		return jwtValidatorBuilder.build();
+	}
+
+	/**
+	 * Rebuilds the token validator, when the service configurations of the
+	 * environment have changed, e.g. because the credentials were rotated. Tokens
+	 * are validated with the previous validator, until the new one is in place. In
+	 * case the client certificate has changed, it is replaced in the connection
+	 * pools of the {@link HttpClientFactory}. Register the authenticator with
+	 * {@link com.sap.cloud.security.config.Environments#addChangeListener(EnvironmentChangeListener)}.
+	 * <p>
+	 * Has no effect, if the service configuration was set with
+	 * {@link #withServiceConfiguration(OAuth2ServiceConfiguration)}.
+	 *
+	 * @param environment
+	 *            the environment providing the new service configurations
+	 */
+	@Override
+	public void onEnvironmentChange(Environment environment) {
+		if (serviceConfigurationOverridden) {
+			return;
+		}
+		try {
+			ClientIdentity previousIdentity = serviceConfiguration != null ? serviceConfiguration.getClientIdentity()
+					: null;
+			reloadServiceConfiguration(environment);
+			OAuth2ServiceConfiguration configuration = getServiceConfiguration();
+			updateHttpClient(previousIdentity, configuration.getClientIdentity());
+			if (tokenValidator != null) {
+				tokenValidator = createTokenValidator(configuration, getOtherServiceConfiguration());
+			}
+			logger.info("Rebuilt token validator for changed service configuration of client {}",
+					configuration.getClientId());
+		} catch (RuntimeException e) {
+			logger.error("Failed to apply changed service configuration, keeps the current token validator", e);
+		}
+	}
+
+	/**
+	 * Updates the service configuration dependent state of the authenticator,
+	 * before its token validator is rebuilt.
+	 *
+	 * @param environment
+	 *            the environment providing the new service configurations
+	 */
+	protected void reloadServiceConfiguration(Environment environment) {
+		// service configuration is read from the environment on demand
+	}
+
+	private void updateHttpClient(@Nullable ClientIdentity previousIdentity, ClientIdentity clientIdentity) {
+		if (httpClientOverridden || clientIdentity == null || !clientIdentity.isCertificateBased()) {
+			return;
+		}
+		if (httpClient != null && previousIdentity != null
+				&& !clientIdentity.getId().equals(previousIdentity.getId())) {
+			httpClient = HttpClientFactory.create(clientIdentity);
+		} else {
+			HttpClientFactory.update(clientIdentity);
+		}
+	}
+
+	/**
+	 * Notifies the validation listeners about a token, that is authenticated
+	 * without passing the token validator, e.g. because it was found in a cache.
+	 */
+	void notifyValidationSuccess() {
+		validationListeners.forEach(ValidationListener::onValidationSuccess);
+	}
+
 	TokenAuthenticationResult unauthenticated(String message) {
 		logger.warn("Request could not be authenticated: {}.", message);
 		return TokenAuthenticatorResult.createUnauthenticated(message);
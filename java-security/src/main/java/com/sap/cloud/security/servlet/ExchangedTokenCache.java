@@ -0,0 +1,131 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.servlet;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sap.cloud.security.token.Token;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Caches the validated XSUAA tokens, which were obtained by exchanging an IAS
+ * token. The entries are keyed by the SHA-256 digest of the IAS token and
+ * expire together with the earlier expiring token of the pair.
+ */
+class ExchangedTokenCache {
+
+	static final int CACHE_SIZE = 1000;
+	private final Cache<String, Entry> cache;
+	private final Clock clock;
+
+	ExchangedTokenCache() {
+		this(Ticker.systemTicker(), Clock.systemUTC());
+	}
+
+	/**
+	 * Used for testing.
+	 *
+	 * @param cacheTicker
+	 *            ticker the cache uses to determine time
+	 * @param clock
+	 *            clock to determine the remaining lifetime of the tokens
+	 */
+	ExchangedTokenCache(Ticker cacheTicker, Clock clock) {
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+				.ticker(cacheTicker)
+				.maximumSize(CACHE_SIZE)
+				.expireAfter(new EntryExpiry())
+				.build();
+	}
+
+	/**
+	 * Returns the XSUAA token that was exchanged for the given IAS token.
+	 *
+	 * @param iasToken
+	 *            the IAS token
+	 * @return the validated XSUAA token or null, if there is no (unexpired) entry
+	 */
+	@Nullable
+	Token get(Token iasToken) {
+		Entry entry = cache.getIfPresent(digest(iasToken.getTokenValue()));
+		return entry != null ? entry.xsuaaToken : null;
+	}
+
+	/**
+	 * Caches the XSUAA token, that was exchanged for the IAS token. Must only be
+	 * called for validated tokens.
+	 *
+	 * @param iasToken
+	 *            the IAS token
+	 * @param xsuaaToken
+	 *            the XSUAA token, that was exchanged for the IAS token
+	 */
+	void put(Token iasToken, Token xsuaaToken) {
+		Instant expiresAt = earliest(iasToken.getExpiration(), xsuaaToken.getExpiration());
+		if (expiresAt != null && expiresAt.isAfter(clock.instant())) {
+			cache.put(digest(iasToken.getTokenValue()), new Entry(xsuaaToken, expiresAt));
+		}
+	}
+
+	void clear() {
+		cache.invalidateAll();
+	}
+
+	@Nullable
+	private static Instant earliest(@Nullable Instant first, @Nullable Instant second) {
+		if (first == null || second == null) {
+			return null;
+		}
+		return first.isBefore(second) ? first : second;
+	}
+
+	static String digest(String tokenValue) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	private static class Entry {
+		private final Token xsuaaToken;
+		private final Instant expiresAt;
+
+		Entry(Token xsuaaToken, Instant expiresAt) {
+			this.xsuaaToken = xsuaaToken;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private class EntryExpiry implements Expiry<String, Entry> {
+		@Override
+		public long expireAfterCreate(String key, Entry entry, long currentTime) {
+			return Math.max(0, Duration.between(clock.instant(), entry.expiresAt).toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, entry, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
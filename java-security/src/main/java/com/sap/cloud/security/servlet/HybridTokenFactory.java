@@ -8,6 +8,8 @@ package com.sap.cloud.security.servlet;
 import com.sap.cloud.security.config.Environments;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.cf.CFConstants;
+import com.sap.cloud.security.json.DefaultJsonObject;
+import com.sap.cloud.security.json.JsonObject;
 import com.sap.cloud.security.json.JsonParsingException;
 import com.sap.cloud.security.token.*;
 import com.sap.cloud.security.xsuaa.Assertions;
@@ -22,6 +24,7 @@ import java.util.regex.Pattern;
 
 import static com.sap.cloud.security.token.TokenClaims.XSUAA.EXTERNAL_ATTRIBUTE;
 import static com.sap.cloud.security.token.TokenClaims.XSUAA.EXTERNAL_ATTRIBUTE_ENHANCER;
+import static com.sap.cloud.security.token.TokenClaims.XSUAA.ZONE_ID;
 
 /**
  * Creates a {@link Token} instance. Supports Jwt tokens from IAS and XSUAA
@@ -31,6 +34,7 @@ import static com.sap.cloud.security.token.TokenClaims.XSUAA.EXTERNAL_ATTRIBUTE_
 public class HybridTokenFactory implements TokenFactory {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(HybridTokenFactory.class);
+	private static final Pattern BEARER_PATTERN = Pattern.compile("[B|b]earer ");
 	private static String xsAppId;
 	private static ScopeConverter xsScopeConverter;
 
@@ -47,11 +51,12 @@ public class HybridTokenFactory implements TokenFactory {
 		try {
 			Objects.requireNonNull(jwtToken, "Requires encoded jwtToken to create a Token instance.");
 			DecodedJwt decodedJwt = Base64JwtDecoder.getInstance().decode(removeBearer(jwtToken));
+			DefaultJsonObject tokenBody = new DefaultJsonObject(decodedJwt.getPayload());
 
-			if (isXsuaaToken(decodedJwt)) {
-				return new XsuaaToken(decodedJwt).withScopeConverter(getOrCreateScopeConverter());
+			if (isXsuaaToken(tokenBody)) {
+				return new XsuaaToken(decodedJwt, tokenBody).withScopeConverter(getOrCreateScopeConverter());
 			}
-			return new SapIdToken(decodedJwt);
+			return new SapIdToken(decodedJwt, tokenBody);
 		} catch (JsonParsingException e) {
 			throw new JsonParsingException(String.format("Issue with Jwt parsing. Authorization header: %s - %s",
 					jwtToken.substring(0, 20), e.getMessage()), e);
@@ -90,24 +95,33 @@ public class HybridTokenFactory implements TokenFactory {
 	}
 
 	/**
-	 * Determines if the provided decoded jwt token is issued by the XSUAA identity
-	 * service.
+	 * Determines if the provided token is issued by the XSUAA identity service,
+	 * based on its parsed claims: XSUAA tokens are enhanced by XSUAA or are issued
+	 * for the "uaa" zone.
 	 *
-	 * @param decodedJwt
-	 *            jwt to be checked
+	 * @param tokenBody
+	 *            the parsed payload of the jwt to be checked
 	 * @return true if provided token is a XSUAA token
 	 */
-	private static boolean isXsuaaToken(DecodedJwt decodedJwt) {
-		String jwtPayload = decodedJwt.getPayload().toLowerCase();
-		return (jwtPayload.contains(EXTERNAL_ATTRIBUTE)
-				&& jwtPayload.contains(EXTERNAL_ATTRIBUTE_ENHANCER)
-				&& jwtPayload.contains("xsuaa"))
-				|| jwtPayload.contains("\"zid\":\"uaa\",");
+	private static boolean isXsuaaToken(DefaultJsonObject tokenBody) {
+		if (tokenBody.contains(EXTERNAL_ATTRIBUTE)) {
+			JsonObject externalAttributes = tokenBody.getJsonObject(EXTERNAL_ATTRIBUTE);
+			if (externalAttributes != null
+					&& "xsuaa".equalsIgnoreCase(externalAttributes.getAsString(EXTERNAL_ATTRIBUTE_ENHANCER))) {
+				return true;
+			}
+		}
+		return "uaa".equals(tokenBody.getAsString(ZONE_ID));
 	}
 
 	private static String removeBearer(@Nonnull String jwtToken) {
 		Assertions.assertHasText(jwtToken, "jwtToken must not be null / empty");
-		Pattern bearerPattern = Pattern.compile("[B|b]earer ");
-		return bearerPattern.matcher(jwtToken).replaceFirst("");
+		if (jwtToken.startsWith("Bearer ") || jwtToken.startsWith("bearer ")) {
+			return jwtToken.substring(7);
+		}
+		if (!jwtToken.contains("earer ")) {
+			return jwtToken;
+		}
+		return BEARER_PATTERN.matcher(jwtToken).replaceFirst("");
 	}
 }
@@ -6,14 +6,18 @@
 package com.sap.cloud.security.servlet;
 
 import com.sap.cloud.security.client.HttpClientFactory;
+import com.sap.cloud.security.config.Environment;
 import com.sap.cloud.security.config.Environments;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.config.cf.CFConstants;
 import com.sap.cloud.security.token.*;
+import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.token.validation.Validator;
 import com.sap.cloud.security.x509.X509Certificate;
 import com.sap.cloud.security.xsuaa.client.DefaultOAuth2TokenService;
 import com.sap.cloud.security.xsuaa.http.HttpHeaders;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenFlowException;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +37,10 @@ public class XsuaaTokenAuthenticator extends AbstractTokenAuthenticator {
 	private static final Logger LOGGER = LoggerFactory.getLogger(XsuaaTokenAuthenticator.class);
 	private static final String IAS_XSUAA_ENABLED = "IAS_XSUAA_XCHANGE_ENABLED";
 	private IasXsuaaExchangeBroker exchangeBroker;
+	private final ExchangedTokenCache exchangedTokenCache = new ExchangedTokenCache();
+	private volatile Validator<Token> iasTokenValidator;
+	private volatile ConfiguredScopeConverter scopeConverter;
+	private volatile Boolean iasXsuaaXchangeEnabled;
 
 	public XsuaaTokenAuthenticator() {
 		serviceConfiguration = Environments.getCurrent().getXsuaaConfiguration();
@@ -64,12 +72,33 @@ public class XsuaaTokenAuthenticator extends AbstractTokenAuthenticator {
 	 * to be updated.
 	 */
 	private void buildDependencies() {
-		if (serviceConfiguration != null && httpClient != null && isIasXsuaaXchangeEnabled()) {
+		iasXsuaaXchangeEnabled = null;
+		exchangedTokenCache.clear();
+		if (serviceConfiguration != null && httpClient != null && readIasXsuaaXchangeEnabled()) {
 			this.exchangeBroker = IasXsuaaExchangeBroker.build(this.serviceConfiguration,
 					new DefaultOAuth2TokenService(httpClient));
 		}
 	}
 
+	@Override
+	public void onEnvironmentChange(Environment environment) {
+		super.onEnvironmentChange(environment);
+		buildDependencies();
+		if (iasTokenValidator != null) {
+			OAuth2ServiceConfiguration iasConfiguration = environment.getIasConfiguration();
+			iasTokenValidator = iasConfiguration != null ? createTokenValidator(iasConfiguration, null) : null;
+		}
+	}
+
+	@Override
+	protected void reloadServiceConfiguration(Environment environment) {
+		OAuth2ServiceConfiguration configuration = environment.getXsuaaConfiguration();
+		if (configuration == null) {
+			throw new IllegalStateException("There must be a service configuration.");
+		}
+		serviceConfiguration = configuration;
+	}
+
 	@Override
 	public Token extractFromHeader(String authorizationHeader) {
 		return new XsuaaToken(authorizationHeader)
@@ -116,10 +145,7 @@ public class XsuaaTokenAuthenticator extends AbstractTokenAuthenticator {
 											: "no token exchange enabled."));
 						} else if (isIasXsuaaXchangeEnabled()) {
 							LOGGER.debug("Received {} token", token.getService());
-							token = new XsuaaToken(Objects.requireNonNull(
-									exchangeBroker.resolve(token),
-									"IasXsuaaExchangeBroker is not provided"))
-											.withScopeConverter(getScopeConverter());
+							return exchangedTokenValidationResult(token);
 						}
 					}
 					return tokenValidationResult(token);
@@ -133,9 +159,94 @@ public class XsuaaTokenAuthenticator extends AbstractTokenAuthenticator {
 		return createUnauthenticated("Could not process request " + request);
 	}
 
+	/**
+	 * Exchanges the IAS token for a XSUAA token. In case an IAS service
+	 * configuration is available, the IAS token is validated locally and the
+	 * XSUAA token, which was received from the bound XSUAA instance, is trusted
+	 * without further validation. Otherwise, the exchanged XSUAA token gets
+	 * validated. Validated pairs are cached until the earlier of both tokens
+	 * expires or the dependencies are rebuilt. The validation listeners are
+	 * notified about cache hits as successful validations.
+	 *
+	 * @param iasToken
+	 *            the IAS token
+	 * @return the authentication result
+	 */
+	private TokenAuthenticationResult exchangedTokenValidationResult(Token iasToken) throws TokenFlowException {
+		Token xsuaaToken = exchangedTokenCache.get(iasToken);
+		if (xsuaaToken != null) {
+			LOGGER.debug("Found exchanged token in cache");
+			notifyValidationSuccess();
+			SecurityContext.setToken(xsuaaToken);
+			return authenticated(xsuaaToken);
+		}
+		Validator<Token> iasTokenValidator = getOrCreateIasTokenValidator();
+		if (iasTokenValidator == null) {
+			xsuaaToken = exchange(iasToken);
+			TokenAuthenticationResult result = tokenValidationResult(xsuaaToken);
+			if (result.isAuthenticated()) {
+				exchangedTokenCache.put(iasToken, xsuaaToken);
+			}
+			return result;
+		}
+		ValidationResult result = iasTokenValidator.validate(iasToken);
+		if (result.isErroneous()) {
+			return unauthenticated("Error during token validation: " + result.getErrorDescription());
+		}
+		xsuaaToken = exchange(iasToken);
+		exchangedTokenCache.put(iasToken, xsuaaToken);
+		SecurityContext.setToken(xsuaaToken);
+		return authenticated(xsuaaToken);
+	}
+
+	private Token exchange(Token iasToken) throws TokenFlowException {
+		return new XsuaaToken(Objects.requireNonNull(
+				exchangeBroker.resolve(iasToken),
+				"IasXsuaaExchangeBroker is not provided"))
+						.withScopeConverter(getScopeConverter());
+	}
+
+	@Nullable
+	private Validator<Token> getOrCreateIasTokenValidator() {
+		if (iasTokenValidator == null) {
+			OAuth2ServiceConfiguration iasConfiguration = Environments.getCurrent().getIasConfiguration();
+			if (iasConfiguration == null) {
+				LOGGER.debug("No IAS service configuration found, exchanged tokens get validated instead.");
+				return null;
+			}
+			iasTokenValidator = createTokenValidator(iasConfiguration, null);
+		}
+		return iasTokenValidator;
+	}
+
+	/**
+	 * The scope converter compiles a pattern for the application id. It is
+	 * created once per service configuration instead of per request.
+	 */
 	private ScopeConverter getScopeConverter() {
-		return new XsuaaScopeConverter(
-				getServiceConfiguration().getProperty(CFConstants.XSUAA.APP_ID));
+		OAuth2ServiceConfiguration configuration = getServiceConfiguration();
+		ConfiguredScopeConverter converter = scopeConverter;
+		if (converter == null || converter.configuration != configuration) {
+			converter = new ConfiguredScopeConverter(configuration);
+			scopeConverter = converter;
+		}
+		return converter.scopeConverter;
+	}
+
+	/**
+	 * Returns whether token exchange between IAS and XSUAA is enabled. The
+	 * environment variable is read with the first request after the dependencies
+	 * were built and not again for each request.
+	 *
+	 * @return returns true if exchange is enabled and false if disabled
+	 */
+	private boolean isIasXsuaaXchangeEnabled() {
+		Boolean enabled = iasXsuaaXchangeEnabled;
+		if (enabled == null) {
+			enabled = readIasXsuaaXchangeEnabled();
+			iasXsuaaXchangeEnabled = enabled;
+		}
+		return enabled;
 	}
 
 	/**
@@ -147,10 +258,19 @@ public class XsuaaTokenAuthenticator extends AbstractTokenAuthenticator {
 	 *
 	 * @return returns true if exchange is enabled and false if disabled
 	 */
-
-	private boolean isIasXsuaaXchangeEnabled() {
+	private static boolean readIasXsuaaXchangeEnabled() {
 		String isEnabled = System.getenv(IAS_XSUAA_ENABLED);
 		LOGGER.debug("System environment variable {} is set to {}", IAS_XSUAA_ENABLED, isEnabled);
 		return isEnabled != null && !isEnabled.equalsIgnoreCase("false");
 	}
+
+	private static final class ConfiguredScopeConverter {
+		private final OAuth2ServiceConfiguration configuration;
+		private final ScopeConverter scopeConverter;
+
+		ConfiguredScopeConverter(OAuth2ServiceConfiguration configuration) {
+			this.configuration = configuration;
+			this.scopeConverter = new XsuaaScopeConverter(configuration.getProperty(CFConstants.XSUAA.APP_ID));
+		}
+	}
 }
@@ -30,14 +30,29 @@ import static com.sap.cloud.security.token.TokenClaims.XSUAA.*;
  */
 public abstract class AbstractToken implements Token {
 	private static final long serialVersionUID = 2204172041950251807L;
+	private static final Pattern BEARER_PATTERN = Pattern.compile("[B|b]earer ");
 
 	private final DecodedJwt decodedJwt;
 	protected final DefaultJsonObject tokenHeader;
 	protected final DefaultJsonObject tokenBody;
 
 	public AbstractToken(@Nonnull DecodedJwt decodedJwt) {
+		this(decodedJwt, new DefaultJsonObject(decodedJwt.getPayload()));
+	}
+
+	/**
+	 * Creates a Token object from a decoded jwt, whose payload was already
+	 * parsed, e.g. to determine the type of the token. Like this, the payload is
+	 * not parsed twice.
+	 *
+	 * @param decodedJwt
+	 *            the decoded jwt
+	 * @param tokenBody
+	 *            the parsed payload of the decoded jwt
+	 */
+	protected AbstractToken(@Nonnull DecodedJwt decodedJwt, @Nonnull DefaultJsonObject tokenBody) {
 		this.tokenHeader = new DefaultJsonObject(decodedJwt.getHeader());
-		this.tokenBody = new DefaultJsonObject(decodedJwt.getPayload());
+		this.tokenBody = tokenBody;
 		this.decodedJwt = decodedJwt;
 	}
 
@@ -143,10 +158,23 @@ public abstract class AbstractToken implements Token {
 		};
 	}
 
-	private static String removeBearer(@Nonnull String jwtToken) {
+	/**
+	 * Removes the first "Bearer " prefix. The common case of a leading prefix and
+	 * tokens without prefix are handled without the regular expression.
+	 *
+	 * @param jwtToken
+	 *            the encoded token, optionally with "Bearer " prefix
+	 * @return the encoded token
+	 */
+	static String removeBearer(@Nonnull String jwtToken) {
 		Assertions.assertHasText(jwtToken, "jwtToken must not be null / empty");
-		Pattern bearerPattern = Pattern.compile("[B|b]earer ");
-		return bearerPattern.matcher(jwtToken).replaceFirst("");
+		if (jwtToken.startsWith("Bearer ") || jwtToken.startsWith("bearer ")) {
+			return jwtToken.substring(7);
+		}
+		if (!jwtToken.contains("earer ")) {
+			return jwtToken;
+		}
+		return BEARER_PATTERN.matcher(jwtToken).replaceFirst("");
 	}
 
 	@Override
@@ -6,6 +6,7 @@
 package com.sap.cloud.security.token;
 
 import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.json.DefaultJsonObject;
 import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
 
 import javax.annotation.Nonnull;
@@ -25,6 +26,18 @@ public class SapIdToken extends AbstractToken {
 		super(decodedJwt);
 	}
 
+	/**
+	 * Creates an instance from a decoded jwt, whose payload was already parsed.
+	 *
+	 * @param decodedJwt
+	 *            the decoded jwt
+	 * @param tokenBody
+	 *            the parsed payload of the decoded jwt
+	 */
+	public SapIdToken(@Nonnull DecodedJwt decodedJwt, @Nonnull DefaultJsonObject tokenBody) {
+		super(decodedJwt, tokenBody);
+	}
+
 	public SapIdToken(@Nonnull String idToken) {
 		super(idToken);
 	}
@@ -10,15 +10,13 @@ import com.sap.cloud.security.xsuaa.Assertions;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * This utility class translates XSUAA scopes that are specified in global form
  * and prefixed with the "appId.", to local ones.
  */
 public class XsuaaScopeConverter implements ScopeConverter {
-	private final Pattern globalScopePattern;
+	private final String globalScopePrefix;
 
 	/**
 	 * Creates an instance of the converter.
@@ -28,7 +26,7 @@ public class XsuaaScopeConverter implements ScopeConverter {
 	 */
 	public XsuaaScopeConverter(String appId) {
 		Assertions.assertHasText(appId, "appId must not be null or empty.");
-		this.globalScopePattern = Pattern.compile(appId + "\\.(.+)");
+		this.globalScopePrefix = appId + ".";
 	}
 
 	@Override
@@ -44,9 +42,8 @@ public class XsuaaScopeConverter implements ScopeConverter {
 	}
 
 	private String convertToLocalScope(String scope) {
-		Matcher matcher = globalScopePattern.matcher(scope);
-		if (matcher.matches()) {
-			return matcher.group(matcher.groupCount());
+		if (scope.length() > globalScopePrefix.length() && scope.startsWith(globalScopePrefix)) {
+			return scope.substring(globalScopePrefix.length());
 		}
 		return null;
 	}
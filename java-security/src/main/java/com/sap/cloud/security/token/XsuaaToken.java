@@ -6,6 +6,7 @@
 package com.sap.cloud.security.token;
 
 import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.json.DefaultJsonObject;
 import com.sap.cloud.security.xsuaa.Assertions;
 import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
 import org.slf4j.Logger;
@@ -31,6 +32,7 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 	static final String UNIQUE_CLIENT_NAME_FORMAT = "client/%s"; // client/<clientid>
 	private static final Logger LOGGER = LoggerFactory.getLogger(XsuaaToken.class);
 	private ScopeConverter scopeConverter;
+	private volatile IndexedScopes indexedScopes;
 
 	/**
 	 * Creates an instance.
@@ -42,6 +44,18 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 		super(decodedJwt);
 	}
 
+	/**
+	 * Creates an instance from a decoded jwt, whose payload was already parsed.
+	 *
+	 * @param decodedJwt
+	 *            the decoded jwt
+	 * @param tokenBody
+	 *            the parsed payload of the decoded jwt
+	 */
+	public XsuaaToken(@Nonnull DecodedJwt decodedJwt, @Nonnull DefaultJsonObject tokenBody) {
+		super(decodedJwt, tokenBody);
+	}
+
 	/**
 	 * Creates an instance.
 	 *
@@ -96,6 +110,7 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 	 */
 	public XsuaaToken withScopeConverter(@Nullable ScopeConverter converter) {
 		this.scopeConverter = converter;
+		this.indexedScopes = null;
 		return this;
 	}
 
@@ -128,7 +143,7 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 
 	@Override
 	public boolean hasScope(String scope) {
-		return getScopes().contains(scope);
+		return getIndexedScopes().hasScope(scope);
 	}
 
 	/**
@@ -144,7 +159,26 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 	public boolean hasLocalScope(@Nonnull String scope) {
 		Assertions.assertNotNull(scopeConverter,
 				"hasLocalScope() method requires a scopeConverter, which must not be null");
-		return scopeConverter.convert(getScopes()).contains(scope);
+		return getIndexedScopes().hasLocalScope(scope);
+	}
+
+	/**
+	 * Returns the scopes of the token, indexed once for {@link #hasScope(String)}
+	 * and, if a {@link ScopeConverter} is configured, for
+	 * {@link #hasLocalScope(String)}.
+	 *
+	 * @return the indexed scopes
+	 */
+	public IndexedScopes getIndexedScopes() {
+		IndexedScopes current = indexedScopes;
+		if (current == null) {
+			ScopeConverter converter = scopeConverter;
+			current = converter != null
+					? IndexedScopes.of(getScopes(), converter::convert)
+					: IndexedScopes.of(getScopes());
+			indexedScopes = current;
+		}
+		return current;
 	}
 
 	@Override
@@ -0,0 +1,26 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token.validation;
+
+/**
+ * State of the circuit breaker, that protects the requests to the token keys
+ * and OIDC discovery endpoints of an identity service host.
+ */
+public enum CircuitBreakerState {
+	/**
+	 * Requests are sent to the host.
+	 */
+	CLOSED,
+	/**
+	 * The host failed repeatedly, requests are rejected without calling the host.
+	 */
+	OPEN,
+	/**
+	 * A limited number of probe requests are sent to the host to check whether it
+	 * has recovered.
+	 */
+	HALF_OPEN
+}
@@ -18,4 +18,19 @@ public interface ValidationListener {
 
 	void onValidationSuccess();
 
+	/**
+	 * Called when the circuit breaker, that protects the requests to the token
+	 * keys and OIDC discovery endpoints of an identity service host, changes its
+	 * state. While the circuit is open, tokens are validated with the last known
+	 * token keys, if available.
+	 *
+	 * @param host
+	 *            the identity service host
+	 * @param state
+	 *            the new state
+	 */
+	default void onCircuitBreakerStateChange(String host, CircuitBreakerState state) {
+		// optional
+	}
+
 }
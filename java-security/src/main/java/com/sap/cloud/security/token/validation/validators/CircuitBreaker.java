@@ -0,0 +1,197 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token.validation.validators;
+
+import com.sap.cloud.security.token.validation.CircuitBreakerState;
+import com.sap.cloud.security.token.validation.ValidationListener;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Circuit breaker per identity service host for the requests to the token keys
+ * and OIDC discovery endpoints. After {@link #DEFAULT_FAILURE_THRESHOLD}
+ * consecutive failures of a host, the circuit opens and requests fail fast for
+ * {@link #DEFAULT_OPEN_DURATION}. Afterwards, the circuit is half-open and a
+ * single probe request is let through: it closes the circuit on success and
+ * opens it again on failure.
+ * <p>
+ * Only failures, that indicate an unavailable host, count: server errors, 429,
+ * I/O errors and rejections by this circuit breaker. Client errors like 400
+ * prove that the host is available.
+ */
+class CircuitBreaker {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+	static final int DEFAULT_FAILURE_THRESHOLD = 5;
+	static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+	static final int HALF_OPEN_PROBES = 1;
+
+	private final int failureThreshold;
+	private final Duration openDuration;
+	private final Clock clock;
+	private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+	private final Set<ValidationListener> listeners = new CopyOnWriteArraySet<>();
+
+	CircuitBreaker() {
+		this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, Clock.systemUTC());
+	}
+
+	CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+		this.clock = clock;
+	}
+
+	void registerValidationListener(ValidationListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Executes the request, unless the circuit of the host is open.
+	 *
+	 * @param uri
+	 *            the uri of the request
+	 * @param request
+	 *            the request
+	 * @return the result of the request
+	 * @throws OAuth2ServiceException
+	 *             in case the circuit is open or the request failed
+	 */
+	<T> T execute(URI uri, Request<T> request) throws OAuth2ServiceException {
+		String host = uri.getHost();
+		HostCircuit circuit = circuits.computeIfAbsent(host, h -> new HostCircuit());
+		if (!circuit.tryAcquire(host)) {
+			throw new CircuitBreakerOpenException(host, uri);
+		}
+		try {
+			T result = request.execute();
+			circuit.onSuccess(host);
+			return result;
+		} catch (OAuth2ServiceException e) {
+			if (isHostFailure(e)) {
+				circuit.onFailure(host);
+			} else {
+				circuit.onSuccess(host);
+			}
+			throw e;
+		} catch (RuntimeException | Error e) {
+			circuit.onFailure(host);
+			throw e;
+		}
+	}
+
+	CircuitBreakerState getState(String host) {
+		HostCircuit circuit = circuits.get(host);
+		return circuit != null ? circuit.state : CircuitBreakerState.CLOSED;
+	}
+
+	/**
+	 * @return true, if the failure indicates, that the host is not available,
+	 *         i.e. it is no definite rejection of the request
+	 */
+	static boolean isHostFailure(OAuth2ServiceException e) {
+		return e instanceof CircuitBreakerOpenException || e.isRetryable() || e.getCause() instanceof IOException;
+	}
+
+	private void notifyListeners(String host, CircuitBreakerState state) {
+		if (state == CircuitBreakerState.OPEN) {
+			LOGGER.warn("Circuit breaker opened for host {}, requests are rejected for {} seconds", host,
+					openDuration.getSeconds());
+		} else {
+			LOGGER.info("Circuit breaker for host {} is {}", host, state);
+		}
+		listeners.forEach(listener -> listener.onCircuitBreakerStateChange(host, state));
+	}
+
+	static class CircuitBreakerOpenException extends OAuth2ServiceException {
+		private static final long serialVersionUID = 1L;
+
+		CircuitBreakerOpenException(String host, URI uri) {
+			super("Circuit breaker open for host " + host + ", request to " + uri + " was not sent");
+		}
+	}
+
+	@FunctionalInterface
+	interface Request<T> {
+		T execute() throws OAuth2ServiceException;
+	}
+
+	private class HostCircuit {
+		private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+		private int consecutiveFailures;
+		private int probes;
+		private Instant openedAt;
+
+		boolean tryAcquire(String host) {
+			if (state == CircuitBreakerState.CLOSED) {
+				return true;
+			}
+			boolean halfOpened = false;
+			synchronized (this) {
+				if (state == CircuitBreakerState.OPEN) {
+					if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+						return false;
+					}
+					state = CircuitBreakerState.HALF_OPEN;
+					probes = 0;
+					halfOpened = true;
+				}
+				if (state == CircuitBreakerState.HALF_OPEN) {
+					if (probes >= HALF_OPEN_PROBES) {
+						return false;
+					}
+					probes++;
+				}
+			}
+			if (halfOpened) {
+				notifyListeners(host, CircuitBreakerState.HALF_OPEN);
+			}
+			return true;
+		}
+
+		void onSuccess(String host) {
+			if (state == CircuitBreakerState.CLOSED && consecutiveFailures == 0) {
+				return;
+			}
+			boolean closed;
+			synchronized (this) {
+				closed = state != CircuitBreakerState.CLOSED;
+				state = CircuitBreakerState.CLOSED;
+				consecutiveFailures = 0;
+				probes = 0;
+			}
+			if (closed) {
+				notifyListeners(host, CircuitBreakerState.CLOSED);
+			}
+		}
+
+		void onFailure(String host) {
+			boolean opened = false;
+			synchronized (this) {
+				consecutiveFailures++;
+				if (state == CircuitBreakerState.HALF_OPEN
+						|| (state == CircuitBreakerState.CLOSED && consecutiveFailures >= failureThreshold)) {
+					state = CircuitBreakerState.OPEN;
+					openedAt = clock.instant();
+					opened = true;
+				}
+			}
+			if (opened) {
+				notifyListeners(host, CircuitBreakerState.OPEN);
+			}
+		}
+	}
+}
@@ -7,6 +7,7 @@ package com.sap.cloud.security.token.validation.validators;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -18,6 +19,8 @@ class JsonWebKeySet {
 
 	private final Set<JsonWebKey> jsonWebKeys = new HashSet<>();
 	private Map<String, Boolean> zoneIdAccepted = new HashMap<>();
+	private volatile String eTag;
+	private volatile Duration maxAge;
 
 	@Nullable
 	public JsonWebKey getKeyByAlgorithmAndId(JwtSignatureAlgorithm keyAlgorithm, String keyId) {
@@ -58,6 +61,33 @@ class JsonWebKeySet {
 		return this;
 	}
 
+	/**
+	 * Sets the HTTP caching information of the response the key set was
+	 * retrieved with.
+	 *
+	 * @param eTag
+	 *            the {@code ETag} header value
+	 * @param maxAge
+	 *            the {@code max-age} directive of the {@code Cache-Control}
+	 *            header
+	 * @return this
+	 */
+	JsonWebKeySet withCacheControl(@Nullable String eTag, @Nullable Duration maxAge) {
+		this.eTag = eTag;
+		this.maxAge = maxAge;
+		return this;
+	}
+
+	@Nullable
+	String getETag() {
+		return eTag;
+	}
+
+	@Nullable
+	Duration getMaxAge() {
+		return maxAge;
+	}
+
 	public String toString() {
 		return jsonWebKeys.stream().map(String::valueOf).collect(Collectors.joining("|"));
 	}
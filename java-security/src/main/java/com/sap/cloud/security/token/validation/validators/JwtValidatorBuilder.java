@@ -42,6 +42,7 @@ public class JwtValidatorBuilder {
 	private final Set<OAuth2ServiceConfiguration> otherConfigurations = Collections.synchronizedSet(new HashSet());
 	private OidcConfigurationService oidcConfigurationService = null;
 	private OAuth2TokenKeyService tokenKeyService = null;
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker();
 	private Validator<Token> customAudienceValidator;
 	private CacheConfiguration tokenKeyCacheConfiguration;
 	private boolean isTenantIdCheckDisabled;
@@ -208,6 +209,7 @@ public class JwtValidatorBuilder {
 
 		CombiningValidator<Token> combiningValidator = new CombiningValidator<>(allValidators);
 		validationListeners.forEach(combiningValidator::registerValidationListener);
+		validationListeners.forEach(circuitBreaker::registerValidationListener);
 		return combiningValidator;
 	}
 
@@ -260,17 +262,19 @@ public class JwtValidatorBuilder {
 	private OAuth2TokenKeyServiceWithCache getTokenKeyServiceWithCache() {
 		if (tokenKeyService != null) {
 			return OAuth2TokenKeyServiceWithCache.getInstance()
-					.withTokenKeyService(tokenKeyService);
+					.withTokenKeyService(tokenKeyService)
+					.withCircuitBreaker(circuitBreaker);
 		}
-		return OAuth2TokenKeyServiceWithCache.getInstance();
+		return OAuth2TokenKeyServiceWithCache.getInstance().withCircuitBreaker(circuitBreaker);
 	}
 
 	private OidcConfigurationServiceWithCache getOidcConfigurationServiceWithCache() {
 		if (oidcConfigurationService != null) {
 			return OidcConfigurationServiceWithCache.getInstance()
-					.withOidcConfigurationService(oidcConfigurationService);
+					.withOidcConfigurationService(oidcConfigurationService)
+					.withCircuitBreaker(circuitBreaker);
 		}
-		return OidcConfigurationServiceWithCache.getInstance();
+		return OidcConfigurationServiceWithCache.getInstance().withCircuitBreaker(circuitBreaker);
 	}
 
 }
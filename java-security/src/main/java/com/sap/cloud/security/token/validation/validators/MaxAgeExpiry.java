@@ -0,0 +1,61 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token.validation.validators;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Expires cache entries after the {@code max-age} the identity service
+ * specified with the {@code Cache-Control} header, limited to the allowed
+ * cache durations between {@link #MIN_CACHE_DURATION} and
+ * {@link #MAX_CACHE_DURATION}. Entries without max-age expire after the
+ * configured cache duration.
+ *
+ * @param <V>
+ *            type of the cached values
+ */
+class MaxAgeExpiry<V> implements Expiry<String, V> {
+	static final Duration MIN_CACHE_DURATION = Duration.ofSeconds(600);
+	static final Duration MAX_CACHE_DURATION = Duration.ofSeconds(900);
+
+	private final Function<V, Duration> maxAge;
+	private final Supplier<Duration> cacheDuration;
+
+	MaxAgeExpiry(Function<V, Duration> maxAge, Supplier<Duration> cacheDuration) {
+		this.maxAge = maxAge;
+		this.cacheDuration = cacheDuration;
+	}
+
+	static Duration limit(@Nullable Duration maxAge, Duration cacheDuration) {
+		if (maxAge == null) {
+			return cacheDuration;
+		}
+		if (maxAge.compareTo(MIN_CACHE_DURATION) < 0) {
+			return MIN_CACHE_DURATION;
+		}
+		return maxAge.compareTo(MAX_CACHE_DURATION) > 0 ? MAX_CACHE_DURATION : maxAge;
+	}
+
+	@Override
+	public long expireAfterCreate(String key, V value, long currentTime) {
+		return limit(maxAge.apply(value), cacheDuration.get()).toNanos();
+	}
+
+	@Override
+	public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+		return expireAfterCreate(key, value, currentTime);
+	}
+
+	@Override
+	public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+		return currentDuration;
+	}
+}
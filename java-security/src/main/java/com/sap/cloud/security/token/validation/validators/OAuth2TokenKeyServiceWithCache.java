@@ -22,6 +22,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.sap.cloud.security.config.CacheConfiguration;
 import com.sap.cloud.security.xsuaa.Assertions;
 import com.github.benmanes.caffeine.cache.Ticker;
+import com.sap.cloud.security.xsuaa.client.ConditionalResponse;
 import com.sap.cloud.security.xsuaa.client.DefaultOAuth2TokenKeyService;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
@@ -32,12 +33,24 @@ import org.slf4j.LoggerFactory;
 /**
  * Decorates {@link OAuth2TokenKeyService} with a cache, which gets looked up
  * before the identity service is requested via http.
+ * <p>
+ * The keys are cached for the {@code max-age} of the {@code Cache-Control}
+ * response header, within the allowed cache durations, or the configured cache
+ * duration. Expired keys are revalidated with their {@code ETag}, so that an
+ * unchanged key set is not transferred and parsed again.
+ * <p>
+ * The requests are guarded by a {@link CircuitBreaker}. While the identity
+ * service is not available, the last known key set of a zone is used for up to
+ * 24 hours.
  */
 class OAuth2TokenKeyServiceWithCache implements Cacheable {
 	private static final Logger LOGGER = LoggerFactory.getLogger(OAuth2TokenKeyServiceWithCache.class);
+	static final Duration LAST_KNOWN_GOOD_DURATION = Duration.ofHours(24);
 
 	private OAuth2TokenKeyService tokenKeyService;
 	private Cache<String, JsonWebKeySet> cache;
+	private Cache<String, JsonWebKeySet> lastKnownGoodCache;
+	private CircuitBreaker circuitBreaker = new CircuitBreaker();
 	private CacheConfiguration cacheConfiguration = TokenKeyCacheConfiguration.defaultConfiguration();
 	private Ticker cacheTicker;
 
@@ -133,6 +146,21 @@ class OAuth2TokenKeyServiceWithCache implements Cacheable {
 		return this;
 	}
 
+	/**
+	 * Overwrites the circuit breaker, that guards the requests to the jwks
+	 * endpoints. Used to share one circuit breaker per identity service host
+	 * with the {@link OidcConfigurationServiceWithCache}.
+	 *
+	 * @param circuitBreaker
+	 *            the circuit breaker
+	 * @return this
+	 */
+	OAuth2TokenKeyServiceWithCache withCircuitBreaker(CircuitBreaker circuitBreaker) {
+		assertNotNull(circuitBreaker, "circuitBreaker must not be null.");
+		this.circuitBreaker = circuitBreaker;
+		return this;
+	}
+
 	/**
 	 * Returns the cached key by id and type or requests the keys from the jwks URI
 	 * of the identity service.
@@ -236,28 +264,87 @@ class OAuth2TokenKeyServiceWithCache implements Cacheable {
 	private JsonWebKeySet retrieveTokenKeysAndUpdateCache(URI jwksUri, String zoneId,
 			@Nullable JsonWebKeySet keySetCached)
 			throws OAuth2ServiceException {
-		String jwksJson;
+		JsonWebKeySet keySetPrevious = keySetCached != null ? keySetCached
+				: getLastKnownGoodCache().getIfPresent(jwksUri.toString());
+		// the keys are only revalidated for a zone, that was accepted with them
+		String eTag = keySetPrevious != null && keySetPrevious.containsZoneId(zoneId)
+				&& keySetPrevious.isZoneIdAccepted(zoneId) ? keySetPrevious.getETag() : null;
+		ConditionalResponse<String> response;
 		try {
-			jwksJson = getTokenKeyService().retrieveTokenKeys(jwksUri, zoneId);
+			response = circuitBreaker.execute(jwksUri, () -> retrieveTokenKeys(jwksUri, zoneId, eTag));
 		} catch (OAuth2ServiceException e) {
-			if (keySetCached != null) {
-				keySetCached.withZoneId(zoneId, false);
+			if (!CircuitBreaker.isHostFailure(e)) {
+				if (keySetCached != null) {
+					keySetCached.withZoneId(zoneId, false);
+				}
+				throw e;
 			}
-			throw e;
+			JsonWebKeySet lastKnownGood = getLastKnownGood(jwksUri, zoneId);
+			if (lastKnownGood == null) {
+				throw e;
+			}
+			LOGGER.warn("Failed to retrieve token keys from {}, using last known keys: {}", jwksUri, e.getMessage());
+			return lastKnownGood;
 		}
 		if (keySetCached != null) {
 			return keySetCached.withZoneId(zoneId, true);
 		}
-		JsonWebKeySet keySet = JsonWebKeySetFactory.createFromJson(jwksJson).withZoneId(zoneId, true);
+		JsonWebKeySet keySet = new JsonWebKeySet();
+		if (response.isNotModified() && keySetPrevious != null) {
+			LOGGER.debug("Token keys from {} not modified, reusing cached keys", jwksUri);
+			keySet.putAll(keySetPrevious);
+		} else {
+			keySet = JsonWebKeySetFactory.createFromJson(response.getBody());
+		}
+		keySet.withZoneId(zoneId, true).withCacheControl(response.getETag(), response.getMaxAge());
 		getCache().put(jwksUri.toString(), keySet);
+		getLastKnownGoodCache().put(jwksUri.toString(), keySet);
 		return keySet;
 	}
 
+	/**
+	 * Sends a conditional request, in case the token key service supports it.
+	 */
+	private ConditionalResponse<String> retrieveTokenKeys(URI jwksUri, String zoneId, @Nullable String eTag)
+			throws OAuth2ServiceException {
+		ConditionalResponse<String> response = getTokenKeyService().retrieveTokenKeys(jwksUri, zoneId, eTag);
+		if (response == null) {
+			return ConditionalResponse.modified(getTokenKeyService().retrieveTokenKeys(jwksUri, zoneId), null, null);
+		}
+		return response;
+	}
+
+	/**
+	 * Returns the latest key set, that was retrieved for the zone, even if it is
+	 * expired in the token key cache. This keeps tokens verifiable while the
+	 * identity service is unavailable.
+	 */
+	@Nullable
+	private JsonWebKeySet getLastKnownGood(URI jwksUri, String zoneId) {
+		JsonWebKeySet keySet = getLastKnownGoodCache().getIfPresent(jwksUri.toString());
+		if (keySet != null && keySet.containsZoneId(zoneId) && keySet.isZoneIdAccepted(zoneId)) {
+			return keySet;
+		}
+		return null;
+	}
+
+	private Cache<String, JsonWebKeySet> getLastKnownGoodCache() {
+		if (lastKnownGoodCache == null) {
+			lastKnownGoodCache = Caffeine.newBuilder()
+					.ticker(cacheTicker)
+					.expireAfterWrite(LAST_KNOWN_GOOD_DURATION)
+					.maximumSize(getCacheConfiguration().getCacheSize())
+					.build();
+		}
+		return lastKnownGoodCache;
+	}
+
 	private Cache<String, JsonWebKeySet> getCache() {
 		if (cache == null) {
-			Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder()
+			Caffeine<String, JsonWebKeySet> cacheBuilder = Caffeine.newBuilder()
 					.ticker(cacheTicker)
-					.expireAfterWrite(getCacheConfiguration().getCacheDuration())
+					.expireAfter(new MaxAgeExpiry<>(JsonWebKeySet::getMaxAge,
+							() -> getCacheConfiguration().getCacheDuration()))
 					.maximumSize(getCacheConfiguration().getCacheSize());
 			if (getCacheConfiguration().isCacheStatisticsEnabled()) {
 				cacheBuilder.recordStats();
@@ -285,6 +372,9 @@ class OAuth2TokenKeyServiceWithCache implements Cacheable {
 		if (cache != null) {
 			cache.invalidateAll();
 		}
+		if (lastKnownGoodCache != null) {
+			lastKnownGoodCache.invalidateAll();
+		}
 	}
 
 	@Override
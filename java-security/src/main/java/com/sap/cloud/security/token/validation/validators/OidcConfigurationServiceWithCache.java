@@ -10,25 +10,40 @@ import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
 import javax.annotation.Nullable;
 
 import java.net.URI;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sap.cloud.security.xsuaa.client.ConditionalResponse;
 import com.sap.cloud.security.xsuaa.client.DefaultOidcConfigurationService;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
 import com.sap.cloud.security.xsuaa.client.OidcConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Decorates {@link OidcConfigurationService} with a cache, which gets looked up
  * before the identity service is requested via http.
+ * <p>
+ * The endpoints are cached for the {@code max-age} of the {@code Cache-Control}
+ * response header, within the allowed cache durations, or the configured cache
+ * time. Expired endpoints are revalidated with their {@code ETag}.
+ * <p>
+ * The requests are guarded by a {@link CircuitBreaker}. While the identity
+ * service is not available, the last known endpoints are used.
  */
 public class OidcConfigurationServiceWithCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OidcConfigurationServiceWithCache.class);
 	private OidcConfigurationService oidcConfigurationService; // access via getter
-	private Cache<String, OAuth2ServiceEndpointsProvider> cache;
+	private Cache<String, ConditionalResponse<OAuth2ServiceEndpointsProvider>> cache;
 	private long cacheValidityInSeconds = 600; // old keys should expire after 10 minutes
 	private static final long MAX_CACHE_VALIDITY_IN_SECONDS = 900; // time-to-live shouldn't exceed 15 minutes
 	private long cacheSize = 1000;
+	private final Map<String, ConditionalResponse<OAuth2ServiceEndpointsProvider>> lastKnownGood = new ConcurrentHashMap<>();
+	private CircuitBreaker circuitBreaker = new CircuitBreaker();
 
 	private OidcConfigurationServiceWithCache() {
 		// use getInstance factory method
@@ -57,6 +72,20 @@ public class OidcConfigurationServiceWithCache {
 		return this;
 	}
 
+	/**
+	 * Overwrites the circuit breaker, that guards the requests to the discovery
+	 * endpoints.
+	 *
+	 * @param circuitBreaker
+	 *            the circuit breaker
+	 * @return this
+	 */
+	OidcConfigurationServiceWithCache withCircuitBreaker(CircuitBreaker circuitBreaker) {
+		assertNotNull(circuitBreaker, "circuitBreaker must not be null.");
+		this.circuitBreaker = circuitBreaker;
+		return this;
+	}
+
 	/**
 	 * Caches the Json web keys. Overwrite the cache time (default: 900 seconds).
 	 *
@@ -104,21 +133,57 @@ public class OidcConfigurationServiceWithCache {
 			throws OAuth2ServiceException {
 		assertNotNull(discoveryEndpointUri, "discoveryEndpointUri must not be null.");
 		String cacheKey = discoveryEndpointUri.toString();
-		OAuth2ServiceEndpointsProvider endpointsProvider = getCache().getIfPresent(cacheKey);
-		if (endpointsProvider == null) {
-			endpointsProvider = getOidcConfigurationService().retrieveEndpoints(discoveryEndpointUri);
-			if (endpointsProvider == null) {
-				return null;
+		ConditionalResponse<OAuth2ServiceEndpointsProvider> cached = getCache().getIfPresent(cacheKey);
+		if (cached != null) {
+			return cached.getBody();
+		}
+		ConditionalResponse<OAuth2ServiceEndpointsProvider> previous = lastKnownGood.get(cacheKey);
+		ConditionalResponse<OAuth2ServiceEndpointsProvider> response;
+		try {
+			response = circuitBreaker.execute(discoveryEndpointUri,
+					() -> retrieveEndpoints(discoveryEndpointUri, previous != null ? previous.getETag() : null));
+		} catch (OAuth2ServiceException e) {
+			if (previous == null || !CircuitBreaker.isHostFailure(e)) {
+				throw e;
 			}
-			getCache().put(cacheKey, endpointsProvider);
+			LOGGER.warn("Failed to retrieve OIDC configuration from {}, using last known endpoints: {}",
+					discoveryEndpointUri, e.getMessage());
+			return previous.getBody();
+		}
+		if (response.isNotModified() && previous != null) {
+			LOGGER.debug("OIDC configuration from {} not modified, reusing cached endpoints", discoveryEndpointUri);
+			response = ConditionalResponse.modified(previous.getBody(), response.getETag(), response.getMaxAge());
+		}
+		if (response.getBody() == null) {
+			return null;
+		}
+		getCache().put(cacheKey, response);
+		if (lastKnownGood.size() < cacheSize || lastKnownGood.containsKey(cacheKey)) {
+			lastKnownGood.put(cacheKey, response);
+		}
+		return response.getBody();
+	}
+
+	/**
+	 * Sends a conditional request, in case the oidc configuration service supports
+	 * it.
+	 */
+	private ConditionalResponse<OAuth2ServiceEndpointsProvider> retrieveEndpoints(URI discoveryEndpointUri,
+			@Nullable String eTag) throws OAuth2ServiceException {
+		ConditionalResponse<OAuth2ServiceEndpointsProvider> response = getOidcConfigurationService()
+				.retrieveEndpoints(discoveryEndpointUri, eTag);
+		if (response == null) {
+			return ConditionalResponse.modified(
+					getOidcConfigurationService().retrieveEndpoints(discoveryEndpointUri), null, null);
 		}
-		return getCache().getIfPresent(cacheKey);
+		return response;
 	}
 
-	private Cache<String, OAuth2ServiceEndpointsProvider> getCache() {
+	private Cache<String, ConditionalResponse<OAuth2ServiceEndpointsProvider>> getCache() {
 		if (cache == null) {
 			cache = Caffeine.newBuilder()
-					.expireAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
+					.expireAfter(new MaxAgeExpiry<ConditionalResponse<OAuth2ServiceEndpointsProvider>>(
+							ConditionalResponse::getMaxAge, () -> Duration.ofSeconds(cacheValidityInSeconds)))
 					.maximumSize(cacheSize)
 					.build();
 		}
@@ -136,6 +201,7 @@ public class OidcConfigurationServiceWithCache {
 		if (cache != null) {
 			cache.invalidateAll();
 		}
+		lastKnownGood.clear();
 	}
 
 }
@@ -5,6 +5,8 @@
  */
 package com.sap.cloud.security.x509;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +25,11 @@ import java.util.stream.Stream;
 public class X509Certificate implements Certificate {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(X509Certificate.class);
+	static final int CACHE_SIZE = 100;
+	// parsed certificates with their thumbprint, keyed by the encoded certificate
+	private static final Cache<String, X509Certificate> CERTIFICATES = Caffeine.newBuilder()
+			.maximumSize(CACHE_SIZE)
+			.build();
 
 	private final java.security.cert.X509Certificate x509;
 	private String thumbprint;
@@ -32,7 +39,9 @@ public class X509Certificate implements Certificate {
 	}
 
 	/**
-	 * Creates a new instance of X.509 certificate.
+	 * Creates a new instance of X.509 certificate. As clients typically send the
+	 * same certificate with each request, the parsed certificates are cached
+	 * together with their thumbprint by their encoded value.
 	 *
 	 * @param certificate
 	 *            the certificate encoded in base64 or PEM format
@@ -41,8 +50,14 @@ public class X509Certificate implements Certificate {
 	@Nullable
 	public static X509Certificate newCertificate(String certificate) {
 		if (certificate != null && !certificate.isEmpty()) {
+			X509Certificate cachedCertificate = CERTIFICATES.getIfPresent(certificate);
+			if (cachedCertificate != null) {
+				return cachedCertificate;
+			}
 			try {
-				return new X509Certificate(X509Parser.parseCertificate(certificate));
+				X509Certificate x509Certificate = new X509Certificate(X509Parser.parseCertificate(certificate));
+				cache(certificate, x509Certificate);
+				return x509Certificate;
 			} catch (CertificateException e) {
 				LOGGER.warn("Could not parse the certificate string", e);
 			}
@@ -50,6 +65,19 @@ public class X509Certificate implements Certificate {
 		return null;
 	}
 
+	private static void cache(String certificate, X509Certificate x509Certificate) {
+		try {
+			x509Certificate.getThumbprint();
+			CERTIFICATES.put(certificate, x509Certificate);
+		} catch (InvalidCertificateException e) {
+			LOGGER.debug("Certificate is not cached: {}", e.getMessage());
+		}
+	}
+
+	static void clearCache() {
+		CERTIFICATES.invalidateAll();
+	}
+
 	@Override
 	public String getThumbprint() throws InvalidCertificateException {
 		if (thumbprint == null) {
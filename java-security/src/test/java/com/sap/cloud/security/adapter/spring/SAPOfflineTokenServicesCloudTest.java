@@ -25,8 +25,11 @@ import org.springframework.security.oauth2.provider.OAuth2Request;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -188,6 +191,56 @@ public class SAPOfflineTokenServicesCloudTest {
 		Mockito.verify(jwtValidatorBuilderSpy, times(1)).build();
 	}
 
+	@Test
+	public void loadAuthentication_withAuthenticationCache_validatesTokenOnce() {
+		AtomicInteger validations = new AtomicInteger();
+		doReturn(new CombiningValidator<>(token -> {
+			validations.incrementAndGet();
+			return ValidationResults.createValid();
+		})).when(jwtValidatorBuilderSpy).build();
+		cut.withAuthenticationCache(10).afterPropertiesSet();
+		String unexpiredUserToken = createUserToken(Instant.now().plusSeconds(600));
+
+		OAuth2Authentication authentication = cut.loadAuthentication(unexpiredUserToken);
+		SecurityContext.clear();
+		OAuth2Authentication cachedAuthentication = cut.loadAuthentication(unexpiredUserToken);
+
+		assertThat(validations).hasValue(1);
+		assertThat(cachedAuthentication).isNotSameAs(authentication);
+		assertThat(cachedAuthentication.getOAuth2Request()).isSameAs(authentication.getOAuth2Request());
+		assertThat(cachedAuthentication.getUserAuthentication().getPrincipal()).isEqualTo("TestUser");
+		assertThat(getAuthorities(cachedAuthentication)).containsExactlyInAnyOrder("testApp.Read");
+		assertThat(SecurityContext.getToken().getTokenValue()).isEqualTo(unexpiredUserToken);
+	}
+
+	@Test
+	public void loadAuthentication_withAuthenticationCache_doesNotCacheExpiredToken() {
+		AtomicInteger validations = new AtomicInteger();
+		doReturn(new CombiningValidator<>(token -> {
+			validations.incrementAndGet();
+			return ValidationResults.createValid();
+		})).when(jwtValidatorBuilderSpy).build();
+		cut.withAuthenticationCache(10).afterPropertiesSet();
+
+		cut.loadAuthentication(xsuaaToken);
+		cut.loadAuthentication(xsuaaToken);
+
+		assertThat(validations).hasValue(2);
+	}
+
+	@Test
+	public void withAuthenticationCache_invalidSize_throwsException() {
+		assertThatThrownBy(() -> cut.withAuthenticationCache(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String createUserToken(Instant expiration) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		String payload = "{\"azp\":\"sb-clientId\",\"user_name\":\"TestUser\",\"grant_type\":\"password\","
+				+ "\"scope\":[\"testApp.Read\"],\"exp\":" + expiration.getEpochSecond() + "}";
+		return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+				+ encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+	}
+
 	private List<String> getAuthorities(OAuth2Authentication oAuth2Authentication) {
 		return oAuth2Authentication.getAuthorities()
 				.stream()
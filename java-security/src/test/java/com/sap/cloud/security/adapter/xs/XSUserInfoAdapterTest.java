@@ -214,6 +214,18 @@ class XSUserInfoAdapterTest {
 		assertThat(attribute).contains("test");
 	}
 
+	@Test
+	void testGetAttribute_isMemoized() throws XSUserInfoException {
+		XsuaaToken spiedToken = spy(token);
+		cut = new XSUserInfoAdapter(spiedToken);
+
+		String[] attribute = cut.getAttribute("usrAttr");
+		attribute[0] = "modified";
+
+		assertThat(cut.getAttribute("usrAttr")).contains("test").isNotSameAs(attribute);
+		verify(spiedToken, times(1)).getAttributeFromClaimAsStringList(XS_USER_ATTRIBUTES, "usrAttr");
+	}
+
 	@Test
 	void testGetAttribute_emptyArray() {
 		String[] attribute = cut.getAttribute("emptyArray");
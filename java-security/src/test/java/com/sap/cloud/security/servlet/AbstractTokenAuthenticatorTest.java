@@ -0,0 +1,102 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.servlet;
+
+import com.sap.cloud.security.config.Environment;
+import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
+import com.sap.cloud.security.config.OAuth2ServiceConfigurationBuilder;
+import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.token.SapIdToken;
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.validation.Validator;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AbstractTokenAuthenticatorTest {
+
+	private static final OAuth2ServiceConfiguration CONFIGURATION = OAuth2ServiceConfigurationBuilder
+			.forService(Service.IAS).withDomains("myauth.com").withClientId("T000310").build();
+	private static final OAuth2ServiceConfiguration ROTATED_CONFIGURATION = OAuth2ServiceConfigurationBuilder
+			.forService(Service.IAS).withDomains("myauth.com").withClientId("T000311").build();
+
+	private Environment environment;
+	private TestTokenAuthenticator cut;
+
+	@Before
+	public void setUp() {
+		environment = Mockito.mock(Environment.class);
+		cut = new TestTokenAuthenticator();
+		cut.withHttpClient(Mockito.mock(CloseableHttpClient.class));
+	}
+
+	@Test
+	public void onEnvironmentChange_rebuildsTokenValidator() {
+		Validator<Token> validator = cut.getOrCreateTokenValidator();
+		Mockito.when(environment.getIasConfiguration()).thenReturn(ROTATED_CONFIGURATION);
+
+		cut.onEnvironmentChange(environment);
+
+		assertThat(cut.getServiceConfiguration()).isSameAs(ROTATED_CONFIGURATION);
+		assertThat(cut.getOrCreateTokenValidator()).isNotNull().isNotSameAs(validator);
+	}
+
+	@Test
+	public void onEnvironmentChange_missingConfiguration_keepsTokenValidator() {
+		Validator<Token> validator = cut.getOrCreateTokenValidator();
+
+		cut.onEnvironmentChange(environment);
+
+		assertThat(cut.getServiceConfiguration()).isSameAs(CONFIGURATION);
+		assertThat(cut.getOrCreateTokenValidator()).isSameAs(validator);
+	}
+
+	@Test
+	public void onEnvironmentChange_withServiceConfiguration_keepsTokenValidator() {
+		cut.withServiceConfiguration(CONFIGURATION);
+		Validator<Token> validator = cut.getOrCreateTokenValidator();
+		Mockito.when(environment.getIasConfiguration()).thenReturn(ROTATED_CONFIGURATION);
+
+		cut.onEnvironmentChange(environment);
+
+		assertThat(cut.getOrCreateTokenValidator()).isSameAs(validator);
+		Mockito.verifyNoInteractions(environment);
+	}
+
+	private static class TestTokenAuthenticator extends AbstractTokenAuthenticator {
+		private OAuth2ServiceConfiguration environmentConfiguration = CONFIGURATION;
+
+		@Override
+		protected void reloadServiceConfiguration(Environment environment) {
+			OAuth2ServiceConfiguration configuration = environment.getIasConfiguration();
+			if (configuration == null) {
+				throw new IllegalStateException("There must be a service configuration.");
+			}
+			environmentConfiguration = configuration;
+		}
+
+		@Override
+		protected OAuth2ServiceConfiguration getServiceConfiguration() {
+			return serviceConfiguration != null ? serviceConfiguration : environmentConfiguration;
+		}
+
+		@Nullable
+		@Override
+		protected OAuth2ServiceConfiguration getOtherServiceConfiguration() {
+			return null;
+		}
+
+		@Override
+		protected Token extractFromHeader(String authorizationHeader) {
+			return new SapIdToken(authorizationHeader);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.servlet;
+
+import com.sap.cloud.security.token.Token;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class ExchangedTokenCacheTest {
+
+	private static final Instant NOW = Instant.parse("2023-01-01T12:00:00Z");
+
+	private final AtomicLong tickerNanos = new AtomicLong();
+	private ExchangedTokenCache cut;
+
+	@Before
+	public void setUp() {
+		cut = new ExchangedTokenCache(tickerNanos::get, Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void get_returnsCachedToken() {
+		Token iasToken = mockToken("ias", NOW.plusSeconds(600));
+		Token xsuaaToken = mockToken("xsuaa", NOW.plusSeconds(300));
+
+		cut.put(iasToken, xsuaaToken);
+
+		assertThat(cut.get(mockToken("ias", NOW.plusSeconds(600)))).isSameAs(xsuaaToken);
+		assertThat(cut.get(mockToken("other", NOW.plusSeconds(600)))).isNull();
+	}
+
+	@Test
+	public void get_returnsNullWhenEarlierTokenHasExpired() {
+		Token iasToken = mockToken("ias", NOW.plusSeconds(600));
+		cut.put(iasToken, mockToken("xsuaa", NOW.plusSeconds(300)));
+
+		tickerNanos.addAndGet(TimeUnit.SECONDS.toNanos(301));
+
+		assertThat(cut.get(iasToken)).isNull();
+	}
+
+	@Test
+	public void put_ignoresExpiredTokens() {
+		Token iasToken = mockToken("ias", NOW.minusSeconds(1));
+		cut.put(iasToken, mockToken("xsuaa", NOW.plusSeconds(300)));
+
+		assertThat(cut.get(iasToken)).isNull();
+	}
+
+	@Test
+	public void digest_isStable() {
+		assertThat(ExchangedTokenCache.digest("token")).isEqualTo(ExchangedTokenCache.digest("token"))
+				.isNotEqualTo(ExchangedTokenCache.digest("token2"));
+	}
+
+	private static Token mockToken(String value, Instant expiration) {
+		Token token = Mockito.mock(Token.class);
+		when(token.getTokenValue()).thenReturn(value);
+		when(token.getExpiration()).thenReturn(expiration);
+		return token;
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.servlet;
+
+import com.sap.cloud.security.token.SapIdToken;
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.XsuaaToken;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HybridTokenFactoryTest {
+
+	private final HybridTokenFactory cut = new HybridTokenFactory();
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/xsuaaUserAccessTokenRSA256.txt", "/xsuaaCCAccessTokenRSA256.txt",
+			"/uaaAccessTokenRSA256.txt" })
+	void create_xsuaaToken(String resource) throws IOException {
+		String jwt = IOUtils.resourceToString(resource, UTF_8).trim();
+
+		Token token = cut.create(jwt);
+
+		assertThat(token).isInstanceOf(XsuaaToken.class);
+		assertThat(token.getTokenValue()).isEqualTo(jwt);
+	}
+
+	@Test
+	void create_iasToken() throws IOException {
+		String jwt = IOUtils.resourceToString("/iasOidcTokenRSA256.txt", UTF_8).trim();
+
+		Token token = cut.create(jwt);
+
+		assertThat(token).isInstanceOf(SapIdToken.class);
+		assertThat(token.getTokenValue()).isEqualTo(jwt);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "Bearer ", "bearer ", "" })
+	void create_removesBearer(String prefix) throws IOException {
+		String jwt = IOUtils.resourceToString("/xsuaaCCAccessTokenRSA256.txt", UTF_8).trim();
+
+		assertThat(cut.create(prefix + jwt).getTokenValue()).isEqualTo(jwt);
+	}
+}
@@ -5,6 +5,7 @@
  */
 package com.sap.cloud.security.servlet;
 
+import com.sap.cloud.security.config.Environment;
 import com.sap.cloud.security.config.OAuth2ServiceConfigurationBuilder;
 import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.token.SapIdToken;
@@ -224,6 +225,73 @@ public class XsuaaTokenAuthenticatorTest {
 		assertEquals(response[0].getToken(), xsuaaToken);
 	}
 
+	@Test
+	public void validateRequest_tokenXchangeEnabled_IasTokenExchangedOnce() throws Exception {
+		IasXsuaaExchangeBroker mockExchangeBroker = Mockito.mock(IasXsuaaExchangeBroker.class);
+		when(mockExchangeBroker.resolve(any())).thenReturn(xsuaaToken.getTokenValue());
+
+		cut = new XsuaaTokenAuthenticator(mockExchangeBroker)
+				.withHttpClient(mockHttpClient)
+				.withServiceConfiguration(oAuth2ServiceConfigBuilder.build());
+
+		HttpServletRequest httpRequest = createRequestWithToken(iasToken.getTokenValue());
+		final TokenAuthenticationResult[] response = new TokenAuthenticationResult[2];
+		withEnvironmentVariable("IAS_XSUAA_XCHANGE_ENABLED", "true")
+				.execute(() -> {
+					response[0] = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+					response[1] = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+				});
+		assertTrue(response[0].isAuthenticated());
+		assertTrue(response[1].isAuthenticated());
+		assertThat(response[1].getToken()).isSameAs(response[0].getToken());
+		assertThat(SecurityContext.getToken()).isSameAs(response[1].getToken());
+		Mockito.verify(mockExchangeBroker, times(1)).resolve(any());
+	}
+
+	@Test
+	public void validateRequest_tokenXchangeEnabled_cachedIasToken_listenerIsCalled() throws Exception {
+		IasXsuaaExchangeBroker mockExchangeBroker = Mockito.mock(IasXsuaaExchangeBroker.class);
+		when(mockExchangeBroker.resolve(any())).thenReturn(xsuaaToken.getTokenValue());
+		ValidationListener validationListener = Mockito.mock(ValidationListener.class);
+
+		cut = new XsuaaTokenAuthenticator(mockExchangeBroker)
+				.withHttpClient(mockHttpClient)
+				.withServiceConfiguration(oAuth2ServiceConfigBuilder.build())
+				.withValidationListener(validationListener);
+
+		HttpServletRequest httpRequest = createRequestWithToken(iasToken.getTokenValue());
+		withEnvironmentVariable("IAS_XSUAA_XCHANGE_ENABLED", "true")
+				.execute(() -> {
+					cut.validateRequest(httpRequest, HTTP_RESPONSE);
+					cut.validateRequest(httpRequest, HTTP_RESPONSE);
+				});
+		Mockito.verify(mockExchangeBroker, times(1)).resolve(any());
+		Mockito.verify(validationListener, times(2)).onValidationSuccess();
+		Mockito.verifyNoMoreInteractions(validationListener);
+	}
+
+	@Test
+	public void onEnvironmentChange_invalidatesExchangedTokens() throws Exception {
+		IasXsuaaExchangeBroker mockExchangeBroker = Mockito.mock(IasXsuaaExchangeBroker.class);
+		when(mockExchangeBroker.resolve(any())).thenReturn(xsuaaToken.getTokenValue());
+
+		cut = new XsuaaTokenAuthenticator(mockExchangeBroker)
+				.withHttpClient(mockHttpClient)
+				.withServiceConfiguration(oAuth2ServiceConfigBuilder.build());
+
+		HttpServletRequest httpRequest = createRequestWithToken(iasToken.getTokenValue());
+		final TokenAuthenticationResult[] response = new TokenAuthenticationResult[1];
+		withEnvironmentVariable("IAS_XSUAA_XCHANGE_ENABLED", "true")
+				.execute(() -> {
+					cut.validateRequest(httpRequest, HTTP_RESPONSE);
+					cut.onEnvironmentChange(Mockito.mock(Environment.class));
+					response[0] = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+				});
+		assertTrue(response[0].isAuthenticated());
+		Mockito.verify(mockExchangeBroker, times(1)).resolve(any());
+		Mockito.verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
+	}
+
 	@Test
 	public void validateRequest_tokenXchangeEnabled_IasTokenXchangeBrokerError() throws Exception {
 		IasXsuaaExchangeBroker mockExchangeBroker = Mockito.mock(IasXsuaaExchangeBroker.class);
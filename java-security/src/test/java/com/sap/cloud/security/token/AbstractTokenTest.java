@@ -206,4 +206,15 @@ public class AbstractTokenTest {
 				Arguments.of("   ", Sets.newLinkedHashSet("aud1", "aud2"), null, InvalidTokenException.class),
 				Arguments.of("   ", Sets.newLinkedHashSet(), null, InvalidTokenException.class));
 	}
-}
\ No newline at end of file
+
+	@ParameterizedTest
+	@ValueSource(strings = { "Bearer token", "bearer token", "token", "|earer token" })
+	public void removeBearer(String authorizationHeader) {
+		assertThat(AbstractToken.removeBearer(authorizationHeader)).isEqualTo("token");
+	}
+
+	@Test
+	public void removeBearer_notLeading() {
+		assertThat(AbstractToken.removeBearer("x Bearer token")).isEqualTo("x token");
+	}
+}
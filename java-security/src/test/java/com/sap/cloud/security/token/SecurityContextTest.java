@@ -6,14 +6,23 @@
 package com.sap.cloud.security.token;
 
 import org.apache.commons.io.IOUtils;
+import com.sap.cloud.security.x509.Certificate;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +37,12 @@ public class SecurityContextTest {
 		SecurityContext.clear();
 	}
 
+	@After
+	public void tearDown() {
+		SecurityContext.setStrategy(SecurityContextStrategy.threadLocal());
+		executorService.shutdown();
+	}
+
 	@Test
 	public void setTokenAndRetrieve_NullToken() {
 		SecurityContext.setToken(TOKEN);
@@ -88,4 +103,92 @@ public class SecurityContextTest {
 		assertThat(SecurityContext.getAccessToken()).isEqualTo(accessToken);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void clearToken_keepsCertificate() {
+		Certificate certificate = Mockito.mock(Certificate.class);
+		SecurityContext.setToken(TOKEN);
+		SecurityContext.setClientCertificate(certificate);
+
+		SecurityContext.clearToken();
+
+		assertThat(SecurityContext.getToken()).isNull();
+		assertThat(SecurityContext.getClientCertificate()).isSameAs(certificate);
+	}
+
+	@Test
+	public void wrap_propagatesTokenToOtherThread() throws ExecutionException, InterruptedException {
+		Certificate certificate = Mockito.mock(Certificate.class);
+		SecurityContext.setToken(TOKEN);
+		SecurityContext.setClientCertificate(certificate);
+
+		Future<Token> tokenInOtherThread = executorService.submit(SecurityContext.wrap(SecurityContext::getToken));
+		Future<Certificate> certificateInOtherThread = executorService
+				.submit(SecurityContext.wrap(SecurityContext::getClientCertificate));
+
+		assertThat(tokenInOtherThread.get()).isSameAs(TOKEN);
+		assertThat(certificateInOtherThread.get()).isSameAs(certificate);
+		assertThat(executorService.submit(SecurityContext::getToken).get()).isNull();
+	}
+
+	@Test
+	public void wrapExecutor_propagatesTokenToCompletableFuture() throws ExecutionException, InterruptedException {
+		Executor executor = SecurityContextExecutors.wrap(executorService);
+		SecurityContext.setToken(TOKEN);
+
+		CompletableFuture<Token> tokenInOtherThread = CompletableFuture.supplyAsync(SecurityContext::getToken,
+				executor);
+		SecurityContext.clear();
+
+		assertThat(tokenInOtherThread.get()).isSameAs(TOKEN);
+		assertThat(CompletableFuture.supplyAsync(SecurityContext::getToken, executor).get()).isNull();
+	}
+
+	@Test
+	public void wrapExecutorService_propagatesToken() throws Exception {
+		ExecutorService wrappedExecutorService = SecurityContextExecutors.wrap(executorService);
+		ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+		ScheduledExecutorService wrappedScheduledExecutorService = SecurityContextExecutors
+				.wrap(scheduledExecutorService);
+		SecurityContext.setToken(TOKEN);
+
+		try {
+			assertThat(wrappedExecutorService.submit(SecurityContext::getToken).get()).isSameAs(TOKEN);
+			assertThat(wrappedExecutorService.invokeAll(Collections.singletonList(SecurityContext::getToken))
+					.get(0).get()).isSameAs(TOKEN);
+			assertThat(wrappedScheduledExecutorService.schedule(SecurityContext::getToken, 1, TimeUnit.MILLISECONDS)
+					.get()).isSameAs(TOKEN);
+		} finally {
+			scheduledExecutorService.shutdown();
+		}
+	}
+
+	@Test
+	public void runWith_restoresPreviousContext() throws Exception {
+		Token otherToken = new MockTokenBuilder().build();
+		SecurityContext.setToken(TOKEN);
+
+		SecurityContext.runWith(otherToken, null,
+				() -> assertThat(SecurityContext.getToken()).isSameAs(otherToken));
+		Token tokenInScope = SecurityContext.callWith(null, null, SecurityContext::getToken);
+
+		assertThat(tokenInScope).isNull();
+		assertThat(SecurityContext.getToken()).isSameAs(TOKEN);
+	}
+
+	@Test
+	public void inheritableThreadLocal_childThreadStartsWithCopy() throws InterruptedException {
+		SecurityContext.setStrategy(SecurityContextStrategy.inheritableThreadLocal());
+		SecurityContext.setToken(TOKEN);
+		AtomicReference<Token> tokenInChildThread = new AtomicReference<>();
+
+		Thread child = new Thread(() -> {
+			tokenInChildThread.set(SecurityContext.getToken());
+			SecurityContext.clear();
+		});
+		child.start();
+		child.join();
+
+		assertThat(tokenInChildThread).hasValue(TOKEN);
+		assertThat(SecurityContext.getToken()).isSameAs(TOKEN);
+	}
+}
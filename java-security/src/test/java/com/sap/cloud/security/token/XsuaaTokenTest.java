@@ -66,6 +66,16 @@ public class XsuaaTokenTest {
 		assertThat(clientCredentialsToken.hasLocalScope("resource")).isTrue();
 	}
 
+	@Test
+	public void hasLocalScope_afterScopeConverterChanged() {
+		clientCredentialsToken.withScopeConverter(new XsuaaScopeConverter("uaa"));
+		assertThat(clientCredentialsToken.hasLocalScope("resource")).isTrue();
+
+		clientCredentialsToken.withScopeConverter(new XsuaaScopeConverter("otherApp"));
+		assertThat(clientCredentialsToken.hasLocalScope("resource")).isFalse();
+		assertThat(clientCredentialsToken.getIndexedScopes().getScopes()).isEqualTo(clientCredentialsToken.getScopes());
+	}
+
 	@Test
 	public void getUserPrincipal() {
 		assertThat(userToken.getClaimAsString(TokenClaims.USER_NAME)).isEqualTo("testUser");
@@ -0,0 +1,189 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.token.validation.validators;
+
+import com.sap.cloud.security.token.validation.CircuitBreakerState;
+import com.sap.cloud.security.token.validation.ValidationListener;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class CircuitBreakerTest {
+	private static final URI JWKS_URI = URI.create("https://myauth.com/token_keys");
+	private static final String HOST = "myauth.com";
+	private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+	private TestClock clock;
+	private CircuitBreaker cut;
+	private ValidationListener listenerMock;
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Before
+	public void setUp() {
+		clock = new TestClock();
+		cut = new CircuitBreaker(3, OPEN_DURATION, clock);
+		listenerMock = mock(ValidationListener.class);
+		cut.registerValidationListener(listenerMock);
+	}
+
+	@Test
+	public void opensAfterConsecutiveHostFailures() {
+		failTimes(3);
+
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.OPEN);
+		assertThatThrownBy(() -> cut.execute(JWKS_URI, this::succeed))
+				.isInstanceOf(CircuitBreaker.CircuitBreakerOpenException.class)
+				.hasMessageContaining(HOST);
+		assertThat(requests).hasValue(3);
+		verify(listenerMock).onCircuitBreakerStateChange(HOST, CircuitBreakerState.OPEN);
+	}
+
+	@Test
+	public void successResetsFailureCount() throws OAuth2ServiceException {
+		failTimes(2);
+		cut.execute(JWKS_URI, this::succeed);
+		failTimes(2);
+
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.CLOSED);
+		verifyNoInteractions(listenerMock);
+	}
+
+	@Test
+	public void clientErrorsDoNotOpenCircuit() {
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(() -> cut.execute(JWKS_URI, () -> {
+				throw OAuth2ServiceException.builder("bad request").withStatusCode(400).build();
+			})).hasMessageStartingWith("bad request");
+		}
+
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.CLOSED);
+	}
+
+	@Test
+	public void circuitsArePerHost() throws OAuth2ServiceException {
+		failTimes(3);
+
+		assertThat(cut.execute(URI.create("https://other.com/token_keys"), this::succeed)).isEqualTo("keys");
+		assertThat(cut.getState("other.com")).isEqualTo(CircuitBreakerState.CLOSED);
+	}
+
+	@Test
+	public void halfOpen_successfulProbeClosesCircuit() throws OAuth2ServiceException {
+		failTimes(3);
+		clock.advance(OPEN_DURATION);
+
+		assertThat(cut.execute(JWKS_URI, this::succeed)).isEqualTo("keys");
+
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.CLOSED);
+		InOrder inOrder = inOrder(listenerMock);
+		inOrder.verify(listenerMock).onCircuitBreakerStateChange(HOST, CircuitBreakerState.OPEN);
+		inOrder.verify(listenerMock).onCircuitBreakerStateChange(HOST, CircuitBreakerState.HALF_OPEN);
+		inOrder.verify(listenerMock).onCircuitBreakerStateChange(HOST, CircuitBreakerState.CLOSED);
+	}
+
+	@Test
+	public void halfOpen_failedProbeOpensCircuitAgain() {
+		failTimes(3);
+		clock.advance(OPEN_DURATION);
+		failTimes(1);
+
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.OPEN);
+		assertThatThrownBy(() -> cut.execute(JWKS_URI, this::succeed))
+				.isInstanceOf(CircuitBreaker.CircuitBreakerOpenException.class);
+		verify(listenerMock, times(2)).onCircuitBreakerStateChange(HOST, CircuitBreakerState.OPEN);
+	}
+
+	@Test
+	public void halfOpen_letsOnlyOneProbeThrough() throws OAuth2ServiceException {
+		failTimes(3);
+		clock.advance(OPEN_DURATION);
+
+		String result = cut.execute(JWKS_URI, () -> {
+			assertThatThrownBy(() -> cut.execute(JWKS_URI, this::succeed))
+					.isInstanceOf(CircuitBreaker.CircuitBreakerOpenException.class);
+			return "probe";
+		});
+
+		assertThat(result).isEqualTo("probe");
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.CLOSED);
+	}
+
+	@Test
+	public void halfOpen_probeFailingWithError_releasesProbe() throws OAuth2ServiceException {
+		failTimes(3);
+		clock.advance(OPEN_DURATION);
+
+		assertThatThrownBy(() -> cut.execute(JWKS_URI, () -> {
+			throw new StackOverflowError();
+		})).isInstanceOf(StackOverflowError.class);
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.OPEN);
+
+		clock.advance(OPEN_DURATION);
+		assertThat(cut.execute(JWKS_URI, this::succeed)).isEqualTo("keys");
+		assertThat(cut.getState(HOST)).isEqualTo(CircuitBreakerState.CLOSED);
+	}
+
+	@Test
+	public void isHostFailure() {
+		assertThat(CircuitBreaker.isHostFailure(
+				OAuth2ServiceException.builder("unavailable").withStatusCode(503).build())).isTrue();
+		assertThat(CircuitBreaker.isHostFailure(
+				OAuth2ServiceException.builder("io").withCause(new IOException("reset")).build())).isTrue();
+		assertThat(CircuitBreaker.isHostFailure(
+				OAuth2ServiceException.builder("not found").withStatusCode(404).build())).isFalse();
+		assertThat(CircuitBreaker.isHostFailure(new OAuth2ServiceException("invalid zone"))).isFalse();
+	}
+
+	private void failTimes(int times) {
+		for (int i = 0; i < times; i++) {
+			assertThatThrownBy(() -> cut.execute(JWKS_URI, () -> {
+				requests.incrementAndGet();
+				throw OAuth2ServiceException.builder("unavailable").withStatusCode(503).build();
+			})).isInstanceOf(OAuth2ServiceException.class);
+		}
+	}
+
+	private String succeed() {
+		requests.incrementAndGet();
+		return "keys";
+	}
+
+	private static class TestClock extends Clock {
+		private Instant instant = Instant.parse("2022-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -22,6 +22,7 @@ import java.time.Duration;
 
 import com.github.benmanes.caffeine.cache.Ticker;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sap.cloud.security.xsuaa.client.ConditionalResponse;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
 import org.apache.commons.io.IOUtils;
@@ -218,6 +219,103 @@ public class OAuth2TokenKeyServiceWithCacheTest {
 		verify(tokenKeyServiceMock, times(2)).retrieveTokenKeys(any(), eq(ZONE_ID));
 	}
 
+	@Test
+	public void identityServiceUnavailable_usesLastKnownKeys()
+			throws OAuth2ServiceException, InvalidKeySpecException, NoSuchAlgorithmException {
+		PublicKey key = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+		testCacheTicker.advance(CACHE_CONFIGURATION.getCacheDuration());
+		when(tokenKeyServiceMock.retrieveTokenKeys(any(), any()))
+				.thenThrow(OAuth2ServiceException.builder("Service unavailable").withStatusCode(503).build());
+
+		for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD + 1; i++) {
+			assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID))
+					.isEqualTo(key);
+		}
+		// circuit breaker is open, requests are not sent anymore
+		verify(tokenKeyServiceMock, times(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD + 1))
+				.retrieveTokenKeys(eq(TOKEN_KEYS_URI), eq(ZONE_ID));
+	}
+
+	@Test
+	public void identityServiceUnavailable_noLastKnownKeysForZone_throwsException() throws OAuth2ServiceException {
+		when(tokenKeyServiceMock.retrieveTokenKeys(any(), any()))
+				.thenThrow(OAuth2ServiceException.builder("Service unavailable").withStatusCode(503).build());
+
+		assertThatThrownBy(() -> {
+			cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+		}).isInstanceOf(OAuth2ServiceException.class).hasMessageStartingWith("Service unavailable");
+	}
+
+	@Test
+	public void retrieveTokenKeys_revalidatesExpiredKeysWithETag()
+			throws IOException, InvalidKeySpecException, NoSuchAlgorithmException {
+		String jwks = IOUtils.resourceToString("/jsonWebTokenKeys.json", StandardCharsets.UTF_8);
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI, ZONE_ID, null))
+				.thenReturn(ConditionalResponse.modified(jwks, "\"v1\"", Duration.ofSeconds(900)));
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI, ZONE_ID, "\"v1\""))
+				.thenReturn(ConditionalResponse.notModified("\"v1\"", null));
+
+		PublicKey key = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+		testCacheTicker.advance(CACHE_CONFIGURATION.getCacheDuration()); // max-age of 900 seconds is honored
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+		verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(any(), any(), any());
+
+		testCacheTicker.advance(Duration.ofSeconds(900));
+		PublicKey revalidatedKey = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+
+		assertThat(revalidatedKey).isSameAs(key);
+		verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(TOKEN_KEYS_URI, ZONE_ID, "\"v1\"");
+		verify(tokenKeyServiceMock, never()).retrieveTokenKeys(any(), any());
+	}
+
+	@Test
+	public void retrieveTokenKeysForNewZoneId_sendsNoETag()
+			throws IOException, InvalidKeySpecException, NoSuchAlgorithmException {
+		String jwks = IOUtils.resourceToString("/jsonWebTokenKeys.json", StandardCharsets.UTF_8);
+		String otherZoneId = ZONE_ID + "-2";
+		when(tokenKeyServiceMock.retrieveTokenKeys(eq(TOKEN_KEYS_URI), any(), isNull()))
+				.thenReturn(ConditionalResponse.modified(jwks, "\"v1\"", Duration.ofSeconds(900)));
+		when(tokenKeyServiceMock.retrieveTokenKeys(eq(TOKEN_KEYS_URI), any(), eq("\"v1\"")))
+				.thenReturn(ConditionalResponse.notModified("\"v1\"", null));
+
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, otherZoneId);
+		testCacheTicker.advance(Duration.ofSeconds(900));
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, otherZoneId + "-3");
+
+		verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(TOKEN_KEYS_URI, otherZoneId, null);
+		verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(TOKEN_KEYS_URI, otherZoneId + "-3", null);
+		verify(tokenKeyServiceMock, never()).retrieveTokenKeys(any(), any(), eq("\"v1\""));
+	}
+
+	@Test
+	public void retrieveTokenKeysForInvalidZoneId_notAcceptedByETag()
+			throws IOException, InvalidKeySpecException, NoSuchAlgorithmException {
+		String jwks = IOUtils.resourceToString("/jsonWebTokenKeys.json", StandardCharsets.UTF_8);
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI, ZONE_ID, null))
+				.thenReturn(ConditionalResponse.modified(jwks, "\"v1\"", Duration.ofSeconds(900)));
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI, "invalid-zone", "\"v1\""))
+				.thenReturn(ConditionalResponse.notModified("\"v1\"", null));
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI, "invalid-zone", null))
+				.thenThrow(new OAuth2ServiceException("Invalid zone_uuid provided"));
+
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, ZONE_ID);
+
+		assertThatThrownBy(() -> {
+			cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI, "invalid-zone");
+		}).isInstanceOf(OAuth2ServiceException.class).hasMessageStartingWith("Invalid");
+	}
+
+	@Test
+	public void maxAge_isLimitedToAllowedCacheDuration() {
+		Duration cacheDuration = CACHE_CONFIGURATION.getCacheDuration();
+
+		assertThat(MaxAgeExpiry.limit(null, cacheDuration)).isEqualTo(cacheDuration);
+		assertThat(MaxAgeExpiry.limit(Duration.ZERO, cacheDuration)).isEqualTo(Duration.ofSeconds(600));
+		assertThat(MaxAgeExpiry.limit(Duration.ofSeconds(750), cacheDuration)).isEqualTo(Duration.ofSeconds(750));
+		assertThat(MaxAgeExpiry.limit(Duration.ofDays(1), cacheDuration)).isEqualTo(Duration.ofSeconds(900));
+	}
+
 	private OAuth2TokenKeyServiceWithCache createCut(TokenKeyCacheConfiguration cacheConfiguration) {
 		return OAuth2TokenKeyServiceWithCache
 				.getInstance(testCacheTicker)
@@ -124,4 +124,19 @@ public class OidcConfigurationServiceWithCacheTest {
 				.retrieveEndpoints(any());
 	}
 
+
+	@Test
+	public void identityServiceUnavailable_failsFastWhenCircuitBreakerIsOpen() throws OAuth2ServiceException {
+		when(oidcConfigServiceMock.retrieveEndpoints(any()))
+				.thenThrow(OAuth2ServiceException.builder("Service unavailable").withStatusCode(503).build());
+
+		for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+			assertThatThrownBy(() -> cut.getOrRetrieveEndpoints(DISCOVERY_URI))
+					.hasMessageStartingWith("Service unavailable");
+		}
+		assertThatThrownBy(() -> cut.getOrRetrieveEndpoints(DISCOVERY_URI))
+				.isInstanceOf(CircuitBreaker.CircuitBreakerOpenException.class);
+
+		Mockito.verify(oidcConfigServiceMock, times(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD)).retrieveEndpoints(any());
+	}
 }
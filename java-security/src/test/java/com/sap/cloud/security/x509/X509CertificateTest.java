@@ -34,6 +34,15 @@ class X509CertificateTest {
 		assertThat(X509Certificate.newCertificate("invalid")).isNull();
 	}
 
+	@Test
+	void newCertificate_returnsCachedCertificate() {
+		X509Certificate.clearCache();
+		X509Certificate certificate = X509Certificate.newCertificate(x509_base64);
+
+		assertThat(X509Certificate.newCertificate(new String(x509_base64))).isSameAs(certificate);
+		assertThat(certificate.getThumbprint()).isEqualTo(x5t);
+	}
+
 	@Test
 	void getThumbprint() {
 		assertThat(cut.getThumbprint()).isEqualTo(x5t);
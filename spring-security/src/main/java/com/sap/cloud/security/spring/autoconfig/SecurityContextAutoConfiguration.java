@@ -5,12 +5,14 @@
  */
 package com.sap.cloud.security.spring.autoconfig;
 
+import com.sap.cloud.security.spring.token.SecurityContextTaskDecorator;
 import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
 
@@ -18,6 +20,8 @@ import org.springframework.security.core.context.SecurityContextHolderStrategy;
  * {@link EnableAutoConfiguration} uses a
  * {@link com.sap.cloud.security.spring.token.authentication.JavaSecurityContextHolderStrategy},
  * which keeps the {@code com.sap.cloud.security.token.SecurityContext} in sync
+ * and a {@link SecurityContextTaskDecorator}, which passes the security context
+ * to the tasks of the auto-configured {@code TaskExecutor}.
  *
  * <p>
  * Can be disabled with
@@ -39,4 +43,12 @@ public class SecurityContextAutoConfiguration {
 				.setArguments("com.sap.cloud.security.spring.token.authentication.JavaSecurityContextHolderStrategy");
 		return methodInvokingFactoryBean;
 	}
+
+	@Bean
+	@ConditionalOnMissingBean(TaskDecorator.class)
+	@ConditionalOnProperty(name = "sap.spring.security.hybrid.propagate_securitycontext", havingValue = "true",
+			matchIfMissing = true)
+	public TaskDecorator securityContextTaskDecorator() {
+		return new SecurityContextTaskDecorator();
+	}
 }
@@ -11,21 +11,28 @@ import com.sap.cloud.security.spring.config.XsuaaServiceConfiguration;
 import com.sap.cloud.security.spring.config.XsuaaServiceConfigurations;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenServiceAdapter;
+import com.sap.cloud.security.xsuaa.client.WebClientOAuth2TokenService;
 import com.sap.cloud.security.xsuaa.client.XsuaaDefaultEndpoints;
 import com.sap.cloud.security.xsuaa.client.XsuaaOAuth2TokenService;
+import com.sap.cloud.security.xsuaa.tokenflows.ReactiveXsuaaTokenFlows;
 import com.sap.cloud.security.xsuaa.tokenflows.XsuaaTokenFlows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import javax.annotation.Nonnull;
 
@@ -45,7 +52,6 @@ import javax.annotation.Nonnull;
 @ConditionalOnClass(XsuaaTokenFlows.class)
 @ConditionalOnProperty(name = "sap.spring.security.xsuaa.flows.auto", havingValue = "true", matchIfMissing = true)
 @AutoConfigureAfter(HybridIdentityServicesAutoConfiguration.class)
-@ConditionalOnMissingBean(XsuaaTokenFlows.class)
 public class XsuaaTokenFlowAutoConfiguration {
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -54,12 +60,17 @@ public class XsuaaTokenFlowAutoConfiguration {
 	public XsuaaTokenFlowAutoConfiguration(XsuaaServiceConfigurations xsuaaConfigs,
 			XsuaaServiceConfiguration xsuaaConfig) {
 		logger.debug("prepares XsuaaTokenFlowAutoConfiguration.");
-		this.xsuaaConfig = xsuaaConfigs.getConfigurations().isEmpty() ? xsuaaConfig
-				: xsuaaConfigs.getConfigurations().get(0);
+		this.xsuaaConfig = primaryConfiguration(xsuaaConfigs, xsuaaConfig);
+	}
+
+	private static XsuaaServiceConfiguration primaryConfiguration(XsuaaServiceConfigurations xsuaaConfigs,
+			XsuaaServiceConfiguration xsuaaConfig) {
+		return xsuaaConfigs.getConfigurations().isEmpty() ? xsuaaConfig : xsuaaConfigs.getConfigurations().get(0);
 	}
 
 	@Bean
 	@Conditional(PropertyConditions.class)
+	@ConditionalOnMissingBean
 	public XsuaaTokenFlows xsuaaTokenFlows(RestOperations xsuaaRestOperations) {
 		logger.debug("auto-configures XsuaaTokenFlows using {} based restOperations",
 				xsuaaConfig.getClientIdentity().isCertificateBased() ? "certificate" : "client secret");
@@ -97,6 +108,97 @@ public class XsuaaTokenFlowAutoConfiguration {
 		return SpringHttpClient.getInstance().create(xsuaaConfig.getClientIdentity());
 	}
 
+	/**
+	 * Creates a {@link ReactiveXsuaaTokenFlows} bean for reactive applications,
+	 * e.g. based on Spring WebFlux, that sends the token requests with a
+	 * non-blocking {@link WebClient}. Activates when Project Reactor and Spring
+	 * WebFlux are on the classpath, independent of an application provided
+	 * {@link XsuaaTokenFlows} bean.
+	 */
+	@Configuration
+	@ConditionalOnClass(name = { "reactor.core.publisher.Mono",
+			"org.springframework.web.reactive.function.client.WebClient" })
+	static class WebClientReactiveXsuaaTokenFlowConfiguration {
+		private final Logger logger = LoggerFactory.getLogger(getClass());
+
+		/**
+		 * Creates a new {@link ReactiveXsuaaTokenFlows} bean that applications can
+		 * auto-wire to perform a non-blocking token flow exchange. The
+		 * {@link WebClient} is built with the {@link WebClient.Builder} of the
+		 * application context, if any. For certificate based authentication, the
+		 * requests are sent with the certificate based {@link RestOperations}
+		 * instead.
+		 *
+		 * @param webClientBuilder
+		 *            the {@link WebClient.Builder} of the application context
+		 * @param xsuaaRestOperations
+		 *            the {@link RestOperations} to use for certificate based token
+		 *            requests.
+		 * @param xsuaaConfigs
+		 *            the configurations of multiple XSUAA service bindings
+		 * @param xsuaaConfig
+		 *            the configuration of a single XSUAA service binding
+		 * @return the {@link ReactiveXsuaaTokenFlows} API.
+		 */
+		@Bean
+		@Conditional(PropertyConditions.class)
+		@ConditionalOnMissingBean
+		public ReactiveXsuaaTokenFlows reactiveXsuaaTokenFlows(ObjectProvider<WebClient.Builder> webClientBuilder,
+				RestOperations xsuaaRestOperations, XsuaaServiceConfigurations xsuaaConfigs,
+				XsuaaServiceConfiguration xsuaaConfig) {
+			XsuaaServiceConfiguration configuration = primaryConfiguration(xsuaaConfigs, xsuaaConfig);
+			ReactiveOAuth2TokenService tokenService;
+			if (configuration.getClientIdentity().isCertificateBased()) {
+				logger.debug("auto-configures ReactiveXsuaaTokenFlows using certificate based restOperations");
+				tokenService = new ReactiveOAuth2TokenServiceAdapter(new XsuaaOAuth2TokenService(xsuaaRestOperations));
+			} else {
+				logger.debug("auto-configures ReactiveXsuaaTokenFlows using WebClient");
+				tokenService = new WebClientOAuth2TokenService(
+						webClientBuilder.getIfAvailable(WebClient::builder).build());
+			}
+			return new ReactiveXsuaaTokenFlows(tokenService, new XsuaaDefaultEndpoints(configuration),
+					configuration.getClientIdentity());
+		}
+	}
+
+	/**
+	 * Creates a {@link ReactiveXsuaaTokenFlows} bean for reactive applications
+	 * without Spring WebFlux. The token requests are sent with the blocking
+	 * {@link RestOperations} on Reactor's {@code boundedElastic} scheduler.
+	 * Activates when Project Reactor is on the classpath, independent of an
+	 * application provided {@link XsuaaTokenFlows} bean.
+	 */
+	@Configuration
+	@ConditionalOnClass(name = "reactor.core.publisher.Mono")
+	@ConditionalOnMissingClass("org.springframework.web.reactive.function.client.WebClient")
+	static class ReactiveXsuaaTokenFlowConfiguration {
+		private final Logger logger = LoggerFactory.getLogger(getClass());
+
+		/**
+		 * Creates a new {@link ReactiveXsuaaTokenFlows} bean that applications can
+		 * auto-wire to perform a token flow exchange.
+		 *
+		 * @param xsuaaRestOperations
+		 *            the {@link RestOperations} to use for the token requests.
+		 * @param xsuaaConfigs
+		 *            the configurations of multiple XSUAA service bindings
+		 * @param xsuaaConfig
+		 *            the configuration of a single XSUAA service binding
+		 * @return the {@link ReactiveXsuaaTokenFlows} API.
+		 */
+		@Bean
+		@Conditional(PropertyConditions.class)
+		@ConditionalOnMissingBean
+		public ReactiveXsuaaTokenFlows reactiveXsuaaTokenFlows(RestOperations xsuaaRestOperations,
+				XsuaaServiceConfigurations xsuaaConfigs, XsuaaServiceConfiguration xsuaaConfig) {
+			logger.debug("auto-configures ReactiveXsuaaTokenFlows using restOperations");
+			XsuaaServiceConfiguration configuration = primaryConfiguration(xsuaaConfigs, xsuaaConfig);
+			return new ReactiveXsuaaTokenFlows(
+					new ReactiveOAuth2TokenServiceAdapter(new XsuaaOAuth2TokenService(xsuaaRestOperations)),
+					new XsuaaDefaultEndpoints(configuration), configuration.getClientIdentity());
+		}
+	}
+
 	private static class OnSecretCredentialTypeCondition implements Condition {
 		@Override
 		public boolean matches(ConditionContext context, @Nonnull AnnotatedTypeMetadata metadata) {
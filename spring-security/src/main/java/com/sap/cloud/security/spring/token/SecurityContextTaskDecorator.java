@@ -0,0 +1,46 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.spring.token;
+
+import com.sap.cloud.security.token.SecurityContextSnapshot;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * {@link TaskDecorator}, which runs the tasks of a Spring {@code TaskExecutor}
+ * with the Spring {@link SecurityContext} and the
+ * {@link com.sap.cloud.security.token.SecurityContext} of the thread that
+ * submits them. Both are captured once when the task is submitted: the
+ * authentication with the already validated token is passed as it is.
+ * <p>
+ * Registered by
+ * {@link com.sap.cloud.security.spring.autoconfig.SecurityContextAutoConfiguration},
+ * which applies it to the auto-configured {@code TaskExecutor} of Spring Boot.
+ */
+public class SecurityContextTaskDecorator implements TaskDecorator {
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		SecurityContext springContext = SecurityContextHolder.getContext();
+		SecurityContextSnapshot snapshot = com.sap.cloud.security.token.SecurityContext.capture();
+		return () -> snapshot.run(() -> runWithSpringContext(springContext, runnable));
+	}
+
+	private static void runWithSpringContext(SecurityContext springContext, Runnable runnable) {
+		SecurityContext previousContext = SecurityContextHolder.getContext();
+		SecurityContextHolder.setContext(springContext);
+		try {
+			runnable.run();
+		} finally {
+			if (previousContext.equals(SecurityContextHolder.createEmptyContext())) {
+				SecurityContextHolder.clearContext();
+			} else {
+				SecurityContextHolder.setContext(previousContext);
+			}
+		}
+	}
+}
@@ -5,6 +5,7 @@
  */
 package com.sap.cloud.security.spring.token.authentication;
 
+import com.sap.cloud.security.token.AuthorityMapper;
 import com.sap.cloud.security.token.TokenClaims;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
@@ -23,7 +24,7 @@ import java.util.*;
  */
 public class XsuaaTokenAuthorizationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
-	private String appId;
+	private AuthorityMapper<GrantedAuthority> authorityMapper;
 
 	/**
 	 * Creates an instance.
@@ -32,7 +33,20 @@ public class XsuaaTokenAuthorizationConverter implements Converter<Jwt, Abstract
 	 *            the xsuaa application identifier e.g. myXsAppname!t123
 	 */
 	public XsuaaTokenAuthorizationConverter(String appId) {
-		this.appId = appId;
+		this.authorityMapper = AuthorityMapper.localScopes(appId, SimpleGrantedAuthority::new);
+	}
+
+	/**
+	 * Caches the authorities per distinct scope claim, which pays off when many
+	 * tokens share the same scopes. The cached authorities are unmodifiable.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached scope claims
+	 * @return the converter itself
+	 */
+	public XsuaaTokenAuthorizationConverter withAuthoritySetCache(int maximumSize) {
+		this.authorityMapper = authorityMapper.withAuthoritySetCache(maximumSize);
+		return this;
 	}
 
 	@Override
@@ -49,13 +63,7 @@ public class XsuaaTokenAuthorizationConverter implements Converter<Jwt, Abstract
 	}
 
 	protected Collection<GrantedAuthority> localScopeAuthorities(Jwt jwt, Collection<String> scopes) {
-		Collection<GrantedAuthority> localScopeAuthorities = new ArrayList<>();
-		for (String scope : scopes) {
-			if (scope.startsWith(appId + ".")) {
-				localScopeAuthorities.add(new SimpleGrantedAuthority(scope.substring(appId.length() + 1)));
-			}
-		}
-		return localScopeAuthorities;
+		return authorityMapper.map(scopes);
 	}
 
 }
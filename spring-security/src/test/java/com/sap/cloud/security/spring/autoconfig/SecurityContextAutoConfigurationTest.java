@@ -6,14 +6,19 @@
 package com.sap.cloud.security.spring.autoconfig;
 
 import com.sap.cloud.security.spring.token.authentication.JavaSecurityContextHolderStrategy;
+import com.sap.cloud.security.token.Token;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SecurityContextAutoConfigurationTest {
@@ -54,6 +59,30 @@ class SecurityContextAutoConfigurationTest {
 				});
 	}
 
+	@Test
+	void taskDecoratorPropagatesSecurityContext() {
+		runner.run(context -> {
+			TaskDecorator taskDecorator = context.getBean("securityContextTaskDecorator", TaskDecorator.class);
+			Token token = Mockito.mock(Token.class);
+			com.sap.cloud.security.token.SecurityContext.setToken(token);
+			AtomicReference<Token> tokenInTask = new AtomicReference<>();
+			Runnable task = taskDecorator.decorate(() -> tokenInTask.set(com.sap.cloud.security.token.SecurityContext.getToken()));
+			com.sap.cloud.security.token.SecurityContext.clear();
+
+			Thread thread = new Thread(task);
+			thread.start();
+			thread.join();
+
+			assertSame(token, tokenInTask.get());
+		});
+	}
+
+	@Test
+	void taskDecoratorDisabledByProperty() {
+		runner.withPropertyValues("sap.spring.security.hybrid.propagate_securitycontext:false")
+				.run((context) -> assertFalse(context.containsBean("securityContextTaskDecorator")));
+	}
+
 	@Configuration
 	static class UserConfiguration {
 
@@ -5,6 +5,9 @@
  */
 package com.sap.cloud.security.spring.autoconfig;
 
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenServiceAdapter;
+import com.sap.cloud.security.xsuaa.client.WebClientOAuth2TokenService;
+import com.sap.cloud.security.xsuaa.tokenflows.ReactiveXsuaaTokenFlows;
 import com.sap.cloud.security.xsuaa.tokenflows.XsuaaTokenFlows;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -20,6 +23,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -64,6 +69,45 @@ class XsuaaTokenFlowAutoConfigurationTest {
 		});
 	}
 
+	@Test
+	void configuresReactiveXsuaaTokenFlows() {
+		runner.run(context -> assertThat(context).hasSingleBean(ReactiveXsuaaTokenFlows.class));
+	}
+
+	@Test
+	void reactiveXsuaaTokenFlows_usesWebClient() {
+		runner.run(context -> assertThat(context.getBean(ReactiveXsuaaTokenFlows.class))
+				.extracting("tokenService").isInstanceOf(WebClientOAuth2TokenService.class));
+	}
+
+	@Test
+	void reactiveXsuaaTokenFlows_withoutWebClient_usesRestOperations() {
+		runner.withClassLoader(new FilteredClassLoader(WebClient.class))
+				.run(context -> assertThat(context.getBean(ReactiveXsuaaTokenFlows.class))
+						.extracting("tokenService").isInstanceOf(ReactiveOAuth2TokenServiceAdapter.class));
+	}
+
+	@Test
+	void reactiveXsuaaTokenFlows_certificateBased_usesRestOperations() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(HybridIdentityServicesAutoConfiguration.class,
+						XsuaaTokenFlowAutoConfiguration.class))
+				.withPropertyValues("sap.security.services.xsuaa.certurl:https://domain.cert.auth.com")
+				.withPropertyValues("sap.security.services.xsuaa.clientid:cid")
+				.withPropertyValues("sap.security.services.xsuaa.certificate:" + cert)
+				.withPropertyValues("sap.security.services.xsuaa.key:" + key)
+				.run(context -> assertThat(context.getBean(ReactiveXsuaaTokenFlows.class))
+						.extracting("tokenService").isInstanceOf(ReactiveOAuth2TokenServiceAdapter.class));
+	}
+
+	@Test
+	void reactiveXsuaaTokenFlows_withoutReactor_notConfigured() {
+		runner.withClassLoader(new FilteredClassLoader(Mono.class)).run(context -> {
+			assertThat(context).hasSingleBean(XsuaaTokenFlows.class);
+			assertThat(context).doesNotHaveBean(ReactiveXsuaaTokenFlows.class);
+		});
+	}
+
 	@Test
 	void autoConfigurationActiveInclProperties() {
 		runner.withPropertyValues("sap.spring.security.xsuaa.flows.auto:true")
@@ -151,6 +195,12 @@ class XsuaaTokenFlowAutoConfigurationTest {
 				});
 	}
 
+	@Test
+	void userTokenFlows_reactiveXsuaaTokenFlowsStillConfigured() {
+		runner.withUserConfiguration(UserConfiguration.class)
+				.run(context -> assertThat(context).hasSingleBean(ReactiveXsuaaTokenFlows.class));
+	}
+
 	@Configuration
 	static class UserConfiguration {
 
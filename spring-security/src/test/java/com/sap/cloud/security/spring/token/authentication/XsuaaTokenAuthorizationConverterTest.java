@@ -50,4 +50,28 @@ class XsuaaTokenAuthorizationConverterTest {
 		assertTrue(grantedAuthorities.contains(new SimpleGrantedAuthority("Admin")));
 		assertTrue(grantedAuthorities.contains(new SimpleGrantedAuthority("Read")));
 	}
-}
\ No newline at end of file
+
+	@Test
+	void localScopeAuthorities_sharesAuthorities() {
+		jwtGenerator.withScopes(scopeAdmin, scopeOther, scopeRead);
+		Jwt jwt = HybridJwtDecoder.parseJwt(jwtGenerator.createToken());
+
+		Collection<GrantedAuthority> grantedAuthorities = cut.localScopeAuthorities(jwt);
+
+		assertIterableEquals(grantedAuthorities, cut.localScopeAuthorities(jwt));
+		assertSame(grantedAuthorities.iterator().next(), cut.localScopeAuthorities(jwt).iterator().next());
+		assertNotSame(grantedAuthorities, cut.localScopeAuthorities(jwt));
+	}
+
+	@Test
+	void localScopeAuthorities_withAuthoritySetCache() {
+		jwtGenerator.withScopes(scopeAdmin, scopeOther, scopeRead);
+		Jwt jwt = HybridJwtDecoder.parseJwt(jwtGenerator.createToken());
+		cut.withAuthoritySetCache(10);
+
+		Collection<GrantedAuthority> grantedAuthorities = cut.localScopeAuthorities(jwt);
+
+		assertEquals(2, grantedAuthorities.size());
+		assertSame(grantedAuthorities, cut.localScopeAuthorities(jwt));
+	}
+}
@@ -124,6 +124,20 @@ public class BasicCredentialExtractorTest {
 		assertThat(token).isEqualTo("other_token_pwd");
 	}
 
+	@Test
+	public void testBasicCredentialsWithBrokerTokenCache() {
+		TokenBrokerResolver extractor = new TokenBrokerResolver(getXsuaaServiceConfiguration(), tokenCache,
+				oAuth2TokenService,
+				authenticationConfiguration).withBrokerTokenCache(10);
+
+		request.addHeader("Authorization", "basic " + Base64.getEncoder().encodeToString("myuser:mypass".getBytes()));
+		assertThat(extractor.resolve(request)).isEqualTo("token_pwd");
+		assertThat(extractor.resolve(request)).isEqualTo("token_pwd");
+
+		request.addHeader("X-Identity-Zone-Subdomain", "other");
+		assertThat(extractor.resolve(request)).isEqualTo("other_token_pwd");
+	}
+
 	@Test
 	public void testClientCredentials() {
 		TokenBrokerResolver extractor = new TokenBrokerResolver(getXsuaaServiceConfiguration(), tokenCache,
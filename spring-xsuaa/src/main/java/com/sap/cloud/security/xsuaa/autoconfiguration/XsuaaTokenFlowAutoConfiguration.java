@@ -9,19 +9,26 @@ import com.sap.cloud.security.config.ClientIdentity;
 import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenServiceAdapter;
+import com.sap.cloud.security.xsuaa.client.WebClientOAuth2TokenService;
 import com.sap.cloud.security.xsuaa.client.XsuaaDefaultEndpoints;
 import com.sap.cloud.security.xsuaa.client.XsuaaOAuth2TokenService;
+import com.sap.cloud.security.xsuaa.tokenflows.ReactiveXsuaaTokenFlows;
 import com.sap.cloud.security.xsuaa.tokenflows.XsuaaTokenFlows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestOperations;
+import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for default beans used by
@@ -67,4 +74,85 @@ public class XsuaaTokenFlowAutoConfiguration {
 		return new XsuaaTokenFlows(oAuth2TokenService, endpointsProvider, clientCredentials);
 	}
 
+	/**
+	 * Creates a {@link ReactiveXsuaaTokenFlows} bean for reactive applications,
+	 * e.g. based on Spring WebFlux, that sends the token requests with a
+	 * non-blocking {@link WebClient}. Activates when Project Reactor and Spring
+	 * WebFlux are on the classpath.
+	 */
+	@Configuration
+	@ConditionalOnClass(name = { "reactor.core.publisher.Mono",
+			"org.springframework.web.reactive.function.client.WebClient" })
+	static class WebClientReactiveXsuaaTokenFlowConfiguration {
+
+		/**
+		 * Creates a new {@link ReactiveXsuaaTokenFlows} bean that applications can
+		 * auto-wire to perform a non-blocking token flow exchange. The
+		 * {@link WebClient} is built with the {@link WebClient.Builder} of the
+		 * application context, if any. For certificate based authentication, the
+		 * requests are sent with the {@link RestOperations} instead.
+		 *
+		 * @param webClientBuilder
+		 *            - the {@link WebClient.Builder} of the application context.
+		 * @param xsuaaRestOperations
+		 *            - the {@link RestOperations} to use for certificate based
+		 *            token requests.
+		 * @param xsuaaServiceConfiguration
+		 *            - the {@link XsuaaServiceConfiguration} to configure the Xsuaa
+		 *            Base Url.
+		 * @return the {@link ReactiveXsuaaTokenFlows} API.
+		 */
+		@Bean
+		@ConditionalOnBean({ XsuaaServiceConfiguration.class, RestOperations.class })
+		@ConditionalOnMissingBean
+		public ReactiveXsuaaTokenFlows reactiveXsuaaTokenFlows(ObjectProvider<WebClient.Builder> webClientBuilder,
+				RestOperations xsuaaRestOperations, XsuaaServiceConfiguration xsuaaServiceConfiguration) {
+			ReactiveOAuth2TokenService tokenService;
+			if (xsuaaServiceConfiguration.getClientIdentity().isCertificateBased()) {
+				logger.debug("auto-configures ReactiveXsuaaTokenFlows using certificate based restOperations");
+				tokenService = new ReactiveOAuth2TokenServiceAdapter(new XsuaaOAuth2TokenService(xsuaaRestOperations));
+			} else {
+				logger.debug("auto-configures ReactiveXsuaaTokenFlows using WebClient");
+				tokenService = new WebClientOAuth2TokenService(
+						webClientBuilder.getIfAvailable(WebClient::builder).build());
+			}
+			return new ReactiveXsuaaTokenFlows(tokenService, new XsuaaDefaultEndpoints(xsuaaServiceConfiguration),
+					xsuaaServiceConfiguration.getClientIdentity());
+		}
+	}
+
+	/**
+	 * Creates a {@link ReactiveXsuaaTokenFlows} bean for reactive applications
+	 * without Spring WebFlux. The token requests are sent with the blocking
+	 * {@link RestOperations} on Reactor's {@code boundedElastic} scheduler.
+	 * Activates when Project Reactor is on the classpath.
+	 */
+	@Configuration
+	@ConditionalOnClass(name = "reactor.core.publisher.Mono")
+	@ConditionalOnMissingClass("org.springframework.web.reactive.function.client.WebClient")
+	static class ReactiveXsuaaTokenFlowConfiguration {
+
+		/**
+		 * Creates a new {@link ReactiveXsuaaTokenFlows} bean that applications can
+		 * auto-wire to perform a token flow exchange.
+		 *
+		 * @param xsuaaRestOperations
+		 *            - the {@link RestOperations} to use for the token flow exchange.
+		 * @param xsuaaServiceConfiguration
+		 *            - the {@link XsuaaServiceConfiguration} to configure the Xsuaa
+		 *            Base Url.
+		 * @return the {@link ReactiveXsuaaTokenFlows} API.
+		 */
+		@Bean
+		@ConditionalOnBean({ XsuaaServiceConfiguration.class, RestOperations.class })
+		@ConditionalOnMissingBean
+		public ReactiveXsuaaTokenFlows reactiveXsuaaTokenFlows(RestOperations xsuaaRestOperations,
+				XsuaaServiceConfiguration xsuaaServiceConfiguration) {
+			logger.debug("auto-configures ReactiveXsuaaTokenFlows using restOperations");
+			return new ReactiveXsuaaTokenFlows(
+					new ReactiveOAuth2TokenServiceAdapter(new XsuaaOAuth2TokenService(xsuaaRestOperations)),
+					new XsuaaDefaultEndpoints(xsuaaServiceConfiguration),
+					xsuaaServiceConfiguration.getClientIdentity());
+		}
+	}
 }
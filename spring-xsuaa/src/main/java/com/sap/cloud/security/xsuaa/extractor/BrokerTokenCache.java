@@ -0,0 +1,187 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.extractor;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.lang.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Caches the tokens, that the {@link TokenBrokerResolver} retrieved for basic
+ * authentication credentials. The entries are keyed by the secure hash of the
+ * token url and the credentials and expire shortly before the token. Concurrent
+ * requests with the same credentials share one token request.
+ */
+class BrokerTokenCache {
+
+	static final Duration EXPIRATION_DELTA = Duration.ofSeconds(30);
+	private final AsyncCache<String, Entry> cache;
+	private final Clock clock;
+
+	/**
+	 * Creates an instance.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached tokens
+	 */
+	BrokerTokenCache(int maximumSize) {
+		this(maximumSize, Ticker.systemTicker(), Clock.systemUTC());
+	}
+
+	/**
+	 * Used for testing.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached tokens
+	 * @param cacheTicker
+	 *            ticker the cache uses to determine time
+	 * @param clock
+	 *            clock to determine the remaining lifetime of the tokens
+	 */
+	BrokerTokenCache(int maximumSize, Ticker cacheTicker, Clock clock) {
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+				.ticker(cacheTicker)
+				.maximumSize(maximumSize)
+				.expireAfter(new EntryExpiry())
+				.buildAsync();
+	}
+
+	/**
+	 * Returns the cached token or retrieves it. The token is retrieved once, even
+	 * if it is requested concurrently. The first caller retrieves the token on its
+	 * own thread and outside of the cache's locks, the others wait for it. Failed
+	 * retrievals are not cached.
+	 *
+	 * @param cacheKey
+	 *            the secure hash of the token url and the credentials
+	 * @param tokenRetriever
+	 *            retrieves the token, in case it is not cached
+	 * @return the access token or null, if none was retrieved
+	 * @throws OAuth2ServiceException
+	 *             in case the token retrieval fails
+	 * @throws TokenBrokerException
+	 *             in case the token retrieval fails
+	 */
+	@Nullable
+	String get(String cacheKey, TokenRetriever tokenRetriever) throws OAuth2ServiceException, TokenBrokerException {
+		CompletableFuture<Entry> retrieval = new CompletableFuture<>();
+		CompletableFuture<Entry> entry = cache.get(cacheKey, (key, executor) -> retrieval);
+		if (entry == retrieval) {
+			try {
+				retrieval.complete(retrieve(tokenRetriever));
+			} catch (OAuth2ServiceException | TokenBrokerException | RuntimeException | Error e) {
+				retrieval.completeExceptionally(e);
+				throw e;
+			}
+		}
+		try {
+			Entry cachedEntry = entry.join();
+			return cachedEntry != null ? cachedEntry.accessToken : null;
+		} catch (CompletionException e) {
+			throw unwrap(e);
+		}
+	}
+
+	void clear() {
+		cache.synchronous().invalidateAll();
+	}
+
+	@Nullable
+	private Entry retrieve(TokenRetriever tokenRetriever) throws OAuth2ServiceException, TokenBrokerException {
+		OAuth2TokenResponse tokenResponse = tokenRetriever.retrieve();
+		if (tokenResponse == null || tokenResponse.getAccessToken() == null) {
+			return null;
+		}
+		Instant expiresAt = getExpiration(tokenResponse);
+		return new Entry(tokenResponse.getAccessToken(), expiresAt.minus(EXPIRATION_DELTA));
+	}
+
+	/**
+	 * Prefers the {@code exp} claim of the token over the {@code expires_in} of
+	 * the token response.
+	 */
+	private static Instant getExpiration(OAuth2TokenResponse tokenResponse) {
+		Instant expiresAt = getExpirationClaim(tokenResponse.getAccessToken());
+		return expiresAt != null ? expiresAt : tokenResponse.getExpiredAt();
+	}
+
+	@Nullable
+	private static Instant getExpirationClaim(@Nullable String accessToken) {
+		if (accessToken == null || accessToken.indexOf('.') < 0) {
+			return null;
+		}
+		try {
+			JSONObject payload = new JSONObject(TokenUtil.decodeJwt(accessToken).getPayload());
+			return payload.has("exp") ? Instant.ofEpochSecond(payload.getLong("exp")) : null;
+		} catch (IllegalArgumentException | JSONException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Rethrows the failure of a token retrieval, that another thread has
+	 * performed.
+	 */
+	private static RuntimeException unwrap(CompletionException e)
+			throws OAuth2ServiceException, TokenBrokerException {
+		Throwable cause = e.getCause();
+		if (cause instanceof OAuth2ServiceException) {
+			throw (OAuth2ServiceException) cause;
+		}
+		if (cause instanceof TokenBrokerException) {
+			throw (TokenBrokerException) cause;
+		}
+		return cause instanceof RuntimeException ? (RuntimeException) cause : e;
+	}
+
+	/**
+	 * Retrieves a token from the authorization server.
+	 */
+	@FunctionalInterface
+	interface TokenRetriever {
+		OAuth2TokenResponse retrieve() throws OAuth2ServiceException, TokenBrokerException;
+	}
+
+	private static class Entry {
+		private final String accessToken;
+		private final Instant expiresAt;
+
+		Entry(String accessToken, Instant expiresAt) {
+			this.accessToken = accessToken;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private class EntryExpiry implements Expiry<String, Entry> {
+		@Override
+		public long expireAfterCreate(String key, Entry entry, long currentTime) {
+			return Math.max(0, Duration.between(clock.instant(), entry.expiresAt).toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, entry, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -8,17 +8,19 @@ package com.sap.cloud.security.xsuaa.extractor;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 
+import com.sap.cloud.security.token.AuthorityMapper;
 import com.sap.cloud.security.xsuaa.token.TokenClaims;
 import com.sap.cloud.security.xsuaa.token.XsuaaToken;
 
 public class DefaultAuthoritiesExtractor extends JwtAuthenticationConverter implements AuthoritiesExtractor {
+	private final AuthorityMapper<GrantedAuthority> authorityMapper = AuthorityMapper
+			.scopes(SimpleGrantedAuthority::new);
 
 	public Collection<GrantedAuthority> getAuthorities(XsuaaToken jwt) {
 		return extractAuthorities(jwt);
@@ -33,9 +35,7 @@ public class DefaultAuthoritiesExtractor extends JwtAuthenticationConverter impl
 			return Collections.emptyList();
 		}
 
-		return scopes.stream()
-				.map(SimpleGrantedAuthority::new)
-				.collect(Collectors.toList());
+		return authorityMapper.map(scopes);
 	}
 
 }
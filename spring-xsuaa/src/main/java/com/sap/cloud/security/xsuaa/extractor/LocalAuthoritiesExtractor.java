@@ -5,20 +5,23 @@
  */
 package com.sap.cloud.security.xsuaa.extractor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import com.sap.cloud.security.token.AuthorityMapper;
 import com.sap.cloud.security.xsuaa.token.XsuaaToken;
 
 public class LocalAuthoritiesExtractor implements AuthoritiesExtractor {
 
+	private final AuthorityMapper<GrantedAuthority> authorityMapper = AuthorityMapper
+			.scopes(SimpleGrantedAuthority::new);
+
 	protected String appId;
 
 	public LocalAuthoritiesExtractor(String appId) {
@@ -27,13 +30,12 @@ public class LocalAuthoritiesExtractor implements AuthoritiesExtractor {
 
 	@Override
 	public Collection<GrantedAuthority> getAuthorities(XsuaaToken jwt) {
-		Set<String> scopeAuthorities = new HashSet<>();
-
-		scopeAuthorities.addAll(getScopes(jwt, appId));
-
-		Stream<String> authorities = Stream.of(scopeAuthorities).flatMap(Collection::stream);
-
-		return authorities.map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+		Set<String> scopeAuthorities = getScopes(jwt, appId);
+		Collection<GrantedAuthority> authorities = new ArrayList<>(scopeAuthorities.size());
+		for (String scopeAuthority : scopeAuthorities) {
+			authorities.add(authorityMapper.getAuthority(scopeAuthority));
+		}
+		return authorities;
 	}
 
 	protected Set<String> getScopes(XsuaaToken jwt, String appId) {
@@ -41,9 +43,10 @@ public class LocalAuthoritiesExtractor implements AuthoritiesExtractor {
 		if (scopes == null) {
 			return Collections.emptySet();
 		}
+		String scopePrefix = appId + ".";
 		return scopes.stream()
-				.filter(scope -> scope.startsWith(appId + "."))
-				.map(scope -> scope.substring(appId.length() + 1))
+				.filter(scope -> scope.startsWith(scopePrefix))
+				.map(scope -> scope.substring(scopePrefix.length()))
 				.collect(Collectors.toSet());
 	}
 
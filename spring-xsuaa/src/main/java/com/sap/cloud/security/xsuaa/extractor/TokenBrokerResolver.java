@@ -10,6 +10,7 @@ import com.sap.cloud.security.config.ClientIdentity;
 import com.sap.cloud.security.config.CredentialType;
 import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
 import com.sap.cloud.security.xsuaa.client.XsuaaOAuth2TokenService;
 import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
@@ -29,7 +30,8 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Analyse authentication header and obtain token from UAA
@@ -51,6 +53,8 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 	private static final String AUTH_HEADER = "Authorization";
 	private static final String OAUTH_TOKEN_PATH = "/oauth/token";
 	private static final String AUTH_BEARER = "bearer";
+	private static final String NO_SUBDOMAIN = "";
+	static final int TOKEN_URL_CACHE_SIZE = 1000;
 
 	private final XsuaaServiceConfiguration configuration;
 
@@ -59,6 +63,8 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 	private OAuth2TokenService oAuth2TokenService;
 	private AuthenticationInformationExtractor authenticationConfig;
 	private IasXsuaaExchangeBroker iasXsuaaExchangeBroker;
+	private BrokerTokenCache brokerTokenCache;
+	private final Map<String, URI> oauthTokenUrls = new ConcurrentHashMap<>();
 
 	/**
 	 * @param configuration
@@ -127,6 +133,24 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 				new DefaultAuthenticationInformationExtractor(authenticationMethods));
 	}
 
+	/**
+	 * Caches the tokens retrieved for {@link AuthenticationMethod#BASIC} and
+	 * {@link AuthenticationMethod#CLIENT_CREDENTIALS} in a dedicated cache instead
+	 * of the Token-Cache. The tokens expire with their {@code exp} claim and
+	 * concurrent requests with the same credentials share one token request.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached tokens
+	 * @return this resolver
+	 */
+	public TokenBrokerResolver withBrokerTokenCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be greater than 0");
+		}
+		this.brokerTokenCache = new BrokerTokenCache(maximumSize);
+		return this;
+	}
+
 	@Override
 	public String resolve(HttpServletRequest request) {
 		try {
@@ -142,7 +166,7 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 
 		checkTypes(authenticationMethods);
 
-		String oauthTokenUrl = getOAuthTokenUrl(request);
+		URI oauthTokenUrl = getOAuthTokenUrl(request);
 
 		ClientIdentity clientIdentity = configuration.getClientIdentity();
 
@@ -164,18 +188,27 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 		}
 	}
 
-	private String getOAuthTokenUrl(HttpServletRequest request) {
+	private URI getOAuthTokenUrl(HttpServletRequest request) {
+		String subdomain = authenticationConfig.getSubdomain(request).orElse(NO_SUBDOMAIN);
+		URI oauthTokenUrl = oauthTokenUrls.get(subdomain);
+		if (oauthTokenUrl == null) {
+			oauthTokenUrl = URI.create(createOAuthTokenUrl(subdomain));
+			if (oauthTokenUrls.size() < TOKEN_URL_CACHE_SIZE) {
+				oauthTokenUrls.putIfAbsent(subdomain, oauthTokenUrl);
+			}
+		}
+		return oauthTokenUrl;
+	}
+
+	private String createOAuthTokenUrl(String subdomain) {
 		String uaaUrl = configuration.getCredentialType() == CredentialType.X509
 				? String.valueOf(configuration.getCertUrl())
 				: configuration.getUaaUrl();
 		String uaaDomain = configuration.getUaaDomain();
 
-		Optional<String> subdomainResult = authenticationConfig.getSubdomain(request);
-
 		String oauthTokenUrl;
-		if (subdomainResult.isPresent()) {
-			oauthTokenUrl = TokenUrlUtils.getMultiTenancyUrl(OAUTH_TOKEN_PATH, uaaUrl, uaaDomain,
-					subdomainResult.get());
+		if (!NO_SUBDOMAIN.equals(subdomain)) {
+			oauthTokenUrl = TokenUrlUtils.getMultiTenancyUrl(OAUTH_TOKEN_PATH, uaaUrl, uaaDomain, subdomain);
 		} else {
 			oauthTokenUrl = TokenUrlUtils.getOauthTokenUrl(OAUTH_TOKEN_PATH, uaaUrl, uaaDomain);
 		}
@@ -184,7 +217,7 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 	}
 
 	private String getBrokerToken(AuthenticationMethod credentialType, String authHeaderValue,
-			String oauthTokenUrl, ClientIdentity clientIdentity) throws TokenBrokerException, OAuth2ServiceException {
+			URI oauthTokenUrl, ClientIdentity clientIdentity) throws TokenBrokerException, OAuth2ServiceException {
 		switch (credentialType) {
 		case OAUTH2:
 			String oAuth2token = extractAuthenticationFromHeader(AUTH_BEARER, authHeaderValue);
@@ -208,28 +241,19 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 			ClientCredentials userCredentialsFromHeader = getCredentialsFromBasicAuthorizationHeader(
 					basicAuthHeader);
 			if (userCredentialsFromHeader != null) {
-				String cacheKey = createSecureHash(oauthTokenUrl, clientIdentity.toString(),
+				String cacheKey = createSecureHash(oauthTokenUrl.toString(), clientIdentity.toString(),
 						userCredentialsFromHeader.toString());
-				String cachedToken = tokenCache.get(cacheKey, String.class);
-				if (cachedToken != null) {
-					logger.debug("return (basic) access token for {} from cache", cacheKey);
-					return cachedToken;
-				} else {
-					String token;
+				return getCachedToken(cacheKey, () -> {
 					if (oAuth2TokenService != null) {
-						token = oAuth2TokenService.retrieveAccessTokenViaPasswordGrant(URI.create(oauthTokenUrl),
+						return oAuth2TokenService.retrieveAccessTokenViaPasswordGrant(oauthTokenUrl,
 								clientIdentity, userCredentialsFromHeader.getId(),
-								userCredentialsFromHeader.getSecret(), null, null, false).getAccessToken();
-					} else {
-						// only when deprecated constructors are used, for backward compatibility
-						token = tokenBroker.getAccessTokenFromPasswordCredentials(oauthTokenUrl,
-								clientIdentity.getId(),
-								clientIdentity.getSecret(), userCredentialsFromHeader.getId(),
-								userCredentialsFromHeader.getSecret());
+								userCredentialsFromHeader.getSecret(), null, null, false);
 					}
-					tokenCache.put(cacheKey, token);
-					return token;
-				}
+					// only when deprecated constructors are used, for backward compatibility
+					return new OAuth2TokenResponse(tokenBroker.getAccessTokenFromPasswordCredentials(
+							oauthTokenUrl.toString(), clientIdentity.getId(), clientIdentity.getSecret(),
+							userCredentialsFromHeader.getId(), userCredentialsFromHeader.getSecret()), 0, null);
+				});
 			}
 			break;
 		case CLIENT_CREDENTIALS:
@@ -238,26 +262,17 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 			ClientIdentity clientCredentialsFromHeader = getCredentialsFromBasicAuthorizationHeader(
 					clientCredentialsAuthHeader);
 			if (clientCredentialsFromHeader != null) {
-				String cacheKey = createSecureHash(oauthTokenUrl, clientCredentialsFromHeader.toString());
-				String cachedToken = tokenCache.get(cacheKey, String.class);
-				if (cachedToken != null) {
-					logger.debug("return (client-credentials) access token for {} from cache", cacheKey);
-					return cachedToken;
-				} else {
-					String token;
+				String cacheKey = createSecureHash(oauthTokenUrl.toString(), clientCredentialsFromHeader.toString());
+				return getCachedToken(cacheKey, () -> {
 					if (oAuth2TokenService != null) {
-						token = oAuth2TokenService.retrieveAccessTokenViaClientCredentialsGrant(
-								URI.create(oauthTokenUrl), clientCredentialsFromHeader, null, null,
-								null, false).getAccessToken();
-					} else {
-						// only when deprecated constructors are used, for backward compatibility
-						token = tokenBroker
-								.getAccessTokenFromClientCredentials(oauthTokenUrl, clientCredentialsFromHeader.getId(),
-										clientCredentialsFromHeader.getSecret());
+						return oAuth2TokenService.retrieveAccessTokenViaClientCredentialsGrant(
+								oauthTokenUrl, clientCredentialsFromHeader, null, null, null, false);
 					}
-					tokenCache.put(cacheKey, token);
-					return token;
-				}
+					// only when deprecated constructors are used, for backward compatibility
+					return new OAuth2TokenResponse(tokenBroker.getAccessTokenFromClientCredentials(
+							oauthTokenUrl.toString(), clientCredentialsFromHeader.getId(),
+							clientCredentialsFromHeader.getSecret()), 0, null);
+				});
 			}
 			break;
 		default:
@@ -266,6 +281,23 @@ public class TokenBrokerResolver implements BearerTokenResolver {
 		return null;
 	}
 
+	@Nullable
+	private String getCachedToken(String cacheKey, BrokerTokenCache.TokenRetriever tokenRetriever)
+			throws OAuth2ServiceException, TokenBrokerException {
+		if (brokerTokenCache != null) {
+			return brokerTokenCache.get(cacheKey, tokenRetriever);
+		}
+		String cachedToken = tokenCache.get(cacheKey, String.class);
+		if (cachedToken != null) {
+			logger.debug("return access token for {} from cache", cacheKey);
+			return cachedToken;
+		}
+		OAuth2TokenResponse tokenResponse = tokenRetriever.retrieve();
+		String token = tokenResponse != null ? tokenResponse.getAccessToken() : null;
+		tokenCache.put(cacheKey, token);
+		return token;
+	}
+
 	@Nullable
 	private ClientCredentials getCredentialsFromBasicAuthorizationHeader(@Nullable String basicAuthHeader) {
 		if (basicAuthHeader == null) {
@@ -5,6 +5,7 @@
  */
 package com.sap.cloud.security.xsuaa.token;
 
+import com.sap.cloud.security.token.SecurityContextSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
@@ -14,9 +15,26 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Access to the token of reactive applications.
+ * <p>
+ * Additionally, bridges the thread based
+ * {@link com.sap.cloud.security.token.SecurityContext} to Reactor: the context
+ * of the subscribing thread can be captured into the Reactor {@link Context}
+ * with {@link #withSecurityContext()} and restored for blocking code with
+ * {@link #fromCallable(Callable)}. Alternatively,
+ * {@link #enableSchedulerPropagation()} passes the context to all tasks
+ * scheduled on Reactor schedulers.
+ */
 public class ReactiveSecurityContext {
 	private static Logger logger = LoggerFactory.getLogger(ReactiveSecurityContext.class);
+	static final String SECURITY_CONTEXT_KEY = SecurityContextSnapshot.class.getName();
 
 	private ReactiveSecurityContext() {
 	}
@@ -37,4 +55,79 @@ public class ReactiveSecurityContext {
 				.doOnSuccess(token -> logger.debug("Got Jwt token with clientid: {}", token.getClientId()))
 				.doOnError(throwable -> logger.error("ERROR to getToken", throwable));
 	}
+
+	/**
+	 * Captures the {@link com.sap.cloud.security.token.SecurityContext} of the
+	 * current thread for the Reactor context.
+	 *
+	 * <pre>
+	 * {@code
+	 * Mono<String> result = ReactiveSecurityContext.fromCallable(() -> callDownstream(SecurityContext.getToken()))
+	 * 		.subscribeOn(Schedulers.boundedElastic())
+	 * 		.contextWrite(ReactiveSecurityContext.withSecurityContext());
+	 * }
+	 * </pre>
+	 *
+	 * @return the function to be passed to {@code contextWrite}
+	 */
+	public static Function<Context, Context> withSecurityContext() {
+		return withSecurityContext(com.sap.cloud.security.token.SecurityContext.capture());
+	}
+
+	/**
+	 * Puts the captured {@link com.sap.cloud.security.token.SecurityContext} into
+	 * the Reactor context.
+	 *
+	 * @param snapshot
+	 *            the captured context
+	 * @return the function to be passed to {@code contextWrite}
+	 */
+	public static Function<Context, Context> withSecurityContext(SecurityContextSnapshot snapshot) {
+		return context -> context.put(SECURITY_CONTEXT_KEY, snapshot);
+	}
+
+	/**
+	 * Obtains the {@link com.sap.cloud.security.token.SecurityContext} from the
+	 * Reactor context.
+	 *
+	 * @return the captured context or empty, if no context was captured
+	 */
+	public static Mono<SecurityContextSnapshot> getSecurityContext() {
+		return Mono.deferContextual(context -> Mono.justOrEmpty(context.getOrEmpty(SECURITY_CONTEXT_KEY)));
+	}
+
+	/**
+	 * Calls the blocking task with the
+	 * {@link com.sap.cloud.security.token.SecurityContext} of the Reactor context,
+	 * on whatever thread the {@link Mono} is subscribed.
+	 *
+	 * @param task
+	 *            the task
+	 * @param <T>
+	 *            the result type
+	 * @return the result of the task
+	 */
+	public static <T> Mono<T> fromCallable(Callable<T> task) {
+		return Mono.deferContextual(context -> {
+			SecurityContextSnapshot snapshot = context.getOrDefault(SECURITY_CONTEXT_KEY, null);
+			return snapshot != null ? Mono.fromCallable(() -> snapshot.call(task)) : Mono.fromCallable(task);
+		});
+	}
+
+	/**
+	 * Passes the {@link com.sap.cloud.security.token.SecurityContext} of the
+	 * scheduling thread to all tasks scheduled on Reactor
+	 * {@link reactor.core.scheduler.Scheduler}s.
+	 */
+	public static void enableSchedulerPropagation() {
+		Schedulers.onScheduleHook(SECURITY_CONTEXT_KEY, com.sap.cloud.security.token.SecurityContext::wrap);
+	}
+
+	/**
+	 * Stops passing the {@link com.sap.cloud.security.token.SecurityContext} to
+	 * tasks scheduled on Reactor schedulers.
+	 */
+	public static void disableSchedulerPropagation() {
+		Schedulers.resetOnScheduleHook(SECURITY_CONTEXT_KEY);
+	}
 }
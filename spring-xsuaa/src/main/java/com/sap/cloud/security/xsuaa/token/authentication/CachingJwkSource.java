@@ -0,0 +1,121 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import java.net.URI;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+/**
+ * Caches the JSON Web Key Set of one {@code jku} for all its key ids. The keys
+ * are indexed by key id. The key set is downloaded again, when it is expired or
+ * when it does not contain the requested key id, e.g. after a key rotation.
+ * Concurrent requests wait for a single download. An unknown key id does not
+ * trigger another download within {@link #REFRESH_COOLDOWN} of the last one.
+ */
+final class CachingJwkSource implements JWKSource<SecurityContext> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CachingJwkSource.class);
+	static final Duration REFRESH_COOLDOWN = Duration.ofSeconds(5);
+
+	private final URI jwkSetUri;
+	private final RestOperations restOperations;
+	private final long cacheValidityMillis;
+	private final long refreshCooldownMillis;
+	private final Object refreshLock = new Object();
+	private volatile Keys keys = Keys.EMPTY;
+
+	CachingJwkSource(URI jwkSetUri, RestOperations restOperations, Duration cacheValidity) {
+		this(jwkSetUri, restOperations, cacheValidity, REFRESH_COOLDOWN);
+	}
+
+	CachingJwkSource(URI jwkSetUri, RestOperations restOperations, Duration cacheValidity,
+			Duration refreshCooldown) {
+		this.jwkSetUri = jwkSetUri;
+		this.restOperations = restOperations;
+		this.cacheValidityMillis = cacheValidity.toMillis();
+		this.refreshCooldownMillis = refreshCooldown.toMillis();
+	}
+
+	@Override
+	public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+		Keys current = keys;
+		if (!current.isExpired()) {
+			List<JWK> matches = current.select(jwkSelector);
+			if (!matches.isEmpty() || current.isRecent(refreshCooldownMillis)) {
+				return matches;
+			}
+		}
+		return refresh(current).select(jwkSelector);
+	}
+
+	private Keys refresh(Keys outdated) throws KeySourceException {
+		synchronized (refreshLock) {
+			Keys current = keys;
+			if (!current.isExpired() && (current != outdated || current.isRecent(refreshCooldownMillis))) {
+				return current; // downloaded by another thread in the meantime or just recently
+			}
+			LOGGER.debug("Retrieves JWK set from {}.", jwkSetUri);
+			IndexedJwkSet jwkSet = new IndexedJwkSet(download());
+			long now = System.currentTimeMillis();
+			Keys downloaded = new Keys(jwkSet, now, now + cacheValidityMillis);
+			keys = downloaded;
+			return downloaded;
+		}
+	}
+
+	private JWKSet download() throws KeySourceException {
+		try {
+			RequestEntity<Void> request = RequestEntity.get(jwkSetUri).accept(MediaType.APPLICATION_JSON).build();
+			String body = restOperations.exchange(request, String.class).getBody();
+			if (body == null) {
+				throw new KeySourceException("Couldn't retrieve remote JWK set: empty response");
+			}
+			return JWKSet.parse(body);
+		} catch (RestClientException | ParseException e) {
+			throw new KeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+		}
+	}
+
+	private static final class Keys {
+		static final Keys EMPTY = new Keys(IndexedJwkSet.EMPTY, 0, 0);
+
+		private final IndexedJwkSet jwkSet;
+		private final long downloadedAt;
+		private final long expiresAt;
+
+		Keys(IndexedJwkSet jwkSet, long downloadedAt, long expiresAt) {
+			this.jwkSet = jwkSet;
+			this.downloadedAt = downloadedAt;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+
+		boolean isRecent(long periodMillis) {
+			return System.currentTimeMillis() - downloadedAt < periodMillis;
+		}
+
+		List<JWK> select(JWKSelector jwkSelector) {
+			return jwkSet.select(jwkSelector);
+		}
+	}
+}
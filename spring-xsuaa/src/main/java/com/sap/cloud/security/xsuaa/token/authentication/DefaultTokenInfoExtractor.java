@@ -0,0 +1,46 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import java.net.URI;
+
+import com.nimbusds.jose.Header;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWT;
+import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
+
+/**
+ * Reads {@code jku} and {@code kid} from the header, that was already parsed
+ * with the token, and the uaa domain from the service configuration.
+ */
+class DefaultTokenInfoExtractor implements TokenInfoExtractor {
+	private final XsuaaServiceConfiguration xsuaaServiceConfiguration;
+
+	DefaultTokenInfoExtractor(XsuaaServiceConfiguration xsuaaServiceConfiguration) {
+		this.xsuaaServiceConfiguration = xsuaaServiceConfiguration;
+	}
+
+	@Override
+	public String getJku(JWT jwt) {
+		Header header = jwt.getHeader();
+		if (header instanceof JWSHeader) {
+			URI jku = ((JWSHeader) header).getJWKURL();
+			return jku != null ? jku.toString() : null;
+		}
+		return null;
+	}
+
+	@Override
+	public String getKid(JWT jwt) {
+		Header header = jwt.getHeader();
+		return header instanceof JWSHeader ? ((JWSHeader) header).getKeyID() : null;
+	}
+
+	@Override
+	public String getUaaDomain(JWT jwt) {
+		return xsuaaServiceConfiguration.getUaaDomain();
+	}
+}
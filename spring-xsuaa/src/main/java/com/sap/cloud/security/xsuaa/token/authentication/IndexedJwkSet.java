@@ -0,0 +1,56 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import java.util.*;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+
+/**
+ * JSON Web Key Set with the keys indexed by key id.
+ */
+final class IndexedJwkSet {
+	static final IndexedJwkSet EMPTY = new IndexedJwkSet(new JWKSet());
+
+	private final JWKSet jwkSet;
+	private final Map<String, JWK> byKeyId;
+
+	IndexedJwkSet(JWKSet jwkSet) {
+		this.jwkSet = jwkSet;
+		Map<String, JWK> keysById = new HashMap<>();
+		for (JWK jwk : jwkSet.getKeys()) {
+			if (jwk.getKeyID() != null) {
+				keysById.putIfAbsent(jwk.getKeyID(), jwk);
+			}
+		}
+		this.byKeyId = keysById;
+	}
+
+	/**
+	 * @param jwkSelector
+	 *            the selector
+	 * @return the matching keys, looked up by key id if the selector requests
+	 *         one
+	 */
+	List<JWK> select(JWKSelector jwkSelector) {
+		JWKMatcher matcher = jwkSelector.getMatcher();
+		Set<String> keyIds = matcher.getKeyIDs();
+		if (keyIds == null || keyIds.isEmpty()) {
+			return jwkSelector.select(jwkSet);
+		}
+		List<JWK> matches = new ArrayList<>(keyIds.size());
+		for (String keyId : keyIds) {
+			JWK jwk = byKeyId.get(keyId);
+			if (jwk != null && matcher.matches(jwk)) {
+				matches.add(jwk);
+			}
+		}
+		return matches;
+	}
+}
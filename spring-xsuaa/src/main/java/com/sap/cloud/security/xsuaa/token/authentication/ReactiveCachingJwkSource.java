@@ -0,0 +1,105 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import java.net.URI;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link CachingJwkSource}: caches the JSON Web Key Set
+ * of one {@code jku} for all its key ids. The key set is retrieved again, when
+ * it is expired or when it does not contain the requested key id, but not
+ * within {@link CachingJwkSource#REFRESH_COOLDOWN} of the last retrieval.
+ * Concurrent subscribers share a single retrieval, none of them blocks.
+ */
+final class ReactiveCachingJwkSource {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveCachingJwkSource.class);
+
+	private final Mono<Keys> retrieval;
+	private final Duration cacheValidity;
+	private final long refreshCooldownMillis;
+	private final AtomicReference<Mono<Keys>> keys;
+
+	ReactiveCachingJwkSource(URI jwkSetUri, Function<URI, Mono<String>> jwkSetRetriever, Duration cacheValidity) {
+		this(jwkSetUri, jwkSetRetriever, cacheValidity, CachingJwkSource.REFRESH_COOLDOWN);
+	}
+
+	ReactiveCachingJwkSource(URI jwkSetUri, Function<URI, Mono<String>> jwkSetRetriever, Duration cacheValidity,
+			Duration refreshCooldown) {
+		this.cacheValidity = cacheValidity;
+		this.refreshCooldownMillis = refreshCooldown.toMillis();
+		this.retrieval = Mono.defer(() -> {
+			LOGGER.debug("Retrieves JWK set from {}.", jwkSetUri);
+			return jwkSetRetriever.apply(jwkSetUri);
+		}).switchIfEmpty(Mono.error(() -> new KeySourceException("Couldn't retrieve remote JWK set: empty response")))
+				.map(jwkSet -> new Keys(parse(jwkSet), System.currentTimeMillis()))
+				.onErrorMap(e -> !(e instanceof KeySourceException),
+						e -> new KeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e));
+		this.keys = new AtomicReference<>(cachedRetrieval());
+	}
+
+	/**
+	 * @param jwkSelector
+	 *            the selector
+	 * @return the matching keys or an empty list; a {@link KeySourceException} in
+	 *         case the key set could not be retrieved
+	 */
+	Mono<List<JWK>> get(JWKSelector jwkSelector) {
+		Mono<Keys> current = keys.get();
+		return current.flatMap(retrieved -> {
+			List<JWK> matches = retrieved.jwkSet.select(jwkSelector);
+			if (!matches.isEmpty() || retrieved.isRecent(refreshCooldownMillis)) {
+				return Mono.just(matches);
+			}
+			return refresh(current).map(refreshed -> refreshed.jwkSet.select(jwkSelector));
+		});
+	}
+
+	private Mono<Keys> refresh(Mono<Keys> outdated) {
+		Mono<Keys> refreshed = cachedRetrieval();
+		// the first subscriber replaces the outdated key set, the others join its retrieval
+		return keys.compareAndSet(outdated, refreshed) ? refreshed : keys.get();
+	}
+
+	private Mono<Keys> cachedRetrieval() {
+		return retrieval.cache(retrieved -> cacheValidity, error -> Duration.ZERO, () -> Duration.ZERO);
+	}
+
+	private static IndexedJwkSet parse(String jwkSet) {
+		try {
+			return new IndexedJwkSet(JWKSet.parse(jwkSet));
+		} catch (ParseException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	private static final class Keys {
+		private final IndexedJwkSet jwkSet;
+		private final long retrievedAt;
+
+		Keys(IndexedJwkSet jwkSet, long retrievedAt) {
+			this.jwkSet = jwkSet;
+			this.retrievedAt = retrievedAt;
+		}
+
+		boolean isRecent(long periodMillis) {
+			return System.currentTimeMillis() - retrievedAt < periodMillis;
+		}
+	}
+}
@@ -5,88 +5,168 @@
  */
 package com.sap.cloud.security.xsuaa.token.authentication;
 
-import static com.sap.cloud.security.xsuaa.token.TokenClaims.CLAIM_JKU;
-import static com.sap.cloud.security.xsuaa.token.TokenClaims.CLAIM_KID;
-
-import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.net.URI;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
 
-import org.json.JSONObject;
-import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSecurityContextJWKSet;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWKSecurityContext;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jwt.JWT;
-import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
 
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * Reactive decoder for XSUAA tokens. The token is parsed once, its
+ * {@code jku} is validated like in {@link XsuaaJwtDecoder} and the signature
+ * is verified with the token keys, that are cached per {@code jku} for all key
+ * ids. The token keys are retrieved with a non-blocking {@code WebClient}, if
+ * spring-webflux and reactor-netty are on the classpath, otherwise with a
+ * {@link RestTemplate} on {@link Schedulers#boundedElastic()}.
+ */
 public class ReactiveXsuaaJwtDecoder implements ReactiveJwtDecoder {
+	static final boolean WEB_CLIENT_PRESENT = isPresent(
+			"org.springframework.web.reactive.function.client.WebClient")
+			&& isPresent("reactor.netty.http.client.HttpClient");
 
-	Cache<String, ReactiveJwtDecoder> cache;
-	private List<OAuth2TokenValidator<Jwt>> tokenValidators = new ArrayList<>();
-	private Collection<PostValidationAction> postValidationActions;
+	// one key source per jku
+	Cache<String, ReactiveCachingJwkSource> cache;
+	private final Duration cacheValidity;
+	private final NimbusReactiveJwtDecoder decoder;
+	private final DefaultJWTProcessor<JWKSecurityContext> jwtProcessor;
+	private final Collection<PostValidationAction> postValidationActions;
 	private TokenInfoExtractor tokenInfoExtractor;
+	private Function<URI, Mono<String>> jwkSetRetriever;
 
-	// var arg it is only being converted to a List<OAuth2TokenValidator<Jwt>>,
-	// therefore its type safe.
 	ReactiveXsuaaJwtDecoder(XsuaaServiceConfiguration xsuaaServiceConfiguration, int cacheValidityInSeconds,
 			int cacheSize,
 			OAuth2TokenValidator<Jwt> tokenValidators, Collection<PostValidationAction> postValidationActions) {
-		cache = Caffeine.newBuilder().expireAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS).maximumSize(cacheSize)
-				.build();
-
-		this.tokenInfoExtractor = new TokenInfoExtractor() {
-			@Override
-			public String getJku(JWT jwt) {
-				return new JSONObject(jwt.getHeader().toString()).optString(CLAIM_JKU, null);
-			}
-
-			@Override
-			public String getKid(JWT jwt) {
-				return new JSONObject(jwt.getHeader().toString()).optString(CLAIM_KID, null);
-			}
-
-			@Override
-			public String getUaaDomain(JWT jwt) {
-				return xsuaaServiceConfiguration.getUaaDomain();
-			}
-		};
-
-		this.tokenValidators.addAll(Arrays.asList(tokenValidators));
-		this.postValidationActions = postValidationActions != null ? postValidationActions : Collections.EMPTY_LIST;
+		this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+		this.cacheValidity = Duration.ofSeconds(cacheValidityInSeconds);
+		this.tokenInfoExtractor = new DefaultTokenInfoExtractor(xsuaaServiceConfiguration);
+		this.postValidationActions = postValidationActions != null ? postValidationActions : Collections.emptyList();
+
+		this.jwtProcessor = new DefaultJWTProcessor<>();
+		this.jwtProcessor.setJWSKeySelector(
+				new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, new JWKSecurityContextJWKSet()));
+		// claims are validated with the tokenValidators
+		this.jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+		});
+		this.decoder = new NimbusReactiveJwtDecoder(this::verifySignature);
+		this.decoder.setJwtValidator(tokenValidators);
+		if (WEB_CLIENT_PRESENT) {
+			setConnectionProvider(null);
+		} else {
+			setRestOperations(new RestTemplate());
+		}
 	}
 
 	@Override
 	public Mono<Jwt> decode(String token) throws JwtException {
-		return Mono.just(token).map(jwtToken -> {
-			try {
-				return JWTParser.parse(jwtToken);
-			} catch (ParseException e) {
-				throw new JwtException("Error initializing JWT decoder:" + e.getMessage());
-			}
-		}).map(jwtToken -> {
-			String cacheKey = tokenInfoExtractor.getJku(jwtToken) + tokenInfoExtractor.getKid(jwtToken);
-			return cache.get(cacheKey, k -> this.getDecoder(tokenInfoExtractor.getJku(jwtToken)));
-		}).flatMap(decoder -> decoder.decode(token))
+		return decoder.decode(token)
 				.doOnSuccess(jwt -> postValidationActions.forEach(act -> act.perform(jwt)));
 	}
 
-	private ReactiveJwtDecoder getDecoder(String jku) {
-		NimbusReactiveJwtDecoder decoder = new NimbusReactiveJwtDecoder(jku);
-		decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(tokenValidators));
-		return decoder;
+	public void setTokenInfoExtractor(TokenInfoExtractor tokenInfoExtractor) {
+		this.tokenInfoExtractor = tokenInfoExtractor;
+	}
+
+	/**
+	 * Retrieves the token keys with the given {@link RestOperations}. As they are
+	 * blocking, the requests are executed on {@link Schedulers#boundedElastic()}.
+	 *
+	 * @param restOperations
+	 *            the {@link RestOperations} instance
+	 */
+	void setRestOperations(RestOperations restOperations) {
+		this.jwkSetRetriever = jwkSetUri -> Mono.fromCallable(() -> restOperations.exchange(
+				RequestEntity.get(jwkSetUri).accept(MediaType.APPLICATION_JSON).build(), String.class).getBody())
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Retrieves the token keys with a {@code WebClient}, that uses the given
+	 * connection pool.
+	 *
+	 * @param connectionProvider
+	 *            the connection pool or {@code null} for the shared default pool
+	 *            of reactor-netty
+	 */
+	void setConnectionProvider(@Nullable ConnectionProvider connectionProvider) {
+		this.jwkSetRetriever = new WebClientJwkSetRetriever(connectionProvider);
+	}
+
+	void setJwkSetRetriever(Function<URI, Mono<String>> jwkSetRetriever) {
+		this.jwkSetRetriever = jwkSetRetriever;
+	}
+
+	private static boolean isPresent(String className) {
+		return ClassUtils.isPresent(className, ReactiveXsuaaJwtDecoder.class.getClassLoader());
+	}
+
+	private Mono<JWTClaimsSet> verifySignature(JWT jwt) {
+		String jku = tokenInfoExtractor.getJku(jwt);
+		String kid = tokenInfoExtractor.getKid(jwt);
+		String uaaDomain = tokenInfoExtractor.getUaaDomain(jwt);
+		try {
+			XsuaaJwtDecoder.canVerifyWithKey(jku, kid, uaaDomain);
+			XsuaaJwtDecoder.validateJku(jku, uaaDomain);
+		} catch (BadJwtException e) {
+			return Mono.error(e);
+		}
+		if (!(jwt.getHeader() instanceof JWSHeader)) {
+			return Mono.error(new BadJwtException("JWT verification failed: token is not signed"));
+		}
+		JWKSelector jwkSelector = new JWKSelector(JWKMatcher.forJWSHeader((JWSHeader) jwt.getHeader()));
+		return cache.get(jku, this::createJwkSource)
+				.get(jwkSelector)
+				.onErrorMap(KeySourceException.class,
+						e -> new BadJwtException("JWT verification failed: " + e.getMessage(), e))
+				.map(jwks -> process(jwt, jwks));
+	}
+
+	private ReactiveCachingJwkSource createJwkSource(String jku) {
+		return new ReactiveCachingJwkSource(URI.create(jku), jwkSetRetriever, cacheValidity);
+	}
+
+	private JWTClaimsSet process(JWT jwt, List<JWK> jwks) {
+		try {
+			return jwtProcessor.process(jwt, new JWKSecurityContext(jwks));
+		} catch (BadJOSEException | JOSEException e) {
+			throw new BadJwtException("JWT verification failed: " + e.getMessage(), e);
+		}
 	}
 
 }
@@ -0,0 +1,46 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import java.net.URI;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Retrieves the JSON Web Key Set of a {@code jku} with a {@link WebClient},
+ * i.e. without blocking. Default retriever of the
+ * {@link ReactiveXsuaaJwtDecoder}, if spring-webflux and reactor-netty are on
+ * the classpath.
+ */
+final class WebClientJwkSetRetriever implements Function<URI, Mono<String>> {
+
+	private final WebClient webClient;
+
+	/**
+	 * @param connectionProvider
+	 *            the connection pool of the http client or {@code null} for the
+	 *            shared default pool of reactor-netty
+	 */
+	WebClientJwkSetRetriever(@Nullable ConnectionProvider connectionProvider) {
+		HttpClient httpClient = connectionProvider != null ? HttpClient.create(connectionProvider)
+				: HttpClient.create();
+		this.webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+	}
+
+	@Override
+	public Mono<String> apply(URI jwkSetUri) {
+		return webClient.get().uri(jwkSetUri).accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(String.class);
+	}
+}
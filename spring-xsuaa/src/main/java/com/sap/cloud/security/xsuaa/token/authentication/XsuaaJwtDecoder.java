@@ -5,8 +5,6 @@
  */
 package com.sap.cloud.security.xsuaa.token.authentication;
 
-import static com.sap.cloud.security.xsuaa.token.TokenClaims.CLAIM_JKU;
-import static com.sap.cloud.security.xsuaa.token.TokenClaims.CLAIM_KID;
 import static org.springframework.util.StringUtils.hasText;
 
 import java.net.URI;
@@ -18,62 +16,55 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.Cache;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.*;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder;
 import org.springframework.util.Assert;
 import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
 
 public class XsuaaJwtDecoder implements JwtDecoder {
-	private final Logger logger = LoggerFactory.getLogger(getClass());
+	private static final Logger logger = LoggerFactory.getLogger(XsuaaJwtDecoder.class);
 	private final XsuaaServiceConfiguration xsuaaServiceConfiguration;
 	private final Duration cacheValidityInSeconds;
 	private final int cacheSize;
 
+	// one decoder per jku, its CachingJwkSource expires the keys
 	com.github.benmanes.caffeine.cache.Cache<String, JwtDecoder> cache;
 	private final OAuth2TokenValidator<Jwt> tokenValidators;
 	private final Collection<PostValidationAction> postValidationActions;
 	private TokenInfoExtractor tokenInfoExtractor;
-	private RestOperations restOperations;
+	private RestOperations restOperations = new RestTemplate();
+	private boolean offlineVerificationFirst;
+	volatile VerificationKeyDecoder verificationKeyDecoder;
+	// validated tokens, expire with the token
+	private Cache<String, Jwt> validatedJwtCache;
 
 	XsuaaJwtDecoder(XsuaaServiceConfiguration xsuaaServiceConfiguration, int cacheValidityInSeconds, int cacheSize,
 			OAuth2TokenValidator<Jwt> tokenValidators, Collection<PostValidationAction> postValidationActions) {
 
 		this.cacheValidityInSeconds = Duration.ofSeconds(cacheValidityInSeconds);
 		this.cacheSize = cacheSize;
-		this.cache = Caffeine.newBuilder().expireAfterWrite(this.cacheValidityInSeconds)
-				.maximumSize(this.cacheSize)
-				.build();
+		this.cache = Caffeine.newBuilder().maximumSize(this.cacheSize).build();
 		this.tokenValidators = tokenValidators;
 		this.xsuaaServiceConfiguration = xsuaaServiceConfiguration;
 
-		this.tokenInfoExtractor = new TokenInfoExtractor() {
-			@Override
-			public String getJku(JWT jwt) {
-				return new JSONObject(jwt.getHeader().toString()).optString(CLAIM_JKU, null);
-			}
-
-			@Override
-			public String getKid(JWT jwt) {
-				return new JSONObject(jwt.getHeader().toString()).optString(CLAIM_KID, null);
-			}
-
-			@Override
-			public String getUaaDomain(JWT jwt) {
-				return xsuaaServiceConfiguration.getUaaDomain();
-			}
-		};
+		this.tokenInfoExtractor = new DefaultTokenInfoExtractor(xsuaaServiceConfiguration);
 		this.postValidationActions = postValidationActions != null ? postValidationActions : Collections.emptyList();
 	}
 
@@ -94,11 +85,24 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		} catch (ParseException ex) {
 			throw new BadJwtException("Error initializing JWT decoder: " + ex.getMessage());
 		}
-		final Jwt verifiedToken = verifyToken(jwt);
+		final Jwt verifiedToken = verifyTokenCached(token, jwt);
 		postValidationActions.forEach(action -> action.perform(verifiedToken));
 		return verifiedToken;
 	}
 
+	private Jwt verifyTokenCached(String token, JWT jwt) {
+		if (validatedJwtCache == null) {
+			return verifyToken(jwt);
+		}
+		Jwt verifiedToken = validatedJwtCache.getIfPresent(token);
+		if (verifiedToken == null) {
+			// verified outside of the cache, a slow key download must not block other tokens
+			verifiedToken = verifyToken(jwt);
+			validatedJwtCache.put(token, verifiedToken);
+		}
+		return verifiedToken;
+	}
+
 	public void setTokenInfoExtractor(TokenInfoExtractor tokenInfoExtractor) {
 		this.tokenInfoExtractor = tokenInfoExtractor;
 	}
@@ -107,7 +111,52 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		this.restOperations = restOperations;
 	}
 
+	void setOfflineVerificationFirst(boolean offlineVerificationFirst) {
+		this.offlineVerificationFirst = offlineVerificationFirst;
+	}
+
+	void setValidatedJwtCacheSize(int maximumSize) {
+		this.validatedJwtCache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new Expiry<String, Jwt>() {
+					@Override
+					public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+						Instant expiresAt = jwt.getExpiresAt();
+						return expiresAt == null ? 0
+								: Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+					}
+
+					@Override
+					public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+						return expireAfterCreate(token, jwt, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
+	}
+
 	private Jwt verifyToken(JWT jwt) {
+		if (offlineVerificationFirst) {
+			String verificationKey = xsuaaServiceConfiguration.getVerificationKey();
+			if (hasText(verificationKey)) {
+				try {
+					return getVerificationKeyDecoder(verificationKey).decode(jwt.getParsedString());
+				} catch (JwtValidationException e) {
+					throw e;
+				} catch (JwtException e) {
+					logger.debug("Jwt signature validation with verificationkey failed, using online token key: {}",
+							e.getMessage());
+				}
+			}
+		}
+		return verifyOnline(jwt);
+	}
+
+	private Jwt verifyOnline(JWT jwt) {
 		try {
 			String jku = tokenInfoExtractor.getJku(jwt);
 			String kid = tokenInfoExtractor.getKid(jwt);
@@ -128,7 +177,7 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		try {
 			canVerifyWithKey(jku, kid, uaaDomain);
 			validateJku(jku, uaaDomain);
-			return verifyWithKey(token, jku, kid);
+			return verifyWithKey(token, jku);
 		} catch (JwtValidationException ex) {
 			throw ex;
 		} catch (JwtException ex) {
@@ -136,7 +185,7 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		}
 	}
 
-	private void canVerifyWithKey(String jku, String kid, String uaadomain) {
+	static void canVerifyWithKey(String jku, String kid, String uaadomain) {
 		if (jku != null && kid != null && uaadomain != null) {
 			return;
 		}
@@ -152,7 +201,7 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 				String.join(", ", nullParams)));
 	}
 
-	private void validateJku(String jku, String uaadomain) {
+	static void validateJku(String jku, String uaadomain) {
 		try {
 			URI jkuUri = new URI(jku);
 			if (jkuUri.getHost() == null) {
@@ -171,25 +220,20 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		}
 	}
 
-	@java.lang.SuppressWarnings("squid:S2259")
-	private Jwt verifyWithKey(String token, String jku, String kid) {
-		String cacheKey = jku + kid;
-		JwtDecoder decoder = cache.get(cacheKey, k -> this.getDecoder(jku));
+	private Jwt verifyWithKey(String token, String jku) {
+		JwtDecoder decoder = cache.get(jku, this::getDecoder);
 		return decoder.decode(token);
 	}
 
 	private JwtDecoder getDecoder(String jku) {
-		Cache jwkSetCache = new ConcurrentMapCache("jwkSetCache", Caffeine.newBuilder()
-				.expireAfterWrite(this.cacheValidityInSeconds)
-				.maximumSize(this.cacheSize)
-				.build().asMap(), false);
-		JwkSetUriJwtDecoderBuilder jwkSetUriJwtDecoderBuilder = NimbusJwtDecoder
-				.withJwkSetUri(jku)
-				.cache(jwkSetCache);
-		if (restOperations != null) {
-			jwkSetUriJwtDecoderBuilder.restOperations(restOperations);
-		}
-		NimbusJwtDecoder jwtDecoder = jwkSetUriJwtDecoderBuilder.build();
+		JWKSource<SecurityContext> jwkSource = new CachingJwkSource(URI.create(jku), restOperations,
+				cacheValidityInSeconds);
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+		// claims are validated with the tokenValidators
+		jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+		});
+		NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
 		jwtDecoder.setJwtValidator(tokenValidators);
 		return jwtDecoder;
 	}
@@ -204,14 +248,35 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 	}
 
 	private Jwt verifyWithVerificationKey(String token, String verificationKey) {
+		try {
+			return getVerificationKeyDecoder(verificationKey).decode(token);
+		} catch (IllegalArgumentException | BadJwtException e) {
+			logger.debug("Jwt signature validation with fallback verificationkey failed: {}", e.getMessage());
+			throw new BadJwtException("Jwt validation with fallback verificationkey failed");
+		}
+	}
+
+	/**
+	 * Returns the decoder for the verification key, which is created once per
+	 * configured verification key.
+	 */
+	private JwtDecoder getVerificationKeyDecoder(String verificationKey) {
+		VerificationKeyDecoder current = verificationKeyDecoder;
+		if (current == null || !current.verificationKey.equals(verificationKey)) {
+			current = new VerificationKeyDecoder(verificationKey, createVerificationKeyDecoder(verificationKey));
+			verificationKeyDecoder = current;
+		}
+		return current.decoder;
+	}
+
+	private JwtDecoder createVerificationKeyDecoder(String verificationKey) {
 		try {
 			RSAPublicKey rsaPublicKey = createPublicKey(verificationKey);
 			NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(rsaPublicKey).build();
 			decoder.setJwtValidator(tokenValidators);
-			return decoder.decode(token);
-		} catch (NoSuchAlgorithmException | IllegalArgumentException | InvalidKeySpecException | BadJwtException e) {
-			logger.debug("Jwt signature validation with fallback verificationkey failed: {}", e.getMessage());
-			throw new BadJwtException("Jwt validation with fallback verificationkey failed");
+			return decoder;
+		} catch (NoSuchAlgorithmException | IllegalArgumentException | InvalidKeySpecException e) {
+			throw new BadJwtException("Invalid verificationkey: " + e.getMessage(), e);
 		}
 	}
 
@@ -239,4 +304,13 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		return rsaPublicKeyX509;
 	}
 
+	static final class VerificationKeyDecoder {
+		final String verificationKey;
+		final JwtDecoder decoder;
+
+		VerificationKeyDecoder(String verificationKey, JwtDecoder decoder) {
+			this.verificationKey = verificationKey;
+			this.decoder = decoder;
+		}
+	}
 }
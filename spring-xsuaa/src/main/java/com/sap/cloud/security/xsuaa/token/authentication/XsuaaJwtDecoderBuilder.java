@@ -12,9 +12,14 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.util.Assert;
 import org.springframework.web.client.RestOperations;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.net.URI;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class XsuaaJwtDecoderBuilder {
@@ -25,6 +30,10 @@ public class XsuaaJwtDecoderBuilder {
 	private XsuaaServiceConfiguration configuration;
 	private RestOperations restOperations;
 	private List<OAuth2TokenValidator<Jwt>> xsuaaTokenValidators;
+	private boolean offlineVerificationFirst;
+	private Function<URI, Mono<String>> jwkSetRetriever;
+	private ConnectionProvider connectionProvider;
+	private int validatedJwtCacheSize;
 
 	/**
 	 * Utility for building a JWT decoder configuration
@@ -49,6 +58,10 @@ public class XsuaaJwtDecoderBuilder {
 		XsuaaJwtDecoder jwtDecoder = new XsuaaJwtDecoder(configuration, decoderCacheValidity, decoderCacheSize,
 				getValidators(), postValidationActions);
 		Optional.ofNullable(restOperations).ifPresent(jwtDecoder::setRestOperations);
+		jwtDecoder.setOfflineVerificationFirst(offlineVerificationFirst);
+		if (validatedJwtCacheSize > 0) {
+			jwtDecoder.setValidatedJwtCacheSize(validatedJwtCacheSize);
+		}
 		return jwtDecoder;
 	}
 
@@ -58,8 +71,12 @@ public class XsuaaJwtDecoderBuilder {
 	 * @return ReactiveJwtDecoder
 	 */
 	public ReactiveJwtDecoder buildAsReactive() {
-		return new ReactiveXsuaaJwtDecoder(configuration, decoderCacheValidity, decoderCacheSize, getValidators(),
-				postValidationActions);
+		ReactiveXsuaaJwtDecoder jwtDecoder = new ReactiveXsuaaJwtDecoder(configuration, decoderCacheValidity,
+				decoderCacheSize, getValidators(), postValidationActions);
+		Optional.ofNullable(connectionProvider).ifPresent(jwtDecoder::setConnectionProvider);
+		Optional.ofNullable(restOperations).ifPresent(jwtDecoder::setRestOperations);
+		Optional.ofNullable(jwkSetRetriever).ifPresent(jwtDecoder::setJwkSetRetriever);
+		return jwtDecoder;
 	}
 
 	private DelegatingOAuth2TokenValidator<Jwt> getValidators() {
@@ -121,8 +138,12 @@ public class XsuaaJwtDecoderBuilder {
 
 	/**
 	 * Sets the {@link RestOperations} instance which is used by the JwtDecoder to
-	 * perform HTTP requests. This does not effect the {@link ReactiveJwtDecoder}
-	 * that is constructed with {@link #buildAsReactive()}
+	 * perform HTTP requests. The {@link ReactiveJwtDecoder} that is constructed
+	 * with {@link #buildAsReactive()} uses a non-blocking {@code WebClient} by
+	 * default; only if the {@link RestOperations} are set explicitly, it executes
+	 * the blocking requests with them on
+	 * {@link reactor.core.scheduler.Schedulers#boundedElastic()}, unless
+	 * {@link #withJwkSetRetriever(Function)} is set.
 	 *
 	 * @param restOperations
 	 *            the {@link RestOperations} instance.
@@ -145,4 +166,78 @@ public class XsuaaJwtDecoderBuilder {
 		return this;
 	}
 
+	/**
+	 * Verifies the token signature with the {@code verificationkey} of the
+	 * service configuration first and only falls back to the online token keys
+	 * of the {@code jku}, if that fails, e.g. after a key rotation. Use it, when
+	 * the identity service is not reachable from the application, to avoid the
+	 * failing download of the token keys for each request. This does not effect
+	 * the {@link ReactiveJwtDecoder} that is constructed with
+	 * {@link #buildAsReactive()}
+	 *
+	 * @return the builder itself.
+	 */
+	public XsuaaJwtDecoderBuilder withOfflineVerificationFirst() {
+		this.offlineVerificationFirst = true;
+		return this;
+	}
+
+	/**
+	 * Caches the validated tokens until they expire, so that a token, which is
+	 * sent repeatedly, is only verified once. This pays off e.g. for the tokens,
+	 * that the {@code TokenBrokerResolver} retrieves for basic authentication
+	 * credentials. The {@link PostValidationAction}s are performed for each
+	 * token. This does not affect the {@link ReactiveJwtDecoder} that is
+	 * constructed with {@link #buildAsReactive()}
+	 *
+	 * @param maximumSize
+	 *            the maximum number of cached tokens
+	 * @return the builder itself.
+	 */
+	public XsuaaJwtDecoderBuilder withValidatedJwtCache(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		this.validatedJwtCacheSize = maximumSize;
+		return this;
+	}
+
+	/**
+	 * Sets the connection pool of the {@code WebClient}, which is used by the
+	 * {@link ReactiveJwtDecoder} to retrieve the token keys, e.g.
+	 * {@code ConnectionProvider.builder("token-keys").maxConnections(10).build()}.
+	 * Requires spring-webflux and reactor-netty on the classpath. This does not
+	 * effect the JwtDecoder that is constructed with {@link #build()}
+	 *
+	 * @param connectionProvider
+	 *            the connection pool
+	 * @return the builder itself.
+	 */
+	public XsuaaJwtDecoderBuilder withConnectionProvider(ConnectionProvider connectionProvider) {
+		Assert.notNull(connectionProvider, "connectionProvider must not be null");
+		this.connectionProvider = connectionProvider;
+		return this;
+	}
+
+	/**
+	 * Sets the function which is used by the {@link ReactiveJwtDecoder} to
+	 * retrieve the token keys (JSON Web Key Set) from the {@code jku} without
+	 * blocking, e.g. with an own {@code WebClient}:
+	 *
+	 * <pre>
+	 * {@code
+	 * builder.withJwkSetRetriever(uri -> webClient.get().uri(uri).retrieve().bodyToMono(String.class));
+	 * }
+	 * </pre>
+	 *
+	 * This does not effect the JwtDecoder that is constructed with
+	 * {@link #build()}
+	 *
+	 * @param jwkSetRetriever
+	 *            the function, which emits the JSON Web Key Set of the given uri
+	 * @return the builder itself.
+	 */
+	public XsuaaJwtDecoderBuilder withJwkSetRetriever(Function<URI, Mono<String>> jwkSetRetriever) {
+		this.jwkSetRetriever = jwkSetRetriever;
+		return this;
+	}
+
 }
@@ -8,8 +8,11 @@ package com.sap.cloud.security.xsuaa.autoconfiguration;
 import com.sap.cloud.security.config.ClientCredentials;
 import com.sap.cloud.security.xsuaa.DummyXsuaaServiceConfiguration;
 import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenServiceAdapter;
+import com.sap.cloud.security.xsuaa.client.WebClientOAuth2TokenService;
 import com.sap.cloud.security.xsuaa.client.XsuaaDefaultEndpoints;
 import com.sap.cloud.security.xsuaa.client.XsuaaOAuth2TokenService;
+import com.sap.cloud.security.xsuaa.tokenflows.ReactiveXsuaaTokenFlows;
 import com.sap.cloud.security.xsuaa.tokenflows.XsuaaTokenFlows;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,6 +27,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -51,6 +56,33 @@ public class XsuaaTokenFlowAutoConfigurationTest {
 				});
 	}
 
+	@Test
+	public void configures_reactiveXsuaaTokenFlows() {
+		contextRunner.run((context) -> assertThat(context).hasSingleBean(ReactiveXsuaaTokenFlows.class));
+	}
+
+	@Test
+	public void configures_reactiveXsuaaTokenFlows_withWebClient() {
+		contextRunner.run((context) -> assertThat(context.getBean(ReactiveXsuaaTokenFlows.class))
+				.extracting("tokenService").isInstanceOf(WebClientOAuth2TokenService.class));
+	}
+
+	@Test
+	public void configures_reactiveXsuaaTokenFlows_withRestOperations_without_WebClient() {
+		contextRunner.withClassLoader(new FilteredClassLoader(WebClient.class))
+				.run((context) -> assertThat(context.getBean(ReactiveXsuaaTokenFlows.class))
+						.extracting("tokenService").isInstanceOf(ReactiveOAuth2TokenServiceAdapter.class));
+	}
+
+	@Test
+	public void reactiveXsuaaTokenFlowsSkipped_without_Reactor() {
+		contextRunner.withClassLoader(new FilteredClassLoader(Mono.class))
+				.run((context) -> {
+					assertThat(context).hasSingleBean(XsuaaTokenFlows.class);
+					assertThat(context).doesNotHaveBean(ReactiveXsuaaTokenFlows.class);
+				});
+	}
+
 	@Test
 	public void autoConfigurationDisabledByProperty() {
 		contextRunner.withPropertyValues("spring.xsuaa.flows.auto:false")
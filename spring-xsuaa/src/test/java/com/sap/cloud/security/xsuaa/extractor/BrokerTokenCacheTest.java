@@ -0,0 +1,167 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.extractor;
+
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BrokerTokenCacheTest {
+
+	private static final Instant NOW = Instant.parse("2023-01-01T12:00:00Z");
+
+	private final AtomicLong tickerNanos = new AtomicLong();
+	private final AtomicInteger retrievals = new AtomicInteger();
+	private BrokerTokenCache cut;
+
+	@Before
+	public void setUp() {
+		cut = new BrokerTokenCache(10, tickerNanos::get, Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void get_retrievesTokenOnce() throws Exception {
+		String token = createToken(NOW.plusSeconds(300));
+
+		assertThat(cut.get("key", () -> retrieve(token))).isEqualTo(token);
+		assertThat(cut.get("key", () -> retrieve(token))).isEqualTo(token);
+		assertThat(cut.get("otherKey", () -> retrieve(token))).isEqualTo(token);
+		assertThat(retrievals).hasValue(2);
+	}
+
+	@Test
+	public void get_expiresBeforeExpClaim() throws Exception {
+		String token = createToken(NOW.plusSeconds(300));
+		cut.get("key", () -> retrieve(token));
+
+		tickerNanos.addAndGet(TimeUnit.SECONDS.toNanos(300 - BrokerTokenCache.EXPIRATION_DELTA.getSeconds() - 1));
+		cut.get("key", () -> retrieve(token));
+		assertThat(retrievals).hasValue(1);
+
+		tickerNanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		cut.get("key", () -> retrieve(token));
+		assertThat(retrievals).hasValue(2);
+	}
+
+	@Test
+	public void get_concurrentRequestsShareOneRetrieval() throws Exception {
+		String token = createToken(NOW.plusSeconds(300));
+		CountDownLatch retrieving = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> getQuietly(() -> {
+			retrieving.countDown();
+			awaitQuietly(release);
+			return retrieve(token);
+		}));
+		retrieving.await();
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> getQuietly(() -> retrieve(token)));
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(token);
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(token);
+		assertThat(retrievals).hasValue(1);
+	}
+
+	@Test
+	public void get_concurrentRequestsShareFailure() throws Exception {
+		CountDownLatch retrieving = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> getQuietly(() -> {
+			retrieving.countDown();
+			awaitQuietly(release);
+			retrievals.incrementAndGet();
+			throw new OAuth2ServiceException("unavailable");
+		}));
+		retrieving.await();
+		AtomicReference<Exception> secondFailure = new AtomicReference<>();
+		Thread second = new Thread(() -> {
+			try {
+				cut.get("key", () -> retrieve(createToken(NOW.plusSeconds(300))));
+			} catch (Exception e) {
+				secondFailure.set(e);
+			}
+		});
+		second.start();
+		while (second.getState() != Thread.State.WAITING) { // waits for the first retrieval
+			Thread.sleep(1);
+		}
+		release.countDown();
+		second.join(5000);
+
+		assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(OAuth2ServiceException.class);
+		assertThat(secondFailure.get()).isInstanceOf(OAuth2ServiceException.class);
+		assertThat(retrievals).hasValue(1);
+	}
+
+	@Test
+	public void get_doesNotCacheFailures() throws Exception {
+		String token = createToken(NOW.plusSeconds(300));
+		assertThatThrownBy(() -> cut.get("key", () -> {
+			throw new OAuth2ServiceException("unavailable");
+		})).isInstanceOf(OAuth2ServiceException.class);
+
+		assertThat(cut.get("key", () -> retrieve(token))).isEqualTo(token);
+		assertThat(cut.get("key", () -> null)).isEqualTo(token);
+		assertThat(retrievals).hasValue(1);
+	}
+
+	@Test
+	public void get_rethrowsRetrievalException() {
+		assertThatThrownBy(() -> cut.get("key", () -> {
+			throw new OAuth2ServiceException("wrong credentials");
+		})).isInstanceOf(OAuth2ServiceException.class).hasMessage("wrong credentials");
+		assertThatThrownBy(() -> cut.get("key", () -> {
+			throw new TokenBrokerException("unavailable");
+		})).isInstanceOf(TokenBrokerException.class);
+	}
+
+	private OAuth2TokenResponse retrieve(String token) {
+		retrievals.incrementAndGet();
+		return new OAuth2TokenResponse(token, 3600, null);
+	}
+
+	private String getQuietly(BrokerTokenCache.TokenRetriever tokenRetriever) {
+		try {
+			return cut.get("key", tokenRetriever);
+		} catch (OAuth2ServiceException | TokenBrokerException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String createToken(Instant expiration) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+				+ encoder.encodeToString(("{\"exp\":" + expiration.getEpochSecond() + "}")
+						.getBytes(StandardCharsets.UTF_8))
+				+ ".signature";
+	}
+}
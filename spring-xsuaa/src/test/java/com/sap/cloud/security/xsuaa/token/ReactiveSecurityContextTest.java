@@ -7,17 +7,24 @@ package com.sap.cloud.security.xsuaa.token;
 
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextImpl;
 
+import com.sap.cloud.security.token.SecurityContextSnapshot;
 import com.sap.cloud.security.xsuaa.test.JwtGenerator;
 
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class ReactiveSecurityContextTest {
 
 	@Test
@@ -45,4 +52,44 @@ public class ReactiveSecurityContextTest {
 				.verifyComplete();
 	}
 
+	@Test
+	public void fromCallable_restoresCapturedSecurityContext() {
+		com.sap.cloud.security.token.Token token = Mockito.mock(com.sap.cloud.security.token.Token.class);
+		com.sap.cloud.security.token.SecurityContext.setToken(token);
+		try {
+			Mono<com.sap.cloud.security.token.Token> tokenMono = ReactiveSecurityContext
+					.fromCallable(com.sap.cloud.security.token.SecurityContext::getToken)
+					.subscribeOn(Schedulers.boundedElastic())
+					.contextWrite(ReactiveSecurityContext.withSecurityContext());
+
+			assertThat(tokenMono.block()).isSameAs(token);
+			assertThat(ReactiveSecurityContext.getSecurityContext()
+					.contextWrite(ReactiveSecurityContext.withSecurityContext())
+					.map(SecurityContextSnapshot::getToken).block()).isSameAs(token);
+		} finally {
+			com.sap.cloud.security.token.SecurityContext.clear();
+		}
+	}
+
+	@Test
+	public void fromCallable_withoutSecurityContext() {
+		assertThat(ReactiveSecurityContext.fromCallable(() -> "result").block()).isEqualTo("result");
+		assertThat(ReactiveSecurityContext.getSecurityContext().block()).isNull();
+	}
+
+	@Test
+	public void schedulerPropagation() {
+		com.sap.cloud.security.token.Token token = Mockito.mock(com.sap.cloud.security.token.Token.class);
+		com.sap.cloud.security.token.SecurityContext.setToken(token);
+		ReactiveSecurityContext.enableSchedulerPropagation();
+		try {
+			assertThat(Mono.fromCallable(com.sap.cloud.security.token.SecurityContext::getToken)
+					.subscribeOn(Schedulers.parallel()).block()).isSameAs(token);
+		} finally {
+			ReactiveSecurityContext.disableSchedulerPropagation();
+			com.sap.cloud.security.token.SecurityContext.clear();
+		}
+		assertThat(Mono.fromCallable(() -> Optional.ofNullable(com.sap.cloud.security.token.SecurityContext.getToken()))
+				.subscribeOn(Schedulers.parallel()).block()).isEmpty();
+	}
 }
@@ -0,0 +1,105 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestOperations;
+
+class CachingJwkSourceTest {
+
+	private static final URI JKU = URI.create("https://subdomain.myauth.ondemand.com/token_keys");
+
+	private RestOperations restOperations;
+	private RSAKey key1;
+	private RSAKey key2;
+
+	@BeforeEach
+	void setUp() throws JOSEException {
+		key1 = new RSAKeyGenerator(2048).keyID("key-id-1").generate();
+		key2 = new RSAKeyGenerator(2048).keyID("key-id-2").generate();
+		restOperations = mock(RestOperations.class);
+		when(restOperations.exchange(any(), eq(String.class))).thenReturn(
+				ResponseEntity.ok(new JWKSet(Arrays.asList(key1.toPublicJWK(), key2.toPublicJWK())).toString()));
+	}
+
+	@Test
+	void get_downloadsJwkSetOnceForAllKeyIds() throws KeySourceException {
+		CachingJwkSource cut = new CachingJwkSource(JKU, restOperations, Duration.ofMinutes(15));
+
+		List<JWK> keys1 = cut.get(selectKeyId("key-id-1"), null);
+		List<JWK> keys2 = cut.get(selectKeyId("key-id-2"), null);
+
+		assertThat(keys1).extracting(JWK::getKeyID).containsExactly("key-id-1");
+		assertThat(keys2).extracting(JWK::getKeyID).containsExactly("key-id-2");
+		verify(restOperations, times(1)).exchange(any(), eq(String.class));
+	}
+
+	@Test
+	void get_downloadsJwkSetAgainForUnknownKeyId() throws KeySourceException {
+		CachingJwkSource cut = new CachingJwkSource(JKU, restOperations, Duration.ofMinutes(15), Duration.ZERO);
+
+		cut.get(selectKeyId("key-id-1"), null);
+		assertThat(cut.get(selectKeyId("unknown"), null)).isEmpty();
+
+		verify(restOperations, times(2)).exchange(any(), eq(String.class));
+	}
+
+	@Test
+	void get_unknownKeyIdWithinRefreshCooldown_doesNotDownloadAgain() throws KeySourceException {
+		CachingJwkSource cut = new CachingJwkSource(JKU, restOperations, Duration.ofMinutes(15));
+
+		cut.get(selectKeyId("key-id-1"), null);
+		assertThat(cut.get(selectKeyId("unknown"), null)).isEmpty();
+		assertThat(cut.get(selectKeyId("unknown-2"), null)).isEmpty();
+
+		verify(restOperations, times(1)).exchange(any(), eq(String.class));
+	}
+
+	@Test
+	void get_downloadsJwkSetAgainWhenExpired() throws KeySourceException {
+		CachingJwkSource cut = new CachingJwkSource(JKU, restOperations, Duration.ZERO);
+
+		cut.get(selectKeyId("key-id-1"), null);
+		cut.get(selectKeyId("key-id-1"), null);
+
+		verify(restOperations, times(2)).exchange(any(), eq(String.class));
+	}
+
+	@Test
+	void get_downloadFails_throwsKeySourceException() {
+		when(restOperations.exchange(any(), eq(String.class))).thenThrow(new ResourceAccessException("timeout"));
+		CachingJwkSource cut = new CachingJwkSource(JKU, restOperations, Duration.ofMinutes(15));
+
+		assertThatThrownBy(() -> cut.get(selectKeyId("key-id-1"), null)).isInstanceOf(KeySourceException.class)
+				.hasMessageContaining("Couldn't retrieve remote JWK set");
+	}
+
+	private static JWKSelector selectKeyId(String keyId) {
+		return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class ReactiveCachingJwkSourceTest {
+
+	private static final URI JKU = URI.create("https://subdomain.myauth.ondemand.com/token_keys");
+
+	private String jwkSet;
+	private AtomicInteger retrievals;
+
+	@BeforeEach
+	void setUp() throws JOSEException {
+		jwkSet = new JWKSet(Arrays.asList(new RSAKeyGenerator(2048).keyID("key-id-1").generate().toPublicJWK(),
+				new RSAKeyGenerator(2048).keyID("key-id-2").generate().toPublicJWK())).toString();
+		retrievals = new AtomicInteger();
+	}
+
+	@Test
+	void get_retrievesJwkSetOnceForAllKeyIds() {
+		ReactiveCachingJwkSource cut = new ReactiveCachingJwkSource(JKU, this::retrieve, Duration.ofMinutes(15));
+
+		assertThat(cut.get(selectKeyId("key-id-1")).block()).hasSize(1);
+		assertThat(cut.get(selectKeyId("key-id-2")).block()).hasSize(1);
+
+		assertThat(retrievals).hasValue(1);
+	}
+
+	@Test
+	void get_retrievesJwkSetAgainForUnknownKeyId() {
+		ReactiveCachingJwkSource cut = new ReactiveCachingJwkSource(JKU, this::retrieve, Duration.ofMinutes(15),
+				Duration.ZERO);
+
+		cut.get(selectKeyId("key-id-1")).block();
+		assertThat(cut.get(selectKeyId("unknown")).block()).isEmpty();
+
+		assertThat(retrievals).hasValue(2);
+	}
+
+	@Test
+	void get_unknownKeyIdWithinRefreshCooldown_doesNotRetrieveAgain() {
+		ReactiveCachingJwkSource cut = new ReactiveCachingJwkSource(JKU, this::retrieve, Duration.ofMinutes(15));
+
+		cut.get(selectKeyId("key-id-1")).block();
+		assertThat(cut.get(selectKeyId("unknown")).block()).isEmpty();
+		assertThat(cut.get(selectKeyId("unknown-2")).block()).isEmpty();
+
+		assertThat(retrievals).hasValue(1);
+	}
+
+	private Mono<String> retrieve(URI jwkSetUri) {
+		return Mono.fromCallable(() -> {
+			retrievals.incrementAndGet();
+			return jwkSet;
+		});
+	}
+
+	private static JWKSelector selectKeyId(String keyId) {
+		return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.token.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nimbusds.jwt.JWT;
+import com.sun.net.httpserver.HttpServer;
+import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
+import com.sap.cloud.security.xsuaa.token.TokenClaims;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.client.RestOperations;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+public class ReactiveXsuaaJwtDecoderTest {
+
+	private XsuaaServiceConfiguration configuration;
+	private String rsaToken;
+	private String jwks;
+	private AtomicInteger retrievals;
+	private String userAgent;
+
+	@Before
+	public void setUp() throws IOException {
+		rsaToken = IOUtils.resourceToString("/accessTokenRSA256WithVerificationKey.txt", StandardCharsets.UTF_8);
+		jwks = IOUtils.resourceToString("/jwks.json", StandardCharsets.UTF_8);
+		configuration = Mockito.mock(XsuaaServiceConfiguration.class);
+		Mockito.when(configuration.getUaaDomain()).thenReturn("localhost");
+		Mockito.when(configuration.getClientId()).thenReturn("sb-clientId!t0815");
+		retrievals = new AtomicInteger();
+	}
+
+	@Test
+	public void decode_withJwkSetRetriever_retrievesJwksOnce() {
+		ReactiveJwtDecoder cut = new XsuaaJwtDecoderBuilder(configuration)
+				.withJwkSetRetriever(uri -> Mono.fromCallable(() -> {
+					retrievals.incrementAndGet();
+					return jwks;
+				}))
+				.buildAsReactive();
+
+		assertThat(cut.decode(rsaToken).block().getClaimAsString(TokenClaims.CLAIM_CLIENT_ID))
+				.isEqualTo("sb-clientId!t0815");
+		assertThat(cut.decode(rsaToken).block().getClaimAsString(TokenClaims.CLAIM_CLIENT_ID))
+				.isEqualTo("sb-clientId!t0815");
+		assertThat(retrievals).hasValue(1);
+	}
+
+	@Test
+	public void decode_withJwkSetRetriever_cacheDisabled() {
+		ReactiveJwtDecoder cut = new XsuaaJwtDecoderBuilder(configuration)
+				.withDecoderCacheTime(0)
+				.withJwkSetRetriever(uri -> Mono.fromCallable(() -> {
+					retrievals.incrementAndGet();
+					return jwks;
+				}))
+				.buildAsReactive();
+
+		cut.decode(rsaToken).block();
+		cut.decode(rsaToken).block();
+
+		assertThat(retrievals).hasValue(2);
+	}
+
+	@Test
+	public void decode_retrievesJwksWithWebClientByDefault() throws IOException {
+		HttpServer server = startTokenKeysServer();
+		try {
+			ReactiveJwtDecoder cut = new XsuaaJwtDecoderBuilder(configuration).buildAsReactive();
+
+			StepVerifier.create(cut.decode(rsaToken))
+					.assertNext(jwt -> assertThat(jwt.getClaimAsString(TokenClaims.CLAIM_CLIENT_ID))
+							.isEqualTo("sb-clientId!t0815"))
+					.verifyComplete();
+			assertThat(retrievals).hasValue(1);
+			assertThat(userAgent).startsWith("ReactorNetty");
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void decode_withConnectionProvider() throws IOException {
+		HttpServer server = startTokenKeysServer();
+		ConnectionProvider connectionProvider = ConnectionProvider.create("token-keys", 1);
+		try {
+			ReactiveJwtDecoder cut = new XsuaaJwtDecoderBuilder(configuration)
+					.withConnectionProvider(connectionProvider)
+					.buildAsReactive();
+
+			StepVerifier.create(cut.decode(rsaToken))
+					.assertNext(jwt -> assertThat(jwt.getClaimAsString(TokenClaims.CLAIM_CLIENT_ID))
+							.isEqualTo("sb-clientId!t0815"))
+					.verifyComplete();
+			assertThat(retrievals).hasValue(1);
+			assertThat(userAgent).startsWith("ReactorNetty");
+		} finally {
+			connectionProvider.dispose();
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void decode_withRestOperations() {
+		RestOperations restTemplate = Mockito.mock(RestOperations.class);
+		Mockito.when(restTemplate.exchange(any(), eq(String.class))).thenReturn(ResponseEntity.ok().body(jwks));
+
+		ReactiveJwtDecoder cut = new XsuaaJwtDecoderBuilder(configuration)
+				.withRestOperations(restTemplate)
+				.buildAsReactive();
+
+		StepVerifier.create(cut.decode(rsaToken))
+				.assertNext(jwt -> assertThat(jwt.getClaimAsString(TokenClaims.CLAIM_CLIENT_ID))
+						.isEqualTo("sb-clientId!t0815"))
+				.verifyComplete();
+		Mockito.verify(restTemplate, times(1)).exchange(any(), eq(String.class));
+	}
+
+	@Test
+	public void decode_whenJkuIsNotTrusted_doesNotRetrieveJwks() {
+		ReactiveXsuaaJwtDecoder cut = (ReactiveXsuaaJwtDecoder) new XsuaaJwtDecoderBuilder(configuration)
+				.withJwkSetRetriever(uri -> Mono.fromCallable(() -> {
+					retrievals.incrementAndGet();
+					return jwks;
+				}))
+				.buildAsReactive();
+		cut.setTokenInfoExtractor(new TokenInfoExtractor() {
+			@Override
+			public String getJku(JWT jwt) {
+				return "http://myauth.ondemand.com@malicious.ondemand.com/token_keys";
+			}
+
+			@Override
+			public String getKid(JWT jwt) {
+				return "kid";
+			}
+
+			@Override
+			public String getUaaDomain(JWT jwt) {
+				return "myauth.ondemand.com";
+			}
+		});
+
+		StepVerifier.create(cut.decode(rsaToken))
+				.expectErrorSatisfies(e -> assertThat(e).isInstanceOf(BadJwtException.class)
+						.hasMessageContaining("Do not trust 'jku' token header"))
+				.verify();
+		assertThat(retrievals).hasValue(0);
+	}
+
+	@Test
+	public void decode_whenJwksRetrievalFails_throwsException() {
+		ReactiveJwtDecoder cut = new XsuaaJwtDecoderBuilder(configuration)
+				.withJwkSetRetriever(uri -> Mono.error(new IllegalStateException("connection refused")))
+				.buildAsReactive();
+
+		StepVerifier.create(cut.decode(rsaToken))
+				.expectErrorSatisfies(e -> assertThat(e).isInstanceOf(BadJwtException.class)
+						.hasMessageContaining("Couldn't retrieve remote JWK set: connection refused"))
+				.verify();
+	}
+
+	// serves the token keys of the jku of the test token
+	private HttpServer startTokenKeysServer() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 64312), 0);
+		server.createContext("/token_keys", exchange -> {
+			retrievals.incrementAndGet();
+			userAgent = exchange.getRequestHeaders().getFirst("User-Agent");
+			byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		});
+		server.start();
+		return server;
+	}
+}
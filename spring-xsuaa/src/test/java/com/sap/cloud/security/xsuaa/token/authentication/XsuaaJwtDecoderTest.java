@@ -94,6 +94,68 @@ public class XsuaaJwtDecoderTest {
 		assertThat(cut.decode(rsaToken).getClaimAsString(TokenClaims.CLAIM_CLIENT_ID)).isEqualTo("sb-clientId!t0815");
 	}
 
+	@Test
+	public void decode_withFallbackVerificationKey_reusesDecoder() {
+		final XsuaaJwtDecoder cut = (XsuaaJwtDecoder) new XsuaaJwtDecoderBuilder(configurationWithVerificationKey)
+				.build();
+
+		cut.decode(rsaToken);
+		XsuaaJwtDecoder.VerificationKeyDecoder verificationKeyDecoder = cut.verificationKeyDecoder;
+		cut.decode(rsaToken);
+
+		assertThat(verificationKeyDecoder).isNotNull();
+		assertThat(cut.verificationKeyDecoder).isSameAs(verificationKeyDecoder);
+	}
+
+	@Test
+	public void decode_withOfflineVerificationFirst_doesNotRetrieveJwks() {
+		RestOperations restTemplate = Mockito.mock(RestOperations.class);
+
+		final JwtDecoder cut = new XsuaaJwtDecoderBuilder(configurationWithVerificationKey)
+				.withRestOperations(restTemplate)
+				.withOfflineVerificationFirst()
+				.build();
+
+		assertThat(cut.decode(rsaToken).getClaimAsString(TokenClaims.CLAIM_CLIENT_ID)).isEqualTo("sb-clientId!t0815");
+		Mockito.verifyNoInteractions(restTemplate);
+	}
+
+	@Test
+	public void decode_withValidatedJwtCache_verifiesTokenOnce() {
+		RestOperations restTemplate = Mockito.mock(RestOperations.class);
+		Mockito.when(restTemplate.exchange(any(), eq(String.class))).thenReturn(ResponseEntity.ok().body(jwks));
+		PostValidationAction postValidationAction = Mockito.mock(PostValidationAction.class);
+
+		final JwtDecoder cut = new XsuaaJwtDecoderBuilder(configurationWithVerificationKey)
+				.withRestOperations(restTemplate)
+				.withPostValidationActions(postValidationAction)
+				.withValidatedJwtCache(10)
+				.build();
+
+		Jwt jwt = cut.decode(rsaToken);
+
+		assertThat(cut.decode(rsaToken)).isSameAs(jwt);
+		Mockito.verify(postValidationAction, times(2)).perform(jwt);
+	}
+
+	@Test
+	public void decode_withOfflineVerificationFirst_invalidVerificationKey_usesJwks() {
+		XsuaaServiceConfiguration config = Mockito.mock(XsuaaServiceConfiguration.class);
+		Mockito.when(config.getVerificationKey()).thenReturn("-----BEGIN PUBLIC KEY-----invalid-----END PUBLIC KEY-----");
+		Mockito.when(config.getUaaDomain()).thenReturn("localhost");
+		Mockito.when(config.getClientId()).thenReturn("sb-clientId!t0815");
+		RestOperations restTemplate = Mockito.mock(RestOperations.class);
+		Mockito.when(restTemplate.exchange(any(), eq(String.class))).thenReturn(ResponseEntity.ok().body(jwks));
+
+		final JwtDecoder cut = new XsuaaJwtDecoderBuilder(config)
+				.withRestOperations(restTemplate)
+				.withOfflineVerificationFirst()
+				.build();
+
+		assertThat(cut.decode(rsaToken).getClaimAsString(TokenClaims.CLAIM_CLIENT_ID)).isEqualTo("sb-clientId!t0815");
+		Mockito.verify(restTemplate, times(1)).exchange(any(), eq(String.class));
+	}
+
 	@Test
 	public void decode_withInvalidFallbackVerificationKey_withoutUaaDomain() {
 		XsuaaServiceConfiguration config = Mockito.mock(XsuaaServiceConfiguration.class);
@@ -6,48 +6,110 @@
 package com.sap.cloud.security.client;
 
 import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
+import com.sap.cloud.security.mtls.ReloadableX509KeyManager;
 import com.sap.cloud.security.mtls.SSLContextFactory;
+import com.sap.cloud.security.xsuaa.Assertions;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultClientConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.IdleConnectionEvictor;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import java.io.Closeable;
 import java.io.IOException;
+import java.net.URI;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Creates a {@link CloseableHttpClient} instance. Supports certificate based
  * communication.
+ * <p>
+ * All clients created for the same client identity share one connection pool,
+ * clients without certificate based client identity share a common pool. The
+ * pools are configured with {@link HttpClientConfiguration}, idle connections
+ * are evicted by a background thread. Closing a client created by this factory
+ * does not close the shared pool, use {@link #close()} for that.
+ * <p>
+ * The client certificate of a pool can be replaced at runtime with
+ * {@link #updateClientIdentity(ClientIdentity)} or
+ * {@link #watchClientIdentity(Supplier, Duration)}, without rebuilding the
+ * pool. Idle connections, that were established with the previous certificate,
+ * are closed immediately, leased ones once they are released.
+ * <p>
+ * With {@link HttpClientConfiguration#getWarmConnectionsPerRoute()} connections
+ * to the identity service endpoints can be established in advance with
+ * {@link #warmUp(OAuth2ServiceConfiguration)}. TLS sessions are cached per pool
+ * for {@link HttpClientConfiguration#getTlsSessionTimeout()}, which makes
+ * re-establishing evicted connections cheap.
  */
-public class DefaultHttpClientFactory implements HttpClientFactory {
+public class DefaultHttpClientFactory implements HttpClientFactory, Closeable {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultHttpClientFactory.class);
+	static final String DEFAULT_POOL = "default";
 	// reuse ssl connections
-	final ConcurrentHashMap<String, SslConnection> sslConnectionPool = new ConcurrentHashMap<>();
+	final ConcurrentHashMap<String, PooledConnection> sslConnectionPool = new ConcurrentHashMap<>();
 	final Set<String> httpClientsCreated = Collections.synchronizedSet(new HashSet<>());
-	static final int MAX_CONNECTIONS_PER_ROUTE = 4; // 2 is default
-	static final int MAX_CONNECTIONS = 20;
-	private static final int DEFAULT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(5);
+	private final HttpClientConfiguration configuration;
 	private final RequestConfig customConfig;
+	private final ConnectionKeepAliveStrategy keepAliveStrategy;
+	private final List<Closeable> identityWatchers = new CopyOnWriteArrayList<>();
+	private volatile PooledConnection defaultConnection;
+	private volatile ScheduledExecutorService connectionWarmer;
 
 	public DefaultHttpClientFactory() {
-		customConfig = RequestConfig.custom()
-				.setConnectTimeout(DEFAULT_TIMEOUT)
-				.setConnectionRequestTimeout(DEFAULT_TIMEOUT)
-				.setSocketTimeout(DEFAULT_TIMEOUT)
+		this(HttpClientConfiguration.defaultConfiguration());
+	}
+
+	public DefaultHttpClientFactory(HttpClientConfiguration configuration) {
+		Assertions.assertNotNull(configuration, "HttpClientConfiguration must not be null");
+		this.configuration = configuration;
+		this.customConfig = RequestConfig.custom()
+				.setConnectTimeout((int) configuration.getConnectTimeout().toMillis())
+				.setConnectionRequestTimeout((int) configuration.getConnectionRequestTimeout().toMillis())
+				.setSocketTimeout((int) configuration.getSocketTimeout().toMillis())
 				.setRedirectsEnabled(false)
 				.build();
+		this.keepAliveStrategy = createKeepAliveStrategy(configuration.getKeepAliveTimeout().toMillis());
+		LOGGER.debug("Configured DefaultHttpClientFactory with {}", configuration);
 	}
 
 	@Override
@@ -59,40 +121,391 @@ public class DefaultHttpClientFactory implements HttpClientFactory {
 		httpClientsCreated.add(clientId);
 		if (clientId != null && clientIdentity.isCertificateBased()) {
 			LOGGER.info("In productive environment provide well configured HttpClientFactory service");
-			SslConnection connectionPool = sslConnectionPool.computeIfAbsent(clientId,
-					s -> new SslConnection(clientIdentity));
-			return HttpClients.custom()
-					.setDefaultRequestConfig(customConfig)
-					.setConnectionManager(connectionPool.poolingConnectionManager)
-					.setSSLContext(connectionPool.context)
-					.setSSLSocketFactory(connectionPool.sslSocketFactory)
-					.build();
+			return getOrCreateSslConnection(clientIdentity).createClient();
 		}
 		LOGGER.warn(
 				"In productive environment provide well configured HttpClientFactory service, don't use default http client");
-		return HttpClients.custom().disableRedirectHandling().build();
+		return getOrCreateDefaultConnection().createClient();
+	}
+
+	/**
+	 * Replaces the client certificate of the connection pool of the client
+	 * identity, in case it has changed. Subsequent TLS handshakes of the clients
+	 * created for this client identity use the new certificate.
+	 *
+	 * @param clientIdentity
+	 *            the certificate based client identity with the rotated
+	 *            certificate and key
+	 * @return true, if the client certificate was replaced
+	 * @throws HttpClientException
+	 *             in case the certificate or the key can not be parsed, the
+	 *             current certificate is kept
+	 */
+	@Override
+	public boolean updateClientIdentity(ClientIdentity clientIdentity) throws HttpClientException {
+		Assertions.assertNotNull(clientIdentity, "clientIdentity must not be null");
+		PooledConnection connection = sslConnectionPool.get(clientIdentity.getId());
+		if (connection == null) {
+			return false; // pool is created with the given client identity on demand
+		}
+		try {
+			return connection.keyManager.update(clientIdentity);
+		} catch (IOException | GeneralSecurityException e) {
+			throw new HttpClientException(
+					String.format("Couldn't update client certificate for service provider %s. %s.",
+							clientIdentity.getId(), e.getLocalizedMessage()));
+		}
+	}
+
+	/**
+	 * Periodically reads the client identity from the source, e.g. from a
+	 * mounted Kubernetes secret, and replaces the client certificate of its
+	 * connection pool, when it was rotated. The watcher is stopped with
+	 * {@link #close()} of this factory.
+	 *
+	 * @param source
+	 *            provides the current certificate based client identity
+	 * @param interval
+	 *            the polling interval
+	 * @return handle to stop watching the source
+	 */
+	public Closeable watchClientIdentity(Supplier<ClientIdentity> source, Duration interval) {
+		Assertions.assertNotNull(source, "source must not be null");
+		ClientIdentity clientIdentity = source.get();
+		Assertions.assertNotNull(clientIdentity, "source must provide a client identity");
+		if (!clientIdentity.isCertificateBased()) {
+			throw new IllegalArgumentException("source must provide a certificate based client identity");
+		}
+		Closeable watcher = getOrCreateSslConnection(clientIdentity).keyManager.watch(source, interval);
+		identityWatchers.add(watcher);
+		return watcher;
+	}
+
+	/**
+	 * Opens {@link HttpClientConfiguration#getWarmConnectionsPerRoute()}
+	 * connections to the token endpoint and token key hosts of the service
+	 * configuration, i.e. its url and, if given, its cert url. The connections are
+	 * established in the background and re-established after they were evicted.
+	 * Has no effect, if pre-warming is not configured.
+	 *
+	 * @param serviceConfiguration
+	 *            the service configuration of the identity service
+	 */
+	public void warmUp(OAuth2ServiceConfiguration serviceConfiguration) {
+		Assertions.assertNotNull(serviceConfiguration, "serviceConfiguration must not be null");
+		List<URI> endpoints = new ArrayList<>();
+		if (serviceConfiguration.getUrl() != null) {
+			endpoints.add(serviceConfiguration.getUrl());
+		}
+		if (serviceConfiguration.getCertUrl() != null) {
+			endpoints.add(serviceConfiguration.getCertUrl());
+		}
+		warmUp(serviceConfiguration.getClientIdentity(), endpoints);
+	}
+
+	/**
+	 * Opens {@link HttpClientConfiguration#getWarmConnectionsPerRoute()}
+	 * connections to each of the endpoints in the connection pool, that is used by
+	 * the clients created for the client identity. The connections are
+	 * established in the background and re-established after they were evicted.
+	 * Has no effect, if pre-warming is not configured.
+	 *
+	 * @param clientIdentity
+	 *            the client identity, the clients are created for
+	 * @param endpoints
+	 *            the endpoints, only scheme, host and port are considered
+	 */
+	public void warmUp(@Nullable ClientIdentity clientIdentity, Collection<URI> endpoints) {
+		Assertions.assertNotNull(endpoints, "endpoints must not be null");
+		if (configuration.getWarmConnectionsPerRoute() == 0 || endpoints.isEmpty()) {
+			return;
+		}
+		PooledConnection connection = clientIdentity != null && clientIdentity.isCertificateBased()
+				? getOrCreateSslConnection(clientIdentity)
+				: getOrCreateDefaultConnection();
+		endpoints.stream().map(DefaultHttpClientFactory::toRoute).forEach(connection.warmRoutes::add);
+		getOrCreateConnectionWarmer().execute(connection::replenish);
+	}
+
+	/**
+	 * Provides the utilization of the connection pools, keyed by the client id of
+	 * the certificate based client identities and {@value #DEFAULT_POOL} for the
+	 * common pool.
+	 *
+	 * @return the statistics per pool
+	 */
+	public Map<String, PoolStats> getPoolStatistics() {
+		Map<String, PoolStats> statistics = new TreeMap<>();
+		if (defaultConnection != null) {
+			statistics.put(DEFAULT_POOL, defaultConnection.poolingConnectionManager.getTotalStats());
+		}
+		sslConnectionPool.forEach((clientId, connection) -> statistics.put(clientId,
+				connection.poolingConnectionManager.getTotalStats()));
+		return statistics;
+	}
+
+	/**
+	 * Stops the idle connection eviction and closes all pooled connections. Clients
+	 * created by this factory can not be used afterwards.
+	 */
+	@Override
+	public void close() {
+		for (Closeable watcher : identityWatchers) {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+				LOGGER.debug("Failed to stop client identity watcher", e);
+			}
+		}
+		identityWatchers.clear();
+		if (connectionWarmer != null) {
+			connectionWarmer.shutdownNow();
+		}
+		if (defaultConnection != null) {
+			defaultConnection.shutdown();
+		}
+		sslConnectionPool.values().forEach(PooledConnection::shutdown);
+	}
+
+	private PooledConnection getOrCreateSslConnection(ClientIdentity clientIdentity) {
+		return sslConnectionPool.computeIfAbsent(clientIdentity.getId(), s -> new PooledConnection(clientIdentity));
+	}
+
+	private PooledConnection getOrCreateDefaultConnection() {
+		if (defaultConnection == null) {
+			synchronized (this) {
+				if (defaultConnection == null) {
+					defaultConnection = new PooledConnection(null);
+				}
+			}
+		}
+		return defaultConnection;
+	}
+
+	private ScheduledExecutorService getOrCreateConnectionWarmer() {
+		if (connectionWarmer == null) {
+			synchronized (this) {
+				if (connectionWarmer == null) {
+					ScheduledExecutorService warmer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+						Thread thread = new Thread(runnable, "http-connection-warmer");
+						thread.setDaemon(true);
+						return thread;
+					});
+					long interval = Math.max(1, configuration.getIdleConnectionTimeout().toMillis() / 2);
+					warmer.scheduleWithFixedDelay(this::replenishWarmConnections, interval, interval,
+							TimeUnit.MILLISECONDS);
+					connectionWarmer = warmer;
+				}
+			}
+		}
+		return connectionWarmer;
+	}
+
+	private void replenishWarmConnections() {
+		if (defaultConnection != null) {
+			defaultConnection.replenish();
+		}
+		sslConnectionPool.values().forEach(PooledConnection::replenish);
+	}
+
+	private static ConnectionKeepAliveStrategy createKeepAliveStrategy(long maxKeepAliveMillis) {
+		return (response, context) -> {
+			long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return keepAlive > 0 ? Math.min(keepAlive, maxKeepAliveMillis) : maxKeepAliveMillis;
+		};
+	}
+
+	/**
+	 * Creates the route, the route planner of the http client would determine for
+	 * requests to the uri.
+	 */
+	static HttpRoute toRoute(URI uri) {
+		boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+		int port = uri.getPort() > 0 ? uri.getPort() : secure ? 443 : 80;
+		return new HttpRoute(new HttpHost(uri.getHost(), port, secure ? "https" : "http"), null, secure);
 	}
 
-	private static class SslConnection {
+	private class PooledConnection {
 		SSLContext context;
+		ReloadableX509KeyManager keyManager;
 		SSLConnectionSocketFactory sslSocketFactory;
 		PoolingHttpClientConnectionManager poolingConnectionManager;
+		IdleConnectionEvictor idleConnectionEvictor;
+		final Set<HttpRoute> warmRoutes = ConcurrentHashMap.newKeySet();
 
-		public SslConnection(ClientIdentity clientIdentity) {
-			try {
-				this.context = SSLContextFactory.getInstance().create(clientIdentity);
-			} catch (IOException | GeneralSecurityException e) {
-				throw new HttpClientException(
-						String.format("Couldn't set up https client for service provider %s. %s.",
-								clientIdentity.getId(), e.getLocalizedMessage()));
+		public PooledConnection(ClientIdentity clientIdentity) {
+			if (clientIdentity != null) {
+				try {
+					this.keyManager = new ReloadableX509KeyManager(clientIdentity);
+					this.context = SSLContextFactory.getInstance().createWithKeyManager(keyManager);
+				} catch (IOException | GeneralSecurityException e) {
+					throw new HttpClientException(
+							String.format("Couldn't set up https client for service provider %s. %s.",
+									clientIdentity.getId(), e.getLocalizedMessage()));
+				}
+				this.sslSocketFactory = new SSLConnectionSocketFactory(context);
+				this.keyManager.addListener(this::drain);
+			} else {
+				this.context = SSLContexts.createDefault();
+				this.sslSocketFactory = new SSLConnectionSocketFactory(context,
+						SSLConnectionSocketFactory.getDefaultHostnameVerifier());
 			}
-			this.sslSocketFactory = new SSLConnectionSocketFactory(context);
+			this.context.getClientSessionContext()
+					.setSessionTimeout((int) configuration.getTlsSessionTimeout().getSeconds());
 			Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory> create()
 					.register("http", PlainConnectionSocketFactory.getSocketFactory())
 					.register("https", sslSocketFactory).build();
 			this.poolingConnectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
-			this.poolingConnectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
-			this.poolingConnectionManager.setMaxTotal(MAX_CONNECTIONS);
+			this.poolingConnectionManager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+			this.poolingConnectionManager.setMaxTotal(configuration.getMaxConnections());
+			this.poolingConnectionManager
+					.setValidateAfterInactivity((int) configuration.getValidateAfterInactivity().toMillis());
+			configuration.getMaxConnectionsForRoutes().forEach(
+					(route, max) -> poolingConnectionManager.setMaxPerRoute(toRoute(route), max));
+			long idleTimeout = configuration.getIdleConnectionTimeout().toMillis();
+			this.idleConnectionEvictor = new IdleConnectionEvictor(poolingConnectionManager,
+					idleTimeout, TimeUnit.MILLISECONDS, idleTimeout, TimeUnit.MILLISECONDS);
+			this.idleConnectionEvictor.start();
+		}
+
+		CloseableHttpClient createClient() {
+			HttpClientBuilder builder = HttpClients.custom()
+					.setDefaultRequestConfig(customConfig)
+					.setConnectionManager(poolingConnectionManager)
+					.setConnectionManagerShared(true)
+					.disableConnectionState()
+					.setKeepAliveStrategy(keepAliveStrategy)
+					.setSSLContext(context)
+					.setSSLSocketFactory(sslSocketFactory)
+					.disableRedirectHandling();
+			if (keyManager != null) {
+				builder.setConnectionReuseStrategy(this::keepAlive);
+			}
+			return new SharedPoolHttpClient(builder.build());
+		}
+
+		/**
+		 * Connections, that were established with a replaced client certificate, are
+		 * not returned to the pool.
+		 */
+		private boolean keepAlive(HttpResponse response, HttpContext context) {
+			if (!DefaultClientConnectionReuseStrategy.INSTANCE.keepAlive(response, context)) {
+				return false;
+			}
+			ManagedHttpClientConnection connection = HttpClientContext.adapt(context)
+					.getConnection(ManagedHttpClientConnection.class);
+			SSLSession session = connection != null ? connection.getSSLSession() : null;
+			return session == null || keyManager.isCurrent(session.getLocalCertificates());
+		}
+
+		/**
+		 * Closes idle connections and invalidates cached TLS sessions, so that the
+		 * replaced client certificate is not used for new requests.
+		 */
+		private void drain() {
+			SSLSessionContext sessionContext = context.getClientSessionContext();
+			for (byte[] sessionId : Collections.list(sessionContext.getIds())) {
+				SSLSession session = sessionContext.getSession(sessionId);
+				if (session != null) {
+					session.invalidate();
+				}
+			}
+			poolingConnectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * Opens connections to the warm routes, until the configured number of
+		 * connections per route is pooled.
+		 */
+		void replenish() {
+			for (HttpRoute route : warmRoutes) {
+				int warmConnections = Math.min(configuration.getWarmConnectionsPerRoute(),
+						poolingConnectionManager.getMaxPerRoute(route));
+				PoolStats stats = poolingConnectionManager.getStats(route);
+				int missing = warmConnections - stats.getAvailable() - stats.getLeased();
+				if (missing > 0) {
+					openConnections(route, warmConnections - stats.getLeased());
+				}
+			}
+		}
+
+		/**
+		 * Leases the given number of connections at once, so that the available ones
+		 * are not leased repeatedly, and connects the ones that are not yet open.
+		 */
+		private void openConnections(HttpRoute route, int count) {
+			List<HttpClientConnection> connections = new ArrayList<>(count);
+			try {
+				for (int i = 0; i < count; i++) {
+					connections.add(poolingConnectionManager.requestConnection(route, null)
+							.get(configuration.getConnectionRequestTimeout().toMillis(), TimeUnit.MILLISECONDS));
+				}
+				for (HttpClientConnection connection : connections) {
+					if (!connection.isOpen()) {
+						HttpClientContext context = HttpClientContext.create();
+						poolingConnectionManager.connect(connection, route,
+								(int) configuration.getConnectTimeout().toMillis(), context);
+						poolingConnectionManager.routeComplete(connection, route, context);
+					}
+				}
+				LOGGER.debug("Warmed up {} connections to {}", count, route.getTargetHost());
+			} catch (IOException | ExecutionException e) {
+				LOGGER.debug("Failed to warm up connections to {}: {}", route.getTargetHost(), e.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IllegalStateException e) {
+				LOGGER.debug("Connection pool shut down: {}", e.getMessage());
+			} finally {
+				for (HttpClientConnection connection : connections) {
+					poolingConnectionManager.releaseConnection(connection, null,
+							configuration.getKeepAliveTimeout().toMillis(), TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+
+		void shutdown() {
+			idleConnectionEvictor.shutdown();
+			poolingConnectionManager.shutdown();
+		}
+	}
+
+	/**
+	 * Http client that uses a shared connection pool. It can't be used after it
+	 * was closed, but closing it leaves the shared pool open.
+	 */
+	@SuppressWarnings("deprecation")
+	private static class SharedPoolHttpClient extends CloseableHttpClient {
+		private final CloseableHttpClient delegate;
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		SharedPoolHttpClient(CloseableHttpClient delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+				throws IOException {
+			if (closed.get()) {
+				throw new IllegalStateException("Connection pool shut down");
+			}
+			return delegate.execute(target, request, context);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed.compareAndSet(false, true)) {
+				delegate.close();
+			}
+		}
+
+		@Override
+		public HttpParams getParams() {
+			return delegate.getParams();
+		}
+
+		@Override
+		public ClientConnectionManager getConnectionManager() {
+			return delegate.getConnectionManager();
 		}
 	}
 
@@ -0,0 +1,297 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.client;
+
+import com.sap.cloud.security.xsuaa.Assertions;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the connection pools and request timeouts of the http
+ * clients created by {@link DefaultHttpClientFactory}. Use {@link #builder()}
+ * to create a custom configuration.
+ *
+ * <pre>
+ * {@code
+ * HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+ * 		.maxConnections(100)
+ * 		.maxConnectionsPerRoute(20)
+ * 		.maxConnectionsForRoute(URI.create("https://mytenant.authentication.eu10.hana.ondemand.com"), 50)
+ * 		.socketTimeout(Duration.ofSeconds(10))
+ * 		.build();
+ * HttpClientFactory httpClientFactory = new DefaultHttpClientFactory(configuration);
+ * }
+ * </pre>
+ */
+public class HttpClientConfiguration {
+
+	private static final HttpClientConfiguration DEFAULT = builder().build();
+
+	private final int maxConnections;
+	private final int maxConnectionsPerRoute;
+	private final Map<URI, Integer> maxConnectionsForRoutes;
+	private final Duration connectTimeout;
+	private final Duration connectionRequestTimeout;
+	private final Duration socketTimeout;
+	private final Duration idleConnectionTimeout;
+	private final Duration keepAliveTimeout;
+	private final Duration validateAfterInactivity;
+	private final int warmConnectionsPerRoute;
+	private final Duration tlsSessionTimeout;
+
+	private HttpClientConfiguration(Builder builder) {
+		this.maxConnections = builder.maxConnections;
+		this.maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+		this.maxConnectionsForRoutes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.maxConnectionsForRoutes));
+		this.connectTimeout = builder.connectTimeout;
+		this.connectionRequestTimeout = builder.connectionRequestTimeout;
+		this.socketTimeout = builder.socketTimeout;
+		this.idleConnectionTimeout = builder.idleConnectionTimeout;
+		this.keepAliveTimeout = builder.keepAliveTimeout;
+		this.validateAfterInactivity = builder.validateAfterInactivity;
+		this.warmConnectionsPerRoute = builder.warmConnectionsPerRoute;
+		this.tlsSessionTimeout = builder.tlsSessionTimeout;
+	}
+
+	/**
+	 * @return the default configuration.
+	 */
+	public static HttpClientConfiguration defaultConfiguration() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @return a builder initialized with the default values.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the maximum number of connections per pool.
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * @return the maximum number of connections per route (target host).
+	 */
+	public int getMaxConnectionsPerRoute() {
+		return maxConnectionsPerRoute;
+	}
+
+	/**
+	 * @return the maximum number of connections of individual routes, that
+	 *         overrule {@link #getMaxConnectionsPerRoute()}.
+	 */
+	public Map<URI, Integer> getMaxConnectionsForRoutes() {
+		return maxConnectionsForRoutes;
+	}
+
+	/**
+	 * @return the timeout until a connection is established.
+	 */
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * @return the timeout to wait for a connection from the pool.
+	 */
+	public Duration getConnectionRequestTimeout() {
+		return connectionRequestTimeout;
+	}
+
+	/**
+	 * @return the timeout to wait for data.
+	 */
+	public Duration getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	/**
+	 * @return the time after which idle connections are evicted from the pool by
+	 *         a background thread.
+	 */
+	public Duration getIdleConnectionTimeout() {
+		return idleConnectionTimeout;
+	}
+
+	/**
+	 * @return the maximum time a connection is kept alive. Applies when the server
+	 *         does not send a shorter keep-alive timeout.
+	 */
+	public Duration getKeepAliveTimeout() {
+		return keepAliveTimeout;
+	}
+
+	/**
+	 * @return the period of inactivity after which pooled connections are
+	 *         validated before being leased.
+	 */
+	public Duration getValidateAfterInactivity() {
+		return validateAfterInactivity;
+	}
+
+	/**
+	 * @return the number of connections, that are kept open to each route passed
+	 *         to {@link DefaultHttpClientFactory#warmUp}. 0 disables pre-warming.
+	 */
+	public int getWarmConnectionsPerRoute() {
+		return warmConnectionsPerRoute;
+	}
+
+	/**
+	 * @return the time TLS sessions are cached for resumption, so that
+	 *         reconnecting to the same host skips the full handshake.
+	 */
+	public Duration getTlsSessionTimeout() {
+		return tlsSessionTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpClientConfiguration{" +
+				"maxConnections=" + maxConnections +
+				", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+				", maxConnectionsForRoutes=" + maxConnectionsForRoutes +
+				", connectTimeout=" + connectTimeout +
+				", connectionRequestTimeout=" + connectionRequestTimeout +
+				", socketTimeout=" + socketTimeout +
+				", idleConnectionTimeout=" + idleConnectionTimeout +
+				", keepAliveTimeout=" + keepAliveTimeout +
+				", validateAfterInactivity=" + validateAfterInactivity +
+				", warmConnectionsPerRoute=" + warmConnectionsPerRoute +
+				", tlsSessionTimeout=" + tlsSessionTimeout +
+				'}';
+	}
+
+	public static class Builder {
+		private int maxConnections = 200;
+		private int maxConnectionsPerRoute = 20;
+		private final Map<URI, Integer> maxConnectionsForRoutes = new LinkedHashMap<>();
+		private Duration connectTimeout = Duration.ofSeconds(5);
+		private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+		private Duration socketTimeout = Duration.ofSeconds(5);
+		private Duration idleConnectionTimeout = Duration.ofSeconds(30);
+		private Duration keepAliveTimeout = Duration.ofSeconds(60);
+		private Duration validateAfterInactivity = Duration.ofSeconds(2);
+		private int warmConnectionsPerRoute = 0;
+		private Duration tlsSessionTimeout = Duration.ofHours(24);
+
+		private Builder() {
+			// use HttpClientConfiguration.builder()
+		}
+
+		public Builder maxConnections(int maxConnections) {
+			assertPositive(maxConnections, "maxConnections");
+			this.maxConnections = maxConnections;
+			return this;
+		}
+
+		public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			assertPositive(maxConnectionsPerRoute, "maxConnectionsPerRoute");
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			return this;
+		}
+
+		/**
+		 * Overrules the maximum number of connections per route for a single route.
+		 *
+		 * @param route
+		 *            the scheme, host and optionally the port of the route, e.g.
+		 *            {@code https://myauth.com}
+		 * @param maxConnections
+		 *            the maximum number of connections to the route
+		 * @return this builder
+		 */
+		public Builder maxConnectionsForRoute(@Nonnull URI route, int maxConnections) {
+			Assertions.assertNotNull(route, "route must not be null");
+			Assertions.assertHasText(route.getHost(), "route must have a host");
+			assertPositive(maxConnections, "maxConnections");
+			this.maxConnectionsForRoutes.put(route, maxConnections);
+			return this;
+		}
+
+		public Builder connectTimeout(@Nonnull Duration connectTimeout) {
+			this.connectTimeout = checked(connectTimeout, "connectTimeout");
+			return this;
+		}
+
+		public Builder connectionRequestTimeout(@Nonnull Duration connectionRequestTimeout) {
+			this.connectionRequestTimeout = checked(connectionRequestTimeout, "connectionRequestTimeout");
+			return this;
+		}
+
+		public Builder socketTimeout(@Nonnull Duration socketTimeout) {
+			this.socketTimeout = checked(socketTimeout, "socketTimeout");
+			return this;
+		}
+
+		public Builder idleConnectionTimeout(@Nonnull Duration idleConnectionTimeout) {
+			this.idleConnectionTimeout = checked(idleConnectionTimeout, "idleConnectionTimeout");
+			return this;
+		}
+
+		public Builder keepAliveTimeout(@Nonnull Duration keepAliveTimeout) {
+			this.keepAliveTimeout = checked(keepAliveTimeout, "keepAliveTimeout");
+			return this;
+		}
+
+		public Builder validateAfterInactivity(@Nonnull Duration validateAfterInactivity) {
+			this.validateAfterInactivity = checked(validateAfterInactivity, "validateAfterInactivity");
+			return this;
+		}
+
+		/**
+		 * Number of connections, that are opened in advance and kept open to each
+		 * route passed to {@link DefaultHttpClientFactory#warmUp}, so that the first
+		 * requests don't pay for the TLS handshake. Connections, that are evicted
+		 * while idle, are re-established in the background.
+		 *
+		 * @param warmConnectionsPerRoute
+		 *            the number of warm connections per route, 0 disables
+		 *            pre-warming
+		 * @return this builder
+		 */
+		public Builder warmConnectionsPerRoute(int warmConnectionsPerRoute) {
+			if (warmConnectionsPerRoute < 0) {
+				throw new IllegalArgumentException("warmConnectionsPerRoute must not be negative");
+			}
+			this.warmConnectionsPerRoute = warmConnectionsPerRoute;
+			return this;
+		}
+
+		public Builder tlsSessionTimeout(@Nonnull Duration tlsSessionTimeout) {
+			this.tlsSessionTimeout = checked(tlsSessionTimeout, "tlsSessionTimeout");
+			return this;
+		}
+
+		public HttpClientConfiguration build() {
+			return new HttpClientConfiguration(this);
+		}
+
+		private static void assertPositive(int value, String name) {
+			if (value < 1) {
+				throw new IllegalArgumentException(name + " must be greater than 0");
+			}
+		}
+
+		private static Duration checked(Duration duration, String name) {
+			Assertions.assertNotNull(duration, name + " must not be null");
+			if (duration.isNegative() || duration.isZero()) {
+				throw new IllegalArgumentException(name + " must be positive");
+			}
+			return duration;
+		}
+	}
+}
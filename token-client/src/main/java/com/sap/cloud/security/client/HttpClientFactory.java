@@ -48,6 +48,22 @@ public interface HttpClientFactory {
 	 */
 	CloseableHttpClient createClient(ClientIdentity clientIdentity) throws HttpClientException;
 
+	/**
+	 * Replaces the client certificate of the HTTP clients created for the client
+	 * identity, in case it was rotated. Returns false by default, i.e. if the
+	 * factory doesn't support certificate rotation.
+	 *
+	 * @param clientIdentity
+	 *            the certificate based client identity with the rotated
+	 *            certificate and key
+	 * @return true, if the client certificate was replaced
+	 * @throws HttpClientException
+	 *             in case the certificate or the key can not be parsed
+	 */
+	default boolean updateClientIdentity(ClientIdentity clientIdentity) throws HttpClientException {
+		return false;
+	}
+
 	/**
 	 * Don't close the HTTPClient when you've provided it to
 	 * {@code TokenAuthenticator} or {@code XsuaaTokenFlows} instance.
@@ -74,4 +90,24 @@ public interface HttpClientFactory {
 		return services.get(0).createClient(clientIdentity);
 	}
 
+	/**
+	 * Replaces the client certificate of the HTTP clients, that were created with
+	 * {@link #create(ClientIdentity)} for the client identity, in case it was
+	 * rotated.
+	 *
+	 * @param clientIdentity
+	 *            the certificate based client identity with the rotated
+	 *            certificate and key
+	 * @return true, if the client certificate was replaced
+	 * @throws HttpClientException
+	 *             in case the certificate or the key can not be parsed
+	 */
+	static boolean update(ClientIdentity clientIdentity) throws HttpClientException {
+		boolean updated = false;
+		for (HttpClientFactory httpClientFactory : services) {
+			updated |= httpClientFactory.updateClientIdentity(clientIdentity);
+		}
+		return updated;
+	}
+
 }
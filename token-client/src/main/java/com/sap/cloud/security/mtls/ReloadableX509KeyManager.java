@@ -0,0 +1,292 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.mtls;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedKeyManager;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+/**
+ * Key manager for mutual TLS, whose certificate chain and private key can be
+ * replaced at runtime, e.g. when the X.509 credentials of a service binding are
+ * rotated. A SSLContext created with this key manager (see
+ * {@link SSLContextFactory#createWithKeyManager(X509ExtendedKeyManager)}) does
+ * not need to be recreated, new TLS handshakes use the new key material.
+ * <p>
+ * The parsed key material is kept until the certificate or the key changes, so
+ * calling {@link #update(ClientIdentity)} with unchanged credentials is cheap.
+ * Aliases are bound to the key material they were chosen from, hence a
+ * handshake, that is in progress while the key material is replaced, still
+ * completes with a consistent certificate chain and private key.
+ */
+public class ReloadableX509KeyManager extends X509ExtendedKeyManager {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableX509KeyManager.class);
+	private static final char GENERATION_SEPARATOR = '#';
+
+	private final AtomicReference<State> state = new AtomicReference<>();
+	private final AtomicLong generations = new AtomicLong();
+	private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a key manager for the certificate chain and private key of the
+	 * client identity.
+	 *
+	 * @param clientIdentity
+	 *            the certificate based client identity
+	 * @throws GeneralSecurityException
+	 *             in case of key parsing errors
+	 * @throws IOException
+	 *             in case of KeyStore initialization errors
+	 */
+	public ReloadableX509KeyManager(ClientIdentity clientIdentity) throws GeneralSecurityException, IOException {
+		state.set(new State(createKeyMaterial(clientIdentity), null));
+	}
+
+	/**
+	 * Replaces the key material, in case the certificate or the key of the client
+	 * identity differs from the current one. Registered listeners are notified
+	 * after the key material was replaced.
+	 *
+	 * @param clientIdentity
+	 *            the certificate based client identity
+	 * @return true, if the key material was replaced
+	 * @throws GeneralSecurityException
+	 *             in case of key parsing errors, the current key material is
+	 *             kept
+	 * @throws IOException
+	 *             in case of KeyStore initialization errors, the current key
+	 *             material is kept
+	 */
+	public boolean update(ClientIdentity clientIdentity) throws GeneralSecurityException, IOException {
+		assertNotNull(clientIdentity, "clientIdentity must not be null");
+		synchronized (state) {
+			State current = state.get();
+			if (current.keyMaterial.matches(clientIdentity)) {
+				return false;
+			}
+			state.set(new State(createKeyMaterial(clientIdentity), current.keyMaterial));
+		}
+		LOGGER.info("Replaced client certificate of client identity {}", clientIdentity.getId());
+		listeners.forEach(Runnable::run);
+		return true;
+	}
+
+	/**
+	 * Periodically reads the client identity from the source and updates the key
+	 * material in case it has changed. Failures are logged, the current key
+	 * material is kept in that case.
+	 *
+	 * @param source
+	 *            provides the current client identity, e.g. from a mounted
+	 *            secret
+	 * @param interval
+	 *            the polling interval
+	 * @return handle to stop watching the source
+	 */
+	public Closeable watch(Supplier<ClientIdentity> source, Duration interval) {
+		assertNotNull(source, "source must not be null");
+		assertNotNull(interval, "interval must not be null");
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "client-identity-watcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ScheduledFuture<?> watcher = scheduler.scheduleWithFixedDelay(() -> reloadFrom(source),
+				interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+		return () -> {
+			watcher.cancel(false);
+			scheduler.shutdown();
+		};
+	}
+
+	/**
+	 * Registers a listener, that is called whenever the key material was replaced.
+	 * Can be used to close pooled connections, that were established with the
+	 * previous certificate.
+	 *
+	 * @param listener
+	 *            the listener
+	 */
+	public void addListener(Runnable listener) {
+		assertNotNull(listener, "listener must not be null");
+		listeners.add(listener);
+	}
+
+	/**
+	 * Checks whether the given certificate chain, e.g. the local certificates of
+	 * an established TLS session, belongs to the current key material.
+	 *
+	 * @param localCertificates
+	 *            the certificate chain to check
+	 * @return true, if the leaf certificate is the current client certificate
+	 */
+	public boolean isCurrent(@Nullable Certificate[] localCertificates) {
+		if (localCertificates == null || localCertificates.length == 0) {
+			return false;
+		}
+		X509Certificate[] chain = state.get().keyMaterial.certificateChain;
+		return chain != null && chain.length > 0 && chain[0].equals(localCertificates[0]);
+	}
+
+	@Override
+	public String chooseClientAlias(String[] keyType, Principal[] issuers, Socket socket) {
+		KeyMaterial keyMaterial = state.get().keyMaterial;
+		return keyMaterial.toAlias(keyMaterial.delegate.chooseClientAlias(keyType, issuers, socket));
+	}
+
+	@Override
+	public String chooseEngineClientAlias(String[] keyType, Principal[] issuers, SSLEngine engine) {
+		KeyMaterial keyMaterial = state.get().keyMaterial;
+		return keyMaterial.toAlias(keyMaterial.delegate.chooseEngineClientAlias(keyType, issuers, engine));
+	}
+
+	@Override
+	public String[] getClientAliases(String keyType, Principal[] issuers) {
+		KeyMaterial keyMaterial = state.get().keyMaterial;
+		String[] aliases = keyMaterial.delegate.getClientAliases(keyType, issuers);
+		if (aliases != null) {
+			for (int i = 0; i < aliases.length; i++) {
+				aliases[i] = keyMaterial.toAlias(aliases[i]);
+			}
+		}
+		return aliases;
+	}
+
+	@Override
+	public X509Certificate[] getCertificateChain(String alias) {
+		KeyMaterial keyMaterial = state.get().forAlias(alias);
+		return keyMaterial != null ? keyMaterial.delegate.getCertificateChain(KeyMaterial.baseAlias(alias)) : null;
+	}
+
+	@Override
+	public PrivateKey getPrivateKey(String alias) {
+		KeyMaterial keyMaterial = state.get().forAlias(alias);
+		return keyMaterial != null ? keyMaterial.delegate.getPrivateKey(KeyMaterial.baseAlias(alias)) : null;
+	}
+
+	@Override
+	public String[] getServerAliases(String keyType, Principal[] issuers) {
+		return null; // client key manager only
+	}
+
+	@Override
+	public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+		return null; // client key manager only
+	}
+
+	private void reloadFrom(Supplier<ClientIdentity> source) {
+		try {
+			ClientIdentity clientIdentity = source.get();
+			if (clientIdentity != null && clientIdentity.isCertificateBased()) {
+				update(clientIdentity);
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Failed to reload client certificate, keeping the current one: {}", e.getMessage());
+		}
+	}
+
+	private KeyMaterial createKeyMaterial(ClientIdentity clientIdentity)
+			throws GeneralSecurityException, IOException {
+		X509ExtendedKeyManager delegate = SSLContextFactory.getInstance().createKeyManager(clientIdentity);
+		return new KeyMaterial(generations.incrementAndGet(), clientIdentity.getCertificate(),
+				clientIdentity.getKey(), delegate);
+	}
+
+	/**
+	 * Current and previous key material. The previous one is kept, so that
+	 * handshakes, that have chosen their alias before the key material was
+	 * replaced, can complete.
+	 */
+	private static class State {
+		private final KeyMaterial keyMaterial;
+		@Nullable
+		private final KeyMaterial previous;
+
+		State(KeyMaterial keyMaterial, @Nullable KeyMaterial previous) {
+			this.keyMaterial = keyMaterial;
+			this.previous = previous;
+		}
+
+		@Nullable
+		KeyMaterial forAlias(String alias) {
+			long generation = KeyMaterial.generation(alias);
+			if (generation == keyMaterial.generation) {
+				return keyMaterial;
+			}
+			return previous != null && generation == previous.generation ? previous : null;
+		}
+	}
+
+	private static class KeyMaterial {
+		private final long generation;
+		private final String certificate;
+		private final String key;
+		private final X509ExtendedKeyManager delegate;
+		private final X509Certificate[] certificateChain;
+
+		KeyMaterial(long generation, String certificate, String key, X509ExtendedKeyManager delegate) {
+			this.generation = generation;
+			this.certificate = certificate;
+			this.key = key;
+			this.delegate = delegate;
+			String[] aliases = delegate.getClientAliases("RSA", null);
+			this.certificateChain = aliases != null && aliases.length > 0 ? delegate.getCertificateChain(aliases[0])
+					: null;
+		}
+
+		boolean matches(ClientIdentity clientIdentity) {
+			return Objects.equals(certificate, clientIdentity.getCertificate())
+					&& Objects.equals(key, clientIdentity.getKey());
+		}
+
+		@Nullable
+		String toAlias(@Nullable String alias) {
+			return alias != null ? alias + GENERATION_SEPARATOR + generation : null;
+		}
+
+		static String baseAlias(String alias) {
+			int index = alias != null ? alias.lastIndexOf(GENERATION_SEPARATOR) : -1;
+			return index >= 0 ? alias.substring(0, index) : alias;
+		}
+
+		static long generation(String alias) {
+			int index = alias != null ? alias.lastIndexOf(GENERATION_SEPARATOR) : -1;
+			if (index < 0) {
+				return -1;
+			}
+			try {
+				return Long.parseLong(alias.substring(index + 1));
+			} catch (NumberFormatException e) {
+				return -1;
+			}
+		}
+	}
+}
@@ -11,8 +11,10 @@ import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.X509ExtendedKeyManager;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigInteger;
@@ -87,12 +89,54 @@ public class SSLContextFactory {
 		assertHasText(clientIdentity.getCertificate(), "clientIdentity.getCertificate() must not return null");
 		assertHasText(clientIdentity.getKey(), "clientIdentity.getKey() must not return null");
 
+		SSLContext sslContext = createDefaultSSLContext();
+		sslContext.init(new KeyManager[] { createKeyManager(clientIdentity) }, null, null);
+		return sslContext;
+	}
+
+	/**
+	 * Creates a SSLContext which uses the given key manager, e.g. a
+	 * {@link ReloadableX509KeyManager} to support rotation of the client
+	 * certificate without recreating the SSLContext.
+	 *
+	 * @param keyManager
+	 *            the key manager that provides the client certificate
+	 * @return a new SSLContext instance
+	 * @throws GeneralSecurityException
+	 *             in case of SSLContext initialization errors
+	 */
+	public SSLContext createWithKeyManager(X509ExtendedKeyManager keyManager) throws GeneralSecurityException {
+		assertNotNull(keyManager, "keyManager must not be null");
+
+		SSLContext sslContext = createDefaultSSLContext();
+		sslContext.init(new KeyManager[] { keyManager }, null, null);
+		return sslContext;
+	}
+
+	/**
+	 * Creates a key manager for the certificate chain and private key of the
+	 * client identity.
+	 *
+	 * @param clientIdentity
+	 *            you can get from your Service Configuration
+	 *            {@link OAuth2ServiceConfiguration#getClientIdentity()}
+	 * @return a new key manager instance
+	 * @throws GeneralSecurityException
+	 *             in case of key parsing errors
+	 * @throws IOException
+	 *             in case of KeyStore initialization errors
+	 */
+	public X509ExtendedKeyManager createKeyManager(ClientIdentity clientIdentity)
+			throws GeneralSecurityException, IOException {
 		KeyStore keystore = createKeyStore(clientIdentity);
 		KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance("SunX509");
 		keyManagerFactory.init(keystore, noPassword);
-		SSLContext sslContext = createDefaultSSLContext();
-		sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
-		return sslContext;
+		for (KeyManager keyManager : keyManagerFactory.getKeyManagers()) {
+			if (keyManager instanceof X509ExtendedKeyManager) {
+				return (X509ExtendedKeyManager) keyManager;
+			}
+		}
+		throw new KeyManagementException("No X509ExtendedKeyManager available");
 	}
 
 	/**
@@ -39,6 +39,8 @@ public abstract class AbstractOAuth2TokenService implements OAuth2TokenService,
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractOAuth2TokenService.class);
 	private final Cache<CacheKey, OAuth2TokenResponse> responseCache;
 	private final TokenCacheConfiguration tokenCacheConfiguration;
+	@Nullable
+	private final ResilientRequestExecutor resilientRequestExecutor;
 
 	public AbstractOAuth2TokenService() {
 		this(TokenCacheConfiguration.defaultConfiguration(), Ticker.systemTicker(), false);
@@ -55,6 +57,21 @@ public abstract class AbstractOAuth2TokenService implements OAuth2TokenService,
 
 	}
 
+	/**
+	 * Constructor used to overwrite the default cache configuration and to enable
+	 * retries and hedged requests for the token requests, that are not served
+	 * from the cache.
+	 *
+	 * @param tokenCacheConfiguration
+	 *            the cache configuration used to configure the cache.
+	 * @param resilienceConfiguration
+	 *            the retry and hedging configuration.
+	 */
+	public AbstractOAuth2TokenService(TokenCacheConfiguration tokenCacheConfiguration,
+			ResilienceConfiguration resilienceConfiguration) {
+		this(tokenCacheConfiguration, Ticker.systemTicker(), false, resilienceConfiguration);
+	}
+
 	/**
 	 * This constructor is used for testing purposes only.
 	 *
@@ -69,14 +86,25 @@ public abstract class AbstractOAuth2TokenService implements OAuth2TokenService,
 	 */
 	AbstractOAuth2TokenService(TokenCacheConfiguration tokenCacheConfiguration, Ticker cacheTicker,
 			boolean sameThreadCache) {
+		this(tokenCacheConfiguration, cacheTicker, sameThreadCache, null);
+	}
+
+	AbstractOAuth2TokenService(TokenCacheConfiguration tokenCacheConfiguration, Ticker cacheTicker,
+			boolean sameThreadCache, @Nullable ResilienceConfiguration resilienceConfiguration) {
 		Assertions.assertNotNull(tokenCacheConfiguration, "cacheConfiguration is required");
 		this.tokenCacheConfiguration = tokenCacheConfiguration;
 		this.responseCache = createResponseCache(cacheTicker, sameThreadCache);
+		this.resilientRequestExecutor = resilienceConfiguration != null
+				? new ResilientRequestExecutor(resilienceConfiguration)
+				: null;
 		if (isCacheDisabled()) {
 			LOGGER.debug("Configured token service with cache disabled");
 		} else {
 			LOGGER.debug("Configured token service with {}", tokenCacheConfiguration);
 		}
+		if (resilienceConfiguration != null) {
+			LOGGER.debug("Configured token service with {}", resilienceConfiguration);
+		}
 	}
 
 	@Override
@@ -221,7 +249,7 @@ public abstract class AbstractOAuth2TokenService implements OAuth2TokenService,
 				zoneId);
 
 		if (isCacheDisabled() || disableCacheForRequest) {
-			return requestAccessToken(tokenEndpoint, headers, parameters);
+			return executeRequest(tokenEndpoint, headers, parameters);
 		}
 		return getOrRequestAccessToken(tokenEndpoint, headers, parameters);
 	}
@@ -244,12 +272,21 @@ public abstract class AbstractOAuth2TokenService implements OAuth2TokenService,
 	protected abstract OAuth2TokenResponse requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
 			Map<String, String> parameters) throws OAuth2ServiceException;
 
+	private OAuth2TokenResponse executeRequest(URI tokenEndpointUri, HttpHeaders headers,
+			Map<String, String> parameters) throws OAuth2ServiceException {
+		if (resilientRequestExecutor == null) {
+			return requestAccessToken(tokenEndpointUri, headers, parameters);
+		}
+		return resilientRequestExecutor.execute(parameters.get(GRANT_TYPE),
+				() -> requestAccessToken(tokenEndpointUri, headers, parameters));
+	}
+
 	private OAuth2TokenResponse getOAuth2TokenResponse(@Nonnull URI tokenEndpointUri, HttpHeaders headers,
 			Map<String, String> additionalParameters,
 			@Nullable String subdomain, boolean disableCacheForRequest) throws OAuth2ServiceException {
 		URI tokenEndpointUriWithSubdomainReplaced = UriUtil.replaceSubdomain(tokenEndpointUri, subdomain);
 		if (isCacheDisabled() || disableCacheForRequest) {
-			return requestAccessToken(tokenEndpointUriWithSubdomainReplaced, headers, additionalParameters);
+			return executeRequest(tokenEndpointUriWithSubdomainReplaced, headers, additionalParameters);
 		}
 		return getOrRequestAccessToken(tokenEndpointUriWithSubdomainReplaced, headers, additionalParameters);
 	}
@@ -310,7 +347,7 @@ public abstract class AbstractOAuth2TokenService implements OAuth2TokenService,
 
 	private void getAndCacheToken(CacheKey cacheKey) throws OAuth2ServiceException {
 		responseCache.put(cacheKey,
-				requestAccessToken(cacheKey.tokenEndpointUri, cacheKey.headers, cacheKey.parameters));
+				executeRequest(cacheKey.tokenEndpointUri, cacheKey.headers, cacheKey.parameters));
 	}
 
 	private boolean isCacheDisabled() {
@@ -0,0 +1,285 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.Assertions;
+import com.sap.cloud.security.xsuaa.http.HttpHeaders;
+import com.sap.cloud.security.xsuaa.http.HttpHeadersFactory;
+import com.sap.cloud.security.xsuaa.tokenflows.Cacheable;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
+import com.sap.cloud.security.xsuaa.util.UriUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.*;
+
+/**
+ * Base class of {@link ReactiveOAuth2TokenService} implementations. Caches the
+ * token responses like {@link AbstractOAuth2TokenService}: cached tokens are
+ * returned until they are about to expire (see
+ * {@link TokenCacheConfiguration#getTokenExpirationDelta()}). Concurrent
+ * subscriptions for the same token, that is not cached, share a single request
+ * to the token endpoint.
+ * <p>
+ * Subclasses implement {@link #requestAccessToken(URI, HttpHeaders, Map)} with
+ * the HTTP client of their choice, e.g. Spring {@code WebClient}.
+ */
+@java.lang.SuppressWarnings("squid:S1192")
+public abstract class AbstractReactiveOAuth2TokenService implements ReactiveOAuth2TokenService, Cacheable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractReactiveOAuth2TokenService.class);
+	private final Cache<CacheKey, OAuth2TokenResponse> responseCache;
+	private final Map<CacheKey, Mono<OAuth2TokenResponse>> pendingRequests = new ConcurrentHashMap<>();
+	private final TokenCacheConfiguration tokenCacheConfiguration;
+
+	protected AbstractReactiveOAuth2TokenService() {
+		this(TokenCacheConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Constructor used to overwrite the default cache configuration.
+	 *
+	 * @param tokenCacheConfiguration
+	 *            the cache configuration used to configure the cache.
+	 */
+	protected AbstractReactiveOAuth2TokenService(TokenCacheConfiguration tokenCacheConfiguration) {
+		this(tokenCacheConfiguration, Ticker.systemTicker());
+	}
+
+	AbstractReactiveOAuth2TokenService(TokenCacheConfiguration tokenCacheConfiguration, Ticker cacheTicker) {
+		Assertions.assertNotNull(tokenCacheConfiguration, "cacheConfiguration is required");
+		this.tokenCacheConfiguration = tokenCacheConfiguration;
+		Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder()
+				.maximumSize(tokenCacheConfiguration.getCacheSize())
+				.ticker(cacheTicker)
+				.expireAfterWrite(tokenCacheConfiguration.getCacheDuration());
+		if (tokenCacheConfiguration.isCacheStatisticsEnabled()) {
+			cacheBuilder.recordStats();
+		}
+		this.responseCache = cacheBuilder.build();
+	}
+
+	@Override
+	public Mono<OAuth2TokenResponse> retrieveAccessTokenViaClientCredentialsGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nullable String zoneId, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters, boolean disableCacheForRequest) {
+		assertNotNull(tokenEndpointUri, "tokenEndpointUri is required");
+		assertNotNull(clientIdentity, "clientIdentity is required");
+
+		Map<String, String> parameters = new RequestParameterBuilder()
+				.withGrantType(GRANT_TYPE_CLIENT_CREDENTIALS)
+				.withClientIdentity(clientIdentity)
+				.withOptionalParameters(optionalParameters)
+				.buildAsMap();
+
+		HttpHeaders headers = HttpHeadersFactory.createWithoutAuthorizationHeader();
+		if (zoneId != null) {
+			headers.withHeader(HttpHeaders.X_ZID, zoneId);
+		}
+		return getOAuth2TokenResponse(UriUtil.replaceSubdomain(tokenEndpointUri, subdomain), headers, parameters,
+				disableCacheForRequest);
+	}
+
+	@Override
+	public Mono<OAuth2TokenResponse> retrieveAccessTokenViaRefreshToken(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String refreshToken, @Nullable String subdomain,
+			boolean disableCacheForRequest) {
+		assertNotNull(tokenEndpointUri, "tokenEndpointUri is required");
+		assertNotNull(clientIdentity, "clientIdentity is required");
+		assertNotNull(refreshToken, "refreshToken is required");
+
+		Map<String, String> parameters = new RequestParameterBuilder()
+				.withGrantType(GRANT_TYPE_REFRESH_TOKEN)
+				.withRefreshToken(refreshToken)
+				.withClientIdentity(clientIdentity)
+				.buildAsMap();
+
+		return getOAuth2TokenResponse(UriUtil.replaceSubdomain(tokenEndpointUri, subdomain),
+				HttpHeadersFactory.createWithoutAuthorizationHeader(), parameters, disableCacheForRequest);
+	}
+
+	@Override
+	public Mono<OAuth2TokenResponse> retrieveAccessTokenViaPasswordGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String username, @Nonnull String password,
+			@Nullable String subdomain, @Nullable Map<String, String> optionalParameters,
+			boolean disableCacheForRequest) {
+		assertNotNull(tokenEndpointUri, "tokenEndpoint is required");
+		assertNotNull(clientIdentity, "clientIdentity is required");
+		assertNotNull(username, "username is required");
+		assertNotNull(password, "password is required");
+
+		Map<String, String> parameters = new RequestParameterBuilder()
+				.withGrantType(GRANT_TYPE_PASSWORD)
+				.withUsername(username)
+				.withPassword(password)
+				.withClientIdentity(clientIdentity)
+				.withOptionalParameters(optionalParameters)
+				.buildAsMap();
+
+		return getOAuth2TokenResponse(UriUtil.replaceSubdomain(tokenEndpointUri, subdomain),
+				HttpHeadersFactory.createWithoutAuthorizationHeader(), parameters, disableCacheForRequest);
+	}
+
+	@Override
+	public Mono<OAuth2TokenResponse> retrieveAccessTokenViaJwtBearerTokenGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String token, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters, boolean disableCacheForRequest) {
+		assertNotNull(tokenEndpointUri, "tokenEndpoint is required");
+		assertNotNull(clientIdentity, "clientIdentity is required");
+		assertNotNull(token, "token is required");
+
+		return getOAuth2TokenResponse(UriUtil.replaceSubdomain(tokenEndpointUri, subdomain),
+				HttpHeadersFactory.createWithoutAuthorizationHeader(),
+				jwtBearerParameters(clientIdentity, token, optionalParameters), disableCacheForRequest);
+	}
+
+	@Override
+	public Mono<OAuth2TokenResponse> retrieveAccessTokenViaJwtBearerTokenGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String token,
+			@Nullable Map<String, String> optionalParameters, boolean disableCacheForRequest,
+			@Nonnull String zoneId) {
+		assertNotNull(tokenEndpointUri, "tokenEndpoint is required");
+		assertNotNull(clientIdentity, "clientIdentity is required");
+		assertNotNull(token, "token is required");
+		assertNotNull(zoneId, "ZoneId is required to create X-zid header");
+
+		HttpHeaders headers = HttpHeadersFactory.createWithoutAuthorizationHeader().withHeader(HttpHeaders.X_ZID,
+				zoneId);
+		return getOAuth2TokenResponse(tokenEndpointUri, headers,
+				jwtBearerParameters(clientIdentity, token, optionalParameters), disableCacheForRequest);
+	}
+
+	/**
+	 * Implements the HTTP client specific logic to perform an HTTP request and
+	 * handle the response. Must not block the subscribing thread.
+	 *
+	 * @param tokenEndpointUri
+	 *            the URI of the token endpoint the request must be sent to.
+	 * @param headers
+	 *            the HTTP headers that must be sent with the request.
+	 * @param parameters
+	 *            a map of request parameters that must be sent with the request.
+	 * @return the token response, or an {@link OAuth2ServiceException} when the
+	 *         request to the token endpoint fails or returns an error code.
+	 */
+	protected abstract Mono<OAuth2TokenResponse> requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
+			Map<String, String> parameters);
+
+	/**
+	 * By default {@link Clock#systemUTC()} is used to determine of a cached token
+	 * has reached its expiration (exp) point in time. This method can be overridden
+	 * for testing purposes.
+	 *
+	 * @return the {@link Clock}
+	 */
+	protected Clock getClock() {
+		return Clock.systemUTC();
+	}
+
+	@Override
+	public void clearCache() {
+		responseCache.invalidateAll();
+	}
+
+	@Override
+	@Nonnull
+	public TokenCacheConfiguration getCacheConfiguration() {
+		return tokenCacheConfiguration;
+	}
+
+	@Override
+	public Object getCacheStatistics() {
+		return tokenCacheConfiguration.isCacheStatisticsEnabled() ? responseCache.stats() : null;
+	}
+
+	private static Map<String, String> jwtBearerParameters(ClientIdentity clientIdentity, String token,
+			@Nullable Map<String, String> optionalParameters) {
+		return new RequestParameterBuilder()
+				.withGrantType(GRANT_TYPE_JWT_BEARER)
+				.withClientIdentity(clientIdentity)
+				.withToken(token)
+				.withOptionalParameters(optionalParameters)
+				.buildAsMap();
+	}
+
+	private Mono<OAuth2TokenResponse> getOAuth2TokenResponse(URI tokenEndpointUri, HttpHeaders headers,
+			Map<String, String> parameters, boolean disableCacheForRequest) {
+		if (tokenCacheConfiguration.isCacheDisabled() || disableCacheForRequest) {
+			return Mono.defer(() -> requestAccessToken(tokenEndpointUri, headers, parameters));
+		}
+		CacheKey cacheKey = new CacheKey(tokenEndpointUri, headers, parameters);
+		return Mono.defer(() -> {
+			OAuth2TokenResponse cachedResponse = responseCache.getIfPresent(cacheKey);
+			if (cachedResponse != null && !isAboutToExpire(cachedResponse)) {
+				LOGGER.debug("The token was found in cache");
+				return Mono.just(cachedResponse);
+			}
+			LOGGER.debug("Token not found in cache or needs to be refreshed, requesting a new one");
+			return pendingRequests.computeIfAbsent(cacheKey, this::requestAndCacheToken);
+		});
+	}
+
+	/**
+	 * Creates the request, that is shared by all subscribers until the response
+	 * arrives.
+	 */
+	private Mono<OAuth2TokenResponse> requestAndCacheToken(CacheKey cacheKey) {
+		return Mono.defer(() -> requestAccessToken(cacheKey.tokenEndpointUri, cacheKey.headers, cacheKey.parameters))
+				.doOnNext(response -> responseCache.put(cacheKey, response))
+				.doFinally(signal -> pendingRequests.remove(cacheKey))
+				.cache();
+	}
+
+	private boolean isAboutToExpire(OAuth2TokenResponse response) {
+		Instant expiration = response.getExpiredAt().minus(tokenCacheConfiguration.getTokenExpirationDelta());
+		return expiration.isBefore(Instant.now(getClock()));
+	}
+
+	private static class CacheKey {
+
+		private final URI tokenEndpointUri;
+		private final HttpHeaders headers;
+		private final Map<String, String> parameters;
+
+		CacheKey(URI tokenEndpointUri, HttpHeaders headers, Map<String, String> parameters) {
+			this.tokenEndpointUri = tokenEndpointUri;
+			this.headers = headers;
+			this.parameters = parameters;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (o == null || getClass() != o.getClass())
+				return false;
+			CacheKey cacheKey = (CacheKey) o;
+			return Objects.equals(tokenEndpointUri, cacheKey.tokenEndpointUri) &&
+					Objects.equals(headers, cacheKey.headers) &&
+					Objects.equals(parameters, cacheKey.parameters);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(tokenEndpointUri, headers, parameters);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Response of a conditional GET request, as sent with
+ * {@link OAuth2TokenKeyService#retrieveTokenKeys(java.net.URI, String, String)}
+ * and {@link OidcConfigurationService#retrieveEndpoints(java.net.URI, String)}.
+ * Carries the HTTP caching information of the response: the {@code ETag} to
+ * revalidate the document with and the {@code max-age} of the
+ * {@code Cache-Control} header.
+ *
+ * @param <T>
+ *            type of the response body
+ */
+public class ConditionalResponse<T> {
+	private final boolean notModified;
+	private final T body;
+	private final String eTag;
+	private final Duration maxAge;
+
+	private ConditionalResponse(boolean notModified, @Nullable T body, @Nullable String eTag,
+			@Nullable Duration maxAge) {
+		this.notModified = notModified;
+		this.body = body;
+		this.eTag = eTag;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Creates a response with a body, i.e. status code 200.
+	 *
+	 * @param body
+	 *            the response body
+	 * @param eTag
+	 *            the {@code ETag} header value
+	 * @param maxAge
+	 *            the {@code max-age} directive of the {@code Cache-Control}
+	 *            header
+	 * @param <T>
+	 *            type of the response body
+	 * @return the response
+	 */
+	public static <T> ConditionalResponse<T> modified(@Nullable T body, @Nullable String eTag,
+			@Nullable Duration maxAge) {
+		return new ConditionalResponse<>(false, body, eTag, maxAge);
+	}
+
+	/**
+	 * Creates a response for status code 304: the document matches the
+	 * {@code ETag} sent with the {@code If-None-Match} header.
+	 *
+	 * @param eTag
+	 *            the {@code ETag} header value
+	 * @param maxAge
+	 *            the {@code max-age} directive of the {@code Cache-Control}
+	 *            header
+	 * @param <T>
+	 *            type of the response body
+	 * @return the response
+	 */
+	public static <T> ConditionalResponse<T> notModified(@Nullable String eTag, @Nullable Duration maxAge) {
+		return new ConditionalResponse<>(true, null, eTag, maxAge);
+	}
+
+	/**
+	 * @return true, if the server responded with status code 304
+	 */
+	public boolean isNotModified() {
+		return notModified;
+	}
+
+	/**
+	 * @return the response body or null, if the document was not modified
+	 */
+	@Nullable
+	public T getBody() {
+		return body;
+	}
+
+	@Nullable
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * @return how long the response may be cached according to the server, or
+	 *         null if the server didn't specify it. {@code no-cache} and
+	 *         {@code no-store} result in zero.
+	 */
+	@Nullable
+	public Duration getMaxAge() {
+		return maxAge;
+	}
+
+	/**
+	 * Parses the {@code max-age} directive of a {@code Cache-Control} header.
+	 *
+	 * @param cacheControl
+	 *            the header value
+	 * @return the max age or null, if it is not specified
+	 */
+	@Nullable
+	static Duration parseMaxAge(@Nullable String cacheControl) {
+		if (cacheControl == null) {
+			return null;
+		}
+		Duration maxAge = null;
+		for (String directive : cacheControl.split(",")) {
+			String normalized = directive.trim().toLowerCase(Locale.ROOT);
+			if (normalized.equals("no-cache") || normalized.equals("no-store")) {
+				return Duration.ZERO;
+			}
+			if (normalized.startsWith("max-age=")) {
+				try {
+					maxAge = Duration.ofSeconds(Math.max(0, Long.parseLong(normalized.substring(8).trim())));
+				} catch (NumberFormatException e) {
+					// ignore malformed directive
+				}
+			}
+		}
+		return maxAge;
+	}
+}
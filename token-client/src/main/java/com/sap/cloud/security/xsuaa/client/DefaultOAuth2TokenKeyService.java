@@ -8,19 +8,25 @@ package com.sap.cloud.security.xsuaa.client;
 import com.sap.cloud.security.client.HttpClientFactory;
 import com.sap.cloud.security.xsuaa.Assertions;
 import com.sap.cloud.security.xsuaa.util.HttpClientUtil;
+import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
+import java.time.Duration;
 
 import static com.sap.cloud.security.xsuaa.http.HttpHeaders.X_ZONE_UUID;
 
@@ -41,22 +47,38 @@ public class DefaultOAuth2TokenKeyService implements OAuth2TokenKeyService {
 
 	@Override
 	public String retrieveTokenKeys(URI tokenKeysEndpointUri, @Nullable String zoneId) throws OAuth2ServiceException {
+		return retrieveTokenKeys(tokenKeysEndpointUri, zoneId, null).getBody();
+	}
+
+	@Override
+	public ConditionalResponse<String> retrieveTokenKeys(URI tokenKeysEndpointUri, @Nullable String zoneId,
+			@Nullable String eTag) throws OAuth2ServiceException {
 		Assertions.assertNotNull(tokenKeysEndpointUri, "Token key endpoint must not be null!");
 		HttpUriRequest request = new HttpGet(tokenKeysEndpointUri); // lgtm[java/ssrf] tokenKeysEndpointUri is validated
 																	// as part of XsuaaJkuValidator in java-security
 		if (zoneId != null) {
 			request.addHeader(X_ZONE_UUID, zoneId);
 		}
+		if (eTag != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+		}
 		request.addHeader(HttpHeaders.USER_AGENT, HttpClientUtil.getUserAgent());
 
 		LOGGER.debug("Executing token key retrieval GET request to {} with headers: {} ", tokenKeysEndpointUri,
 				request.getAllHeaders());
 		try (CloseableHttpResponse response = httpClient.execute(request)) {
-			String bodyAsString = HttpClientUtil.extractResponseBodyAsString(response);
 			int statusCode = response.getStatusLine().getStatusCode();
+			String responseETag = getHeaderValue(response, HttpHeaders.ETAG);
+			Duration maxAge = ConditionalResponse.parseMaxAge(getHeaderValue(response, HttpHeaders.CACHE_CONTROL));
+			if (statusCode == HttpStatus.SC_NOT_MODIFIED && eTag != null) {
+				LOGGER.debug("Token keys from {} for zone '{}' not modified", tokenKeysEndpointUri, zoneId);
+				EntityUtils.consumeQuietly(response.getEntity());
+				return ConditionalResponse.notModified(responseETag != null ? responseETag : eTag, maxAge);
+			}
+			String bodyAsString = HttpClientUtil.extractResponseBodyAsString(response);
 			if (statusCode == HttpStatus.SC_OK) {
 				LOGGER.debug("Successfully retrieved token keys from {} for zone '{}'", tokenKeysEndpointUri, zoneId);
-				return bodyAsString;
+				return ConditionalResponse.modified(bodyAsString, responseETag, maxAge);
 			} else {
 				throw OAuth2ServiceException.builder("Error retrieving token keys for x-zone_uuid " + zoneId)
 						.withUri(tokenKeysEndpointUri)
@@ -65,9 +87,26 @@ public class DefaultOAuth2TokenKeyService implements OAuth2TokenKeyService {
 						.withResponseBody(bodyAsString)
 						.build();
 			}
+		} catch (OAuth2ServiceException e) {
+			throw e;
+		} catch (ConnectTimeoutException | ConnectException e) {
+			throw OAuth2ServiceException.builder("Error retrieving token keys: " + e.getMessage())
+					.withUri(tokenKeysEndpointUri)
+					.withCause(e)
+					.withConnectFailure()
+					.build();
 		} catch (IOException e) {
-			throw new OAuth2ServiceException("Error retrieving token keys: " + e.getMessage());
+			throw OAuth2ServiceException.builder("Error retrieving token keys: " + e.getMessage())
+					.withUri(tokenKeysEndpointUri)
+					.withCause(e)
+					.build();
 		}
 	}
 
+	@Nullable
+	static String getHeaderValue(HttpResponse response, String name) {
+		Header header = response.getFirstHeader(name);
+		return header != null ? header.getValue() : null;
+	}
+
 }
@@ -11,11 +11,13 @@ import com.sap.cloud.security.xsuaa.Assertions;
 import com.sap.cloud.security.xsuaa.http.HttpHeaders;
 import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
 import com.sap.cloud.security.xsuaa.util.HttpClientUtil;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.json.JSONObject;
@@ -25,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.util.AbstractMap;
 import java.util.List;
@@ -32,6 +35,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.*;
+import static org.apache.http.HttpHeaders.RETRY_AFTER;
 import static org.apache.http.HttpHeaders.USER_AGENT;
 
 public class DefaultOAuth2TokenService extends AbstractOAuth2TokenService {
@@ -73,6 +77,25 @@ public class DefaultOAuth2TokenService extends AbstractOAuth2TokenService {
 		this.httpClient = httpClient;
 	}
 
+	/**
+	 * Creates a token service, that retries failed token requests and optionally
+	 * sends hedged requests.
+	 *
+	 * @param httpClient
+	 *            the http client
+	 * @param tokenCacheConfiguration
+	 *            the cache configuration
+	 * @param resilienceConfiguration
+	 *            the retry and hedging configuration
+	 */
+	public DefaultOAuth2TokenService(@Nonnull CloseableHttpClient httpClient,
+			@Nonnull TokenCacheConfiguration tokenCacheConfiguration,
+			@Nonnull ResilienceConfiguration resilienceConfiguration) {
+		super(tokenCacheConfiguration, resilienceConfiguration);
+		Assertions.assertNotNull(httpClient, "http client is required");
+		this.httpClient = httpClient;
+	}
+
 	@Override
 	protected OAuth2TokenResponse requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
 			Map<String, String> parameters) throws OAuth2ServiceException {
@@ -97,6 +120,7 @@ public class DefaultOAuth2TokenService extends AbstractOAuth2TokenService {
 		httpPost.addHeader(USER_AGENT, HttpClientUtil.getUserAgent());
 		LOGGER.debug("Requesting access token from url {} with headers {}", httpPost.getURI(),
 				httpPost.getAllHeaders());
+		ResilientRequestExecutor.onAbort(httpPost::abort);
 		try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
 			int statusCode = response.getStatusLine().getStatusCode();
 			LOGGER.debug("Received statusCode {}", statusCode);
@@ -105,31 +129,37 @@ public class DefaultOAuth2TokenService extends AbstractOAuth2TokenService {
 			} else {
 				String responseBodyAsString = HttpClientUtil.extractResponseBodyAsString(response);
 				LOGGER.debug("Received response body: {}", responseBodyAsString);
+				Header retryAfter = response.getFirstHeader(RETRY_AFTER);
 				throw OAuth2ServiceException.builder("Error retrieving JWT token")
 						.withStatusCode(statusCode)
 						.withUri(httpPost.getURI())
 						.withResponseBody(responseBodyAsString)
+						.withRetryAfter(retryAfter != null ? retryAfter.getValue() : null)
 						.build();
 			}
 		} catch (OAuth2ServiceException e) {
 			throw e;
+		} catch (ConnectTimeoutException | ConnectException e) {
+			throw OAuth2ServiceException.builder("Unexpected error retrieving JWT token: " + e.getMessage())
+					.withCause(e)
+					.withConnectFailure()
+					.build();
 		} catch (IOException e) {
 			throw new OAuth2ServiceException("Unexpected error retrieving JWT token: " + e.getMessage());
 		}
 	}
 
 	private OAuth2TokenResponse handleResponse(HttpResponse response) throws IOException {
-		String responseBody = HttpClientUtil.extractResponseBodyAsString(response);
-		Map<String, Object> accessTokenMap = new JSONObject(responseBody).toMap();
-		return convertToOAuth2TokenResponse(accessTokenMap);
+		JSONObject accessTokenJson = HttpClientUtil.extractResponseBodyAsJson(response);
+		return convertToOAuth2TokenResponse(accessTokenJson);
 	}
 
-	private OAuth2TokenResponse convertToOAuth2TokenResponse(Map<String, Object> accessTokenMap)
+	private OAuth2TokenResponse convertToOAuth2TokenResponse(JSONObject accessTokenJson)
 			throws OAuth2ServiceException {
-		String accessToken = getParameter(accessTokenMap, ACCESS_TOKEN);
-		String refreshToken = getParameter(accessTokenMap, REFRESH_TOKEN);
-		String expiresIn = getParameter(accessTokenMap, EXPIRES_IN);
-		String tokenType = getParameter(accessTokenMap, TOKEN_TYPE);
+		String accessToken = getParameter(accessTokenJson, ACCESS_TOKEN);
+		String refreshToken = getParameter(accessTokenJson, REFRESH_TOKEN);
+		String expiresIn = getParameter(accessTokenJson, EXPIRES_IN);
+		String tokenType = getParameter(accessTokenJson, TOKEN_TYPE);
 		return new OAuth2TokenResponse(accessToken, convertExpiresInToLong(expiresIn),
 				refreshToken, tokenType);
 	}
@@ -143,8 +173,8 @@ public class DefaultOAuth2TokenService extends AbstractOAuth2TokenService {
 		}
 	}
 
-	private String getParameter(Map<String, Object> accessTokenMap, String key) {
-		return String.valueOf(accessTokenMap.get(key));
+	private String getParameter(JSONObject accessTokenJson, String key) {
+		return String.valueOf(accessTokenJson.opt(key));
 	}
 
 	private HttpPost createHttpPost(URI uri, HttpHeaders headers, Map<String, String> parameters)
@@ -9,16 +9,22 @@ import com.sap.cloud.security.client.HttpClientFactory;
 import com.sap.cloud.security.xsuaa.Assertions;
 import com.sap.cloud.security.xsuaa.util.HttpClientUtil;
 import com.sap.cloud.security.xsuaa.util.UriUtil;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 import org.json.JSONObject;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
+import java.time.Duration;
 
 import org.apache.http.HttpHeaders;
 
@@ -47,32 +53,58 @@ public class DefaultOidcConfigurationService implements OidcConfigurationService
 	@Override
 	public OAuth2ServiceEndpointsProvider retrieveEndpoints(@Nonnull URI discoveryEndpointUri)
 			throws OAuth2ServiceException {
+		return retrieveEndpoints(discoveryEndpointUri, null).getBody();
+	}
+
+	@Override
+	public ConditionalResponse<OAuth2ServiceEndpointsProvider> retrieveEndpoints(@Nonnull URI discoveryEndpointUri,
+			@Nullable String eTag) throws OAuth2ServiceException {
 		Assertions.assertNotNull(discoveryEndpointUri, "discoveryEndpointUri must not be null!");
 
 		HttpUriRequest request = new HttpGet(discoveryEndpointUri);
 		request.addHeader(HttpHeaders.USER_AGENT, HttpClientUtil.getUserAgent());
+		if (eTag != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+		}
 
 		try (CloseableHttpResponse response = httpClient.execute(request)) {
-			String bodyAsString = HttpClientUtil.extractResponseBodyAsString(response);
 			int statusCode = response.getStatusLine().getStatusCode();
-			return handleResponse(bodyAsString, statusCode, discoveryEndpointUri);
+			return handleResponse(response, statusCode, discoveryEndpointUri, eTag);
+		} catch (OAuth2ServiceException e) {
+			throw e;
+		} catch (ConnectTimeoutException | ConnectException e) {
+			throw OAuth2ServiceException.builder("Error retrieving configured oidc endpoints: " + e.getMessage())
+					.withUri(discoveryEndpointUri)
+					.withCause(e)
+					.withConnectFailure()
+					.build();
 		} catch (IOException e) {
 			throw OAuth2ServiceException.builder("Error retrieving configured oidc endpoints: " + e.getMessage())
 					.withUri(discoveryEndpointUri)
+					.withCause(e)
 					.build();
 		}
 	}
 
-	private OAuth2ServiceEndpointsProvider handleResponse(String bodyAsString, int statusCode,
-			URI discoveryEndpointUri)
-			throws OAuth2ServiceException {
+	private ConditionalResponse<OAuth2ServiceEndpointsProvider> handleResponse(HttpResponse response, int statusCode,
+			URI discoveryEndpointUri, @Nullable String eTag)
+			throws IOException {
+		String responseETag = DefaultOAuth2TokenKeyService.getHeaderValue(response, HttpHeaders.ETAG);
+		Duration maxAge = ConditionalResponse.parseMaxAge(
+				DefaultOAuth2TokenKeyService.getHeaderValue(response, HttpHeaders.CACHE_CONTROL));
+		if (statusCode == HttpStatus.SC_NOT_MODIFIED && eTag != null) {
+			EntityUtils.consumeQuietly(response.getEntity());
+			return ConditionalResponse.notModified(responseETag != null ? responseETag : eTag, maxAge);
+		}
 		if (statusCode == HttpStatus.SC_OK) {
-			return new OidcEndpointsProvider(bodyAsString);
+			OAuth2ServiceEndpointsProvider endpointsProvider = new OidcEndpointsProvider(
+					HttpClientUtil.extractResponseBodyAsJson(response));
+			return ConditionalResponse.modified(endpointsProvider, responseETag, maxAge);
 		} else {
 			throw OAuth2ServiceException.builder("Error retrieving configured oidc endpoints")
 					.withUri(discoveryEndpointUri)
 					.withStatusCode(statusCode)
-					.withResponseBody(bodyAsString)
+					.withResponseBody(HttpClientUtil.extractResponseBodyAsString(response))
 					.build();
 		}
 	}
@@ -85,7 +117,11 @@ public class DefaultOidcConfigurationService implements OidcConfigurationService
 		private JSONObject jsonObject;
 
 		OidcEndpointsProvider(String jsonString) {
-			jsonObject = new JSONObject(jsonString);
+			this(new JSONObject(jsonString));
+		}
+
+		OidcEndpointsProvider(JSONObject jsonObject) {
+			this.jsonObject = jsonObject;
 		}
 
 		@Override
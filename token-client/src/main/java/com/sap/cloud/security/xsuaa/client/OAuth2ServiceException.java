@@ -5,8 +5,14 @@
  */
 package com.sap.cloud.security.xsuaa.client;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -18,6 +24,8 @@ public class OAuth2ServiceException extends IOException {
 
 	private static final long serialVersionUID = 1L;
 	private Integer httpStatusCode = 0;
+	private Duration retryAfter;
+	private boolean connectFailure;
 
 	public OAuth2ServiceException(String message) {
 		super(message);
@@ -36,6 +44,13 @@ public class OAuth2ServiceException extends IOException {
 		this.httpStatusCode = httpStatusCode != null ? httpStatusCode : 0;
 	}
 
+	private OAuth2ServiceException(Builder builder, String message) {
+		super(message, builder.cause);
+		this.httpStatusCode = builder.httpStatusCode != null ? builder.httpStatusCode : 0;
+		this.retryAfter = builder.retryAfter;
+		this.connectFailure = builder.connectFailure;
+	}
+
 	/**
 	 * Creates an exception.
 	 *
@@ -56,12 +71,51 @@ public class OAuth2ServiceException extends IOException {
 		return httpStatusCode;
 	}
 
+	/**
+	 * Returns the time to wait before the request should be repeated, as
+	 * requested by the OAuth2 server with the {@code Retry-After} header.
+	 *
+	 * @return the retry after duration or null, if not given
+	 */
+	@Nullable
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+	/**
+	 * Returns true, if the failed request can be safely repeated. That is the case
+	 * for server errors, for status code 429 (too many requests) and when the
+	 * connection to the server could not be established.
+	 *
+	 * @return true, if the request can be retried
+	 */
+	public boolean isRetryable() {
+		int statusCode = httpStatusCode != null ? httpStatusCode : 0;
+		if (connectFailure || statusCode == 429) {
+			return true;
+		}
+		return statusCode >= 500 && statusCode != 501 && statusCode != 505;
+	}
+
+	/**
+	 * Returns true, if the connection to the server could not be established.
+	 * Then, the server has not received the request.
+	 *
+	 * @return true, if the request has not been sent
+	 */
+	boolean isConnectFailure() {
+		return connectFailure;
+	}
+
 	public static class Builder {
 		private String message;
 		private Integer httpStatusCode;
 		private URI serverUri;
 		private String responseBody;
 		private String headers;
+		private Duration retryAfter;
+		private Throwable cause;
+		private boolean connectFailure;
 
 		public Builder(String message) {
 			this.message = message;
@@ -98,13 +152,62 @@ public class OAuth2ServiceException extends IOException {
 			return this;
 		}
 
+		/**
+		 * Parameterizes the Exception with the value of the {@code Retry-After}
+		 * response header, which is either a number of seconds or a HTTP date.
+		 *
+		 * @param retryAfterHeader
+		 *            the header value, invalid values are ignored
+		 * @return the builder
+		 */
+		public Builder withRetryAfter(@Nullable String retryAfterHeader) {
+			this.retryAfter = parseRetryAfter(retryAfterHeader);
+			return this;
+		}
+
+		public Builder withCause(Throwable cause) {
+			this.cause = cause;
+			return this;
+		}
+
+		/**
+		 * Marks that the connection to the server could not be established, so the
+		 * request was not processed and can be retried.
+		 *
+		 * @return the builder
+		 */
+		public Builder withConnectFailure() {
+			this.connectFailure = true;
+			return this;
+		}
+
 		public OAuth2ServiceException build() {
 			String message = Stream
 					.of(this.message, createUriMessage(), createStatusCodeMessage(), createResponseBodyMessage(),
 							createHeaderMessage())
 					.filter(Objects::nonNull)
 					.collect(Collectors.joining(". "));
-			return new OAuth2ServiceException(message, httpStatusCode);
+			return new OAuth2ServiceException(this, message);
+		}
+
+		@Nullable
+		private static Duration parseRetryAfter(@Nullable String retryAfterHeader) {
+			if (retryAfterHeader == null || retryAfterHeader.trim().isEmpty()) {
+				return null;
+			}
+			String value = retryAfterHeader.trim();
+			try {
+				return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+			} catch (NumberFormatException e) {
+				// not delta-seconds, try HTTP date
+			}
+			try {
+				Instant retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+				Duration delay = Duration.between(Instant.now(), retryAt);
+				return delay.isNegative() ? Duration.ZERO : delay;
+			} catch (DateTimeParseException e) {
+				return null;
+			}
 		}
 
 		private String createResponseBodyMessage() {
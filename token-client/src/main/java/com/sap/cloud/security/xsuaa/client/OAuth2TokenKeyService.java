@@ -43,4 +43,28 @@ public interface OAuth2TokenKeyService {
 	 *             in case of an error during the http request.
 	 */
 	String retrieveTokenKeys(@Nonnull URI tokenKeysEndpointUri, @Nullable String zoneId) throws OAuth2ServiceException;
+
+	/**
+	 * Requests the token web key set from OAuth Server with a conditional GET
+	 * request: in case the key set still matches the given {@code ETag}, the
+	 * server responds with status code 304 and no body.
+	 *
+	 * @param tokenKeysEndpointUri
+	 *            the token endpoint URI (jku).
+	 * @param zoneId
+	 *            the zone uuid of the tenant.
+	 * @param eTag
+	 *            the {@code ETag} of the cached key set, sent as
+	 *            {@code If-None-Match} header, or null.
+	 * @return the response or null, if the implementation does not support
+	 *         conditional requests. In that case use
+	 *         {@link #retrieveTokenKeys(URI, String)}.
+	 * @throws OAuth2ServiceException
+	 *             in case of an error during the http request.
+	 */
+	@Nullable
+	default ConditionalResponse<String> retrieveTokenKeys(@Nonnull URI tokenKeysEndpointUri, @Nullable String zoneId,
+			@Nullable String eTag) throws OAuth2ServiceException {
+		return null;
+	}
 }
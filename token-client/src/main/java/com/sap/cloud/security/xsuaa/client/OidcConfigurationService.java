@@ -6,6 +6,7 @@
 package com.sap.cloud.security.xsuaa.client;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.net.URI;
 
@@ -24,4 +25,26 @@ public interface OidcConfigurationService {
 	 */
 	OAuth2ServiceEndpointsProvider retrieveEndpoints(@Nonnull URI discoveryEndpointUri) throws OAuth2ServiceException;
 
+	/**
+	 * Requests an OpenID Provider Configuration Document from OAuth Server with a
+	 * conditional GET request: in case the document still matches the given
+	 * {@code ETag}, the server responds with status code 304 and no body.
+	 *
+	 * @param discoveryEndpointUri
+	 *            the discovery endpoint URI.
+	 * @param eTag
+	 *            the {@code ETag} of the cached document, sent as
+	 *            {@code If-None-Match} header, or null.
+	 * @return the response or null, if the implementation does not support
+	 *         conditional requests. In that case use
+	 *         {@link #retrieveEndpoints(URI)}.
+	 * @throws OAuth2ServiceException
+	 *             in case of an error during the http request.
+	 */
+	@Nullable
+	default ConditionalResponse<OAuth2ServiceEndpointsProvider> retrieveEndpoints(@Nonnull URI discoveryEndpointUri,
+			@Nullable String eTag) throws OAuth2ServiceException {
+		return null;
+	}
+
 }
@@ -0,0 +1,144 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link OAuth2TokenService} for reactive
+ * applications, e.g. based on Spring WebFlux. Requires
+ * {@code io.projectreactor:reactor-core} on the classpath.
+ * <p>
+ * The returned {@link Mono} is lazy: the token is requested on subscription.
+ * Failed requests are signaled with an {@link OAuth2ServiceException}.
+ */
+public interface ReactiveOAuth2TokenService {
+
+	/**
+	 * Requests access token from OAuth Server with client credentials.
+	 *
+	 * @param tokenEndpointUri
+	 *            the token endpoint URI.
+	 * @param clientIdentity
+	 *            the client identity of the OAuth client, the recipient of the
+	 *            token.
+	 * @param zoneId
+	 *            Zone identifier - tenant discriminator
+	 * @param subdomain
+	 *            optionally indicates what Identity Zone this request goes to by
+	 *            supplying a subdomain (tenant).
+	 * @param optionalParameters
+	 *            optional request parameters, can be null.
+	 * @param disableCacheForRequest
+	 *            set to true to disable caching for request.
+	 * @return the access token response.
+	 */
+	Mono<OAuth2TokenResponse> retrieveAccessTokenViaClientCredentialsGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nullable String zoneId, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters, boolean disableCacheForRequest);
+
+	/**
+	 * Requests access token from OAuth Server with refresh-token.
+	 *
+	 * @param tokenEndpointUri
+	 *            the token endpoint URI.
+	 * @param clientIdentity
+	 *            the client identity of the OAuth client, the recipient of the
+	 *            token.
+	 * @param refreshToken
+	 *            the refresh token that was returned along with the access token
+	 *            {link #OAuth2AccessToken}.
+	 * @param subdomain
+	 *            optionally indicates what Identity Zone this request goes to by
+	 *            supplying a subdomain (tenant).
+	 * @param disableCacheForRequest
+	 *            set to true to disable caching for request.
+	 * @return the access token response.
+	 */
+	Mono<OAuth2TokenResponse> retrieveAccessTokenViaRefreshToken(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String refreshToken, @Nullable String subdomain,
+			boolean disableCacheForRequest);
+
+	/**
+	 * Requests access token from OAuth Server with user / password.
+	 *
+	 * @param tokenEndpointUri
+	 *            the token endpoint URI.
+	 * @param clientIdentity
+	 *            the client identity of the OAuth client, the recipient of the
+	 *            token.
+	 * @param username
+	 *            the username for the user trying to get a token
+	 * @param password
+	 *            the password for the user trying to get a token
+	 * @param subdomain
+	 *            optionally indicates what Identity Zone this request goes to by
+	 *            supplying a subdomain (tenant).
+	 * @param optionalParameters
+	 *            optional request parameters, can be null.
+	 * @param disableCacheForRequest
+	 *            set to true to disable caching for request.
+	 * @return the access token response.
+	 */
+	Mono<OAuth2TokenResponse> retrieveAccessTokenViaPasswordGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String username, @Nonnull String password,
+			@Nullable String subdomain, @Nullable Map<String, String> optionalParameters,
+			boolean disableCacheForRequest);
+
+	/**
+	 * Requests access token from OAuth Server with the JWT bearer grant type.
+	 *
+	 * @param tokenEndpointUri
+	 *            the token endpoint URI.
+	 * @param clientIdentity
+	 *            the client identity of the OAuth client, the recipient of the
+	 *            token.
+	 * @param token
+	 *            the JWT token identifying representing the user to be
+	 *            authenticated
+	 * @param subdomain
+	 *            optionally indicates what Identity Zone this request goes to by
+	 *            supplying a subdomain (tenant).
+	 * @param optionalParameters
+	 *            optional request parameters, can be null.
+	 * @param disableCacheForRequest
+	 *            set to true to disable caching for request.
+	 * @return the access token response.
+	 */
+	Mono<OAuth2TokenResponse> retrieveAccessTokenViaJwtBearerTokenGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String token, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters, boolean disableCacheForRequest);
+
+	/**
+	 * Requests access token from OAuth Server with the JWT bearer grant type for
+	 * the tenant with the given zone id.
+	 *
+	 * @param tokenEndpointUri
+	 *            the token endpoint URI.
+	 * @param clientIdentity
+	 *            the client identity of the OAuth client, the recipient of the
+	 *            token.
+	 * @param token
+	 *            the JWT token identifying representing the user to be
+	 *            authenticated
+	 * @param optionalParameters
+	 *            optional request parameters, can be null.
+	 * @param disableCacheForRequest
+	 *            set to true to disable caching for request.
+	 * @param zoneId
+	 *            Zone identifier - tenant discriminator
+	 * @return the access token response.
+	 */
+	Mono<OAuth2TokenResponse> retrieveAccessTokenViaJwtBearerTokenGrant(@Nonnull URI tokenEndpointUri,
+			@Nonnull ClientIdentity clientIdentity, @Nonnull String token,
+			@Nullable Map<String, String> optionalParameters, boolean disableCacheForRequest, @Nonnull String zoneId);
+}
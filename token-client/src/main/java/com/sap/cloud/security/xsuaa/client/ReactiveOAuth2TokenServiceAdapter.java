@@ -0,0 +1,73 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.sap.cloud.security.xsuaa.http.HttpHeaders;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.util.Map;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+/**
+ * {@link ReactiveOAuth2TokenService} that sends the token requests with the
+ * HTTP client of an {@link AbstractOAuth2TokenService}, e.g.
+ * {@link XsuaaOAuth2TokenService} or {@link DefaultOAuth2TokenService}. As
+ * these HTTP clients are blocking, the requests are executed on a
+ * {@link Scheduler} for blocking tasks, by default
+ * {@link Schedulers#boundedElastic()}.
+ * <p>
+ * Tokens served from the cache and subscriptions, that join a pending request,
+ * don't switch threads. Only the requests to the token endpoint do. The cache
+ * of the given token service is not used.
+ *
+ * <pre>
+ * {@code
+ * ReactiveOAuth2TokenService tokenService = new ReactiveOAuth2TokenServiceAdapter(
+ * 		new XsuaaOAuth2TokenService(restOperations));
+ * }
+ * </pre>
+ */
+public class ReactiveOAuth2TokenServiceAdapter extends AbstractReactiveOAuth2TokenService {
+
+	private final AbstractOAuth2TokenService tokenService;
+	private final Scheduler scheduler;
+
+	public ReactiveOAuth2TokenServiceAdapter(@Nonnull AbstractOAuth2TokenService tokenService) {
+		this(tokenService, TokenCacheConfiguration.defaultConfiguration(), Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Creates an instance with a custom cache configuration and scheduler.
+	 *
+	 * @param tokenService
+	 *            the token service, whose HTTP client sends the token requests
+	 * @param tokenCacheConfiguration
+	 *            the cache configuration used to configure the cache
+	 * @param scheduler
+	 *            the scheduler the blocking token requests are executed on
+	 */
+	public ReactiveOAuth2TokenServiceAdapter(@Nonnull AbstractOAuth2TokenService tokenService,
+			@Nonnull TokenCacheConfiguration tokenCacheConfiguration, @Nonnull Scheduler scheduler) {
+		super(tokenCacheConfiguration);
+		assertNotNull(tokenService, "tokenService is required");
+		assertNotNull(scheduler, "scheduler is required");
+		this.tokenService = tokenService;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	protected Mono<OAuth2TokenResponse> requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
+			Map<String, String> parameters) {
+		return Mono.fromCallable(() -> tokenService.requestAccessToken(tokenEndpointUri, headers, parameters))
+				.subscribeOn(scheduler);
+	}
+}
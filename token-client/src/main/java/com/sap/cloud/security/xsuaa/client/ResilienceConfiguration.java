@@ -0,0 +1,316 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.sap.cloud.security.xsuaa.Assertions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.GRANT_TYPE_CLIENT_CREDENTIALS;
+
+/**
+ * Configures retries and hedged requests of the token requests sent by
+ * {@link AbstractOAuth2TokenService} implementations. Use {@link #builder()} to
+ * create a configuration.
+ * <p>
+ * Failed token requests are retried with exponential backoff and full jitter,
+ * if the failure is retryable (see {@link OAuth2ServiceException#isRetryable()}).
+ * A {@code Retry-After} response header is respected as lower bound of the
+ * backoff, requests are not retried when it exceeds
+ * {@link #getMaxBackoff()}. Retries are limited by a retry budget, that is
+ * shared by all requests of the token service: each request earns
+ * {@link #getRetryBudgetRatio()} retries, up to
+ * {@link #getRetryBudgetCapacity()}. This prevents retry storms, when the
+ * identity service is overloaded.
+ * <p>
+ * With hedging enabled, a second request is sent, if the first one didn't
+ * complete within the {@link #getHedgingPercentile()} of the recently observed
+ * response times (or {@link #getHedgingDelay()} as long as there are too few
+ * observations). The response that arrives first is used. Hedged requests are
+ * paid from the retry budget, too.
+ * <p>
+ * Token requests of most grant types are not idempotent, e.g. a refresh token
+ * may be revoked with its first use. Hence, only requests of the
+ * {@link #getIdempotentGrantTypes()} are hedged and retried after they may
+ * have reached the server. Requests of other grant types are retried only,
+ * when the connection to the server could not be established.
+ *
+ * <pre>
+ * {@code
+ * OAuth2TokenService tokenService = new DefaultOAuth2TokenService(httpClient,
+ * 		TokenCacheConfiguration.defaultConfiguration(),
+ * 		ResilienceConfiguration.builder()
+ * 				.maxRetries(2)
+ * 				.hedging(true)
+ * 				.build());
+ * }
+ * </pre>
+ */
+public class ResilienceConfiguration {
+
+	private final int maxRetries;
+	private final Duration initialBackoff;
+	private final Duration maxBackoff;
+	private final double retryBudgetRatio;
+	private final int retryBudgetCapacity;
+	private final boolean hedging;
+	private final double hedgingPercentile;
+	private final Duration hedgingDelay;
+	private final Set<String> idempotentGrantTypes;
+	@Nullable
+	private final Executor executor;
+
+	private ResilienceConfiguration(Builder builder) {
+		this.maxRetries = builder.maxRetries;
+		this.initialBackoff = builder.initialBackoff;
+		this.maxBackoff = builder.maxBackoff;
+		this.retryBudgetRatio = builder.retryBudgetRatio;
+		this.retryBudgetCapacity = builder.retryBudgetCapacity;
+		this.hedging = builder.hedging;
+		this.hedgingPercentile = builder.hedgingPercentile;
+		this.hedgingDelay = builder.hedgingDelay;
+		this.idempotentGrantTypes = Collections.unmodifiableSet(new LinkedHashSet<>(builder.idempotentGrantTypes));
+		this.executor = builder.executor;
+	}
+
+	/**
+	 * @return a builder initialized with the default values: 2 retries, backoff
+	 *         between 100 ms and 2 s, a retry budget of 10% with capacity 10,
+	 *         hedging disabled and client credentials as only idempotent grant
+	 *         type.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the maximum number of retries per token request.
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * @return the backoff before the first retry, it doubles with each retry.
+	 */
+	public Duration getInitialBackoff() {
+		return initialBackoff;
+	}
+
+	/**
+	 * @return the maximum backoff between two attempts.
+	 */
+	public Duration getMaxBackoff() {
+		return maxBackoff;
+	}
+
+	/**
+	 * @return the number of retries, each token request adds to the retry
+	 *         budget.
+	 */
+	public double getRetryBudgetRatio() {
+		return retryBudgetRatio;
+	}
+
+	/**
+	 * @return the maximum number of retries, the retry budget can hold.
+	 */
+	public int getRetryBudgetCapacity() {
+		return retryBudgetCapacity;
+	}
+
+	/**
+	 * @return true, if hedged requests are enabled.
+	 */
+	public boolean isHedging() {
+		return hedging;
+	}
+
+	/**
+	 * @return the percentile of the observed response times, after which a hedged
+	 *         request is sent.
+	 */
+	public double getHedgingPercentile() {
+		return hedgingPercentile;
+	}
+
+	/**
+	 * @return the delay, after which a hedged request is sent, as long as there
+	 *         are not enough observed response times.
+	 */
+	public Duration getHedgingDelay() {
+		return hedgingDelay;
+	}
+
+	/**
+	 * @return the grant types, whose token requests may be hedged and retried
+	 *         after they may have reached the server.
+	 */
+	public Set<String> getIdempotentGrantTypes() {
+		return idempotentGrantTypes;
+	}
+
+	/**
+	 * @return the executor hedged requests are executed with or null, if a
+	 *         default executor is used.
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	@Override
+	public String toString() {
+		return "ResilienceConfiguration{" +
+				"maxRetries=" + maxRetries +
+				", initialBackoff=" + initialBackoff +
+				", maxBackoff=" + maxBackoff +
+				", retryBudgetRatio=" + retryBudgetRatio +
+				", retryBudgetCapacity=" + retryBudgetCapacity +
+				", hedging=" + hedging +
+				", hedgingPercentile=" + hedgingPercentile +
+				", hedgingDelay=" + hedgingDelay +
+				", idempotentGrantTypes=" + idempotentGrantTypes +
+				'}';
+	}
+
+	public static class Builder {
+		private int maxRetries = 2;
+		private Duration initialBackoff = Duration.ofMillis(100);
+		private Duration maxBackoff = Duration.ofSeconds(2);
+		private double retryBudgetRatio = 0.1;
+		private int retryBudgetCapacity = 10;
+		private boolean hedging = false;
+		private double hedgingPercentile = 0.95;
+		private Duration hedgingDelay = Duration.ofMillis(500);
+		private Set<String> idempotentGrantTypes = Collections.singleton(GRANT_TYPE_CLIENT_CREDENTIALS);
+		private Executor executor;
+
+		private Builder() {
+			// use ResilienceConfiguration.builder()
+		}
+
+		public Builder maxRetries(int maxRetries) {
+			if (maxRetries < 0) {
+				throw new IllegalArgumentException("maxRetries must not be negative");
+			}
+			this.maxRetries = maxRetries;
+			return this;
+		}
+
+		public Builder initialBackoff(@Nonnull Duration initialBackoff) {
+			this.initialBackoff = checked(initialBackoff, "initialBackoff");
+			return this;
+		}
+
+		public Builder maxBackoff(@Nonnull Duration maxBackoff) {
+			this.maxBackoff = checked(maxBackoff, "maxBackoff");
+			return this;
+		}
+
+		/**
+		 * @param retryBudgetRatio
+		 *            the number of retries, each token request adds to the retry
+		 *            budget, e.g. 0.1 allows one retry per 10 requests
+		 * @return this builder
+		 */
+		public Builder retryBudgetRatio(double retryBudgetRatio) {
+			if (retryBudgetRatio < 0 || retryBudgetRatio > 1) {
+				throw new IllegalArgumentException("retryBudgetRatio must be between 0 and 1");
+			}
+			this.retryBudgetRatio = retryBudgetRatio;
+			return this;
+		}
+
+		/**
+		 * @param retryBudgetCapacity
+		 *            the maximum number of retries the retry budget can hold. The
+		 *            budget starts full.
+		 * @return this builder
+		 */
+		public Builder retryBudgetCapacity(int retryBudgetCapacity) {
+			if (retryBudgetCapacity < 0) {
+				throw new IllegalArgumentException("retryBudgetCapacity must not be negative");
+			}
+			this.retryBudgetCapacity = retryBudgetCapacity;
+			return this;
+		}
+
+		public Builder hedging(boolean hedging) {
+			this.hedging = hedging;
+			return this;
+		}
+
+		/**
+		 * @param hedgingPercentile
+		 *            the percentile of the observed response times, e.g. 0.95,
+		 *            after which a hedged request is sent
+		 * @return this builder
+		 */
+		public Builder hedgingPercentile(double hedgingPercentile) {
+			if (hedgingPercentile <= 0 || hedgingPercentile > 1) {
+				throw new IllegalArgumentException("hedgingPercentile must be greater than 0 and at most 1");
+			}
+			this.hedgingPercentile = hedgingPercentile;
+			return this;
+		}
+
+		public Builder hedgingDelay(@Nonnull Duration hedgingDelay) {
+			this.hedgingDelay = checked(hedgingDelay, "hedgingDelay");
+			return this;
+		}
+
+		/**
+		 * @param grantTypes
+		 *            the grant types, whose token requests may be hedged and
+		 *            retried after they may have reached the server, e.g.
+		 *            {@link OAuth2TokenServiceConstants#GRANT_TYPE_CLIENT_CREDENTIALS}.
+		 *            Only add grant types, for which the authorization server
+		 *            handles repeated requests gracefully.
+		 * @return this builder
+		 */
+		public Builder idempotentGrantTypes(@Nonnull String... grantTypes) {
+			Assertions.assertNotNull(grantTypes, "grantTypes must not be null");
+			this.idempotentGrantTypes = new LinkedHashSet<>(Arrays.asList(grantTypes));
+			return this;
+		}
+
+		/**
+		 * @param executor
+		 *            the executor hedged requests are executed with. By default a
+		 *            shared, bounded pool of daemon threads is used. Requests are
+		 *            sent without hedging, when the executor rejects them.
+		 * @return this builder
+		 */
+		public Builder executor(@Nonnull Executor executor) {
+			Assertions.assertNotNull(executor, "executor must not be null");
+			this.executor = executor;
+			return this;
+		}
+
+		public ResilienceConfiguration build() {
+			if (maxBackoff.compareTo(initialBackoff) < 0) {
+				throw new IllegalArgumentException("maxBackoff must not be smaller than initialBackoff");
+			}
+			return new ResilienceConfiguration(this);
+		}
+
+		private static Duration checked(Duration duration, String name) {
+			Assertions.assertNotNull(duration, name + " must not be null");
+			if (duration.isNegative() || duration.isZero()) {
+				throw new IllegalArgumentException(name + " must be positive");
+			}
+			return duration;
+		}
+	}
+}
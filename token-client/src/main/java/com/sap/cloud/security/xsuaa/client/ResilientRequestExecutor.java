@@ -0,0 +1,345 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Executes token requests with retries and hedging as configured with
+ * {@link ResilienceConfiguration}. Requests of grant types, that are not
+ * idempotent, are neither hedged nor retried after they may have reached the
+ * server.
+ */
+class ResilientRequestExecutor {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResilientRequestExecutor.class);
+	private static final ThreadLocal<Attempt> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+	private final ResilienceConfiguration configuration;
+	private final RetryBudget retryBudget;
+	private final LatencyTracker latencyTracker = new LatencyTracker();
+	private final Executor executor;
+	private final Sleeper sleeper;
+
+	ResilientRequestExecutor(ResilienceConfiguration configuration) {
+		this(configuration, Thread::sleep);
+	}
+
+	/**
+	 * Used for testing.
+	 *
+	 * @param configuration
+	 *            the resilience configuration
+	 * @param sleeper
+	 *            waits for the backoff between two attempts
+	 */
+	ResilientRequestExecutor(ResilienceConfiguration configuration, Sleeper sleeper) {
+		this.configuration = configuration;
+		this.retryBudget = new RetryBudget(configuration.getRetryBudgetRatio(),
+				configuration.getRetryBudgetCapacity());
+		this.executor = configuration.getExecutor() != null ? configuration.getExecutor()
+				: DefaultExecutorHolder.EXECUTOR;
+		this.sleeper = sleeper;
+	}
+
+	/**
+	 * Executes the token request.
+	 *
+	 * @param grantType
+	 *            the grant type of the token request, determines whether the
+	 *            request is idempotent
+	 * @param request
+	 *            sends the token request
+	 * @return the token response
+	 * @throws OAuth2ServiceException
+	 *             in case the request and its retries failed
+	 */
+	OAuth2TokenResponse execute(@Nullable String grantType, TokenRequest request) throws OAuth2ServiceException {
+		boolean idempotent = configuration.getIdempotentGrantTypes().contains(grantType);
+		retryBudget.onRequest();
+		OAuth2ServiceException previousFailure = null;
+		for (int attempt = 0;; attempt++) {
+			try {
+				return configuration.isHedging() && idempotent ? executeHedged(request) : executeTimed(request);
+			} catch (OAuth2ServiceException e) {
+				if (previousFailure != null) {
+					e.addSuppressed(previousFailure);
+				}
+				previousFailure = e;
+				Duration backoff = attempt < configuration.getMaxRetries() ? backoff(attempt, e, idempotent) : null;
+				if (backoff == null || !retryBudget.tryAcquire()) {
+					throw e;
+				}
+				LOGGER.debug("Retrying token request in {} ms after failed attempt {}: {}", backoff.toMillis(),
+						attempt + 1, e.getMessage());
+				try {
+					sleeper.sleep(backoff.toMillis());
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	RetryBudget getRetryBudget() {
+		return retryBudget;
+	}
+
+	/**
+	 * Registers an action, that aborts the HTTP request of the current hedged
+	 * attempt, when the other attempt has won. Without, the losing attempt is
+	 * only interrupted, which doesn't stop blocking I/O.
+	 *
+	 * @param abortAction
+	 *            aborts the HTTP request, e.g. {@code httpPost::abort}
+	 */
+	static void onAbort(Runnable abortAction) {
+		Attempt attempt = CURRENT_ATTEMPT.get();
+		if (attempt != null) {
+			attempt.onAbort(abortAction);
+		}
+	}
+
+	/**
+	 * Determines the backoff with full jitter, that respects the
+	 * {@code Retry-After} header of the response.
+	 *
+	 * @return the backoff or null, if the request must not be retried
+	 */
+	@Nullable
+	private Duration backoff(int attempt, OAuth2ServiceException e, boolean idempotent) {
+		if (!e.isRetryable() || !idempotent && !e.isConnectFailure()) {
+			return null;
+		}
+		long maxBackoff = configuration.getMaxBackoff().toMillis();
+		long exponentialBackoff = Math.min(maxBackoff, configuration.getInitialBackoff().toMillis() << attempt);
+		long backoff = ThreadLocalRandom.current().nextLong(exponentialBackoff + 1);
+		Duration retryAfter = e.getRetryAfter();
+		if (retryAfter != null) {
+			if (retryAfter.toMillis() > maxBackoff) {
+				return null;
+			}
+			backoff = Math.max(backoff, retryAfter.toMillis());
+		}
+		return Duration.ofMillis(backoff);
+	}
+
+	private OAuth2TokenResponse executeTimed(TokenRequest request) throws OAuth2ServiceException {
+		long start = System.nanoTime();
+		OAuth2TokenResponse response = request.execute();
+		latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return response;
+	}
+
+	/**
+	 * Sends a second request, in case the first one didn't complete within the
+	 * hedging delay, and returns the first successful response. The request of
+	 * the losing attempt is aborted. In case the executor is exhausted, the
+	 * request is sent without hedging.
+	 */
+	private OAuth2TokenResponse executeHedged(TokenRequest request) throws OAuth2ServiceException {
+		CompletionService<OAuth2TokenResponse> completionService = new ExecutorCompletionService<>(executor);
+		List<Future<OAuth2TokenResponse>> futures = new ArrayList<>(2);
+		List<Attempt> attempts = new ArrayList<>(2);
+		Map<String, String> mdc = MDC.getCopyOfContextMap();
+		try {
+			Attempt first = new Attempt();
+			try {
+				futures.add(completionService.submit(task(request, first, mdc)));
+			} catch (RejectedExecutionException e) {
+				LOGGER.debug("Hedging executor is exhausted, sending token request without hedging");
+				return executeTimed(request);
+			}
+			attempts.add(first);
+			long hedgingDelay = hedgingDelay();
+			Future<OAuth2TokenResponse> completed = completionService.poll(hedgingDelay, TimeUnit.MILLISECONDS);
+			if (completed == null) {
+				if (retryBudget.tryAcquire()) {
+					LOGGER.debug("Token request didn't complete within {} ms, sending hedged request", hedgingDelay);
+					submitHedged(completionService, request, mdc, futures, attempts);
+				}
+				completed = completionService.take();
+			}
+			try {
+				return completed.get();
+			} catch (ExecutionException e) {
+				if (futures.size() == 1) {
+					throw unwrap(e);
+				}
+				OAuth2ServiceException firstFailure = unwrap(e);
+				try {
+					return completionService.take().get();
+				} catch (ExecutionException second) {
+					OAuth2ServiceException secondFailure = unwrap(second);
+					secondFailure.addSuppressed(firstFailure);
+					throw secondFailure;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OAuth2ServiceException("Interrupted while requesting access token");
+		} finally {
+			for (int i = 0; i < futures.size(); i++) {
+				if (!futures.get(i).isDone()) {
+					attempts.get(i).abort();
+					futures.get(i).cancel(true);
+				}
+			}
+		}
+	}
+
+	private void submitHedged(CompletionService<OAuth2TokenResponse> completionService, TokenRequest request,
+			@Nullable Map<String, String> mdc, List<Future<OAuth2TokenResponse>> futures, List<Attempt> attempts) {
+		Attempt hedged = new Attempt();
+		try {
+			futures.add(completionService.submit(task(request, hedged, mdc)));
+			attempts.add(hedged);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Hedging executor is exhausted, waiting for the first token request");
+		}
+	}
+
+	private Callable<OAuth2TokenResponse> task(TokenRequest request, Attempt attempt,
+			@Nullable Map<String, String> mdc) {
+		return () -> {
+			Map<String, String> previous = MDC.getCopyOfContextMap();
+			setMdc(mdc);
+			CURRENT_ATTEMPT.set(attempt);
+			try {
+				return executeTimed(request);
+			} finally {
+				CURRENT_ATTEMPT.remove();
+				setMdc(previous);
+			}
+		};
+	}
+
+	private long hedgingDelay() {
+		Long percentile = latencyTracker.percentile(configuration.getHedgingPercentile());
+		return percentile != null ? Math.max(1, percentile) : configuration.getHedgingDelay().toMillis();
+	}
+
+	private static OAuth2ServiceException unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof OAuth2ServiceException) {
+			return (OAuth2ServiceException) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return OAuth2ServiceException.builder("Unexpected error retrieving JWT token: " + cause.getMessage())
+				.withCause(cause)
+				.build();
+	}
+
+	private static void setMdc(@Nullable Map<String, String> contextMap) {
+		if (contextMap != null) {
+			MDC.setContextMap(contextMap);
+		} else {
+			MDC.clear();
+		}
+	}
+
+	@FunctionalInterface
+	interface TokenRequest {
+		OAuth2TokenResponse execute() throws OAuth2ServiceException;
+	}
+
+	@FunctionalInterface
+	interface Sleeper {
+		void sleep(long millis) throws InterruptedException;
+	}
+
+	/**
+	 * Keeps the response times of the latest successful requests.
+	 */
+	static class LatencyTracker {
+		static final int SIZE = 128;
+		static final int MIN_SAMPLES = 20;
+		private final AtomicLongArray latencies = new AtomicLongArray(SIZE);
+		private final AtomicInteger position = new AtomicInteger();
+		private final AtomicInteger count = new AtomicInteger();
+
+		void record(long millis) {
+			latencies.set(Math.floorMod(position.getAndIncrement(), SIZE), millis);
+			count.updateAndGet(samples -> Math.min(SIZE, samples + 1));
+		}
+
+		@Nullable
+		Long percentile(double percentile) {
+			int samples = count.get();
+			if (samples < MIN_SAMPLES) {
+				return null;
+			}
+			long[] sorted = new long[samples];
+			for (int i = 0; i < samples; i++) {
+				sorted[i] = latencies.get(i);
+			}
+			Arrays.sort(sorted);
+			return sorted[Math.max(0, (int) Math.ceil(percentile * samples) - 1)];
+		}
+	}
+
+	/**
+	 * One attempt of a hedged token request, that can be aborted by the other
+	 * attempt.
+	 */
+	private static class Attempt {
+		private Runnable abortAction;
+		private boolean aborted;
+
+		void onAbort(Runnable abortAction) {
+			synchronized (this) {
+				if (!aborted) {
+					this.abortAction = abortAction;
+					return;
+				}
+			}
+			abortAction.run();
+		}
+
+		void abort() {
+			Runnable action;
+			synchronized (this) {
+				aborted = true;
+				action = abortAction;
+				abortAction = null;
+			}
+			if (action != null) {
+				action.run();
+			}
+		}
+	}
+
+	/**
+	 * Bounds the threads, that send hedged requests, as each blocks on a token
+	 * request. Excess requests are rejected and sent without hedging.
+	 */
+	private static class DefaultExecutorHolder {
+		static final int MAX_THREADS = 32;
+		static final Executor EXECUTOR = new ThreadPoolExecutor(0, MAX_THREADS, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "token-request-hedging");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+/**
+ * Token bucket, that limits the number of retries in relation to the number of
+ * requests. Each request deposits a fraction of a retry, each retry withdraws a
+ * whole one. The bucket starts full.
+ */
+class RetryBudget {
+
+	private final double ratio;
+	private final double capacity;
+	private double balance;
+
+	RetryBudget(double ratio, int capacity) {
+		this.ratio = ratio;
+		this.capacity = capacity;
+		this.balance = capacity;
+	}
+
+	synchronized void onRequest() {
+		balance = Math.min(capacity, balance + ratio);
+	}
+
+	synchronized boolean tryAcquire() {
+		if (balance < 1) {
+			return false;
+		}
+		balance--;
+		return true;
+	}
+
+	synchronized double getBalance() {
+		return balance;
+	}
+}
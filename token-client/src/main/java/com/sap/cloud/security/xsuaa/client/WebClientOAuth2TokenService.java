@@ -0,0 +1,113 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.sap.cloud.security.servlet.MDCHelper;
+import com.sap.cloud.security.xsuaa.http.HttpHeaders;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
+import com.sap.cloud.security.xsuaa.util.HttpClientUtil;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.util.Map;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.*;
+
+/**
+ * Non-blocking implementation for Spring WebFlux applications, that uses a
+ * {@link WebClient}. The {@link WebClient} must be configured with the client
+ * certificate, in case of certificate based authentication.
+ */
+public class WebClientOAuth2TokenService extends AbstractReactiveOAuth2TokenService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WebClientOAuth2TokenService.class);
+	private final WebClient webClient;
+
+	public WebClientOAuth2TokenService(@Nonnull WebClient webClient) {
+		this(webClient, TokenCacheConfiguration.defaultConfiguration());
+	}
+
+	public WebClientOAuth2TokenService(@Nonnull WebClient webClient,
+			@Nonnull TokenCacheConfiguration tokenCacheConfiguration) {
+		super(tokenCacheConfiguration);
+		assertNotNull(webClient, "webClient is required");
+		this.webClient = webClient;
+	}
+
+	@Override
+	protected Mono<OAuth2TokenResponse> requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
+			Map<String, String> parameters) {
+		MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+		parameters.forEach(formData::add);
+		LOGGER.debug("Requesting access token from url='{}' and headers={}", tokenEndpointUri, headers);
+		return webClient.post()
+				.uri(tokenEndpointUri)
+				.headers(springHeaders -> {
+					headers.getHeaders().forEach(h -> springHeaders.add(h.getName(), h.getValue()));
+					springHeaders.add(MDCHelper.CORRELATION_HEADER, MDCHelper.getOrCreateCorrelationId());
+					springHeaders.add(org.springframework.http.HttpHeaders.USER_AGENT, HttpClientUtil.getUserAgent());
+				})
+				.accept(MediaType.APPLICATION_JSON)
+				.body(BodyInserters.fromFormData(formData))
+				.retrieve()
+				.bodyToMono(String.class)
+				.switchIfEmpty(Mono.error(() -> new OAuth2ServiceException(
+						"Error retrieving JWT token. Received empty response from XSUAA")))
+				.flatMap(WebClientOAuth2TokenService::convertToOAuth2TokenResponse)
+				.onErrorMap(WebClientResponseException.class, WebClientOAuth2TokenService::createException)
+				.onErrorMap(WebClientRequestException.class,
+						ex -> OAuth2ServiceException.builder(String.format(
+								"Error while obtaining access token from XSUAA (%s): %s", tokenEndpointUri,
+								ex.getMostSpecificCause().getMessage()))
+								.withCause(ex)
+								.build());
+	}
+
+	private static Mono<OAuth2TokenResponse> convertToOAuth2TokenResponse(String responseBody) {
+		try {
+			JSONObject accessTokenJson = new JSONObject(responseBody);
+			String expiresIn = String.valueOf(accessTokenJson.opt(EXPIRES_IN));
+			return Mono.just(new OAuth2TokenResponse(accessTokenJson.optString(ACCESS_TOKEN, null),
+					Long.parseLong(expiresIn), accessTokenJson.optString(REFRESH_TOKEN, null),
+					accessTokenJson.optString(TOKEN_TYPE, null)));
+		} catch (JSONException | NumberFormatException e) {
+			return Mono.error(OAuth2ServiceException
+					.builder("Error retrieving JWT token. Cannot parse response from XSUAA: " + e.getMessage())
+					.withCause(e)
+					.build());
+		}
+	}
+
+	private static OAuth2ServiceException createException(WebClientResponseException ex) {
+		String message;
+		if (ex.getStatusCode().is5xxServerError()) {
+			message = String.format("Server error while obtaining access token from XSUAA (%s): %s",
+					ex.getStatusCode(), ex.getResponseBodyAsString());
+			LOGGER.error(message, ex);
+		} else {
+			message = String.format(
+					"Error retrieving JWT token. Received status code %s. Call to XSUAA was not successful: %s",
+					ex.getStatusCode(), ex.getResponseBodyAsString());
+		}
+		return OAuth2ServiceException.builder(message)
+				.withStatusCode(ex.getRawStatusCode())
+				.withRetryAfter(ex.getHeaders().getFirst(org.springframework.http.HttpHeaders.RETRY_AFTER))
+				.build();
+	}
+}
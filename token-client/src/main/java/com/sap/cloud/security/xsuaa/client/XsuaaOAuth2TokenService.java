@@ -64,6 +64,26 @@ public class XsuaaOAuth2TokenService extends AbstractOAuth2TokenService {
 		this.restOperations = restOperations;
 	}
 
+	/**
+	 * Creates a token service, that retries failed token requests and optionally
+	 * sends hedged requests. The {@link RestOperations} can't abort a losing
+	 * hedged request, its thread is interrupted instead.
+	 *
+	 * @param restOperations
+	 *            the rest client
+	 * @param tokenCacheConfiguration
+	 *            the cache configuration
+	 * @param resilienceConfiguration
+	 *            the retry and hedging configuration
+	 */
+	public XsuaaOAuth2TokenService(@Nonnull RestOperations restOperations,
+			@Nonnull TokenCacheConfiguration tokenCacheConfiguration,
+			@Nonnull ResilienceConfiguration resilienceConfiguration) {
+		super(tokenCacheConfiguration, resilienceConfiguration);
+		assertNotNull(restOperations, "restOperations is required");
+		this.restOperations = restOperations;
+	}
+
 	@Override
 	protected OAuth2TokenResponse requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
 			Map<String, String> parameters) throws OAuth2ServiceException {
@@ -87,12 +107,12 @@ public class XsuaaOAuth2TokenService extends AbstractOAuth2TokenService {
 			String warningMsg = String.format(
 					"Error retrieving JWT token. Received status code %s. Call to XSUAA was not successful: %s",
 					ex.getStatusCode(), ex.getResponseBodyAsString());
-			throw new OAuth2ServiceException(warningMsg);
+			throw createException(warningMsg, ex);
 		} catch (HttpServerErrorException ex) {
 			String warningMsg = String.format("Server error while obtaining access token from XSUAA (%s): %s",
 					ex.getStatusCode(), ex.getResponseBodyAsString());
 			LOGGER.error(warningMsg, ex);
-			throw new OAuth2ServiceException(warningMsg);
+			throw createException(warningMsg, ex);
 		} catch (ResourceAccessException ex) {
 			String warningMsg = String.format(
 					"RestClient isn't configured properly - Error while obtaining access token from XSUAA (%s): %s",
@@ -112,6 +132,16 @@ public class XsuaaOAuth2TokenService extends AbstractOAuth2TokenService {
 		return new OAuth2TokenResponse(accessToken, expiresIn, refreshToken, tokenType);
 	}
 
+	private static OAuth2ServiceException createException(String message, HttpStatusCodeException ex) {
+		org.springframework.http.HttpHeaders responseHeaders = ex.getResponseHeaders();
+		return OAuth2ServiceException.builder(message)
+				.withStatusCode(ex.getRawStatusCode())
+				.withRetryAfter(responseHeaders != null
+						? responseHeaders.getFirst(org.springframework.http.HttpHeaders.RETRY_AFTER)
+						: null)
+				.build();
+	}
+
 	/**
 	 * Creates a copy of the given map or an new empty map of type MultiValueMap.
 	 *
@@ -0,0 +1,298 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.Assertions;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+/**
+ * A client credentials flow builder class that requests technical user tokens
+ * for many tenants at once. Applications retrieve an instance of this builder
+ * from {@link XsuaaTokenFlows} and then create the flow request using a
+ * builder pattern.
+ * <p>
+ * The requests are executed with bounded parallelism, via the
+ * {@link OAuth2TokenService} of the {@link XsuaaTokenFlows} instance. By that
+ * the token response cache and the connection pool of the underlying http
+ * client are shared with all other flows. The default parallelism does not
+ * exceed the default number of connections per route of the
+ * {@code DefaultHttpClientFactory}.
+ * <p>
+ * A failing request does not abort the batch, instead the failure is reported
+ * as {@link TokenFlowResult} of the affected tenant.
+ *
+ * <pre>
+ * {@code
+ * Map<String, TokenFlowResult> results = tokenFlows.bulkClientCredentialsTokenFlow()
+ * 		.subdomains(subdomains)
+ * 		.parallelism(8)
+ * 		.execute();
+ * }
+ * </pre>
+ */
+public class BulkClientCredentialsTokenFlow {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BulkClientCredentialsTokenFlow.class);
+	static final int DEFAULT_PARALLELISM = 4;
+
+	private final OAuth2TokenService tokenService;
+	private final OAuth2ServiceEndpointsProvider endpointsProvider;
+	private final ClientIdentity clientIdentity;
+	private final Set<String> subdomains = new LinkedHashSet<>();
+	private final Set<String> zoneIds = new LinkedHashSet<>();
+	private Map<String, String> attributes;
+	private String[] scopes = new String[0];
+	private boolean disableCache = false;
+	private int parallelism = DEFAULT_PARALLELISM;
+	private Executor executor;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param tokenService
+	 *            - the {@link OAuth2TokenService} used to execute the requests.
+	 * @param endpointsProvider
+	 *            - the endpoints provider
+	 * @param clientIdentity
+	 *            - the OAuth client identity
+	 */
+	BulkClientCredentialsTokenFlow(OAuth2TokenService tokenService, OAuth2ServiceEndpointsProvider endpointsProvider,
+			ClientIdentity clientIdentity) {
+		assertNotNull(tokenService, "OAuth2TokenService must not be null.");
+		assertNotNull(endpointsProvider, "OAuth2ServiceEndpointsProvider must not be null.");
+		assertNotNull(clientIdentity, "ClientIdentity must not be null.");
+
+		this.tokenService = tokenService;
+		this.endpointsProvider = endpointsProvider;
+		this.clientIdentity = clientIdentity;
+	}
+
+	/**
+	 * Adds the subdomains (tenants) a token is requested for. The subdomain is
+	 * used as key of the result map.
+	 *
+	 * @param subdomains
+	 *            - the subdomains.
+	 * @return this builder.
+	 */
+	public BulkClientCredentialsTokenFlow subdomains(@Nonnull Collection<String> subdomains) {
+		Assertions.assertNotNull(subdomains, "Subdomains must not be null!");
+		this.subdomains.addAll(subdomains);
+		return this;
+	}
+
+	/**
+	 * Adds the zone ids (tenants) a token is requested for. The zone id is used as
+	 * key of the result map, hence it must not equal one of the subdomains.
+	 *
+	 * @param zoneIds
+	 *            - the zone ids.
+	 * @return this builder.
+	 */
+	public BulkClientCredentialsTokenFlow zoneIds(@Nonnull Collection<String> zoneIds) {
+		Assertions.assertNotNull(zoneIds, "ZoneIds must not be null!");
+		this.zoneIds.addAll(zoneIds);
+		return this;
+	}
+
+	/**
+	 * Adds additional authorization attributes to each request.
+	 *
+	 * @param additionalAuthorizationAttributes
+	 *            - the additional attributes.
+	 * @return this builder.
+	 * @see ClientCredentialsTokenFlow#attributes(Map)
+	 */
+	public BulkClientCredentialsTokenFlow attributes(Map<String, String> additionalAuthorizationAttributes) {
+		this.attributes = additionalAuthorizationAttributes;
+		return this;
+	}
+
+	/**
+	 * Restricts the scopes of the created tokens.
+	 *
+	 * @param scopes
+	 *            - one or many scopes as string.
+	 * @return this builder.
+	 * @see ClientCredentialsTokenFlow#scopes(String...)
+	 */
+	public BulkClientCredentialsTokenFlow scopes(@Nonnull String... scopes) {
+		Assertions.assertNotNull(scopes, "Scopes must not be null!");
+		this.scopes = scopes;
+		return this;
+	}
+
+	/**
+	 * Can be used to disable the cache for the requests.
+	 *
+	 * @param disableCache
+	 *            - disables cache when set to {@code true}.
+	 * @return this builder.
+	 */
+	public BulkClientCredentialsTokenFlow disableCache(boolean disableCache) {
+		this.disableCache = disableCache;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of token requests that are executed concurrently.
+	 * Choose a value that does not exceed the maximum number of connections per
+	 * route of the configured http client. Default is
+	 * {@value #DEFAULT_PARALLELISM}.
+	 *
+	 * @param parallelism
+	 *            - the maximum number of concurrent requests, must be positive.
+	 * @return this builder.
+	 */
+	public BulkClientCredentialsTokenFlow parallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be greater than 0!");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the executor that runs the token requests. By default, a thread pool
+	 * sized by {@link #parallelism(int)} is created for and shut down after each
+	 * execution. The parallelism limit is applied on top of the given executor.
+	 *
+	 * @param executor
+	 *            - the executor.
+	 * @return this builder.
+	 */
+	public BulkClientCredentialsTokenFlow executor(@Nonnull Executor executor) {
+		Assertions.assertNotNull(executor, "Executor must not be null!");
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Executes the token requests for all given tenants. Returns when all requests
+	 * have been completed.
+	 *
+	 * @return the results in order of the given tenants, keyed by subdomain or zone
+	 *         id.
+	 * @throws IllegalArgumentException
+	 *             if a value is given both as subdomain and as zone id, as the
+	 *             results could not be told apart.
+	 */
+	public Map<String, TokenFlowResult> execute() {
+		for (String zoneId : zoneIds) {
+			if (subdomains.contains(zoneId)) {
+				throw new IllegalArgumentException(
+						"'" + zoneId + "' must not be given both as subdomain and as zone id!");
+			}
+		}
+		Map<String, ClientCredentialsTokenFlow> flows = new LinkedHashMap<>();
+		subdomains.forEach(subdomain -> flows.put(subdomain, createFlow().subdomain(subdomain)));
+		zoneIds.forEach(zoneId -> flows.put(zoneId, createFlow().zoneId(zoneId)));
+		if (flows.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		ExecutorService ownExecutor = executor == null
+				? Executors.newFixedThreadPool(Math.min(parallelism, flows.size()), new BulkThreadFactory())
+				: null;
+		try {
+			return executeAll(flows, executor != null ? executor : ownExecutor);
+		} finally {
+			if (ownExecutor != null) {
+				ownExecutor.shutdown();
+			}
+		}
+	}
+
+	private Map<String, TokenFlowResult> executeAll(Map<String, ClientCredentialsTokenFlow> flows,
+			Executor requestExecutor) {
+		Semaphore permits = new Semaphore(parallelism);
+		Map<String, CompletableFuture<TokenFlowResult>> futures = new LinkedHashMap<>();
+		for (Map.Entry<String, ClientCredentialsTokenFlow> entry : flows.entrySet()) {
+			futures.put(entry.getKey(), submit(entry.getKey(), entry.getValue(), requestExecutor, permits));
+		}
+		Map<String, TokenFlowResult> results = new LinkedHashMap<>();
+		futures.forEach((tenant, future) -> results.put(tenant, future.join()));
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Executed {} client credentials token requests, {} failed", results.size(),
+					results.values().stream().filter(r -> !r.isSuccessful()).count());
+		}
+		return Collections.unmodifiableMap(results);
+	}
+
+	private CompletableFuture<TokenFlowResult> submit(String tenant, ClientCredentialsTokenFlow flow,
+			Executor requestExecutor, Semaphore permits) {
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.completedFuture(TokenFlowResult.failure(
+					new TokenFlowException("Token request for tenant " + tenant + " was interrupted", e)));
+		}
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return executeFlow(tenant, flow);
+				} finally {
+					permits.release();
+				}
+			}, requestExecutor);
+		} catch (RejectedExecutionException e) {
+			permits.release();
+			return CompletableFuture.completedFuture(TokenFlowResult.failure(
+					new TokenFlowException("Token request for tenant " + tenant + " was rejected by executor", e)));
+		}
+	}
+
+	private TokenFlowResult executeFlow(String tenant, ClientCredentialsTokenFlow flow) {
+		try {
+			return TokenFlowResult.success(flow.execute());
+		} catch (TokenFlowException e) {
+			LOGGER.debug("Token request for tenant {} failed: {}", tenant, e.getMessage());
+			return TokenFlowResult.failure(e);
+		} catch (RuntimeException e) {
+			LOGGER.debug("Token request for tenant {} failed: {}", tenant, e.getMessage());
+			return TokenFlowResult.failure(new TokenFlowException(
+					String.format("Error requesting technical user token for tenant %s: %s", tenant,
+							e.getMessage()),
+					e));
+		}
+	}
+
+	private ClientCredentialsTokenFlow createFlow() {
+		ClientCredentialsTokenFlow flow = new ClientCredentialsTokenFlow(tokenService, endpointsProvider,
+				clientIdentity)
+				.scopes(scopes)
+				.disableCache(disableCache);
+		if (attributes != null) {
+			flow.attributes(attributes);
+		}
+		return flow;
+	}
+
+	private static class BulkThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+		private final int poolNumber = POOL_NUMBER.incrementAndGet();
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable,
+					"token-flow-bulk-" + poolNumber + "-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.Assertions;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.AUTHORITIES;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.SCOPE;
+import static com.sap.cloud.security.xsuaa.tokenflows.XsuaaTokenFlowsUtils.buildAuthorities;
+
+/**
+ * Reactive counterpart of {@link ClientCredentialsTokenFlow}. Applications
+ * retrieve an instance of this builder from {@link ReactiveXsuaaTokenFlows}.
+ */
+public class ReactiveClientCredentialsTokenFlow {
+
+	private final XsuaaTokenFlowRequest request;
+	private final ReactiveOAuth2TokenService tokenService;
+	private boolean disableCache = false;
+	private List<String> scopes = new ArrayList<>();
+
+	ReactiveClientCredentialsTokenFlow(ReactiveOAuth2TokenService tokenService,
+			OAuth2ServiceEndpointsProvider endpointsProvider, ClientIdentity clientIdentity) {
+		assertNotNull(tokenService, "ReactiveOAuth2TokenService must not be null.");
+		assertNotNull(endpointsProvider, "OAuth2ServiceEndpointsProvider must not be null.");
+		assertNotNull(clientIdentity, "ClientIdentity must not be null.");
+
+		this.tokenService = tokenService;
+		this.request = new XsuaaTokenFlowRequest(endpointsProvider.getTokenEndpoint());
+		this.request.setClientIdentity(clientIdentity);
+		if (!clientIdentity.isCertificateBased()) {
+			this.request.setClientSecret(clientIdentity.getSecret());
+		}
+	}
+
+	/**
+	 * Adds additional authorization attributes to the request. <br>
+	 * Clients can use this to request additional attributes in the
+	 * {@code 'az_attr'} claim of the returned token.
+	 *
+	 * @param additionalAuthorizationAttributes
+	 *            - the additional attributes.
+	 * @return this builder.
+	 */
+	public ReactiveClientCredentialsTokenFlow attributes(Map<String, String> additionalAuthorizationAttributes) {
+		request.setAdditionalAuthorizationAttributes(additionalAuthorizationAttributes);
+		return this;
+	}
+
+	/**
+	 * Sets the subdomain (tenant) the token is requested for.<br>
+	 *
+	 * @param subdomain
+	 *            - the subdomain.
+	 * @return this builder.
+	 */
+	public ReactiveClientCredentialsTokenFlow subdomain(String subdomain) {
+		request.setSubdomain(subdomain);
+		return this;
+	}
+
+	/**
+	 * Sets the zone Id of the tenant<br>
+	 *
+	 * @param zoneId
+	 *            - the zoneId.
+	 * @return this builder.
+	 */
+	public ReactiveClientCredentialsTokenFlow zoneId(String zoneId) {
+		request.setZoneId(zoneId);
+		return this;
+	}
+
+	/**
+	 * Sets the scope attribute for the token request. See
+	 * {@link ClientCredentialsTokenFlow#scopes(String...)}.
+	 *
+	 * @param scopes
+	 *            - one or many scopes as string.
+	 * @return this builder.
+	 */
+	public ReactiveClientCredentialsTokenFlow scopes(@Nonnull String... scopes) {
+		Assertions.assertNotNull(scopes, "Scopes must not be null!");
+		this.scopes = Arrays.asList(scopes);
+		return this;
+	}
+
+	/**
+	 * Can be used to disable the cache for the flow.
+	 *
+	 * @param disableCache
+	 *            - disables cache when set to {@code true}.
+	 * @return this builder.
+	 */
+	public ReactiveClientCredentialsTokenFlow disableCache(boolean disableCache) {
+		this.disableCache = disableCache;
+		return this;
+	}
+
+	/**
+	 * Creates the token request. The token is requested on subscription.
+	 *
+	 * @return the token response, or an {@link IllegalArgumentException} in case
+	 *         not all mandatory fields of the token flow request have been set,
+	 *         or a {@link TokenFlowException} in case of an error during the flow.
+	 */
+	public Mono<OAuth2TokenResponse> execute() {
+		if (!request.isValid()) {
+			return Mono.error(new IllegalArgumentException(
+					"Client credentials flow request is not valid. Make sure all mandatory fields are set."));
+		}
+		Map<String, String> requestParameter = new HashMap<>();
+		String authorities = buildAuthorities(request);
+		if (authorities != null) {
+			requestParameter.put(AUTHORITIES, authorities);
+		}
+		String scopesParameter = String.join(" ", scopes);
+		if (!scopesParameter.isEmpty()) {
+			requestParameter.put(SCOPE, scopesParameter);
+		}
+		return tokenService
+				.retrieveAccessTokenViaClientCredentialsGrant(request.getTokenEndpoint(), request.getClientIdentity(),
+						request.getZoneId(), request.getSubdomain(), requestParameter, disableCache)
+				.onErrorMap(OAuth2ServiceException.class, e -> new TokenFlowException(
+						String.format("Error requesting technical user token with grant_type 'client_credentials': %s",
+								e.getMessage()),
+						e));
+	}
+}
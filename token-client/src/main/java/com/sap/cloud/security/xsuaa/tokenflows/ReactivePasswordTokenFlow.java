@@ -0,0 +1,129 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+/**
+ * Reactive counterpart of {@link PasswordTokenFlow}. Applications retrieve an
+ * instance of this builder from {@link ReactiveXsuaaTokenFlows}.
+ */
+public class ReactivePasswordTokenFlow {
+
+	private final ReactiveOAuth2TokenService tokenService;
+	private final OAuth2ServiceEndpointsProvider endpointsProvider;
+	private final ClientIdentity clientIdentity;
+	private String username;
+	private String password;
+	private String subdomain;
+	private Map<String, String> optionalParameters;
+	private boolean disableCache = false;
+
+	ReactivePasswordTokenFlow(ReactiveOAuth2TokenService tokenService,
+			OAuth2ServiceEndpointsProvider endpointsProvider, ClientIdentity clientIdentity) {
+		assertNotNull(tokenService, "ReactiveOAuth2TokenService must not be null!");
+		assertNotNull(endpointsProvider, "OAuth2ServiceEndpointsProvider must not be null!");
+		assertNotNull(clientIdentity, "ClientIdentity must not be null!");
+		this.tokenService = tokenService;
+		this.endpointsProvider = endpointsProvider;
+		this.clientIdentity = clientIdentity;
+	}
+
+	/**
+	 * The password for the user trying to get a token. This is a mandatory
+	 * parameter.
+	 *
+	 * @param password
+	 *            - the password.
+	 * @return this builder.
+	 */
+	public ReactivePasswordTokenFlow password(String password) {
+		this.password = password;
+		return this;
+	}
+
+	/**
+	 * The username for the user trying to get a token. This is a mandatory
+	 * parameter.
+	 *
+	 * @param username
+	 *            - the username.
+	 * @return this builder.
+	 */
+	public ReactivePasswordTokenFlow username(String username) {
+		this.username = username;
+		return this;
+	}
+
+	/**
+	 * Set the Subdomain the token is requested for.
+	 *
+	 * @param subdomain
+	 *            - the subdomain.
+	 * @return this builder.
+	 */
+	public ReactivePasswordTokenFlow subdomain(String subdomain) {
+		this.subdomain = subdomain;
+		return this;
+	}
+
+	/**
+	 * Adds additional request parameters to the token request.
+	 *
+	 * @param optionalParameters
+	 *            - the optional parameters.
+	 * @return this builder.
+	 */
+	public ReactivePasswordTokenFlow optionalParameters(Map<String, String> optionalParameters) {
+		this.optionalParameters = optionalParameters;
+		return this;
+	}
+
+	/**
+	 * Can be used to disable the cache for the flow.
+	 *
+	 * @param disableCache
+	 *            - disables cache when set to {@code true}.
+	 * @return this builder.
+	 */
+	public ReactivePasswordTokenFlow disableCache(boolean disableCache) {
+		this.disableCache = disableCache;
+		return this;
+	}
+
+	/**
+	 * Creates the token request. The token is requested on subscription.
+	 *
+	 * @return the user token, or an {@link IllegalStateException} in case username
+	 *         or password have not been set, or a {@link TokenFlowException} in
+	 *         case of an error during the flow.
+	 */
+	public Mono<OAuth2TokenResponse> execute() {
+		if (username == null) {
+			return Mono.error(new IllegalStateException("Username must be set!"));
+		}
+		if (password == null) {
+			return Mono.error(new IllegalStateException("Password must be set!"));
+		}
+		return tokenService
+				.retrieveAccessTokenViaPasswordGrant(endpointsProvider.getTokenEndpoint(), clientIdentity, username,
+						password, subdomain, optionalParameters, disableCache)
+				.onErrorMap(OAuth2ServiceException.class, e -> new TokenFlowException(
+						String.format("Error requesting user token with grant_type '%s': %s",
+								OAuth2TokenServiceConstants.GRANT_TYPE_PASSWORD, e.getMessage()),
+						e));
+	}
+}
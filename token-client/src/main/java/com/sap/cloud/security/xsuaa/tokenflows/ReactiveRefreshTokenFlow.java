@@ -0,0 +1,99 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+import reactor.core.publisher.Mono;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+/**
+ * Reactive counterpart of {@link RefreshTokenFlow}. Applications retrieve an
+ * instance of this builder from {@link ReactiveXsuaaTokenFlows}.
+ */
+public class ReactiveRefreshTokenFlow {
+
+	private final XsuaaTokenFlowRequest request;
+	private final ReactiveOAuth2TokenService tokenService;
+	private String refreshToken;
+	private boolean disableCache = false;
+
+	ReactiveRefreshTokenFlow(ReactiveOAuth2TokenService tokenService,
+			OAuth2ServiceEndpointsProvider endpointsProvider, ClientIdentity clientIdentity) {
+		assertNotNull(tokenService, "ReactiveOAuth2TokenService must not be null.");
+		assertNotNull(endpointsProvider, "OAuth2ServiceEndpointsProvider must not be null.");
+		assertNotNull(clientIdentity, "ClientIdentity must not be null.");
+
+		this.tokenService = tokenService;
+		this.request = new XsuaaTokenFlowRequest(endpointsProvider.getTokenEndpoint());
+		this.request.setClientIdentity(clientIdentity);
+	}
+
+	/**
+	 * Sets the subdomain (tenant) the token is requested for.<br>
+	 *
+	 * @param subdomain
+	 *            - the subdomain.
+	 * @return this builder.
+	 */
+	public ReactiveRefreshTokenFlow subdomain(String subdomain) {
+		this.request.setSubdomain(subdomain);
+		return this;
+	}
+
+	/**
+	 * Sets the refresh token that should be exchanged for an access token.
+	 *
+	 * @param refreshToken
+	 *            - the refresh token.
+	 * @return this builder.
+	 */
+	public ReactiveRefreshTokenFlow refreshToken(String refreshToken) {
+		assertNotNull(refreshToken, "RefreshToken must not be null.");
+		this.refreshToken = refreshToken;
+		return this;
+	}
+
+	/**
+	 * Can be used to disable the cache for the flow.
+	 *
+	 * @param disableCache
+	 *            - disables cache when set to {@code true}.
+	 * @return this builder.
+	 */
+	public ReactiveRefreshTokenFlow disableCache(boolean disableCache) {
+		this.disableCache = disableCache;
+		return this;
+	}
+
+	/**
+	 * Creates the refresh request. The token is requested on subscription.
+	 *
+	 * @return the refreshed token, or an {@link IllegalStateException} in case the
+	 *         refresh token has not been set, or a {@link TokenFlowException} in
+	 *         case of an error during the flow.
+	 */
+	public Mono<OAuth2TokenResponse> execute() {
+		if (refreshToken == null) {
+			return Mono.error(new IllegalStateException(
+					"Refresh token not set. Make sure to have called the refreshToken() method on ReactiveRefreshTokenFlow builder."));
+		}
+		if (!request.isValid()) {
+			return Mono.error(new IllegalArgumentException(
+					"Refresh token flow request is not valid. Make sure all mandatory fields are set."));
+		}
+		return tokenService
+				.retrieveAccessTokenViaRefreshToken(request.getTokenEndpoint(), request.getClientIdentity(),
+						refreshToken, request.getSubdomain(), disableCache)
+				.onErrorMap(OAuth2ServiceException.class, e -> new TokenFlowException(
+						String.format("Error refreshing token with grant_type 'refresh_token': %s", e.getMessage()),
+						e));
+	}
+}
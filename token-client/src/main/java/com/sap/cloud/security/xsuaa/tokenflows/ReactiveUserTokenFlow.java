@@ -0,0 +1,164 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.xsuaa.Assertions;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.AUTHORITIES;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.SCOPE;
+import static com.sap.cloud.security.xsuaa.tokenflows.XsuaaTokenFlowsUtils.buildAuthorities;
+
+/**
+ * Reactive counterpart of {@link UserTokenFlow}: exchanges a user token with
+ * the JWT bearer grant type. Applications retrieve an instance of this builder
+ * from {@link ReactiveXsuaaTokenFlows}.
+ */
+public class ReactiveUserTokenFlow {
+
+	private final XsuaaTokenFlowRequest request;
+	private final ReactiveOAuth2TokenService tokenService;
+	private String token;
+	private String xZid;
+	private boolean disableCache = false;
+	private List<String> scopes = new ArrayList<>();
+
+	ReactiveUserTokenFlow(ReactiveOAuth2TokenService tokenService, OAuth2ServiceEndpointsProvider endpointsProvider,
+			ClientIdentity clientIdentity) {
+		assertNotNull(tokenService, "ReactiveOAuth2TokenService must not be null.");
+		assertNotNull(endpointsProvider, "OAuth2ServiceEndpointsProvider must not be null.");
+		assertNotNull(clientIdentity, "ClientIdentity must not be null.");
+
+		this.tokenService = tokenService;
+		this.request = new XsuaaTokenFlowRequest(endpointsProvider.getTokenEndpoint());
+		this.request.setClientIdentity(clientIdentity);
+	}
+
+	/**
+	 * Sets the JWT token that should be exchanged for another JWT token.
+	 *
+	 * @param encodedToken
+	 *            - the JWT token.
+	 * @return this builder object.
+	 */
+	public ReactiveUserTokenFlow token(String encodedToken) {
+		assertNotNull(encodedToken, "(Encoded) token must not be null.");
+		this.token = encodedToken;
+		return this;
+	}
+
+	/**
+	 * Sets the JWT token that should be exchanged for another JWT token.
+	 *
+	 * @param token
+	 *            - decoded JWT token.
+	 * @return this builder object.
+	 */
+	public ReactiveUserTokenFlow token(Token token) {
+		assertNotNull(token, "Token must not be null.");
+		this.token = token.getTokenValue();
+		this.xZid = token.getZoneId();
+		return this;
+	}
+
+	/**
+	 * Adds additional authorization attributes to the request. <br>
+	 * Clients can use this to request additional attributes in the
+	 * {@code 'az_attr'} claim of the returned token.
+	 *
+	 * @param additionalAuthorizationAttributes
+	 *            - the additional attributes.
+	 * @return this builder.
+	 */
+	public ReactiveUserTokenFlow attributes(Map<String, String> additionalAuthorizationAttributes) {
+		this.request.setAdditionalAuthorizationAttributes(additionalAuthorizationAttributes);
+		return this;
+	}
+
+	/**
+	 * Sets the subdomain (tenant) the token is requested for.<br>
+	 *
+	 * @param subdomain
+	 *            - the subdomain.
+	 * @return this builder.
+	 */
+	public ReactiveUserTokenFlow subdomain(String subdomain) {
+		this.request.setSubdomain(subdomain);
+		return this;
+	}
+
+	/**
+	 * Sets the scope attribute for the token request. See
+	 * {@link UserTokenFlow#scopes(String...)}.
+	 *
+	 * @param scopes
+	 *            - one or many scopes as string.
+	 * @return this builder.
+	 */
+	public ReactiveUserTokenFlow scopes(@Nonnull String... scopes) {
+		Assertions.assertNotNull(scopes, "Scopes must not be null!");
+		this.scopes = Arrays.asList(scopes);
+		return this;
+	}
+
+	/**
+	 * Can be used to disable the cache for the flow.
+	 *
+	 * @param disableCache
+	 *            - disables cache when set to {@code true}.
+	 * @return this builder.
+	 */
+	public ReactiveUserTokenFlow disableCache(boolean disableCache) {
+		this.disableCache = disableCache;
+		return this;
+	}
+
+	/**
+	 * Creates the token exchange request. The token is requested on subscription.
+	 *
+	 * @return the exchanged token, or an {@link IllegalStateException} in case the
+	 *         user token has not been set, or a {@link TokenFlowException} in case
+	 *         of an error during the flow.
+	 */
+	public Mono<OAuth2TokenResponse> execute() {
+		if (token == null) {
+			return Mono.error(new IllegalStateException(
+					"User token not set. Make sure to have called the token() method on ReactiveUserTokenFlow builder."));
+		}
+		if (!request.isValid()) {
+			return Mono.error(new IllegalArgumentException(
+					"User token flow request is not valid. Make sure all mandatory fields are set."));
+		}
+		Map<String, String> optionalParameter = new HashMap<>();
+		String authorities = buildAuthorities(request);
+		if (authorities != null) {
+			optionalParameter.put(AUTHORITIES, authorities);
+		}
+		String scopesParameter = String.join(" ", scopes);
+		if (!scopesParameter.isEmpty()) {
+			optionalParameter.put(SCOPE, scopesParameter);
+		}
+		Mono<OAuth2TokenResponse> response = xZid == null
+				? tokenService.retrieveAccessTokenViaJwtBearerTokenGrant(request.getTokenEndpoint(),
+						request.getClientIdentity(), token, request.getSubdomain(), optionalParameter, disableCache)
+				: tokenService.retrieveAccessTokenViaJwtBearerTokenGrant(request.getTokenEndpoint(),
+						request.getClientIdentity(), token, optionalParameter, disableCache, xZid);
+		return response.onErrorMap(OAuth2ServiceException.class, e -> new TokenFlowException(
+				String.format("Error requesting token with grant_type 'urn:ietf:params:oauth:grant-type:jwt-bearer': %s",
+						e.getMessage()),
+				e));
+	}
+}
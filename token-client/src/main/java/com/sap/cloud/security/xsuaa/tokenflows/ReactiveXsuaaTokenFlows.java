@@ -0,0 +1,94 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.ReactiveOAuth2TokenService;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+/**
+ * Reactive counterpart of {@link XsuaaTokenFlows}: a bean that can be
+ * {@code @Autowired} by reactive applications to get access to token flow
+ * builders, whose {@code execute()} method returns a
+ * {@link reactor.core.publisher.Mono} instead of blocking the calling thread.
+ *
+ * <pre>
+ * {@code
+ * ReactiveXsuaaTokenFlows tokenFlows = new ReactiveXsuaaTokenFlows(
+ *                           new ReactiveOAuth2TokenServiceAdapter(new DefaultOAuth2TokenService()),
+ *                           new XsuaaDefaultEndpoints(xsuaaBaseUrl),
+ *                           new ClientCredentials(clientId, clientSecret));
+ *
+ * Mono<OAuth2TokenResponse> token = tokenFlows.clientCredentialsTokenFlow().execute();
+ * }
+ * </pre>
+ */
+public class ReactiveXsuaaTokenFlows {
+
+	private final ReactiveOAuth2TokenService tokenService;
+	private final OAuth2ServiceEndpointsProvider endpointsProvider;
+	private final ClientIdentity clientIdentity;
+
+	/**
+	 * Create a new instance of this bean.
+	 *
+	 * @param tokenService
+	 *            the ReactiveOAuth2TokenService that will be used to send the
+	 *            token requests.
+	 * @param endpointsProvider
+	 *            the endpoint provider that serves the token endpoint.
+	 * @param clientIdentity
+	 *            the OAuth2.0 client identity
+	 */
+	public ReactiveXsuaaTokenFlows(ReactiveOAuth2TokenService tokenService,
+			OAuth2ServiceEndpointsProvider endpointsProvider, ClientIdentity clientIdentity) {
+		assertNotNull(tokenService, "ReactiveOAuth2TokenService must not be null.");
+		assertNotNull(endpointsProvider, "OAuth2ServiceEndpointsProvider must not be null");
+		assertNotNull(clientIdentity, "ClientIdentity must not be null.");
+
+		this.tokenService = tokenService;
+		this.endpointsProvider = endpointsProvider;
+		this.clientIdentity = clientIdentity;
+	}
+
+	/**
+	 * Creates a new User Token Flow builder object.
+	 *
+	 * @return the {@link ReactiveUserTokenFlow} builder object.
+	 */
+	public ReactiveUserTokenFlow userTokenFlow() {
+		return new ReactiveUserTokenFlow(tokenService, endpointsProvider, clientIdentity);
+	}
+
+	/**
+	 * Creates a new Client Credentials Flow builder object.
+	 *
+	 * @return the {@link ReactiveClientCredentialsTokenFlow} builder object.
+	 */
+	public ReactiveClientCredentialsTokenFlow clientCredentialsTokenFlow() {
+		return new ReactiveClientCredentialsTokenFlow(tokenService, endpointsProvider, clientIdentity);
+	}
+
+	/**
+	 * Creates a new Refresh Token Flow builder object.
+	 *
+	 * @return the {@link ReactiveRefreshTokenFlow} builder object.
+	 */
+	public ReactiveRefreshTokenFlow refreshTokenFlow() {
+		return new ReactiveRefreshTokenFlow(tokenService, endpointsProvider, clientIdentity);
+	}
+
+	/**
+	 * Creates a new Password Token Flow builder object.
+	 *
+	 * @return the {@link ReactivePasswordTokenFlow} builder object.
+	 */
+	public ReactivePasswordTokenFlow passwordTokenFlow() {
+		return new ReactivePasswordTokenFlow(tokenService, endpointsProvider, clientIdentity);
+	}
+}
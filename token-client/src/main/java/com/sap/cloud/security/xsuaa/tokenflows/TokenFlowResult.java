@@ -0,0 +1,63 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of a single token request that was executed as part of a
+ * {@link BulkClientCredentialsTokenFlow}. Holds either the token response or
+ * the {@link TokenFlowException} that caused the request to fail.
+ */
+public class TokenFlowResult {
+
+	private final OAuth2TokenResponse tokenResponse;
+	private final TokenFlowException exception;
+
+	private TokenFlowResult(@Nullable OAuth2TokenResponse tokenResponse, @Nullable TokenFlowException exception) {
+		this.tokenResponse = tokenResponse;
+		this.exception = exception;
+	}
+
+	static TokenFlowResult success(OAuth2TokenResponse tokenResponse) {
+		return new TokenFlowResult(tokenResponse, null);
+	}
+
+	static TokenFlowResult failure(TokenFlowException exception) {
+		return new TokenFlowResult(null, exception);
+	}
+
+	/**
+	 * @return true, in case the token could be retrieved successfully.
+	 */
+	public boolean isSuccessful() {
+		return exception == null;
+	}
+
+	/**
+	 * @return the token response or null in case the request has failed.
+	 */
+	@Nullable
+	public OAuth2TokenResponse getTokenResponse() {
+		return tokenResponse;
+	}
+
+	/**
+	 * @return the cause of the failure or null in case the request was successful.
+	 */
+	@Nullable
+	public TokenFlowException getException() {
+		return exception;
+	}
+
+	@Override
+	public String toString() {
+		return isSuccessful() ? "TokenFlowResult{success}"
+				: "TokenFlowResult{failure=" + exception.getMessage() + "}";
+	}
+}
@@ -103,11 +103,24 @@ public class XsuaaTokenFlows implements Serializable {
 		return new ClientCredentialsTokenFlow(oAuth2TokenService, endpointsProvider, clientIdentity);
 	}
 
+	/**
+	 * Creates a new Bulk Client Credentials Flow builder object, that requests
+	 * technical user tokens for a collection of subdomains or zone ids with bounded
+	 * parallelism. <br>
+	 * The requests are executed with the same {@link OAuth2TokenService} as all
+	 * other flows of this instance and share its cache.
+	 *
+	 * @return the {@link BulkClientCredentialsTokenFlow} builder object.
+	 */
+	public BulkClientCredentialsTokenFlow bulkClientCredentialsTokenFlow() {
+		return new BulkClientCredentialsTokenFlow(oAuth2TokenService, endpointsProvider, clientIdentity);
+	}
+
 	/**
 	 * Creates a new Refresh Token Flow builder object.<br>
 	 * Token, authorize and key set endpoints will be derived relative to the base
 	 * URI.
-	 * 
+	 *
 	 * @return the {@link RefreshTokenFlow} builder object.
 	 */
 	public RefreshTokenFlow refreshTokenFlow() {
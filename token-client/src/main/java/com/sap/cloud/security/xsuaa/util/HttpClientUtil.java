@@ -1,40 +1,180 @@
 /**
  * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
- * 
+ *
  * SPDX-License-Identifier: Apache-2.0
  */
 package com.sap.cloud.security.xsuaa.util;
 
 import com.sap.cloud.security.xsuaa.Assertions;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
-import java.util.stream.Collectors;
 
 public class HttpClientUtil {
 
+	/**
+	 * Maximum size of a response body in bytes, that gets read. Token responses,
+	 * token keys and oidc configurations are far below this limit.
+	 */
+	public static final int MAX_RESPONSE_BODY_SIZE = 1024 * 1024;
+	private static final int BUFFER_SIZE = 8192;
+
 	private HttpClientUtil() {
 		// use static methods
 	}
 
+	/**
+	 * Reads the response body. The body is decoded with the charset of the
+	 * response content type, or UTF-8 if none is given.
+	 *
+	 * @param response
+	 *            the http response
+	 * @return the response body or an empty string, in case the response has no
+	 *         body
+	 * @throws IOException
+	 *             in case the body can not be read or exceeds
+	 *             {@link #MAX_RESPONSE_BODY_SIZE}
+	 */
 	public static String extractResponseBodyAsString(HttpResponse response) throws IOException {
 		Assertions.assertNotNull(response, "response must not be null.");
-		return new BufferedReader(new InputStreamReader(response.getEntity().getContent()))
-				.lines().collect(Collectors.joining(System.lineSeparator()));
+		HttpEntity entity = response.getEntity();
+		if (entity == null) {
+			return "";
+		}
+		checkContentLength(entity);
+		try (InputStream content = new LimitedInputStream(entity.getContent())) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream(
+					entity.getContentLength() > 0 ? (int) entity.getContentLength() : BUFFER_SIZE);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = content.read(buffer)) != -1) {
+				body.write(buffer, 0, read);
+			}
+			return new String(body.toByteArray(), getCharset(entity));
+		}
+	}
+
+	/**
+	 * Parses the JSON response body directly from the response stream, without an
+	 * intermediate string representation.
+	 *
+	 * @param response
+	 *            the http response
+	 * @return the response body as JSON object
+	 * @throws IOException
+	 *             in case the body can not be read or exceeds
+	 *             {@link #MAX_RESPONSE_BODY_SIZE}
+	 * @throws JSONException
+	 *             in case the response body is no JSON object
+	 */
+	public static JSONObject extractResponseBodyAsJson(HttpResponse response) throws IOException {
+		Assertions.assertNotNull(response, "response must not be null.");
+		HttpEntity entity = response.getEntity();
+		if (entity == null) {
+			throw new IOException("Response has no body");
+		}
+		checkContentLength(entity);
+		try (InputStreamReader reader = new InputStreamReader(new LimitedInputStream(entity.getContent()),
+				getCharset(entity))) {
+			return new JSONObject(new JSONTokener(reader));
+		} catch (JSONException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
 	}
 
+	/**
+	 * Provides the user agent header value, that identifies this library. It is
+	 * read once from the classpath.
+	 *
+	 * @return the user agent
+	 */
 	public static String getUserAgent() {
-		Properties props = new Properties();
-		InputStream stream = HttpClientUtil.class.getResourceAsStream("/token-client.properties");
+		return UserAgentHolder.USER_AGENT;
+	}
+
+	private static void checkContentLength(HttpEntity entity) throws IOException {
+		if (entity.getContentLength() > MAX_RESPONSE_BODY_SIZE) {
+			throw new IOException(String.format("Response body of %d bytes exceeds the limit of %d bytes",
+					entity.getContentLength(), MAX_RESPONSE_BODY_SIZE));
+		}
+	}
+
+	private static Charset getCharset(HttpEntity entity) {
 		try {
-			props.load(stream);
-			return props.getProperty("artifactId") + "/" + props.getProperty("version");
-		} catch (IOException | NullPointerException | IllegalArgumentException e) {
-			return "token-client/0.0.0";
+			ContentType contentType = ContentType.get(entity);
+			if (contentType != null && contentType.getCharset() != null) {
+				return contentType.getCharset();
+			}
+		} catch (RuntimeException e) {
+			// unsupported or invalid content type, use default
+		}
+		return StandardCharsets.UTF_8;
+	}
+
+	private static class UserAgentHolder {
+		static final String USER_AGENT = readUserAgent();
+
+		private static String readUserAgent() {
+			Properties props = new Properties();
+			try (InputStream stream = HttpClientUtil.class.getResourceAsStream("/token-client.properties")) {
+				props.load(stream);
+				return props.getProperty("artifactId") + "/" + props.getProperty("version");
+			} catch (IOException | NullPointerException | IllegalArgumentException e) {
+				return "token-client/0.0.0";
+			}
+		}
+	}
+
+	/**
+	 * Fails as soon as more than {@link #MAX_RESPONSE_BODY_SIZE} bytes are read,
+	 * which also covers responses without or with wrong content length.
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+		private long remaining = MAX_RESPONSE_BODY_SIZE;
+
+		LimitedInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int result = super.read();
+			if (result != -1) {
+				consume(1);
+			}
+			return result;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int result = super.read(b, off, len);
+			if (result > 0) {
+				consume(result);
+			}
+			return result;
+		}
+
+		private void consume(int bytes) throws IOException {
+			remaining -= bytes;
+			if (remaining < 0) {
+				throw new IOException(
+						String.format("Response body exceeds the limit of %d bytes", MAX_RESPONSE_BODY_SIZE));
+			}
 		}
 	}
 
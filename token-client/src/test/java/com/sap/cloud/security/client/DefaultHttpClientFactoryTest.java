@@ -6,6 +6,7 @@
 package com.sap.cloud.security.client;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.sap.cloud.security.config.ClientCertificate;
 import com.sap.cloud.security.config.ClientCredentials;
 import com.sap.cloud.security.config.ClientIdentity;
 import nl.altindag.log.LogCaptor;
@@ -17,6 +18,7 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -24,9 +26,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -153,4 +159,125 @@ class DefaultHttpClientFactoryTest {
 		}
 	}
 
+
+	@Test
+	void defaultClients_shareConnectionPool() throws IOException {
+		WireMockServer wireMockServer = new WireMockServer(options().dynamicPort());
+		wireMockServer.stubFor(get(urlEqualTo("/ping")).willReturn(aResponse().withStatus(HttpStatus.SC_OK)));
+		wireMockServer.start();
+		try (DefaultHttpClientFactory factory = new DefaultHttpClientFactory(HttpClientConfiguration.builder()
+				.maxConnections(10)
+				.maxConnectionsPerRoute(2)
+				.build())) {
+			CloseableHttpClient client1 = factory.createClient(null);
+			CloseableHttpClient client2 = factory.createClient(new ClientCredentials("client", "secret"));
+			HttpGet ping = new HttpGet(wireMockServer.baseUrl() + "/ping");
+
+			EntityUtils.consumeQuietly(client1.execute(ping).getEntity());
+			client1.close();
+			assertThrows(IllegalStateException.class, () -> client1.execute(ping));
+
+			CloseableHttpResponse response = client2.execute(ping);
+			assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+			EntityUtils.consumeQuietly(response.getEntity());
+
+			assertThat(factory.getPoolStatistics()).containsOnlyKeys(DefaultHttpClientFactory.DEFAULT_POOL);
+			PoolStats stats = factory.getPoolStatistics().get(DefaultHttpClientFactory.DEFAULT_POOL);
+			assertThat(stats.getMax()).isEqualTo(10);
+			assertThat(stats.getLeased()).isZero();
+			assertThat(stats.getAvailable()).isEqualTo(1);
+		} finally {
+			wireMockServer.stop();
+		}
+	}
+
+	@Test
+	void poolStatistics_perClientId() {
+		cut.createClient(config);
+		cut.createClient(config2);
+
+		assertThat(cut.getPoolStatistics()).containsOnlyKeys("theClientId", "theClientId-2");
+		assertThat(cut.getPoolStatistics().get("theClientId").getMax())
+				.isEqualTo(HttpClientConfiguration.defaultConfiguration().getMaxConnections());
+	}
+
+	@Test
+	void httpClientConfiguration_rejectsInvalidValues() {
+		assertThrows(IllegalArgumentException.class, () -> HttpClientConfiguration.builder().maxConnections(0));
+		assertThrows(IllegalArgumentException.class,
+				() -> HttpClientConfiguration.builder().socketTimeout(Duration.ZERO));
+		assertThrows(IllegalArgumentException.class,
+				() -> HttpClientConfiguration.builder().maxConnectionsForRoute(URI.create("/path"), 1));
+	}
+
+	@Test
+	void updateClientIdentity_replacesCertificateOfExistingPool() throws IOException {
+		ClientIdentity rotated = new ClientCertificate(readFromFile("/rotatedCertificates.txt"),
+				readFromFile("/rotatedPrivateRSAKey.txt"), "theClientId");
+
+		assertFalse(cut.updateClientIdentity(rotated)); // no pool yet
+
+		cut.createClient(config);
+		assertTrue(cut.updateClientIdentity(rotated));
+		assertFalse(cut.updateClientIdentity(rotated));
+		assertEquals(1, cut.sslConnectionPool.size());
+	}
+
+	@Test
+	void watchClientIdentity_requiresCertificateBasedIdentity() {
+		assertThrows(IllegalArgumentException.class,
+				() -> cut.watchClientIdentity(() -> new ClientCredentials("client", "secret"), Duration.ofSeconds(1)));
+	}
+
+	@Test
+	void warmUp_opensAndReusesConnections() throws Exception {
+		WireMockServer wireMockServer = new WireMockServer(options().dynamicPort());
+		wireMockServer.stubFor(get(urlEqualTo("/ping")).willReturn(aResponse().withStatus(HttpStatus.SC_OK)));
+		wireMockServer.start();
+		try (DefaultHttpClientFactory factory = new DefaultHttpClientFactory(HttpClientConfiguration.builder()
+				.warmConnectionsPerRoute(2)
+				.build())) {
+			URI endpoint = URI.create(wireMockServer.baseUrl());
+			factory.warmUp(null, Collections.singletonList(endpoint));
+
+			PoolStats stats = awaitAvailableConnections(factory, 2);
+			assertEquals(2, stats.getAvailable());
+
+			CloseableHttpClient client = factory.createClient(null);
+			EntityUtils.consumeQuietly(client.execute(new HttpGet(endpoint + "/ping")).getEntity());
+			stats = factory.getPoolStatistics().get(DefaultHttpClientFactory.DEFAULT_POOL);
+			assertEquals(2, stats.getAvailable()); // warm connection was reused
+		} finally {
+			wireMockServer.stop();
+		}
+	}
+
+	@Test
+	void warmUp_disabledByDefault() {
+		cut.warmUp(null, Collections.singletonList(URI.create("https://localhost")));
+
+		assertThat(cut.getPoolStatistics()).isEmpty();
+	}
+
+	@Test
+	void toRoute_resolvesDefaultPort() {
+		assertEquals(443, DefaultHttpClientFactory.toRoute(URI.create("https://myauth.com/oauth/token"))
+				.getTargetHost().getPort());
+		assertEquals(8080, DefaultHttpClientFactory.toRoute(URI.create("http://localhost:8080"))
+				.getTargetHost().getPort());
+	}
+
+	private static PoolStats awaitAvailableConnections(DefaultHttpClientFactory factory, int available)
+			throws InterruptedException {
+		PoolStats stats = null;
+		for (int i = 0; i < 100; i++) {
+			stats = factory.getPoolStatistics().get(DefaultHttpClientFactory.DEFAULT_POOL);
+			if (stats != null && stats.getAvailable() >= available) {
+				break;
+			}
+			Thread.sleep(50);
+		}
+		return stats;
+	}
+
 }
\ No newline at end of file
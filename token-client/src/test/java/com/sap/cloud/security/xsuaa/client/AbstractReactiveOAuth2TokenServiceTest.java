@@ -0,0 +1,174 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.sap.cloud.security.config.ClientCredentials;
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.http.HttpHeaders;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.time.ZoneOffset.UTC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class AbstractReactiveOAuth2TokenServiceTest {
+
+	private static final URI TOKEN_ENDPOINT_URI = URI.create("http://test.token.endpoint/oauth/token");
+	private static final Instant NOW = LocalDateTime.of(2020, 1, 1, 0, 0, 0, 0).toInstant(UTC);
+	private static final ClientIdentity CLIENT_IDENTITY = new ClientCredentials("clientId", "clientSecret");
+
+	private TestReactiveOAuth2TokenService cut;
+
+	@Before
+	public void setUp() {
+		cut = new TestReactiveOAuth2TokenService(TokenCacheConfiguration.defaultConfiguration());
+	}
+
+	@Test
+	public void retrieveAccessToken_isLazy() {
+		cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI, CLIENT_IDENTITY, null, null, null,
+				false);
+
+		assertThat(cut.requestCount).hasValue(0);
+	}
+
+	@Test
+	public void retrieveAccessToken_sameRequest_servedFromCache() {
+		OAuth2TokenResponse first = retrieveClientCredentialsToken(false).block();
+		OAuth2TokenResponse second = retrieveClientCredentialsToken(false).block();
+
+		assertThat(second).isSameAs(first);
+		assertThat(cut.requestCount).hasValue(1);
+	}
+
+	@Test
+	public void retrieveAccessToken_disableCacheForRequest_requestsFreshToken() {
+		retrieveClientCredentialsToken(false).block();
+		retrieveClientCredentialsToken(true).block();
+
+		assertThat(cut.requestCount).hasValue(2);
+	}
+
+	@Test
+	public void retrieveAccessToken_differentSubdomains_requestsTokenForEachSubdomain() {
+		cut.retrieveAccessTokenViaRefreshToken(TOKEN_ENDPOINT_URI, CLIENT_IDENTITY, "refreshToken", "subdomain1",
+				false).block();
+		cut.retrieveAccessTokenViaRefreshToken(TOKEN_ENDPOINT_URI, CLIENT_IDENTITY, "refreshToken", "subdomain2",
+				false).block();
+
+		assertThat(cut.requestCount).hasValue(2);
+		assertThat(cut.requestedUris).containsExactly(
+				URI.create("http://subdomain1.token.endpoint/oauth/token"),
+				URI.create("http://subdomain2.token.endpoint/oauth/token"));
+	}
+
+	@Test
+	public void retrieveAccessToken_concurrentSubscriptions_shareSingleRequest() {
+		Sinks.One<OAuth2TokenResponse> pending = Sinks.one();
+		cut.response = pending.asMono();
+		List<OAuth2TokenResponse> results = new ArrayList<>();
+
+		retrieveClientCredentialsToken(false).subscribe(results::add);
+		retrieveClientCredentialsToken(false).subscribe(results::add);
+		assertThat(results).isEmpty();
+
+		pending.tryEmitValue(tokenResponse());
+
+		assertThat(cut.requestCount).hasValue(1);
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0)).isSameAs(results.get(1));
+	}
+
+	@Test
+	public void retrieveAccessToken_failedRequest_isNotCached() {
+		cut.response = Mono.error(new OAuth2ServiceException("unavailable"));
+
+		assertThat(Exceptions.unwrap(catchThrowable(() -> retrieveClientCredentialsToken(false).block())))
+				.isInstanceOf(OAuth2ServiceException.class);
+
+		cut.response = null;
+		assertThat(retrieveClientCredentialsToken(false).block()).isNotNull();
+		assertThat(cut.requestCount).hasValue(2);
+	}
+
+	@Test
+	public void retrieveAccessToken_tokenAboutToExpire_requestsFreshToken() {
+		retrieveClientCredentialsToken(false).block();
+		cut.clock = Clock.fixed(NOW.plus(Duration.ofHours(1)), UTC);
+
+		retrieveClientCredentialsToken(false).block();
+
+		assertThat(cut.requestCount).hasValue(2);
+	}
+
+	@Test
+	public void clearCache_requestsFreshToken() {
+		retrieveClientCredentialsToken(false).block();
+		cut.clearCache();
+		retrieveClientCredentialsToken(false).block();
+
+		assertThat(cut.requestCount).hasValue(2);
+	}
+
+	@Test
+	public void cacheDisabled_requestsFreshToken() {
+		cut = new TestReactiveOAuth2TokenService(TokenCacheConfiguration.cacheDisabled());
+
+		retrieveClientCredentialsToken(false).block();
+		retrieveClientCredentialsToken(false).block();
+
+		assertThat(cut.requestCount).hasValue(2);
+	}
+
+	private Mono<OAuth2TokenResponse> retrieveClientCredentialsToken(boolean disableCache) {
+		return cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI, CLIENT_IDENTITY, null, null,
+				null, disableCache);
+	}
+
+	private static OAuth2TokenResponse tokenResponse() {
+		return new OAuth2TokenResponse("accessToken", NOW.plus(Duration.ofMinutes(30)).getEpochSecond()
+				- Instant.now().getEpochSecond(), "refreshToken");
+	}
+
+	private static class TestReactiveOAuth2TokenService extends AbstractReactiveOAuth2TokenService {
+		private final AtomicInteger requestCount = new AtomicInteger();
+		private final List<URI> requestedUris = new ArrayList<>();
+		private Mono<OAuth2TokenResponse> response;
+		private Clock clock = Clock.fixed(NOW, UTC);
+
+		TestReactiveOAuth2TokenService(TokenCacheConfiguration tokenCacheConfiguration) {
+			super(tokenCacheConfiguration);
+		}
+
+		@Override
+		protected Mono<OAuth2TokenResponse> requestAccessToken(URI tokenEndpointUri, HttpHeaders headers,
+				Map<String, String> parameters) {
+			requestCount.incrementAndGet();
+			requestedUris.add(tokenEndpointUri);
+			return response != null ? response : Mono.fromSupplier(AbstractReactiveOAuth2TokenServiceTest::tokenResponse);
+		}
+
+		@Override
+		protected Clock getClock() {
+			return clock;
+		}
+	}
+}
@@ -12,6 +12,7 @@ import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
@@ -21,7 +22,9 @@ import org.springframework.http.HttpMethod;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -107,6 +110,48 @@ public class DefaultOAuth2TokenKeyServiceTest {
 		Mockito.verify(httpClient, times(1)).execute(argThat(isHttpGetAndContainsCorrectURI()));
 	}
 
+	@Test
+	public void retrieveTokenKeys_withETag_sendsConditionalRequest() throws IOException {
+		CloseableHttpResponse response = HttpClientTestFactory.createHttpResponse("", HttpStatus.SC_NOT_MODIFIED);
+		when(response.getFirstHeader(org.apache.http.HttpHeaders.ETAG)).thenReturn(new BasicHeader("ETag", "\"v2\""));
+		when(response.getFirstHeader(org.apache.http.HttpHeaders.CACHE_CONTROL))
+				.thenReturn(new BasicHeader("Cache-Control", "public, max-age=720"));
+		when(httpClient.execute(any())).thenReturn(response);
+
+		ConditionalResponse<String> result = cut.retrieveTokenKeys(TOKEN_KEYS_ENDPOINT_URI, ZONE_UUID, "\"v1\"");
+
+		assertThat(result.isNotModified()).isTrue();
+		assertThat(result.getBody()).isNull();
+		assertThat(result.getETag()).isEqualTo("\"v2\"");
+		assertThat(result.getMaxAge()).isEqualTo(Duration.ofSeconds(720));
+		Mockito.verify(httpClient).execute(argThat(request -> "\"v1\""
+				.equals(request.getFirstHeader(org.apache.http.HttpHeaders.IF_NONE_MATCH).getValue())));
+	}
+
+	@Test
+	public void retrieveTokenKeys_returnsETagAndMaxAge() throws IOException {
+		CloseableHttpResponse response = mockResponse();
+		when(response.getFirstHeader(org.apache.http.HttpHeaders.ETAG)).thenReturn(new BasicHeader("ETag", "\"v1\""));
+
+		ConditionalResponse<String> result = cut.retrieveTokenKeys(TOKEN_KEYS_ENDPOINT_URI, ZONE_UUID, null);
+
+		assertThat(result.isNotModified()).isFalse();
+		assertThat(result.getBody()).isEqualTo(jsonWebKeysAsString);
+		assertThat(result.getETag()).isEqualTo("\"v1\"");
+		assertThat(result.getMaxAge()).isNull();
+		Mockito.verify(httpClient).execute(
+				argThat(request -> request.getFirstHeader(org.apache.http.HttpHeaders.IF_NONE_MATCH) == null));
+	}
+
+	@Test
+	public void parseMaxAge() {
+		assertThat(ConditionalResponse.parseMaxAge(null)).isNull();
+		assertThat(ConditionalResponse.parseMaxAge("public")).isNull();
+		assertThat(ConditionalResponse.parseMaxAge("public, Max-Age=600")).isEqualTo(Duration.ofSeconds(600));
+		assertThat(ConditionalResponse.parseMaxAge("max-age=invalid")).isNull();
+		assertThat(ConditionalResponse.parseMaxAge("no-store, max-age=600")).isEqualTo(Duration.ZERO);
+	}
+
 	private CloseableHttpResponse mockResponse() throws IOException {
 		CloseableHttpResponse response = HttpClientTestFactory.createHttpResponse(jsonWebKeysAsString);
 		when(httpClient.execute(any())).thenReturn(response);
@@ -13,6 +13,7 @@ import com.sap.cloud.security.config.ClientCredentials;
 import com.sap.cloud.security.servlet.MDCHelper;
 import com.sap.cloud.security.xsuaa.http.HttpHeaders;
 import com.sap.cloud.security.xsuaa.http.HttpHeadersFactory;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
 import com.sap.cloud.security.xsuaa.util.HttpClientTestFactory;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
@@ -20,6 +21,7 @@ import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
 import org.assertj.core.util.Maps;
 import org.junit.Before;
 import org.junit.Test;
@@ -33,6 +35,7 @@ import org.slf4j.MDC;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 
@@ -151,6 +154,61 @@ public class DefaultOAuth2TokenServiceTest {
 		verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
 	}
 
+	@Test
+	public void errorResponse_providesRetryMetadata() throws IOException {
+		CloseableHttpResponse response = HttpClientTestFactory.createHttpResponse("{}", 429);
+		when(response.getFirstHeader("Retry-After")).thenReturn(new BasicHeader("Retry-After", "3"));
+		when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(response);
+
+		assertThatThrownBy(() -> requestAccessToken(emptyMap()))
+				.isInstanceOfSatisfying(OAuth2ServiceException.class, e -> {
+					assertThat(e.getHttpStatusCode()).isEqualTo(429);
+					assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(3));
+					assertThat(e.isRetryable()).isTrue();
+				});
+	}
+
+	@Test
+	public void resilienceConfiguration_retriesServerErrors() throws IOException {
+		cut = new DefaultOAuth2TokenService(mockHttpClient, TokenCacheConfiguration.cacheDisabled(),
+				ResilienceConfiguration.builder().initialBackoff(Duration.ofMillis(1)).build());
+		CloseableHttpResponse unavailable = HttpClientTestFactory.createHttpResponse("{}", 503);
+		CloseableHttpResponse ok = HttpClientTestFactory.createHttpResponse(VALID_JSON_RESPONSE);
+		when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(unavailable, ok);
+
+		OAuth2TokenResponse tokenResponse = cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				new ClientCredentials("clientId", "clientSecret"), null, null, null, false);
+
+		assertThat(tokenResponse.getAccessToken()).isEqualTo(ACCESS_TOKEN);
+		verify(mockHttpClient, times(2)).execute(any(HttpPost.class));
+	}
+
+	@Test
+	public void resilienceConfiguration_doesNotRetryClientErrors() throws IOException {
+		cut = new DefaultOAuth2TokenService(mockHttpClient, TokenCacheConfiguration.cacheDisabled(),
+				ResilienceConfiguration.builder().initialBackoff(Duration.ofMillis(1)).build());
+		CloseableHttpResponse unauthorized = HttpClientTestFactory.createHttpResponse("{}", 401);
+		when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(unauthorized);
+
+		assertThatThrownBy(() -> cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				new ClientCredentials("clientId", "clientSecret"), null, null, null, false))
+				.isInstanceOf(OAuth2ServiceException.class);
+		verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
+	}
+
+	@Test
+	public void resilienceConfiguration_doesNotRetryNonIdempotentGrant() throws IOException {
+		cut = new DefaultOAuth2TokenService(mockHttpClient, TokenCacheConfiguration.cacheDisabled(),
+				ResilienceConfiguration.builder().initialBackoff(Duration.ofMillis(1)).build());
+		CloseableHttpResponse unavailable = HttpClientTestFactory.createHttpResponse("{}", 503);
+		when(mockHttpClient.execute(any(HttpPost.class))).thenReturn(unavailable);
+
+		assertThatThrownBy(() -> cut.retrieveAccessTokenViaRefreshToken(TOKEN_ENDPOINT_URI,
+				new ClientCredentials("clientId", "clientSecret"), "refreshToken", null, false))
+				.isInstanceOf(OAuth2ServiceException.class);
+		verify(mockHttpClient, times(1)).execute(any(HttpPost.class));
+	}
+
 	private OAuth2TokenResponse requestAccessToken(Map<String, String> optionalParameters)
 			throws OAuth2ServiceException {
 		HttpHeaders withoutAuthorizationHeader = HttpHeadersFactory.createWithoutAuthorizationHeader();
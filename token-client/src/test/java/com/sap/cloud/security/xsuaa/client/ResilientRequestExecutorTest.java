@@ -0,0 +1,325 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.GRANT_TYPE_CLIENT_CREDENTIALS;
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.GRANT_TYPE_REFRESH_TOKEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class ResilientRequestExecutorTest {
+
+	private static final OAuth2TokenResponse TOKEN_RESPONSE = new OAuth2TokenResponse("token", 3600, null);
+
+	private final List<Long> sleeps = new ArrayList<>();
+
+	@Test
+	public void retriesRetryableFailures() throws OAuth2ServiceException {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder().build(),
+				sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		OAuth2TokenResponse response = cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw failure(503, null);
+			}
+			return TOKEN_RESPONSE;
+		});
+
+		assertThat(response).isSameAs(TOKEN_RESPONSE);
+		assertThat(attempts).hasValue(3);
+		assertThat(sleeps).hasSize(2);
+		assertThat(sleeps.get(0)).isBetween(0L, 100L);
+		assertThat(sleeps.get(1)).isBetween(0L, 200L);
+	}
+
+	@Test
+	public void failsAfterMaxRetries() {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(
+				ResilienceConfiguration.builder().maxRetries(1).build(), sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			throw failure(502 + attempts.incrementAndGet(), null);
+		})).isInstanceOfSatisfying(OAuth2ServiceException.class, e -> {
+			assertThat(e.getHttpStatusCode()).isEqualTo(504);
+			assertThat(e.getSuppressed()).hasSize(1);
+		});
+		assertThat(attempts).hasValue(2);
+	}
+
+	@Test
+	public void doesNotRetryClientErrors() {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder().build(),
+				sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			attempts.incrementAndGet();
+			throw failure(400, null);
+		})).isInstanceOf(OAuth2ServiceException.class);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void respectsRetryAfter() throws OAuth2ServiceException {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder().build(),
+				sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw failure(429, "1");
+			}
+			return TOKEN_RESPONSE;
+		});
+
+		assertThat(sleeps).containsExactly(1000L);
+	}
+
+	@Test
+	public void doesNotRetryWhenRetryAfterExceedsMaxBackoff() {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder().build(),
+				sleeps::add);
+
+		assertThatThrownBy(() -> cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			throw failure(429, "60");
+		})).isInstanceOf(OAuth2ServiceException.class);
+		assertThat(sleeps).isEmpty();
+	}
+
+	@Test
+	public void retryBudgetLimitsRetries() {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.maxRetries(5)
+				.retryBudgetCapacity(3)
+				.retryBudgetRatio(0)
+				.build(), sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			attempts.incrementAndGet();
+			throw failure(503, null);
+		})).isInstanceOf(OAuth2ServiceException.class);
+		assertThat(attempts).hasValue(4);
+		assertThat(cut.getRetryBudget().getBalance()).isZero();
+
+		attempts.set(0);
+		assertThatThrownBy(() -> cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			attempts.incrementAndGet();
+			throw failure(503, null);
+		})).isInstanceOf(OAuth2ServiceException.class);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void hedging_usesFirstResponse() throws Exception {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.hedging(true)
+				.hedgingDelay(Duration.ofMillis(10))
+				.build(), sleeps::add);
+		CountDownLatch slowRequest = new CountDownLatch(1);
+		AtomicInteger attempts = new AtomicInteger();
+
+		OAuth2TokenResponse response = cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				try {
+					slowRequest.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return new OAuth2TokenResponse("slow", 3600, null);
+			}
+			return TOKEN_RESPONSE;
+		});
+		slowRequest.countDown();
+
+		assertThat(response).isSameAs(TOKEN_RESPONSE);
+		assertThat(attempts).hasValue(2);
+	}
+
+	@Test
+	public void hedging_notSentForFastResponses() throws Exception {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.hedging(true)
+				.hedgingDelay(Duration.ofSeconds(5))
+				.build(), sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThat(cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			attempts.incrementAndGet();
+			return TOKEN_RESPONSE;
+		})).isSameAs(TOKEN_RESPONSE);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void nonIdempotentGrant_notRetriedAfterServerError() {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder().build(),
+				sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> cut.execute(GRANT_TYPE_REFRESH_TOKEN, () -> {
+			attempts.incrementAndGet();
+			throw failure(503, null);
+		})).isInstanceOf(OAuth2ServiceException.class);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void nonIdempotentGrant_retriedOnConnectFailure() throws OAuth2ServiceException {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder().build(),
+				sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		OAuth2TokenResponse response = cut.execute(GRANT_TYPE_REFRESH_TOKEN, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw OAuth2ServiceException.builder("error").withConnectFailure().build();
+			}
+			return TOKEN_RESPONSE;
+		});
+
+		assertThat(response).isSameAs(TOKEN_RESPONSE);
+		assertThat(attempts).hasValue(2);
+	}
+
+	@Test
+	public void idempotentGrantTypes_areConfigurable() throws OAuth2ServiceException {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.idempotentGrantTypes(GRANT_TYPE_REFRESH_TOKEN)
+				.build(), sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		cut.execute(GRANT_TYPE_REFRESH_TOKEN, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw failure(503, null);
+			}
+			return TOKEN_RESPONSE;
+		});
+
+		assertThat(attempts).hasValue(2);
+	}
+
+	@Test
+	public void hedging_notSentForNonIdempotentGrant() throws Exception {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.hedging(true)
+				.hedgingDelay(Duration.ofMillis(1))
+				.build(), sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThat(cut.execute(GRANT_TYPE_REFRESH_TOKEN, () -> {
+			attempts.incrementAndGet();
+			sleepQuietly(50);
+			return TOKEN_RESPONSE;
+		})).isSameAs(TOKEN_RESPONSE);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void hedging_abortsLosingRequest() throws Exception {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.hedging(true)
+				.hedgingDelay(Duration.ofMillis(10))
+				.build(), sleeps::add);
+		CountDownLatch aborted = new CountDownLatch(1);
+		AtomicInteger attempts = new AtomicInteger();
+
+		OAuth2TokenResponse response = cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				ResilientRequestExecutor.onAbort(aborted::countDown);
+				sleepQuietly(5000);
+				return new OAuth2TokenResponse("slow", 3600, null);
+			}
+			return TOKEN_RESPONSE;
+		});
+
+		assertThat(response).isSameAs(TOKEN_RESPONSE);
+		assertThat(aborted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void hedging_withExhaustedExecutor_sendsRequestWithoutHedging() throws Exception {
+		ResilientRequestExecutor cut = new ResilientRequestExecutor(ResilienceConfiguration.builder()
+				.hedging(true)
+				.executor(runnable -> {
+					throw new RejectedExecutionException("exhausted");
+				})
+				.build(), sleeps::add);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThat(cut.execute(GRANT_TYPE_CLIENT_CREDENTIALS, () -> {
+			attempts.incrementAndGet();
+			return TOKEN_RESPONSE;
+		})).isSameAs(TOKEN_RESPONSE);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void latencyTracker_percentile() {
+		ResilientRequestExecutor.LatencyTracker tracker = new ResilientRequestExecutor.LatencyTracker();
+		assertThat(tracker.percentile(0.95)).isNull();
+
+		for (int i = 1; i <= 100; i++) {
+			tracker.record(i);
+		}
+
+		assertThat(tracker.percentile(0.95)).isEqualTo(95L);
+		assertThat(tracker.percentile(1)).isEqualTo(100L);
+	}
+
+	@Test
+	public void exception_parsesRetryAfterDate() {
+		String date = DateTimeFormatter.RFC_1123_DATE_TIME
+				.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+
+		Duration retryAfter = OAuth2ServiceException.builder("error").withRetryAfter(date).build().getRetryAfter();
+
+		assertThat(retryAfter.getSeconds()).isCloseTo(30L, within(2L));
+		assertThat(OAuth2ServiceException.builder("error").withRetryAfter("invalid").build().getRetryAfter())
+				.isNull();
+	}
+
+	@Test
+	public void exception_isRetryable() {
+		assertThat(failure(500, null).isRetryable()).isTrue();
+		assertThat(failure(501, null).isRetryable()).isFalse();
+		assertThat(failure(429, null).isRetryable()).isTrue();
+		assertThat(failure(401, null).isRetryable()).isFalse();
+		assertThat(new OAuth2ServiceException("error").isRetryable()).isFalse();
+		assertThat(OAuth2ServiceException.builder("error").withConnectFailure().build().isRetryable()).isTrue();
+	}
+
+	private static void sleepQuietly(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static OAuth2ServiceException failure(int statusCode, String retryAfter) {
+		return OAuth2ServiceException.builder("error")
+				.withStatusCode(statusCode)
+				.withRetryAfter(retryAfter)
+				.build();
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.client;
+
+import com.sap.cloud.security.config.ClientCredentials;
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.tokenflows.TokenCacheConfiguration;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class WebClientOAuth2TokenServiceTest {
+
+	private static final URI TOKEN_ENDPOINT_URI = URI.create("https://subdomain.myauth.server.com/oauth/token");
+	private static final ClientIdentity CLIENT_IDENTITY = new ClientCredentials("clientId", "clientSecret");
+
+	private final AtomicReference<ClientRequest> request = new AtomicReference<>();
+
+	@Test
+	public void initialize_throwsIfWebClientIsNull() {
+		assertThatThrownBy(() -> new WebClientOAuth2TokenService(null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void initialize_throwsIfCacheConfigurationIsNull() {
+		assertThatThrownBy(() -> new WebClientOAuth2TokenService(WebClient.create(), null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void retrieveAccessTokenViaClientCredentialsGrant() {
+		WebClientOAuth2TokenService cut = new WebClientOAuth2TokenService(respondWith(HttpStatus.OK,
+				"{\"access_token\":\"abc123\",\"token_type\":\"bearer\",\"expires_in\":43199}"));
+
+		OAuth2TokenResponse response = cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				CLIENT_IDENTITY, "zone-id", null, null, false).block();
+
+		assertThat(response.getAccessToken()).isEqualTo("abc123");
+		assertThat(response.getTokenType()).isEqualTo("bearer");
+		assertThat(response.getRefreshToken()).isNull();
+		assertThat(request.get().method()).isEqualTo(HttpMethod.POST);
+		assertThat(request.get().url()).isEqualTo(TOKEN_ENDPOINT_URI);
+		assertThat(request.get().headers().getFirst("X-zid")).isEqualTo("zone-id");
+		assertThat(request.get().headers().getFirst("User-Agent")).isNotNull();
+	}
+
+	@Test
+	public void retrieveAccessToken_servedFromCache() {
+		WebClientOAuth2TokenService cut = new WebClientOAuth2TokenService(respondWith(HttpStatus.OK,
+				"{\"access_token\":\"abc123\",\"expires_in\":43199}"));
+
+		OAuth2TokenResponse first = cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				CLIENT_IDENTITY, null, null, null, false).block();
+		request.set(null);
+		OAuth2TokenResponse second = cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				CLIENT_IDENTITY, null, null, null, false).block();
+
+		assertThat(second).isSameAs(first);
+		assertThat(request.get()).isNull();
+	}
+
+	@Test
+	public void retrieveAccessToken_errorStatus_throwsOAuth2ServiceException() {
+		WebClientOAuth2TokenService cut = new WebClientOAuth2TokenService(
+				respondWith(HttpStatus.UNAUTHORIZED, "{\"error\":\"unauthorized\"}"),
+				TokenCacheConfiguration.cacheDisabled());
+
+		Throwable error = catchThrowable(() -> cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				CLIENT_IDENTITY, null, null, null, false).block());
+
+		assertThat(error).hasCauseInstanceOf(OAuth2ServiceException.class);
+		OAuth2ServiceException cause = (OAuth2ServiceException) error.getCause();
+		assertThat(cause.getHttpStatusCode()).isEqualTo(401);
+		assertThat(cause).hasMessageContaining("Call to XSUAA was not successful");
+	}
+
+	@Test
+	public void retrieveAccessToken_invalidResponse_throwsOAuth2ServiceException() {
+		WebClientOAuth2TokenService cut = new WebClientOAuth2TokenService(respondWith(HttpStatus.OK, "<html/>"),
+				TokenCacheConfiguration.cacheDisabled());
+
+		Throwable error = catchThrowable(() -> cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT_URI,
+				CLIENT_IDENTITY, null, null, null, false).block());
+
+		assertThat(error).hasCauseInstanceOf(OAuth2ServiceException.class);
+		assertThat(error.getCause()).hasMessageContaining("Cannot parse response from XSUAA");
+	}
+
+	private WebClient respondWith(HttpStatus status, String body) {
+		return WebClient.builder().exchangeFunction(clientRequest -> {
+			request.set(clientRequest);
+			return Mono.just(ClientResponse.create(status)
+					.header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+					.body(body)
+					.build());
+		}).build();
+	}
+}
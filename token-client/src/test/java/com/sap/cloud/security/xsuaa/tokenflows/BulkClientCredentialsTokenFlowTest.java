@@ -0,0 +1,149 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientCredentials;
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
+import com.sap.cloud.security.xsuaa.client.XsuaaDefaultEndpoints;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sap.cloud.security.xsuaa.tokenflows.TestConstants.TOKEN_ENDPOINT_URI;
+import static com.sap.cloud.security.xsuaa.tokenflows.TestConstants.XSUAA_BASE_URI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkClientCredentialsTokenFlowTest {
+
+	@Mock
+	private OAuth2TokenService mockTokenService;
+
+	private ClientIdentity clientIdentity;
+	private BulkClientCredentialsTokenFlow cut;
+	private OAuth2ServiceEndpointsProvider endpointsProvider;
+
+	@Before
+	public void setup() {
+		OAuth2ServiceConfiguration oAuth2ServiceConfiguration = Mockito.mock(OAuth2ServiceConfiguration.class);
+		Mockito.when(oAuth2ServiceConfiguration.getUrl()).thenReturn(XSUAA_BASE_URI);
+
+		this.clientIdentity = new ClientCredentials("clientId", "clientSecret");
+		this.endpointsProvider = new XsuaaDefaultEndpoints(oAuth2ServiceConfiguration);
+		this.cut = new BulkClientCredentialsTokenFlow(mockTokenService, endpointsProvider, clientIdentity);
+	}
+
+	@Test
+	public void constructor_throwsOnNullValues() {
+		assertThatThrownBy(() -> new BulkClientCredentialsTokenFlow(null, endpointsProvider, clientIdentity))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("OAuth2TokenService");
+		assertThatThrownBy(() -> new BulkClientCredentialsTokenFlow(mockTokenService, null, clientIdentity))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("OAuth2ServiceEndpointsProvider");
+		assertThatThrownBy(() -> new BulkClientCredentialsTokenFlow(mockTokenService, endpointsProvider, null))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("ClientIdentity");
+	}
+
+	@Test
+	public void parallelism_mustBePositive() {
+		assertThatThrownBy(() -> cut.parallelism(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void execute_withoutTenants_returnsEmptyMap() {
+		assertThat(cut.execute()).isEmpty();
+		verifyNoInteractions(mockTokenService);
+	}
+
+	@Test
+	public void execute_requestsTokenPerSubdomainAndZoneId() throws OAuth2ServiceException {
+		OAuth2TokenResponse tokenResponse = new OAuth2TokenResponse("token", 4223, null);
+		when(mockTokenService.retrieveAccessTokenViaClientCredentialsGrant(eq(TOKEN_ENDPOINT_URI),
+				eq(clientIdentity), any(), any(), anyMap(), eq(true))).thenReturn(tokenResponse);
+
+		Map<String, TokenFlowResult> results = cut.subdomains(Arrays.asList("tenant-1", "tenant-2"))
+				.zoneIds(Collections.singletonList("zone-3"))
+				.disableCache(true)
+				.execute();
+
+		assertThat(results).containsOnlyKeys("tenant-1", "tenant-2", "zone-3");
+		assertThat(results.values()).allMatch(TokenFlowResult::isSuccessful);
+		assertThat(results.get("tenant-1").getTokenResponse()).isSameAs(tokenResponse);
+		verify(mockTokenService).retrieveAccessTokenViaClientCredentialsGrant(eq(TOKEN_ENDPOINT_URI),
+				eq(clientIdentity), isNull(), eq("tenant-1"), anyMap(), eq(true));
+		verify(mockTokenService).retrieveAccessTokenViaClientCredentialsGrant(eq(TOKEN_ENDPOINT_URI),
+				eq(clientIdentity), isNull(), eq("tenant-2"), anyMap(), eq(true));
+		verify(mockTokenService).retrieveAccessTokenViaClientCredentialsGrant(eq(TOKEN_ENDPOINT_URI),
+				eq(clientIdentity), eq("zone-3"), isNull(), anyMap(), eq(true));
+	}
+
+	@Test
+	public void execute_throwsOnTenantGivenAsSubdomainAndZoneId() {
+		cut.subdomains(Arrays.asList("tenant-1", "tenant-2")).zoneIds(Collections.singletonList("tenant-2"));
+
+		assertThatThrownBy(() -> cut.execute()).isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("tenant-2");
+		verifyNoInteractions(mockTokenService);
+	}
+
+	@Test
+	public void execute_reportsPartialFailures() throws OAuth2ServiceException {
+		OAuth2TokenResponse tokenResponse = new OAuth2TokenResponse("token", 4223, null);
+		when(mockTokenService.retrieveAccessTokenViaClientCredentialsGrant(any(), any(), any(), eq("ok"), any(),
+				anyBoolean())).thenReturn(tokenResponse);
+		when(mockTokenService.retrieveAccessTokenViaClientCredentialsGrant(any(), any(), any(), eq("broken"), any(),
+				anyBoolean())).thenThrow(new OAuth2ServiceException("exception executed REST call"));
+
+		Map<String, TokenFlowResult> results = cut.subdomains(Arrays.asList("broken", "ok")).execute();
+
+		assertThat(results.get("ok").isSuccessful()).isTrue();
+		assertThat(results.get("broken").isSuccessful()).isFalse();
+		assertThat(results.get("broken").getTokenResponse()).isNull();
+		assertThat(results.get("broken").getException())
+				.hasMessageContaining("exception executed REST call");
+	}
+
+	@Test
+	public void execute_respectsParallelism() throws OAuth2ServiceException {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		when(mockTokenService.retrieveAccessTokenViaClientCredentialsGrant(any(), any(), any(), any(), any(),
+				anyBoolean())).thenAnswer(invocation -> {
+					maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+					Thread.sleep(10);
+					inFlight.decrementAndGet();
+					return new OAuth2TokenResponse("token", 4223, null);
+				});
+
+		Map<String, TokenFlowResult> results = cut
+				.subdomains(Arrays.asList("t1", "t2", "t3", "t4", "t5", "t6", "t7", "t8"))
+				.parallelism(2)
+				.executor(executor)
+				.execute();
+		executor.shutdown();
+
+		assertThat(results).hasSize(8);
+		assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.tokenflows;
+
+import com.sap.cloud.security.config.ClientCredentials;
+import com.sap.cloud.security.config.ClientIdentity;
+import com.sap.cloud.security.xsuaa.client.*;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static com.sap.cloud.security.xsuaa.tokenflows.TestConstants.XSUAA_BASE_URI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReactiveXsuaaTokenFlowsTest {
+
+	private static final OAuth2TokenResponse TOKEN_RESPONSE = new OAuth2TokenResponse("accessToken", 3600,
+			"refreshToken");
+	private final ClientIdentity clientIdentity = new ClientCredentials("clientId", "clientSecret");
+	private ReactiveOAuth2TokenService tokenServiceMock;
+	private XsuaaDefaultEndpoints endpointsProvider;
+	private ReactiveXsuaaTokenFlows cut;
+
+	@Before
+	public void setup() {
+		tokenServiceMock = mock(ReactiveOAuth2TokenService.class);
+		endpointsProvider = new XsuaaDefaultEndpoints(XSUAA_BASE_URI.toString(), null);
+		cut = new ReactiveXsuaaTokenFlows(tokenServiceMock, endpointsProvider, clientIdentity);
+	}
+
+	@Test
+	public void constructor_throwsOnNullValues() {
+		assertThatThrownBy(() -> new ReactiveXsuaaTokenFlows(null, endpointsProvider, clientIdentity))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("ReactiveOAuth2TokenService");
+		assertThatThrownBy(() -> new ReactiveXsuaaTokenFlows(tokenServiceMock, null, clientIdentity))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("OAuth2ServiceEndpointsProvider");
+		assertThatThrownBy(() -> new ReactiveXsuaaTokenFlows(tokenServiceMock, endpointsProvider, null))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("ClientIdentity");
+	}
+
+	@Test
+	public void clientCredentialsTokenFlow_execute() {
+		when(tokenServiceMock.retrieveAccessTokenViaClientCredentialsGrant(any(), any(), any(), any(), any(),
+				anyBoolean())).thenReturn(Mono.just(TOKEN_RESPONSE));
+
+		OAuth2TokenResponse response = cut.clientCredentialsTokenFlow().subdomain("tenant").scopes("read", "write")
+				.execute().block();
+
+		assertThat(response).isSameAs(TOKEN_RESPONSE);
+		verify(tokenServiceMock).retrieveAccessTokenViaClientCredentialsGrant(
+				eq(endpointsProvider.getTokenEndpoint()), eq(clientIdentity), isNull(), eq("tenant"),
+				argThat((Map<String, String> parameters) -> "read write".equals(parameters.get("scope"))),
+				eq(false));
+	}
+
+	@Test
+	public void userTokenFlow_withoutToken_signalsError() {
+		assertThatThrownBy(() -> cut.userTokenFlow().execute().block())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("User token not set");
+		verifyNoInteractions(tokenServiceMock);
+	}
+
+	@Test
+	public void userTokenFlow_serviceError_signalsTokenFlowException() {
+		when(tokenServiceMock.retrieveAccessTokenViaJwtBearerTokenGrant(any(), any(), any(), isNull(), any(),
+				anyBoolean())).thenReturn(Mono.error(new OAuth2ServiceException("exception executed REST call")));
+
+		assertThat(Exceptions.unwrap(catchThrowable(() -> cut.userTokenFlow().token("token").execute().block())))
+				.isInstanceOf(TokenFlowException.class)
+				.hasMessageContaining("exception executed REST call");
+	}
+
+	@Test
+	public void refreshTokenFlow_execute() {
+		when(tokenServiceMock.retrieveAccessTokenViaRefreshToken(any(), any(), eq("refreshToken"), any(),
+				anyBoolean())).thenReturn(Mono.just(TOKEN_RESPONSE));
+
+		assertThat(cut.refreshTokenFlow().refreshToken("refreshToken").execute().block()).isSameAs(TOKEN_RESPONSE);
+	}
+
+	@Test
+	public void passwordTokenFlow_withoutUsername_signalsError() {
+		assertThatThrownBy(() -> cut.passwordTokenFlow().password("password").execute().block())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Username");
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * SPDX-FileCopyrightText: 2018-2022 SAP SE or an SAP affiliate company and Cloud Security Client Java contributors
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.sap.cloud.security.xsuaa.util;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class HttpClientUtilTest {
+
+	@Test
+	public void extractResponseBodyAsString_keepsBodyUnchanged() throws IOException {
+		String body = "{\n\"key\": \"välue\"\n}\n";
+		HttpResponse response = HttpClientTestFactory.createHttpResponse(body);
+
+		assertThat(HttpClientUtil.extractResponseBodyAsString(response)).isEqualTo(body);
+	}
+
+	@Test
+	public void extractResponseBodyAsString_withoutEntity() throws IOException {
+		HttpResponse response = Mockito.mock(HttpResponse.class);
+
+		assertThat(HttpClientUtil.extractResponseBodyAsString(response)).isEmpty();
+	}
+
+	@Test
+	public void extractResponseBodyAsString_failsOnTooLargeContentLength() {
+		HttpResponse response = Mockito.mock(HttpResponse.class);
+		when(response.getEntity()).thenReturn(new ByteArrayEntity(new byte[HttpClientUtil.MAX_RESPONSE_BODY_SIZE + 1]));
+
+		assertThatThrownBy(() -> HttpClientUtil.extractResponseBodyAsString(response))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("exceeds the limit");
+	}
+
+	@Test
+	public void extractResponseBodyAsString_failsOnTooLargeStreamWithoutContentLength() {
+		byte[] content = new byte[HttpClientUtil.MAX_RESPONSE_BODY_SIZE + 1];
+		Arrays.fill(content, (byte) 'a');
+		HttpResponse response = Mockito.mock(HttpResponse.class);
+		when(response.getEntity()).thenReturn(new InputStreamEntity(new ByteArrayInputStream(content)));
+
+		assertThatThrownBy(() -> HttpClientUtil.extractResponseBodyAsString(response))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("exceeds the limit");
+	}
+
+	@Test
+	public void extractResponseBodyAsJson() throws IOException {
+		HttpResponse response = Mockito.mock(HttpResponse.class);
+		when(response.getEntity()).thenReturn(new ByteArrayEntity(
+				"{\"access_token\": \"tökén\", \"expires_in\": 43199}".getBytes(StandardCharsets.UTF_8),
+				ContentType.APPLICATION_JSON));
+
+		JSONObject json = HttpClientUtil.extractResponseBodyAsJson(response);
+
+		assertThat(json.getString("access_token")).isEqualTo("tökén");
+		assertThat(json.getLong("expires_in")).isEqualTo(43199L);
+	}
+
+	@Test
+	public void getUserAgent_isCached() {
+		assertThat(HttpClientUtil.getUserAgent()).startsWith("token-client/")
+				.isSameAs(HttpClientUtil.getUserAgent());
+	}
+}